@@ -3,18 +3,46 @@ package org.molgenis.vibe;
 import org.apache.jena.ext.com.google.common.base.Stopwatch;
 import org.molgenis.vibe.formats.GeneDiseaseCollection;
 import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.index_processing.GeneDiseaseIndex;
+import org.molgenis.vibe.index_processing.GeneDiseaseIndexWriter;
+import org.molgenis.vibe.io.cache.GeneDiseaseCollectionCache;
+import org.molgenis.vibe.io.input.DatasetVersion;
+import org.molgenis.vibe.io.input.GeneDiseaseDataset;
+import org.molgenis.vibe.io.input.InMemoryDbReader;
 import org.molgenis.vibe.io.input.OntologyModelFilesReader;
+import org.molgenis.vibe.io.input.OntologyModelReader;
+import org.molgenis.vibe.io.input.PhenotypeGraphSnapshotReader;
+import org.molgenis.vibe.io.output.PhenotypeGraphSnapshotWriter;
 import org.molgenis.vibe.io.options_digestion.CommandLineOptionsParser;
 import org.molgenis.vibe.io.options_digestion.OptionsParser;
 import org.molgenis.vibe.io.output.format.OutputFormatWriter;
 import org.molgenis.vibe.io.input.ModelReader;
 import org.molgenis.vibe.io.input.TripleStoreDbReader;
+import org.molgenis.vibe.io.output.target.FileOutputWriter;
+import org.molgenis.vibe.io.output.target.OutputWriter;
+import org.molgenis.vibe.io.server.PrioritizationServer;
+import org.molgenis.vibe.metrics.MetricsReport;
+import org.molgenis.vibe.metrics.Stage;
+import org.molgenis.vibe.metrics.StageRecorder;
 import org.molgenis.vibe.ontology_processing.PhenotypesRetriever;
+import org.molgenis.vibe.ontology_processing.PhenotypesRetrieverFactory;
 import org.molgenis.vibe.query_output_digestion.prioritization.gene.GenePrioritizer;
-import org.molgenis.vibe.tdb_processing.GenesForPhenotypeRetriever;
+import org.molgenis.vibe.tdb_processing.PhenotypeQueryCache;
+import org.molgenis.vibe.tdb_processing.PhenotypeQueryPlanner;
+import org.molgenis.vibe.tdb_processing.RetrievalSettings;
+import org.molgenis.vibe.tdb_processing.SourceRegistry;
+import org.molgenis.vibe.tdb_processing.TripleStoreGeneDiseaseDataset;
+import org.molgenis.vibe.tdb_processing.query_runner.QueryProfiler;
 
 import java.io.IOException;
-import java.util.Set;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Describes what the application should do.
@@ -28,84 +56,475 @@ public enum RunMode {
     }, GENES_FOR_PHENOTYPES_WITH_ASSOCIATED_PHENOTYPES("Retrieves genes for input phenotypes and phenotypes associated to input phenotypes.") {
         @Override
         protected void runMode() throws IOException {
-            OntologyModelFilesReader ontologyReader = loadPhenotypeOntology();
-            PhenotypesRetriever hpoRetriever = retrieveAssociatedPhenotypes(ontologyReader);
-            ModelReader disgenetReader = loadDisgenetDatabase();
-            GeneDiseaseCollection geneDiseaseCollection = retrieveDisgenetData(disgenetReader, hpoRetriever.getPhenotypeNetworkCollection().getPhenotypes());
+            GeneDiseaseCollection geneDiseaseCollection = readResultCache(getAppOptions().getPhenotypes(), getStageRecorder(""));
+            if(geneDiseaseCollection == null) {
+                OntologyModelReader ontologyReader = loadPhenotypeOntology();
+                PhenotypesRetriever hpoRetriever = retrieveAssociatedPhenotypes(ontologyReader);
+                GeneDiseaseDataset disgenetDataset = loadDisgenetDatabase();
+                geneDiseaseCollection = retrieveDisgenetData(disgenetDataset, hpoRetriever.getPhenotypeNetworkCollection().getPhenotypes());
+                writeResultCache(getAppOptions().getPhenotypes(), geneDiseaseCollection);
+            } else {
+                getAppOptions().printVerbose("# Retrieved data from result cache.");
+            }
             GenePrioritizer prioritizer = orderGenes(geneDiseaseCollection);
             writePrioritizedGenesOutput(geneDiseaseCollection, prioritizer);
         }
     }, GENES_FOR_PHENOTYPES("Retrieves genes for input phenotypes.") {
         @Override
         protected void runMode() throws Exception {
-            ModelReader disgenetReader = loadDisgenetDatabase();
-            GeneDiseaseCollection geneDiseaseCollection = retrieveDisgenetData(disgenetReader, getAppOptions().getPhenotypes());
+            GeneDiseaseCollection geneDiseaseCollection = readResultCache(getAppOptions().getPhenotypes(), getStageRecorder(""));
+            if(geneDiseaseCollection == null) {
+                GeneDiseaseDataset disgenetDataset = loadDisgenetDatabase();
+                geneDiseaseCollection = retrieveDisgenetData(disgenetDataset, getAppOptions().getPhenotypes());
+                writeResultCache(getAppOptions().getPhenotypes(), geneDiseaseCollection);
+            } else {
+                getAppOptions().printVerbose("# Retrieved data from result cache.");
+            }
             GenePrioritizer prioritizer = orderGenes(geneDiseaseCollection);
             writePrioritizedGenesOutput(geneDiseaseCollection, prioritizer);
         }
+    }, BATCH("Retrieves genes for the phenotypes of each sample from a manifest file.") {
+        @Override
+        protected void runMode() throws Exception {
+            Map<String, Path> outputFiles = prepareBatchOutputFiles();
+
+            // The phenotype ontology is only needed when associated phenotypes should be retrieved. When using a result
+            // cache, the datasets are only loaded once the first sample is not present in the cache.
+            LazyLoader<OntologyModelReader> ontologyReader = new LazyLoader<>(() ->
+                    getAppOptions().getPhenotypesRetrieverFactory() == null ? null : loadPhenotypeOntology());
+            LazyLoader<GeneDiseaseDataset> disgenetDataset = new LazyLoader<>(this::loadDisgenetDatabase);
+            if(getAppOptions().getResultCache() == null) {
+                ontologyReader.get();
+                disgenetDataset.get();
+            }
+
+            getAppOptions().printVerbose("# Processing " + outputFiles.size() + " samples using " + getAppOptions().getThreads() + " thread(s).");
+            ExecutorService executor = Executors.newFixedThreadPool(getAppOptions().getThreads());
+            try {
+                // Each sample is processed by a worker using the shared dataset.
+                List<Future<?>> samples = new ArrayList<>();
+                for(Map.Entry<String, Set<Phenotype>> sample : getAppOptions().getSamples().entrySet()) {
+                    samples.add(executor.submit(() -> {
+                        Stopwatch sampleStopwatch = Stopwatch.createStarted();
+                        Path outputFile = outputFiles.get(sample.getKey());
+                        StageRecorder stageRecorder = getStageRecorder(sample.getKey());
+                        GeneDiseaseCollection geneDiseaseCollection = readResultCache(sample.getValue(), stageRecorder);
+                        if(geneDiseaseCollection == null) {
+                            geneDiseaseCollection = retrieveGeneDiseaseCollection(ontologyReader.get(), disgenetDataset.get(),
+                                    sample.getValue(), stageRecorder);
+                            writeResultCache(sample.getValue(), geneDiseaseCollection);
+                        }
+                        prioritizeGenes(geneDiseaseCollection, new FileOutputWriter(outputFile), stageRecorder);
+                        getAppOptions().printVerbose("Written sample " + sample.getKey() + " to " + outputFile + " in: " + sampleStopwatch.toString());
+                        return null;
+                    }));
+                }
+
+                // Waits for all samples to finish (stops at the first failing sample).
+                for(Future<?> sample : samples) {
+                    try {
+                        sample.get();
+                    } catch (ExecutionException e) {
+                        if(e.getCause() instanceof IOException) {
+                            throw (IOException) e.getCause();
+                        }
+                        throw e;
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            if(disgenetDataset.isLoaded()) {
+                printQueryCacheStatistics(disgenetDataset.get());
+            }
+            printElapsedTime();
+        }
+    }, SERVER("Starts a server that keeps the datasets loaded and retrieves genes for the phenotypes of each request.") {
+        @Override
+        protected void runMode() throws IOException, InterruptedException {
+            // The phenotype ontology is only needed when associated phenotypes should be retrieved.
+            OntologyModelReader ontologyReader = null;
+            if(getAppOptions().getPhenotypesRetrieverFactory() != null) {
+                ontologyReader = loadPhenotypeOntology();
+            }
+            GeneDiseaseDataset disgenetDataset = loadDisgenetDatabase();
+
+            final OntologyModelReader finalOntologyReader = ontologyReader;
+            PrioritizationServer server = new PrioritizationServer(getAppOptions().getServerPort(),
+                    getAppOptions().getThreads(), (phenotypes, outputWriter) -> {
+                        GeneDiseaseCollection geneDiseaseCollection = retrieveGeneDiseaseCollection(finalOntologyReader,
+                                disgenetDataset, phenotypes, StageRecorder.NONE);
+                        prioritizeGenes(geneDiseaseCollection, outputWriter, StageRecorder.NONE);
+                        printQueryCacheStatistics(disgenetDataset);
+                    },
+                    getAppOptions()::printVerbose);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                disgenetDataset.close();
+            }));
+            server.start();
+            System.out.println("Listening for requests on: " + server.getUrl());
+            // Only returns after the server is stopped (so nothing is run afterwards while requests are still handled).
+            server.awaitStop();
+        }
+    }, CREATE_GENE_DISEASE_INDEX("Creates a gene-disease index from the main dataset.") {
+        @Override
+        protected void runMode() throws IOException {
+            getAppOptions().printVerbose("# Preparing main dataset.");
+            ModelReader disgenetReader = new TripleStoreDbReader(getAppOptions().getDatabase());
+            printElapsedTime();
+
+            getAppOptions().printVerbose("# Writing gene-disease index to " + getAppOptions().getGeneDiseaseIndexOutput());
+            try {
+                new GeneDiseaseIndexWriter(disgenetReader, getAppOptions().getGeneDiseaseIndexOutput()).run();
+            } finally {
+                disgenetReader.close();
+            }
+            printElapsedTime();
+        }
     };
 
-    protected OntologyModelFilesReader loadPhenotypeOntology() {
+    /**
+     * Loads the phenotype ontology. If a snapshot is given, this is loaded instead (and created if it is missing or
+     * belongs to a different ontology file).
+     * @return the phenotype ontology
+     * @throws IOException if the snapshot could not be read or written
+     */
+    protected OntologyModelReader loadPhenotypeOntology() throws IOException {
         getAppOptions().printVerbose("# Preparing HPO dataset.");
-        OntologyModelFilesReader ontologyReader = new OntologyModelFilesReader(getAppOptions().getHpoOntology().toString());
+        long start = System.nanoTime();
+        OntologyModelReader ontologyReader;
+        Path snapshot = getAppOptions().getHpoSnapshot();
+        if(snapshot == null) {
+            ontologyReader = new OntologyModelFilesReader(getAppOptions().getHpoOntology().toString());
+        } else {
+            byte[] checksum = PhenotypeGraphSnapshotReader.calculateChecksum(getAppOptions().getHpoOntology());
+            if(Files.exists(snapshot) && Arrays.equals(PhenotypeGraphSnapshotReader.readChecksum(snapshot), checksum)) {
+                ontologyReader = new PhenotypeGraphSnapshotReader(snapshot);
+            } else {
+                getAppOptions().printVerbose("Creating HPO snapshot: " + snapshot);
+                ontologyReader = new OntologyModelFilesReader(getAppOptions().getHpoOntology().toString());
+                new PhenotypeGraphSnapshotWriter(ontologyReader.getPhenotypeGraph(), checksum).write(snapshot);
+            }
+        }
+        getStageRecorder("").record(Stage.ONTOLOGY_LOAD, System.nanoTime() - start, StageRecorder.NOT_APPLICABLE,
+                ontologyReader.getPhenotypeGraph().size());
         printElapsedTime();
 
         return ontologyReader;
     }
 
-    protected PhenotypesRetriever retrieveAssociatedPhenotypes(OntologyModelFilesReader ontologyReader) {
+    protected PhenotypesRetriever retrieveAssociatedPhenotypes(OntologyModelReader ontologyReader) {
         getAppOptions().printVerbose("# " + getAppOptions().getPhenotypesRetrieverFactory().getDescription());
+        long start = System.nanoTime();
         PhenotypesRetriever hpoRetriever = getAppOptions().getPhenotypesRetrieverFactory().create(
-                ontologyReader.getModel(), getAppOptions().getPhenotypes(), getAppOptions().getOntologyMaxDistance()
+                ontologyReader.getPhenotypeGraph(), getAppOptions().getPhenotypes(), getAppOptions().getOntologyMaxDistance()
         );
         hpoRetriever.run();
+        getStageRecorder("").record(Stage.PHENOTYPE_EXPANSION, System.nanoTime() - start, StageRecorder.NOT_APPLICABLE,
+                hpoRetriever.getPhenotypeNetworkCollection().getPhenotypes().size());
         getAppOptions().printVerbose("Retrieved number of phenotypes: " + hpoRetriever.getPhenotypeNetworkCollection().getPhenotypes().size());
         printElapsedTime();
 
         return hpoRetriever;
     }
 
-    protected ModelReader loadDisgenetDatabase() throws IOException {
+    /**
+     * Loads the gene-disease index if one was given, otherwise the TDB.
+     * @return the main dataset
+     * @throws IOException if the main dataset could not be loaded
+     */
+    protected GeneDiseaseDataset loadDisgenetDatabase() throws IOException {
         getAppOptions().printVerbose("# Preparing main dataset.");
-        ModelReader disgenetReader = new TripleStoreDbReader(getAppOptions().getDatabase());
+        long start = System.nanoTime();
+        long loadedTriples = StageRecorder.NOT_APPLICABLE;
+        Long inMemoryHeapBytes = null;
+        long heapMeasurementNanos = 0;
+        TripleStoreDbReader warmUpReader = null;
+        GeneDiseaseDataset disgenetDataset;
+        if(getAppOptions().getGeneDiseaseIndex() != null) {
+            disgenetDataset = new GeneDiseaseIndex(getAppOptions().getGeneDiseaseIndex());
+        } else {
+            PhenotypeQueryCache cache = null;
+            if(getAppOptions().getQueryCacheSize() != null) {
+                cache = new PhenotypeQueryCache(getAppOptions().getQueryCacheSize());
+            }
+            PhenotypeQueryPlanner planner = null;
+            if(getAppOptions().getQueryChunkSize() != null) {
+                planner = new PhenotypeQueryPlanner(getAppOptions().getQueryChunkSize(), getAppOptions().getQueryThreads());
+            }
+            QueryProfiler profiler = null;
+            if(getAppOptions().getQueryProfile() != null) {
+                profiler = new QueryProfiler(getAppOptions().getQueryProfile());
+            }
+            ModelReader disgenetReader;
+            if(getAppOptions().isInMemory()) {
+                long heapMeasurementStart = System.nanoTime();
+                long heapBefore = measureUsedHeap();
+                heapMeasurementNanos = System.nanoTime() - heapMeasurementStart;
+
+                InMemoryDbReader inMemoryReader = new InMemoryDbReader(getAppOptions().getDatabase(),
+                        message -> getAppOptions().printVerbose("# " + message));
+                loadedTriples = inMemoryReader.getTriplesCount();
+                disgenetReader = inMemoryReader;
+
+                heapMeasurementStart = System.nanoTime();
+                inMemoryHeapBytes = measureUsedHeap() - heapBefore;
+                heapMeasurementNanos += System.nanoTime() - heapMeasurementStart;
+                getAppOptions().printVerbose(String.format("# The in-memory dataset uses %.1f MB of heap.",
+                        inMemoryHeapBytes / (1024.0 * 1024)));
+            } else {
+                TripleStoreDbReader tdbReader = new TripleStoreDbReader(getAppOptions().getDatabase());
+                if(getAppOptions().isWarmUp()) {
+                    warmUpReader = tdbReader;
+                }
+                disgenetReader = tdbReader;
+            }
+            if(getAppOptions().getResultCache() != null) {
+                // Stores the sources next to the cached results, so later runs do not need to query them.
+                ModelReader sourcesReader = disgenetReader;
+                sourcesReader.calculateRead(() -> SourceRegistry.getSources(sourcesReader,
+                        getAppOptions().getResultCache(), message -> getAppOptions().printVerbose("# " + message)));
+            }
+            disgenetDataset = new TripleStoreGeneDiseaseDataset(disgenetReader, RetrievalSettings.builder()
+                    .cache(cache).planner(planner).profiler(profiler).options(getAppOptions().getGdaQueryOptions())
+                    .build());
+        }
+        // The garbage collections needed for measuring the heap are not part of loading the dataset.
+        getStageRecorder("").record(Stage.DATASET_LOAD, System.nanoTime() - start - heapMeasurementNanos, loadedTriples,
+                StageRecorder.NOT_APPLICABLE);
+        if(inMemoryHeapBytes != null) {
+            getStageRecorder("").record(Stage.DATASET_HEAP, heapMeasurementNanos, inMemoryHeapBytes, loadedTriples);
+        }
         printElapsedTime();
 
-        return disgenetReader;
+        if(warmUpReader != null) {
+            warmUpDisgenetDatabase(warmUpReader);
+        }
+
+        return disgenetDataset;
     }
 
-    protected GeneDiseaseCollection retrieveDisgenetData(ModelReader disgenetReader, Set<Phenotype> phenotypes) {
+    /**
+     * Requests a garbage collection before measuring the used heap, so that the difference between 2 measurements
+     * approximates the size of the objects created (and still referenced) in between.
+     * @return the used heap size in bytes
+     */
+    private long measureUsedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Reads the files of the TDB so that they are cached by the operating system before the first query.
+     * @param tdbReader the TDB to read the files from
+     * @throws IOException if the TDB files could not be read
+     */
+    private void warmUpDisgenetDatabase(TripleStoreDbReader tdbReader) throws IOException {
+        getAppOptions().printVerbose("# Warming up main dataset.");
+        long start = System.nanoTime();
+        TripleStoreDbReader.WarmUpSummary summary = tdbReader.warmUp();
+        getStageRecorder("").record(Stage.DATASET_WARM_UP, System.nanoTime() - start, summary.getBytes(),
+                summary.getFiles());
+        getAppOptions().printVerbose(String.format("# Read %.1f MB from %d files.", summary.getBytes() / (1024.0 * 1024),
+                summary.getFiles()));
+        printElapsedTime();
+    }
+
+    protected GeneDiseaseCollection retrieveDisgenetData(GeneDiseaseDataset disgenetDataset, Set<Phenotype> phenotypes) {
         getAppOptions().printVerbose("# Retrieving data from main dataset.");
-        GenesForPhenotypeRetriever genesForPhenotypeRetriever = new GenesForPhenotypeRetriever(
-                disgenetReader, phenotypes
-        );
-        genesForPhenotypeRetriever.run();
+        GeneDiseaseCollection geneDiseaseCollection = disgenetDataset.retrieve(phenotypes, getStageRecorder(""));
         printElapsedTime();
 
-        return genesForPhenotypeRetriever.getGeneDiseaseCollection();
+        return geneDiseaseCollection;
     }
 
     protected GenePrioritizer orderGenes(GeneDiseaseCollection geneDiseaseCollection) {
         getAppOptions().printVerbose("# Ordering genes based on priority.");
-        GenePrioritizer prioritizer = getAppOptions().getGenePrioritizerFactory().create(geneDiseaseCollection);
+        long start = System.nanoTime();
+        GenePrioritizer prioritizer = createGenePrioritizer(geneDiseaseCollection);
         prioritizer.run();
+        getStageRecorder("").record(Stage.PRIORITIZATION, System.nanoTime() - start, StageRecorder.NOT_APPLICABLE,
+                prioritizer.getPriority().size());
         printElapsedTime();
 
         return prioritizer;
     }
 
+    /**
+     * @param geneDiseaseCollection the retrieved gene-disease combinations
+     * @return a {@link GenePrioritizer} that only keeps the maximum number of genes (if set)
+     */
+    private GenePrioritizer createGenePrioritizer(GeneDiseaseCollection geneDiseaseCollection) {
+        if(getAppOptions().getMaxGenes() == null) {
+            return getAppOptions().getGenePrioritizerFactory().create(geneDiseaseCollection);
+        }
+        return getAppOptions().getGenePrioritizerFactory().create(geneDiseaseCollection, getAppOptions().getMaxGenes());
+    }
+
     protected void writePrioritizedGenesOutput(GeneDiseaseCollection geneDiseaseCollection, GenePrioritizer prioritizer) throws IOException {
         getAppOptions().printVerbose("# Writing genes to " + getAppOptions().getOutputWriter().target());
+        long start = System.nanoTime();
         OutputFormatWriter outputFormatWriter = getAppOptions().getGenePrioritizedOutputFormatWriterFactory().create(getAppOptions().getOutputWriter(), geneDiseaseCollection, prioritizer);
         outputFormatWriter.run();
+        getStageRecorder("").record(Stage.OUTPUT, System.nanoTime() - start, prioritizer.getPriority().size(),
+                StageRecorder.NOT_APPLICABLE);
         printElapsedTime();
     }
 
+    /**
+     * Prints the {@link PhenotypeQueryCache} statistics (if a cache is used).
+     * @param disgenetDataset the main dataset
+     */
+    protected void printQueryCacheStatistics(GeneDiseaseDataset disgenetDataset) {
+        if(disgenetDataset instanceof TripleStoreGeneDiseaseDataset) {
+            PhenotypeQueryCache cache = ((TripleStoreGeneDiseaseDataset) disgenetDataset).getSettings().getCache();
+            if(cache != null) {
+                getAppOptions().printVerbose("Query cache: " + cache.getHits() + " hits, " + cache.getMisses() +
+                        " misses, " + cache.getEvictions() + " evictions (" + cache.getPhenotypesCount() +
+                        " phenotypes/" + cache.getRowsCount() + " results cached)");
+            }
+        }
+    }
+
+    /**
+     * Retrieves a {@link GeneDiseaseCollection} from the result cache.
+     * @param phenotypes the input phenotypes
+     * @param stageRecorder receives the metrics of {@link Stage#RESULT_CACHE}
+     * @return the cached {@link GeneDiseaseCollection}, or {@code null} if no result cache is used or if it does not
+     * contain {@code phenotypes}
+     * @throws IOException if the result cache could not be read
+     */
+    protected GeneDiseaseCollection readResultCache(Set<Phenotype> phenotypes, StageRecorder stageRecorder) throws IOException {
+        if(resultCache == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        GeneDiseaseCollection geneDiseaseCollection = resultCache.read(createResultCacheKey(phenotypes));
+        stageRecorder.record(Stage.RESULT_CACHE, System.nanoTime() - start, StageRecorder.NOT_APPLICABLE,
+                geneDiseaseCollection == null ? 0 : geneDiseaseCollection.size());
+        return geneDiseaseCollection;
+    }
+
+    /**
+     * Stores a {@link GeneDiseaseCollection} in the result cache (if one is used).
+     * @param phenotypes the input phenotypes
+     * @param geneDiseaseCollection the {@link GeneDiseaseCollection} retrieved for {@code phenotypes}
+     * @throws IOException if the result cache could not be written
+     */
+    protected void writeResultCache(Set<Phenotype> phenotypes, GeneDiseaseCollection geneDiseaseCollection) throws IOException {
+        if(resultCache != null) {
+            resultCache.write(createResultCacheKey(phenotypes), geneDiseaseCollection);
+        }
+    }
+
+    /**
+     * @param phenotypes the input phenotypes
+     * @return the result cache key for {@code phenotypes} using the current options
+     */
+    private String createResultCacheKey(Set<Phenotype> phenotypes) {
+        PhenotypesRetrieverFactory factory = getAppOptions().getPhenotypesRetrieverFactory();
+        return GeneDiseaseCollectionCache.createKey(datasetVersion, phenotypes, factory,
+                factory == null ? null : getAppOptions().getOntologyMaxDistance(), ontologyVersion,
+                getAppOptions().getGdaQueryOptions());
+    }
+
+    /**
+     * Creates the output directory (if needed) and defines the output file per sample for {@link #BATCH}.
+     * @return the output file per sample id
+     * @throws FileAlreadyExistsException if an output file already exists
+     * @throws IOException if the output directory could not be created
+     */
+    protected Map<String, Path> prepareBatchOutputFiles() throws IOException {
+        Files.createDirectories(getAppOptions().getOutputDirectory());
+
+        // Checks all files before processing any sample.
+        Map<String, Path> outputFiles = new LinkedHashMap<>();
+        for(String sampleId : getAppOptions().getSamples().keySet()) {
+            Path outputFile = getAppOptions().getOutputDirectory().resolve(sampleId + ".txt");
+            if(Files.exists(outputFile)) {
+                throw new FileAlreadyExistsException(outputFile + " already exists.");
+            }
+            outputFiles.put(sampleId, outputFile);
+        }
+
+        return outputFiles;
+    }
+
+    /**
+     * Retrieves the {@link GeneDiseaseCollection} for a single set of {@link Phenotype}{@code s} without any verbose
+     * output, so that it can be used repeatedly with already loaded datasets.
+     * @param ontologyReader the phenotype ontology for retrieving associated phenotypes, or {@code null} if only the
+     *                       given {@code phenotypes} should be used
+     * @param disgenetDataset the main dataset
+     * @param phenotypes the input phenotypes
+     * @param stageRecorder receives the metrics of each stage
+     * @return the {@link GeneDiseaseCollection} belonging to {@code phenotypes}
+     */
+    protected GeneDiseaseCollection retrieveGeneDiseaseCollection(OntologyModelReader ontologyReader,
+                                                                  GeneDiseaseDataset disgenetDataset,
+                                                                  Set<Phenotype> phenotypes, StageRecorder stageRecorder) {
+        Set<Phenotype> phenotypesToQuery = phenotypes;
+        long start = System.nanoTime();
+        if(ontologyReader != null) {
+            // The (shared) phenotype graph is immutable, so each thread only needs its own retriever.
+            PhenotypesRetriever hpoRetriever = getAppOptions().getPhenotypesRetrieverFactory().create(
+                    ontologyReader.getPhenotypeGraph(), phenotypes, getAppOptions().getOntologyMaxDistance()
+            );
+            hpoRetriever.run();
+            phenotypesToQuery = hpoRetriever.getPhenotypeNetworkCollection().getPhenotypes();
+            stageRecorder.record(Stage.PHENOTYPE_EXPANSION, System.nanoTime() - start, StageRecorder.NOT_APPLICABLE,
+                    phenotypesToQuery.size());
+        }
+
+        return disgenetDataset.retrieve(phenotypesToQuery, stageRecorder);
+    }
+
+    /**
+     * Prioritizes the genes of a {@link GeneDiseaseCollection} and writes them without any verbose output, so that it
+     * can be used repeatedly.
+     * @param geneDiseaseCollection the retrieved gene-disease combinations
+     * @param outputWriter where the prioritized genes should be written to
+     * @param stageRecorder receives the metrics of each stage
+     * @throws IOException if the output could not be written
+     */
+    protected void prioritizeGenes(GeneDiseaseCollection geneDiseaseCollection, OutputWriter outputWriter,
+                                   StageRecorder stageRecorder) throws IOException {
+        long start = System.nanoTime();
+        GenePrioritizer prioritizer = createGenePrioritizer(geneDiseaseCollection);
+        prioritizer.run();
+        stageRecorder.record(Stage.PRIORITIZATION, System.nanoTime() - start, StageRecorder.NOT_APPLICABLE,
+                prioritizer.getPriority().size());
+
+        start = System.nanoTime();
+        getAppOptions().getGenePrioritizedOutputFormatWriterFactory().create(outputWriter, geneDiseaseCollection, prioritizer).run();
+        stageRecorder.record(Stage.OUTPUT, System.nanoTime() - start, prioritizer.getPriority().size(),
+                StageRecorder.NOT_APPLICABLE);
+    }
+
     private OptionsParser appOptions;
 
     private String description;
 
     private Stopwatch stopwatch;
 
+    /**
+     * Collects the metrics of each stage (is {@code null} if no metrics should be collected).
+     */
+    private MetricsReport metricsReport;
+
+    /**
+     * Stores the {@link GeneDiseaseCollection} per run (is {@code null} if no result cache should be used).
+     */
+    private GeneDiseaseCollectionCache resultCache;
+
+    /**
+     * The versions of the main dataset and phenotype ontology (only set when using {@link #resultCache}).
+     */
+    private String datasetVersion;
+    private String ontologyVersion;
+
     protected OptionsParser getAppOptions() {
         return appOptions;
     }
@@ -128,13 +547,78 @@ public enum RunMode {
         setAppOptions(appOptions);
         // Prints the RunMode description if verbose.
         getAppOptions().printVerbose(getDescription());
+        // Prepares metrics collection if requested.
+        metricsReport = getAppOptions().getMetricsReport() == null ? null : new MetricsReport();
+        // Prepares the result cache if requested.
+        resultCache = null;
+        if(getAppOptions().getResultCache() != null) {
+            resultCache = new GeneDiseaseCollectionCache(getAppOptions().getResultCache(),
+                    getAppOptions().getResultCacheMaxSize() * 1024 * 1024);
+            datasetVersion = DatasetVersion.calculate(getAppOptions().getGeneDiseaseIndex() != null ?
+                    getAppOptions().getGeneDiseaseIndex() : getAppOptions().getDatabase());
+            ontologyVersion = getAppOptions().getPhenotypesRetrieverFactory() == null ? null :
+                    DatasetVersion.calculate(getAppOptions().getHpoOntology());
+        }
         // Runs mode-specific code.
         runMode();
+        // Writes the collected metrics.
+        if(metricsReport != null) {
+            metricsReport.write(getAppOptions().getMetricsReport());
+            getAppOptions().printVerbose("Written metrics to " + getAppOptions().getMetricsReport());
+        }
     }
 
     protected abstract void runMode() throws Exception;
 
+    /**
+     * @param sample the sample the metrics belong to (empty if not sample-specific)
+     * @return a {@link StageRecorder} adding to the metrics report, or {@link StageRecorder#NONE} if no metrics should be
+     * collected
+     */
+    protected StageRecorder getStageRecorder(String sample) {
+        return metricsReport == null ? StageRecorder.NONE : metricsReport.forSample(sample);
+    }
+
     protected void printElapsedTime() {
         getAppOptions().printVerbose("Elapsed time: " + stopwatch.toString());
     }
+
+    /**
+     * Loads a dataset.
+     * @param <T> the type of the dataset
+     */
+    @FunctionalInterface
+    protected interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    /**
+     * Loads a dataset on first usage (at most once, even when used by multiple threads).
+     * @param <T> the type of the dataset
+     */
+    protected static class LazyLoader<T> {
+        private Loader<T> loader;
+        private boolean loaded = false;
+        private T dataset;
+
+        LazyLoader(Loader<T> loader) {
+            this.loader = loader;
+        }
+
+        /**
+         * @return the dataset (loads it if this is the first call)
+         * @throws IOException if the dataset could not be loaded
+         */
+        synchronized T get() throws IOException {
+            if(!loaded) {
+                dataset = loader.load();
+                loaded = true;
+            }
+            return dataset;
+        }
+
+        synchronized boolean isLoaded() {
+            return loaded;
+        }
+    }
 }
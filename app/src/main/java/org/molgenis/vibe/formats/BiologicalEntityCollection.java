@@ -1,6 +1,9 @@
 package org.molgenis.vibe.formats;
 
+import static java.util.Objects.requireNonNull;
+
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * A collection of 0 or more {@link BiologicalEntityCombination}{@code s} that have the same {@link T1} and {@link T2} class types.
@@ -93,9 +96,33 @@ public abstract class BiologicalEntityCollection<T1 extends BiologicalEntity, T2
         return combinationsMap.containsKey(o);
     }
 
+    /**
+     * @return an {@link Iterator} of which {@link Iterator#remove()} also removes the combination from the groups per
+     * {@link T1} and {@link T2}
+     */
     @Override
     public Iterator<T3> iterator() {
-        return combinationsMap.keySet().iterator();
+        Iterator<T3> iterator = combinationsMap.keySet().iterator();
+        return new Iterator<T3>() {
+            private T3 current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T3 next() {
+                current = iterator.next();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                removeFromGroups(current);
+            }
+        };
     }
 
     @Override
@@ -139,16 +166,72 @@ public abstract class BiologicalEntityCollection<T1 extends BiologicalEntity, T2
 
     @Override
     public boolean remove(Object o) {
-        Object object = combinationsMap.remove(o);
+        T3 t3 = combinationsMap.remove(o);
+
+        // t3 is null if combinationsMap.remove(o) did NOT remove something.
+        if(t3 == null) {
+            return false;
+        }
+        removeFromGroups(t3);
+        return true;
+    }
+
+    /**
+     * Removes all {@link T3} belonging to a single {@link T1}.
+     * @param t1
+     * @return {@code true} if any {@link T3} was removed
+     */
+    public boolean removeByT1(T1 t1) {
+        Set<T3> t3s = combinationsByT1.remove(t1);
+        if(t3s == null) {
+            return false;
+        }
+        for(T3 t3 : t3s) {
+            combinationsMap.remove(t3);
+            removeFromGroup(t3, t3.getT2(), combinationsByT2);
+        }
+        return true;
+    }
+
+    /**
+     * Removes all {@link T3} belonging to a single {@link T2}.
+     * @param t2
+     * @return {@code true} if any {@link T3} was removed
+     */
+    public boolean removeByT2(T2 t2) {
+        Set<T3> t3s = combinationsByT2.remove(t2);
+        if(t3s == null) {
+            return false;
+        }
+        for(T3 t3 : t3s) {
+            combinationsMap.remove(t3);
+            removeFromGroup(t3, t3.getT1(), combinationsByT1);
+        }
+        return true;
+    }
 
-        combinationsByT1.values().forEach(s->s.remove(o));
-        combinationsByT2.values().forEach(s->s.remove(o));
+    /**
+     * Removes all {@link T3} matching {@code filter} in a single pass. Only the groups of the {@link T1} and {@link T2}
+     * of removed combinations are updated.
+     * @param filter returns {@code true} for each {@link T3} to be removed
+     * @return {@code true} if any {@link T3} was removed
+     */
+    @Override
+    public boolean removeIf(Predicate<? super T3> filter) {
+        requireNonNull(filter);
+        boolean changed = false;
 
-        removeEmptySets(combinationsByT1);
-        removeEmptySets(combinationsByT2);
+        Iterator<T3> iterator = combinationsMap.keySet().iterator();
+        while(iterator.hasNext()) {
+            T3 t3 = iterator.next();
+            if(filter.test(t3)) {
+                iterator.remove();
+                removeFromGroups(t3);
+                changed = true;
+            }
+        }
 
-        // object is null if combinationsMap.remove(o) did NOT remove something.
-        return !Objects.isNull(object);
+        return changed;
     }
 
     @Override
@@ -171,42 +254,44 @@ public abstract class BiologicalEntityCollection<T1 extends BiologicalEntity, T2
 
     @Override
     public boolean removeAll(Collection<?> c) {
-        boolean changed = combinationsMap.keySet().removeAll(c);
-
-        combinationsByT1.values().forEach(s->s.removeAll(c));
-        combinationsByT2.values().forEach(s->s.removeAll(c));
-
-        removeEmptySets(combinationsByT1);
-        removeEmptySets(combinationsByT2);
-
-        return changed;
+        requireNonNull(c);
+        // Goes through the smallest of both (as done by AbstractSet#removeAll).
+        if(c.size() < size()) {
+            boolean changed = false;
+            for(Object o : c) {
+                if(remove(o)) {
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+        return removeIf(c::contains);
     }
 
     @Override
     public boolean retainAll(Collection<?> c) {
-        boolean changed = combinationsMap.keySet().retainAll(c);
-        combinationsByT1.values().forEach(s->s.retainAll(c));
-        combinationsByT2.values().forEach(s->s.retainAll(c));
-
-        removeEmptySets(combinationsByT1);
-        removeEmptySets(combinationsByT2);
-
-        return changed;
+        requireNonNull(c);
+        return removeIf(t3 -> !c.contains(t3));
     }
 
-    private void removeEmptySets(Map<? extends BiologicalEntity, Set<T3>> combinationsByKey) {
-        // Stores keys to be removed.
-        Set<BiologicalEntity> keysWithEmptySet = new HashSet<>();
-
-        // Goes through all keys to see if there are any keys with an empty Set.
-        for(BiologicalEntity key:combinationsByKey.keySet()) {
-            if(combinationsByKey.get(key).isEmpty()) {
-                keysWithEmptySet.add(key);
-            }
-        }
+    /**
+     * Removes a (removed) {@link T3} from the groups of its {@link T1} and {@link T2}.
+     * @param t3
+     */
+    private void removeFromGroups(T3 t3) {
+        removeFromGroup(t3, t3.getT1(), combinationsByT1);
+        removeFromGroup(t3, t3.getT2(), combinationsByT2);
+    }
 
-        // Removes Keys that have an empty set.
-        for(BiologicalEntity key:keysWithEmptySet) {
+    /**
+     * Removes {@code t3} from the group of {@code key}, and removes the group itself if it becomes empty.
+     * @param t3 the combination to remove
+     * @param key the {@link T1} or {@link T2} of {@code t3}
+     * @param combinationsByKey the groups per {@link T1} or {@link T2}
+     */
+    private <K extends BiologicalEntity> void removeFromGroup(T3 t3, K key, Map<K, Set<T3>> combinationsByKey) {
+        Set<T3> valueSet = combinationsByKey.get(key);
+        if(valueSet != null && valueSet.remove(t3) && valueSet.isEmpty()) {
             combinationsByKey.remove(key);
         }
     }
@@ -0,0 +1,851 @@
+package org.molgenis.vibe.formats;
+
+import java.net.URI;
+import java.util.*;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Predicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link GeneDiseaseCollection} that stores its data in columns instead of as {@link GeneDiseaseCombination} objects.
+ * The {@link Gene}{@code s}, {@link Disease}{@code s} and {@link Source}{@code s} are stored once in a dictionary and
+ * referred to by their {@code int} id (evidence uses the ids from the {@link EvidenceDictionary}). Per gene-disease
+ * combination only the ids of the gene/disease and the score are stored, and each occurrence of a combination in a
+ * {@link Source} is stored as a row containing the ids of the combination, source and evidence (if available).
+ * <br /><br />
+ * The {@link GeneDiseaseCombination}{@code s} are only created when they are retrieved (so retrieving the same
+ * combination twice gives 2 equal objects) and changes to them are not reflected in this collection. The indexes per
+ * {@link Gene}/{@link Disease} are created when first needed after adding data, and are already ordered based on
+ * {@link GeneDiseaseCombination#getDisgenetScore()} (high->low, followed by the {@link Disease}/{@link Gene} id for
+ * equal scores). Removing combinations compacts all columns (keeping the order of the retained combinations), so
+ * removing multiple combinations at once (for example through {@link #removeIf(Predicate)}) is cheaper than removing
+ * them one by one.
+ * <br /><br />
+ * Note that this class is not thread-safe (not even for only reading, as the indexes are created lazily).
+ * <br /><br />
+ * This is a library type: the retrievers within the app fill a regular {@link GeneDiseaseCollection}, which can be
+ * converted using {@link #CompactGeneDiseaseCollection(Collection)} when a long-lived collection should use less
+ * memory (as done by the benchmarks comparing both collections).
+ */
+public class CompactGeneDiseaseCollection extends GeneDiseaseCollection {
+    /**
+     * Initial capacity of the combination and row columns.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Marks an unused slot in {@link #combinationKeys}.
+     */
+    private static final long EMPTY_KEY = -1;
+
+    private List<Gene> genes;
+    private Map<Gene, Integer> geneIds;
+    private List<Disease> diseases;
+    private Map<Disease, Integer> diseaseIds;
+    private List<Source> sources;
+    private Map<Source, Integer> sourceIds;
+
+    /**
+     * The number of stored gene-disease combinations.
+     */
+    private int combinationsCount;
+
+    /**
+     * The gene id per combination.
+     */
+    private int[] combinationGenes;
+
+    /**
+     * The disease id per combination.
+     */
+    private int[] combinationDiseases;
+
+    /**
+     * The score per combination.
+     */
+    private double[] combinationScores;
+
+    /**
+     * Open addressing hash table containing the gene id (upper 32 bits) and disease id (lower 32 bits) of each
+     * combination. The combination id itself is stored at the same position in {@link #combinationSlots}.
+     */
+    private long[] combinationKeys;
+    private int[] combinationSlots;
+
+    /**
+     * The number of stored rows (a single occurrence of a combination in a {@link Source}).
+     */
+    private int rowsCount;
+
+    /**
+     * The combination id per row.
+     */
+    private int[] rowCombinations;
+
+    /**
+     * The source id per row.
+     */
+    private short[] rowSources;
+
+    /**
+     * The evidence id per row ({@link EvidenceDictionary#NO_EVIDENCE} if the row has no evidence).
+     */
+    private int[] rowEvidence;
+
+    /**
+     * The first row of each combination (and the row after the last combination as final item). Only valid when the
+     * rows are ordered by combination, otherwise {@code null}.
+     */
+    private int[] combinationRowsFrom;
+
+    /**
+     * The combination ids grouped per gene (ordered on score), with {@link #geneCombinationsFrom} containing the
+     * position of the first combination for each gene. {@code null} if the index needs to be (re)created.
+     */
+    private int[] geneCombinations;
+    private int[] geneCombinationsFrom;
+
+    /**
+     * The combination ids grouped per disease (ordered on score), with {@link #diseaseCombinationsFrom} containing
+     * the position of the first combination for each disease. {@code null} if the index needs to be (re)created.
+     */
+    private int[] diseaseCombinations;
+    private int[] diseaseCombinationsFrom;
+
+    public CompactGeneDiseaseCollection() {
+        clear();
+    }
+
+    /**
+     * @param combinations the {@link GeneDiseaseCombination}{@code s} to add (all should have a score)
+     * @see #add(GeneDiseaseCombination)
+     */
+    public CompactGeneDiseaseCollection(Collection<GeneDiseaseCombination> combinations) {
+        this();
+        addAll(combinations);
+    }
+
+    /**
+     * Adds a single occurrence of a gene-disease combination in a {@link Source}. If the combination is not present
+     * yet, it is created using {@code disgenetScore} (otherwise {@code disgenetScore} is ignored).
+     * @param gene the {@link Gene}
+     * @param disease the {@link Disease}
+     * @param disgenetScore the score of the gene-disease combination
+     * @param source the {@link Source} containing the combination
+     * @param evidence the evidence for the combination ({@code null} if not available)
+     */
+    public void add(Gene gene, Disease disease, double disgenetScore, Source source, URI evidence) {
+        add(gene, disease, disgenetScore, source, evidence == null ? EvidenceDictionary.NO_EVIDENCE :
+                EvidenceDictionary.getId(evidence));
+    }
+
+    /**
+     * Adds a single occurrence of a gene-disease combination in a {@link Source}. If the combination is not present
+     * yet, it is created using {@code disgenetScore} (otherwise {@code disgenetScore} is ignored).
+     * @param gene the {@link Gene}
+     * @param disease the {@link Disease}
+     * @param disgenetScore the score of the gene-disease combination
+     * @param source the {@link Source} containing the combination
+     * @param evidenceId the id of the evidence for the combination (see {@link EvidenceDictionary}), or
+     *                   {@link EvidenceDictionary#NO_EVIDENCE} if not available
+     */
+    public void add(Gene gene, Disease disease, double disgenetScore, Source source, int evidenceId) {
+        requireNonNull(source);
+        int geneId = getId(gene, genes, geneIds);
+        int diseaseId = getId(disease, diseases, diseaseIds);
+        int combination = findCombination(geneId, diseaseId);
+        if(combination < 0) {
+            combination = addCombination(geneId, diseaseId, disgenetScore);
+        }
+        addRow(combination, source, evidenceId);
+    }
+
+    /**
+     * Adds the {@link GeneDiseaseCombination} with all its {@link Source}{@code s} and evidence. As with a
+     * {@link GeneDiseaseCollection}, nothing is added if the combination is already present.
+     * @param geneDiseaseCombination the combination to add (should have a score)
+     * @return {@code true} if the combination was added
+     */
+    @Override
+    public boolean add(GeneDiseaseCombination geneDiseaseCombination) {
+        double disgenetScore = geneDiseaseCombination.getDisgenetScore();
+        int geneId = getId(geneDiseaseCombination.getGene(), genes, geneIds);
+        int diseaseId = getId(geneDiseaseCombination.getDisease(), diseases, diseaseIds);
+        if(findCombination(geneId, diseaseId) >= 0) {
+            return false;
+        }
+
+        int combination = addCombination(geneId, diseaseId, disgenetScore);
+        for(Source source : geneDiseaseCombination.getSourcesWithCount()) {
+            int rowsWithoutEvidence = geneDiseaseCombination.getCountForSource(source);
+            int[] sourceEvidence = geneDiseaseCombination.getEvidenceIdsForSource(source);
+            if(sourceEvidence != null) {
+                for(int evidenceId : sourceEvidence) {
+                    addRow(combination, source, evidenceId);
+                }
+                rowsWithoutEvidence -= sourceEvidence.length;
+            }
+            for(int i = 0; i < rowsWithoutEvidence; i++) {
+                addRow(combination, source, EvidenceDictionary.NO_EVIDENCE);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param geneDiseaseCombination the combination to retrieve (only its {@link Gene} and {@link Disease} are used)
+     * @return a newly created read-only snapshot of the stored combination (changes to it are not reflected in this
+     * collection), or {@code null} if it is not present
+     */
+    @Override
+    public GeneDiseaseCombination get(GeneDiseaseCombination geneDiseaseCombination) {
+        int combination = findCombination(geneDiseaseCombination);
+        if(combination < 0) {
+            return null;
+        }
+        sortRows();
+        return createCombination(combination);
+    }
+
+    @Override
+    public Set<Gene> getT1() {
+        return Collections.unmodifiableSet(geneIds.keySet());
+    }
+
+    @Override
+    public Set<Disease> getT2() {
+        return Collections.unmodifiableSet(diseaseIds.keySet());
+    }
+
+    @Override
+    public Set<GeneDiseaseCombination> getT3() {
+        Set<GeneDiseaseCombination> combinations = new HashSet<>();
+        forEach(combinations::add);
+        return Collections.unmodifiableSet(combinations);
+    }
+
+    @Override
+    public List<GeneDiseaseCombination> getT3Ordered() {
+        List<GeneDiseaseCombination> orderedList = toList();
+        orderedList.sort(Comparator.comparing(GeneDiseaseCombination::getT1).thenComparing(GeneDiseaseCombination::getT2));
+        return orderedList;
+    }
+
+    @Override
+    public Set<GeneDiseaseCombination> getByT1(Gene gene) {
+        List<GeneDiseaseCombination> combinations = getByGeneOrderedByGdaScore(gene);
+        return combinations == null ? null : Collections.unmodifiableSet(new LinkedHashSet<>(combinations));
+    }
+
+    @Override
+    public Set<GeneDiseaseCombination> getByT2(Disease disease) {
+        List<GeneDiseaseCombination> combinations = getByDiseaseOrderedByGdaScore(disease);
+        return combinations == null ? null : Collections.unmodifiableSet(new LinkedHashSet<>(combinations));
+    }
+
+    /**
+     * @param gene the {@link Gene} to retrieve {@link GeneDiseaseCombination}{@code s} for
+     * @return the {@link GeneDiseaseCombination}{@code s} belonging to {@code gene} ordered on score (high->low), or
+     * {@code null} if {@code gene} is not present
+     */
+    @Override
+    public List<GeneDiseaseCombination> getByGeneOrderedByGdaScore(Gene gene) {
+        Integer geneId = geneIds.get(gene);
+        if(geneId == null) {
+            return null;
+        }
+        createIndexes();
+        return createCombinations(geneCombinations, geneCombinationsFrom[geneId], geneCombinationsFrom[geneId + 1]);
+    }
+
+    /**
+     * @param disease the {@link Disease} to retrieve {@link GeneDiseaseCombination}{@code s} for
+     * @return the {@link GeneDiseaseCombination}{@code s} belonging to {@code disease} ordered on score (high->low), or
+     * {@code null} if {@code disease} is not present
+     */
+    @Override
+    public List<GeneDiseaseCombination> getByDiseaseOrderedByGdaScore(Disease disease) {
+        Integer diseaseId = diseaseIds.get(disease);
+        if(diseaseId == null) {
+            return null;
+        }
+        createIndexes();
+        return createCombinations(diseaseCombinations, diseaseCombinationsFrom[diseaseId],
+                diseaseCombinationsFrom[diseaseId + 1]);
+    }
+
+    @Override
+    public int size() {
+        return combinationsCount;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return combinationsCount == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof GeneDiseaseCombination && findCombination((GeneDiseaseCombination) o) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for(Object o : c) {
+            if(!contains(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return an {@link Iterator} creating each {@link GeneDiseaseCombination} when it is reached (as a read-only
+     * snapshot, so changes to it are not reflected in this collection). {@link Iterator#remove()} compacts all columns
+     * each time (see {@link #remove(Object)}).
+     */
+    @Override
+    public Iterator<GeneDiseaseCombination> iterator() {
+        return new Iterator<GeneDiseaseCombination>() {
+            private int next = 0;
+
+            /**
+             * The combination id returned by the last {@link #next()}, or {@code -1} if it cannot be removed.
+             */
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return next < combinationsCount;
+            }
+
+            @Override
+            public GeneDiseaseCombination next() {
+                if(!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                sortRows();
+                last = next++;
+                return createCombination(last);
+            }
+
+            @Override
+            public void remove() {
+                if(last < 0) {
+                    throw new IllegalStateException();
+                }
+                BitSet removed = new BitSet(combinationsCount);
+                removed.set(last);
+                removeCombinations(removed);
+                // The combinations after the removed one moved one position forward.
+                next = last;
+                last = -1;
+            }
+        };
+    }
+
+    @Override
+    public Object[] toArray() {
+        return toList().toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return toList().toArray(a);
+    }
+
+    /**
+     * @return all {@link GeneDiseaseCombination}{@code s} as {@link List} (without using {@link #toArray()})
+     */
+    private List<GeneDiseaseCombination> toList() {
+        List<GeneDiseaseCombination> list = new ArrayList<>(combinationsCount);
+        forEach(list::add);
+        return list;
+    }
+
+    /**
+     * Removes a single combination by compacting all columns. Use {@link #removeIf(Predicate)} when removing multiple
+     * combinations.
+     * @param o the combination to remove (only its {@link Gene} and {@link Disease} are used)
+     * @return {@code true} if the combination was removed
+     */
+    @Override
+    public boolean remove(Object o) {
+        int combination = o instanceof GeneDiseaseCombination ? findCombination((GeneDiseaseCombination) o) : -1;
+        if(combination < 0) {
+            return false;
+        }
+        BitSet removed = new BitSet(combinationsCount);
+        removed.set(combination);
+        removeCombinations(removed);
+        return true;
+    }
+
+    /**
+     * Removes all combinations matching {@code filter} by compacting all columns once.
+     * @param filter returns {@code true} for each {@link GeneDiseaseCombination} to be removed
+     * @return {@code true} if any combination was removed
+     */
+    @Override
+    public boolean removeIf(Predicate<? super GeneDiseaseCombination> filter) {
+        requireNonNull(filter);
+        sortRows();
+        BitSet removed = new BitSet(combinationsCount);
+        for(int combination = 0; combination < combinationsCount; combination++) {
+            if(filter.test(createCombination(combination))) {
+                removed.set(combination);
+            }
+        }
+        return removeCombinations(removed);
+    }
+
+    /**
+     * @see #removeIf(Predicate)
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        requireNonNull(c);
+        return removeIf(c::contains);
+    }
+
+    /**
+     * @see #removeIf(Predicate)
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        requireNonNull(c);
+        return removeIf(gdc -> !c.contains(gdc));
+    }
+
+    /**
+     * @see #removeIf(Predicate)
+     */
+    @Override
+    public boolean removeByT1(Gene gene) {
+        return removeByEntity(geneIds.get(gene), combinationGenes);
+    }
+
+    /**
+     * @see #removeIf(Predicate)
+     */
+    @Override
+    public boolean removeByT2(Disease disease) {
+        return removeByEntity(diseaseIds.get(disease), combinationDiseases);
+    }
+
+    /**
+     * @param id the gene/disease id ({@code null} if not present)
+     * @param combinationIds the gene/disease id per combination
+     * @return {@code true} if any combination was removed
+     */
+    private boolean removeByEntity(Integer id, int[] combinationIds) {
+        if(id == null) {
+            return false;
+        }
+        BitSet removed = new BitSet(combinationsCount);
+        for(int combination = 0; combination < combinationsCount; combination++) {
+            if(combinationIds[combination] == id) {
+                removed.set(combination);
+            }
+        }
+        return removeCombinations(removed);
+    }
+
+    /**
+     * Removes combinations (with their rows) by moving the retained ones forward, after which the {@link Gene}{@code s}
+     * and {@link Disease}{@code s} without any combination left are removed as well.
+     * @param removed the ids of the combinations to remove
+     * @return {@code true} if any combination was removed
+     */
+    private boolean removeCombinations(BitSet removed) {
+        if(removed.isEmpty()) {
+            return false;
+        }
+
+        int[] newIds = new int[combinationsCount];
+        int retained = 0;
+        for(int combination = 0; combination < combinationsCount; combination++) {
+            if(removed.get(combination)) {
+                newIds[combination] = -1;
+            } else {
+                newIds[combination] = retained;
+                combinationGenes[retained] = combinationGenes[combination];
+                combinationDiseases[retained] = combinationDiseases[combination];
+                combinationScores[retained] = combinationScores[combination];
+                retained++;
+            }
+        }
+        combinationsCount = retained;
+
+        int retainedRows = 0;
+        for(int row = 0; row < rowsCount; row++) {
+            int combination = newIds[rowCombinations[row]];
+            if(combination >= 0) {
+                rowCombinations[retainedRows] = combination;
+                rowSources[retainedRows] = rowSources[row];
+                rowEvidence[retainedRows] = rowEvidence[row];
+                retainedRows++;
+            }
+        }
+        rowsCount = retainedRows;
+
+        removeUnusedIds(combinationGenes, genes, geneIds);
+        removeUnusedIds(combinationDiseases, diseases, diseaseIds);
+        resizeCombinationKeys(combinationKeys.length);
+        invalidateIndexes();
+        return true;
+    }
+
+    /**
+     * Removes the items that are not used by any combination from the dictionary (updating the ids of the remaining
+     * ones).
+     * @param combinationIds the item id per combination
+     */
+    private <T> void removeUnusedIds(int[] combinationIds, List<T> items, Map<T, Integer> ids) {
+        boolean[] used = new boolean[items.size()];
+        for(int combination = 0; combination < combinationsCount; combination++) {
+            used[combinationIds[combination]] = true;
+        }
+
+        int[] newIds = new int[items.size()];
+        List<T> retained = new ArrayList<>();
+        for(int id = 0; id < items.size(); id++) {
+            if(used[id]) {
+                newIds[id] = retained.size();
+                retained.add(items.get(id));
+            } else {
+                ids.remove(items.get(id));
+            }
+        }
+        if(retained.size() == items.size()) {
+            return;
+        }
+
+        items.clear();
+        items.addAll(retained);
+        for(int id = 0; id < items.size(); id++) {
+            ids.put(items.get(id), id);
+        }
+        for(int combination = 0; combination < combinationsCount; combination++) {
+            combinationIds[combination] = newIds[combinationIds[combination]];
+        }
+    }
+
+    @Override
+    public void clear() {
+        genes = new ArrayList<>();
+        geneIds = new HashMap<>();
+        diseases = new ArrayList<>();
+        diseaseIds = new HashMap<>();
+        sources = new ArrayList<>();
+        sourceIds = new HashMap<>();
+
+        combinationsCount = 0;
+        combinationGenes = new int[INITIAL_CAPACITY];
+        combinationDiseases = new int[INITIAL_CAPACITY];
+        combinationScores = new double[INITIAL_CAPACITY];
+        combinationKeys = new long[INITIAL_CAPACITY * 2];
+        Arrays.fill(combinationKeys, EMPTY_KEY);
+        combinationSlots = new int[INITIAL_CAPACITY * 2];
+
+        rowsCount = 0;
+        rowCombinations = new int[INITIAL_CAPACITY];
+        rowSources = new short[INITIAL_CAPACITY];
+        rowEvidence = new int[INITIAL_CAPACITY];
+        invalidateIndexes();
+    }
+
+    @Override
+    public String toString() {
+        return "CompactGeneDiseaseCollection{" +
+                "combinations=" + getT3() +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CompactGeneDiseaseCollection that = (CompactGeneDiseaseCollection) o;
+        return Objects.equals(getT3(), that.getT3());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getT3());
+    }
+
+    /**
+     * @return the id of {@code item}, which is added to the dictionary if it is not present yet
+     */
+    private static <T> int getId(T item, List<T> items, Map<T, Integer> ids) {
+        Integer id = ids.get(requireNonNull(item));
+        if(id == null) {
+            id = items.size();
+            items.add(item);
+            ids.put(item, id);
+        }
+        return id;
+    }
+
+    /**
+     * @return the combination id of {@code geneDiseaseCombination}, or {@code -1} if not present
+     */
+    private int findCombination(GeneDiseaseCombination geneDiseaseCombination) {
+        Integer geneId = geneIds.get(geneDiseaseCombination.getGene());
+        Integer diseaseId = diseaseIds.get(geneDiseaseCombination.getDisease());
+        if(geneId == null || diseaseId == null) {
+            return -1;
+        }
+        return findCombination(geneId, diseaseId);
+    }
+
+    /**
+     * @return the combination id belonging to the gene/disease id, or {@code -1} if not present
+     */
+    private int findCombination(int geneId, int diseaseId) {
+        long key = ((long) geneId << 32) | diseaseId;
+        int mask = combinationKeys.length - 1;
+        for(int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if(combinationKeys[slot] == key) {
+                return combinationSlots[slot];
+            }
+            if(combinationKeys[slot] == EMPTY_KEY) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Adds a combination that is not present yet.
+     * @return the id of the new combination
+     */
+    private int addCombination(int geneId, int diseaseId, double disgenetScore) {
+        if(combinationsCount == combinationGenes.length) {
+            int capacity = combinationGenes.length * 2;
+            combinationGenes = Arrays.copyOf(combinationGenes, capacity);
+            combinationDiseases = Arrays.copyOf(combinationDiseases, capacity);
+            combinationScores = Arrays.copyOf(combinationScores, capacity);
+            resizeCombinationKeys(capacity * 2);
+        }
+        int combination = combinationsCount++;
+        combinationGenes[combination] = geneId;
+        combinationDiseases[combination] = diseaseId;
+        combinationScores[combination] = disgenetScore;
+        insertCombinationKey(((long) geneId << 32) | diseaseId, combination);
+        invalidateIndexes();
+        return combination;
+    }
+
+    private void resizeCombinationKeys(int capacity) {
+        combinationKeys = new long[capacity];
+        Arrays.fill(combinationKeys, EMPTY_KEY);
+        combinationSlots = new int[capacity];
+        for(int combination = 0; combination < combinationsCount; combination++) {
+            insertCombinationKey(((long) combinationGenes[combination] << 32) | combinationDiseases[combination], combination);
+        }
+    }
+
+    private void insertCombinationKey(long key, int combination) {
+        int mask = combinationKeys.length - 1;
+        int slot = hash(key) & mask;
+        while(combinationKeys[slot] != EMPTY_KEY) {
+            slot = (slot + 1) & mask;
+        }
+        combinationKeys[slot] = key;
+        combinationSlots[slot] = combination;
+    }
+
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private void addRow(int combination, Source source, int evidenceId) {
+        int sourceId = getId(source, sources, sourceIds);
+        if(sourceId > Short.MAX_VALUE) {
+            throw new IllegalStateException("A CompactGeneDiseaseCollection can contain at most " +
+                    (Short.MAX_VALUE + 1) + " sources.");
+        }
+        if(rowsCount == rowCombinations.length) {
+            int capacity = rowCombinations.length * 2;
+            rowCombinations = Arrays.copyOf(rowCombinations, capacity);
+            rowSources = Arrays.copyOf(rowSources, capacity);
+            rowEvidence = Arrays.copyOf(rowEvidence, capacity);
+        }
+        rowCombinations[rowsCount] = combination;
+        rowSources[rowsCount] = (short) sourceId;
+        rowEvidence[rowsCount] = evidenceId;
+        rowsCount++;
+        invalidateIndexes();
+    }
+
+    private void invalidateIndexes() {
+        combinationRowsFrom = null;
+        geneCombinations = null;
+        geneCombinationsFrom = null;
+        diseaseCombinations = null;
+        diseaseCombinationsFrom = null;
+    }
+
+    /**
+     * Orders the rows per combination (keeping the order in which they were added within a combination) and creates
+     * {@link #combinationRowsFrom}, if not done yet.
+     */
+    private void sortRows() {
+        if(combinationRowsFrom != null) {
+            return;
+        }
+
+        int[] rowsFrom = countingSortOffsets(rowCombinations, rowsCount, combinationsCount);
+        int[] position = Arrays.copyOf(rowsFrom, combinationsCount);
+        int[] sortedCombinations = new int[rowsCount];
+        short[] sortedSources = new short[rowsCount];
+        int[] sortedEvidence = new int[rowsCount];
+        for(int row = 0; row < rowsCount; row++) {
+            int target = position[rowCombinations[row]]++;
+            sortedCombinations[target] = rowCombinations[row];
+            sortedSources[target] = rowSources[row];
+            sortedEvidence[target] = rowEvidence[row];
+        }
+        rowCombinations = sortedCombinations;
+        rowSources = sortedSources;
+        rowEvidence = sortedEvidence;
+        combinationRowsFrom = rowsFrom;
+    }
+
+    /**
+     * Creates the indexes per gene and disease, if not done yet.
+     */
+    private void createIndexes() {
+        sortRows();
+        if(geneCombinations != null) {
+            return;
+        }
+
+        // Orders all combinations once, after which they are distributed over the genes/diseases in that order.
+        int[] geneRanks = createRanks(genes);
+        int[] diseaseRanks = createRanks(diseases);
+        int[] ordered = new int[combinationsCount];
+        for(int i = 0; i < combinationsCount; i++) {
+            ordered[i] = i;
+        }
+        mergeSort(ordered, (a, b) -> {
+            int compare = Double.compare(combinationScores[b], combinationScores[a]);
+            if(compare == 0) {
+                compare = Integer.compare(diseaseRanks[combinationDiseases[a]], diseaseRanks[combinationDiseases[b]]);
+            }
+            if(compare == 0) {
+                compare = Integer.compare(geneRanks[combinationGenes[a]], geneRanks[combinationGenes[b]]);
+            }
+            return compare;
+        });
+
+        geneCombinationsFrom = countingSortOffsets(combinationGenes, combinationsCount, genes.size());
+        geneCombinations = distribute(ordered, combinationGenes, geneCombinationsFrom, genes.size());
+        diseaseCombinationsFrom = countingSortOffsets(combinationDiseases, combinationsCount, diseases.size());
+        diseaseCombinations = distribute(ordered, combinationDiseases, diseaseCombinationsFrom, diseases.size());
+    }
+
+    /**
+     * @param keys the key of each item
+     * @param length the number of items in {@code keys}
+     * @param keysCount the number of different keys
+     * @return the start position of each key when grouping the items per key (and {@code length} as final item)
+     */
+    private static int[] countingSortOffsets(int[] keys, int length, int keysCount) {
+        int[] offsets = new int[keysCount + 1];
+        for(int i = 0; i < length; i++) {
+            offsets[keys[i] + 1]++;
+        }
+        for(int key = 0; key < keysCount; key++) {
+            offsets[key + 1] += offsets[key];
+        }
+        return offsets;
+    }
+
+    /**
+     * @return the combinations from {@code ordered} grouped per key (keeping the order of {@code ordered} per key)
+     */
+    private static int[] distribute(int[] ordered, int[] keys, int[] offsets, int keysCount) {
+        int[] position = Arrays.copyOf(offsets, keysCount);
+        int[] grouped = new int[ordered.length];
+        for(int combination : ordered) {
+            grouped[position[keys[combination]]++] = combination;
+        }
+        return grouped;
+    }
+
+    /**
+     * @return the position of each {@link Entity} when ordering {@code entities}
+     */
+    private static int[] createRanks(List<? extends Entity> entities) {
+        int[] ordered = new int[entities.size()];
+        for(int i = 0; i < ordered.length; i++) {
+            ordered[i] = i;
+        }
+        mergeSort(ordered, (a, b) -> entities.get(a).compareTo(entities.get(b)));
+
+        int[] ranks = new int[ordered.length];
+        for(int rank = 0; rank < ordered.length; rank++) {
+            ranks[ordered[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    /**
+     * Stable sort of {@code values} (so that no boxing is needed for a custom order).
+     * @param values the values to sort
+     * @param comparator returns a negative number, zero or a positive number if the first value should be ordered
+     *                   before, equal to or after the second value
+     */
+    private static void mergeSort(int[] values, IntBinaryOperator comparator) {
+        int[] buffer = new int[values.length];
+        for(int width = 1; width < values.length; width *= 2) {
+            for(int from = 0; from < values.length - width; from += width * 2) {
+                int middle = from + width;
+                int to = Math.min(from + width * 2, values.length);
+                int left = from;
+                int right = middle;
+                int target = from;
+                while(left < middle && right < to) {
+                    buffer[target++] = comparator.applyAsInt(values[left], values[right]) <= 0 ? values[left++] : values[right++];
+                }
+                while(left < middle) {
+                    buffer[target++] = values[left++];
+                }
+                while(right < to) {
+                    buffer[target++] = values[right++];
+                }
+                System.arraycopy(buffer, from, values, from, to - from);
+            }
+        }
+    }
+
+    private List<GeneDiseaseCombination> createCombinations(int[] combinations, int from, int to) {
+        List<GeneDiseaseCombination> list = new ArrayList<>(to - from);
+        for(int i = from; i < to; i++) {
+            list.add(createCombination(combinations[i]));
+        }
+        return list;
+    }
+
+    /**
+     * Creates the {@link GeneDiseaseCombination} for the combination id. Requires the rows to be sorted (see
+     * {@link #sortRows()}).
+     */
+    private GeneDiseaseCombination createCombination(int combination) {
+        GeneDiseaseCombination gdc = new GeneDiseaseCombination(genes.get(combinationGenes[combination]),
+                diseases.get(combinationDiseases[combination]), combinationScores[combination]);
+        for(int row = combinationRowsFrom[combination]; row < combinationRowsFrom[combination + 1]; row++) {
+            Source source = sources.get(rowSources[row]);
+            if(rowEvidence[row] == EvidenceDictionary.NO_EVIDENCE) {
+                gdc.add(source);
+            } else {
+                gdc.add(source, rowEvidence[row]);
+            }
+        }
+        return gdc;
+    }
+}
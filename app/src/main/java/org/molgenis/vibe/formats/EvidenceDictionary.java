@@ -0,0 +1,254 @@
+package org.molgenis.vibe.formats;
+
+import static java.util.Objects.requireNonNull;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores evidence {@link URI}{@code s} as {@code int} ids that are shared by all gene-disease combinations. As nearly all
+ * evidence consists of PubMed {@link URI}{@code s} ({@code http://identifiers.org/pubmed/<number>}), these are stored as
+ * their (positive) PubMed number directly so that no lookup is needed at all. Any other evidence {@link URI} is added
+ * once to a shared string pool and is referred to by a negative id.
+ * <br /><br />
+ * The string pool is shared by the whole process and entries are never removed (ids must stay valid for as long as any
+ * gene-disease combination refers to them), so in server mode it lives as long as the server. Its size is bounded by
+ * the number of distinct non-PubMed evidence {@link URI}{@code s} within the used TDB (a small fraction of all evidence),
+ * as repeated evidence is only added once.
+ */
+public final class EvidenceDictionary {
+    /**
+     * The prefix of evidence {@link URI}{@code s} that refer to a PubMed article.
+     */
+    public static final String PUBMED_PREFIX = "http://identifiers.org/pubmed/";
+
+    /**
+     * Id that is never used for evidence.
+     */
+    public static final int NO_EVIDENCE = 0;
+
+    /**
+     * The number of digits of {@link Integer#MAX_VALUE}.
+     */
+    private static final int MAX_DIGITS = 10;
+
+    /**
+     * The powers of ten up to {@link #MAX_DIGITS}.
+     */
+    private static final long[] POWERS_OF_TEN = new long[MAX_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for(int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * The evidence that is not a PubMed {@link URI} (id {@code -1} refers to index {@code 0}).
+     */
+    private static final List<String> pool = new ArrayList<>();
+
+    /**
+     * The (negative) ids of the evidence within {@link #pool}.
+     */
+    private static final Map<String, Integer> poolIds = new HashMap<>();
+
+    private EvidenceDictionary() {
+    }
+
+    /**
+     * @param evidence the evidence {@link URI}
+     * @return the id for {@code evidence}
+     * @see #getId(String)
+     */
+    public static int getId(URI evidence) {
+        return getId(evidence.toString());
+    }
+
+    /**
+     * @param evidence the evidence {@link URI} as {@link String}
+     * @return the id for {@code evidence} (the PubMed number for a PubMed {@link URI}, otherwise a negative id which is
+     * the same for each call with an equal {@code evidence})
+     */
+    public static int getId(String evidence) {
+        requireNonNull(evidence);
+        int pubmedId = parsePubmedId(evidence);
+        if(pubmedId != NO_EVIDENCE) {
+            return pubmedId;
+        }
+
+        synchronized (pool) {
+            Integer id = poolIds.get(evidence);
+            if(id == null) {
+                pool.add(evidence);
+                id = -pool.size();
+                poolIds.put(evidence, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * @param id an evidence id
+     * @return the evidence {@link URI} belonging to {@code id}
+     */
+    public static URI getUri(int id) {
+        return URI.create(getUriString(id));
+    }
+
+    /**
+     * @param id an evidence id
+     * @return the evidence {@link URI} belonging to {@code id} as {@link String}
+     */
+    public static String getUriString(int id) {
+        return id > 0 ? PUBMED_PREFIX + id : getPoolString(id);
+    }
+
+    /**
+     * @param id an evidence id
+     * @return the {@link URI} as {@link String} without {@link #PUBMED_PREFIX} for a PubMed {@link URI}, otherwise
+     * the full {@link URI} as {@link String}
+     */
+    public static String getSimplifiedString(int id) {
+        return id > 0 ? Integer.toString(id) : simplify(getPoolString(id));
+    }
+
+    /**
+     * Sorts evidence ids in alphabetical order of their {@link #getSimplifiedString(int)} without creating these
+     * {@link String}{@code s} for PubMed ids. Duplicate ids are removed.
+     * @param ids the evidence ids (only the first {@code length} are used)
+     * @param length the number of ids within {@code ids} to sort
+     * @return a new array containing the unique ids from {@code ids} in alphabetical order
+     */
+    public static int[] sortSimplified(int[] ids, int length) {
+        // A PubMed number is converted to a key that orders the same as its decimal String: the number padded with zeros
+        // to the maximum number of digits (so digits are compared left to right), followed by its number of digits (so
+        // that "12" is placed before "120").
+        long[] pubmedKeys = new long[length];
+        int pubmedCount = 0;
+        int[] otherIds = new int[length];
+        int otherCount = 0;
+        for(int i = 0; i < length; i++) {
+            int id = ids[i];
+            if(id > 0) {
+                int digits = countDigits(id);
+                pubmedKeys[pubmedCount++] = (id * POWERS_OF_TEN[MAX_DIGITS - digits]) * (MAX_DIGITS + 1) + digits;
+            } else if(id < 0) {
+                otherIds[otherCount++] = id;
+            }
+        }
+        Arrays.sort(pubmedKeys, 0, pubmedCount);
+
+        int[] sorted = new int[pubmedCount + otherCount];
+        int sortedCount = 0;
+        for(int i = 0; i < pubmedCount; i++) {
+            if(i == 0 || pubmedKeys[i] != pubmedKeys[i - 1]) {
+                int digits = (int) (pubmedKeys[i] % (MAX_DIGITS + 1));
+                sorted[sortedCount++] = (int) (pubmedKeys[i] / (MAX_DIGITS + 1) / POWERS_OF_TEN[MAX_DIGITS - digits]);
+            }
+        }
+
+        if(otherCount > 0) {
+            sortedCount = mergePoolIds(sorted, sortedCount, otherIds, otherCount);
+        }
+        return sortedCount == sorted.length ? sorted : Arrays.copyOf(sorted, sortedCount);
+    }
+
+    /**
+     * Merges the (unsorted) pool ids into the sorted PubMed ids at the start of {@code sorted}.
+     * @param sorted the array to merge into, of which the first {@code pubmedCount} are sorted unique PubMed ids
+     * @param pubmedCount the number of PubMed ids in {@code sorted}
+     * @param otherIds the pool ids to be merged
+     * @param otherCount the number of pool ids within {@code otherIds}
+     * @return the number of ids within {@code sorted} after merging
+     */
+    private static int mergePoolIds(int[] sorted, int pubmedCount, int[] otherIds, int otherCount) {
+        // Pool ids are unique per pool string, so sorting the ids directly only requires removing duplicate ids.
+        Arrays.sort(otherIds, 0, otherCount);
+        int uniqueCount = 0;
+        for(int i = 0; i < otherCount; i++) {
+            if(i == 0 || otherIds[i] != otherIds[i - 1]) {
+                otherIds[uniqueCount++] = otherIds[i];
+            }
+        }
+        String[] poolStrings = new String[uniqueCount];
+        for(int i = 0; i < uniqueCount; i++) {
+            poolStrings[i] = getPoolString(otherIds[i]);
+        }
+        // Sorted on their simplified String (with equal simplified Strings sorted on the full URI).
+        Arrays.sort(poolStrings, (a, b) -> {
+            int compared = simplify(a).compareTo(simplify(b));
+            return compared != 0 ? compared : a.compareTo(b);
+        });
+
+        int[] pubmedIds = Arrays.copyOf(sorted, pubmedCount);
+        int count = 0;
+        int pubmedIndex = 0;
+        for(int i = 0; i < poolStrings.length; i++) {
+            String simplified = simplify(poolStrings[i]);
+            // PubMed numbers are only digits, so nearly all URIs are placed after them.
+            while(pubmedIndex < pubmedCount &&
+                    Integer.toString(pubmedIds[pubmedIndex]).compareTo(simplified) < 0) {
+                sorted[count++] = pubmedIds[pubmedIndex++];
+            }
+            sorted[count++] = getId(poolStrings[i]);
+        }
+        while(pubmedIndex < pubmedCount) {
+            sorted[count++] = pubmedIds[pubmedIndex++];
+        }
+        return count;
+    }
+
+    /**
+     * @param evidence the evidence {@link URI} as {@link String}
+     * @return the PubMed number if {@code evidence} is a PubMed {@link URI} of which the number fits within a positive
+     * {@code int} (without leading zeros, so that converting it back results in the same {@link URI}), otherwise
+     * {@link #NO_EVIDENCE}
+     */
+    private static int parsePubmedId(String evidence) {
+        int digits = evidence.length() - PUBMED_PREFIX.length();
+        if(digits < 1 || digits > MAX_DIGITS || !evidence.startsWith(PUBMED_PREFIX)
+                || evidence.charAt(PUBMED_PREFIX.length()) == '0') {
+            return NO_EVIDENCE;
+        }
+        long value = 0;
+        for(int i = PUBMED_PREFIX.length(); i < evidence.length(); i++) {
+            char c = evidence.charAt(i);
+            if(c < '0' || c > '9') {
+                return NO_EVIDENCE;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value > Integer.MAX_VALUE ? NO_EVIDENCE : (int) value;
+    }
+
+    /**
+     * @param evidence the evidence {@link URI} as {@link String}
+     * @return {@code evidence} without {@link #PUBMED_PREFIX} if it starts with it, otherwise {@code evidence} itself
+     */
+    private static String simplify(String evidence) {
+        return evidence.startsWith(PUBMED_PREFIX) ? evidence.substring(PUBMED_PREFIX.length()) : evidence;
+    }
+
+    private static String getPoolString(int id) {
+        if(id >= 0) {
+            throw new IllegalArgumentException("Invalid evidence id: " + id);
+        }
+        synchronized (pool) {
+            return pool.get(-id - 1);
+        }
+    }
+
+    private static int countDigits(int value) {
+        int digits = 1;
+        while(digits < MAX_DIGITS && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -63,6 +63,26 @@ public class GeneDiseaseCollection extends BiologicalEntityCollection<Gene, Dise
         return getByT2(disease);
     }
 
+    /**
+     * Removes the {@link GeneDiseaseCombination}{@code s} for a single {@link Gene}.
+     * @param gene the {@link Gene} to remove {@link GeneDiseaseCombination}{@code s} for
+     * @return {@code true} if any {@link GeneDiseaseCombination} was removed
+     * @see #removeByT1(BiologicalEntity)
+     */
+    public boolean removeByGene(Gene gene) {
+        return removeByT1(gene);
+    }
+
+    /**
+     * Removes the {@link GeneDiseaseCombination}{@code s} for a single {@link Disease}.
+     * @param disease the {@link Disease} to remove {@link GeneDiseaseCombination}{@code s} for
+     * @return {@code true} if any {@link GeneDiseaseCombination} was removed
+     * @see #removeByT2(BiologicalEntity)
+     */
+    public boolean removeByDisease(Disease disease) {
+        return removeByT2(disease);
+    }
+
     public GeneDiseaseCollection() {
     }
 
@@ -20,9 +20,15 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
     private Map<Source, Integer> sourcesCount = new HashMap<>();
 
     /**
-     * A {@link Map} storing per {@link Source} the {@link URI}{@code s} to the evidence (if available).
+     * A {@link Map} storing per {@link Source} the ids of the evidence (if available), see {@link EvidenceDictionary}.
      */
-    private Map<Source, List<URI>> sourcesEvidence = new HashMap<>();
+    private Map<Source, EvidenceIds> sourcesEvidence = new HashMap<>();
+
+    /**
+     * The unique ids of all evidence, ordered alphabetically by their simplified {@link String}. Is {@code null} when it
+     * needs to be (re)created.
+     */
+    private int[] allEvidenceOrdered;
 
     /**
      * @return the {@link Gene}
@@ -83,11 +89,33 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
      * @return an unmodifiable {@link List} containing evidence {@link URI}{@code s}, or {@code null} if {@link Source} does not have any evidence
      */
     public List<URI> getEvidenceForSource(Source source) {
-        List<URI> evidence = sourcesEvidence.get(source);
-        if(evidence != null) {
-            evidence = Collections.unmodifiableList(evidence);
+        EvidenceIds evidenceIds = sourcesEvidence.get(source);
+        if(evidenceIds == null) {
+            return null;
         }
-        return evidence;
+        List<URI> evidence = new ArrayList<>(evidenceIds.size);
+        for(int i = 0; i < evidenceIds.size; i++) {
+            evidence.add(EvidenceDictionary.getUri(evidenceIds.ids[i]));
+        }
+        return Collections.unmodifiableList(evidence);
+    }
+
+    /**
+     * The evidence ids for the defined {@link Source} in the order they were added.
+     * @param source
+     * @return an array containing the evidence ids (see {@link EvidenceDictionary}), or {@code null} if {@link Source}
+     * does not have any evidence
+     */
+    public int[] getEvidenceIdsForSource(Source source) {
+        EvidenceIds evidenceIds = sourcesEvidence.get(source);
+        return evidenceIds == null ? null : Arrays.copyOf(evidenceIds.ids, evidenceIds.size);
+    }
+
+    /**
+     * @return {@code true} if any {@link Source} has evidence, otherwise {@code false}
+     */
+    public boolean hasEvidence() {
+        return !sourcesEvidence.isEmpty();
     }
 
     /**
@@ -96,8 +124,8 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
      */
     public Set<URI> getAllEvidence() {
         Set<URI> allSources = new HashSet<>();
-        for(List<URI> evidenceForSingleSource : sourcesEvidence.values()) {
-            allSources.addAll(evidenceForSingleSource);
+        for(int id : getAllEvidenceIdsOrdered()) {
+            allSources.add(EvidenceDictionary.getUri(id));
         }
 
         return allSources;
@@ -134,37 +162,46 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
      * {@link URI}) and for other sources the full {@link URI} as a {@link String}
      */
     public Set<String> getAllEvidenceSimplified() {
-        Set<String> simplifiedSources = new HashSet<>();
-        simplifyEvidence(this.getAllEvidence(), simplifiedSources);
-
-        return simplifiedSources;
+        return new HashSet<>(getAllEvidenceSimplifiedOrdered());
     }
 
     /**
      * The same as {@link #getAllEvidenceSimplified()}, only returns an alphabetically ordered {@link List} instead of a
-     * {@link Set}.
+     * {@link Set}. The order is determined on the evidence ids once (and kept until new evidence is added), so
+     * repeated calls only need to convert the ids to {@link String}{@code s}.
      * @return a {@link List} containing numbers for PubMed IDs (starting with {@code http://identifiers.org/pubmed/} as
      * {@link URI}) and for other sources the full {@link URI} as a {@link String}
      * @see #getAllEvidenceSimplified()
      */
     public List<String> getAllEvidenceSimplifiedOrdered() {
-        List<String> simplifiedSources = new ArrayList<>();
-        simplifyEvidence(this.getAllEvidence(), simplifiedSources);
-        Collections.sort(simplifiedSources);
+        int[] ids = getAllEvidenceIdsOrdered();
+        List<String> simplifiedSources = new ArrayList<>(ids.length);
+        for(int id : ids) {
+            simplifiedSources.add(EvidenceDictionary.getSimplifiedString(id));
+        }
 
         return simplifiedSources;
     }
 
     /**
-     * Goes through all source {@link URI}{@code s} given and stores them (if possible simplifified) in the given {@link Collection}.
-     * @param simplifiedSources where the (simplified) sources should be stored in as {@link String}
-     * @param allSourceUris the {@link Set} that should be simplified
+     * @return the unique ids of all evidence (see {@link EvidenceDictionary}) ordered the same as
+     * {@link #getAllEvidenceSimplifiedOrdered()}
      */
-    private void simplifyEvidence(Set<URI> allSourceUris, Collection<String> simplifiedSources) {
-        for(URI source : allSourceUris) {
-            String sourceString = source.toString();
-            simplifiedSources.add((sourceString.startsWith("http://identifiers.org/pubmed/") ? sourceString.substring(30) : sourceString));
+    private int[] getAllEvidenceIdsOrdered() {
+        if(allEvidenceOrdered == null) {
+            int length = 0;
+            for(EvidenceIds evidenceIds : sourcesEvidence.values()) {
+                length += evidenceIds.size;
+            }
+            int[] ids = new int[length];
+            length = 0;
+            for(EvidenceIds evidenceIds : sourcesEvidence.values()) {
+                System.arraycopy(evidenceIds.ids, 0, ids, length, evidenceIds.size);
+                length += evidenceIds.size;
+            }
+            allEvidenceOrdered = EvidenceDictionary.sortSimplified(ids, length);
         }
+        return allEvidenceOrdered;
     }
 
     /**
@@ -187,16 +224,26 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
      * @param evidence
      */
     public void add(Source source, URI evidence) {
+        add(source, EvidenceDictionary.getId(evidence));
+    }
+
+    /**
+     * Adds a {@link Source} to this gene-disease combination with an evidence id.
+     * @param source
+     * @param evidenceId an id retrieved from {@link EvidenceDictionary}
+     */
+    public void add(Source source, int evidenceId) {
         // Increments counter for source.
         add(source);
 
-        // Stores evidence URI.
-        List<URI> evidenceList = sourcesEvidence.get(source);
-        if(evidenceList == null) {
-            evidenceList = new ArrayList<>();
-            sourcesEvidence.put(source, evidenceList);
+        // Stores evidence id.
+        EvidenceIds evidenceIds = sourcesEvidence.get(source);
+        if(evidenceIds == null) {
+            evidenceIds = new EvidenceIds();
+            sourcesEvidence.put(source, evidenceIds);
         }
-        evidenceList.add(evidence);
+        evidenceIds.add(evidenceId);
+        allEvidenceOrdered = null;
     }
 
     /**
@@ -217,7 +264,33 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
         return "GeneDiseaseCombination{" +
                 "disgenetScore=" + disgenetScore +
                 ", sourcesCount=" + sourcesCount +
-                ", sourcesEvidence=" + sourcesEvidence +
+                ", sourcesEvidence=" + getSourcesEvidence() +
                 "} " + super.toString();
     }
+
+    /**
+     * @return the evidence {@link URI}{@code s} per {@link Source}
+     */
+    private Map<Source, List<URI>> getSourcesEvidence() {
+        Map<Source, List<URI>> evidence = new HashMap<>();
+        for(Source source : sourcesEvidence.keySet()) {
+            evidence.put(source, getEvidenceForSource(source));
+        }
+        return evidence;
+    }
+
+    /**
+     * The evidence ids of a single {@link Source} in the order they were added.
+     */
+    private static class EvidenceIds {
+        private int[] ids = new int[2];
+        private int size;
+
+        private void add(int id) {
+            if(size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
 }
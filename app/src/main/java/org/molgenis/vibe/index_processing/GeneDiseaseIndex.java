@@ -0,0 +1,329 @@
+package org.molgenis.vibe.index_processing;
+
+import org.molgenis.vibe.exceptions.CorruptDatabaseException;
+import org.molgenis.vibe.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.formats.Source;
+import org.molgenis.vibe.io.input.GeneDiseaseDataset;
+import org.molgenis.vibe.metrics.Stage;
+import org.molgenis.vibe.metrics.StageRecorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * A memory-mapped binary index (as created by {@link GeneDiseaseIndexWriter}) containing the same information as the
+ * DisGeNET RDF data needed for {@link org.molgenis.vibe.tdb_processing.GenesForPhenotypeRetriever}. Retrieval for a
+ * set of {@link Phenotype}{@code s} is done through {@link GenesForPhenotypeIndexRetriever}.
+ * <br /><br />
+ * The file consists of a header followed by several sections (all numbers are big-endian):
+ * <ul>
+ *     <li>header: {@link #MAGIC}, {@link #VERSION} and the sizes of the sections below</li>
+ *     <li>phenotypes: the HPO ids (numeric part, ascending) with per phenotype an offset to its diseases</li>
+ *     <li>phenotype diseases: the disease index for each phenotype-disease link (a phenotype-disease pair occurs once
+ *     for each route through which it is linked within the RDF data)</li>
+ *     <li>diseases: the disease URI with per disease an offset to its rows</li>
+ *     <li>genes: the gene URI and gene symbol URI</li>
+ *     <li>sources: the source URI, title and {@link Source.Level}</li>
+ *     <li>rows: per gene-disease association (and evidence) the gene index, score, source index and evidence URI</li>
+ *     <li>strings: offsets to all UTF-8 encoded strings, followed by the strings themselves</li>
+ * </ul>
+ * Indices that refer to a string are stored as the index within the strings section. An evidence index of
+ * {@link #NO_EVIDENCE} indicates a row without evidence.
+ */
+public class GeneDiseaseIndex implements GeneDiseaseDataset {
+    /**
+     * Identifies a file as a gene-disease index ("VIBE" in ASCII).
+     */
+    static final int MAGIC = 0x56494245;
+
+    /**
+     * The version of the file format. Should be increased whenever the format changes.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The number of header values (magic, version and the section sizes).
+     */
+    static final int HEADER_SIZE = 9;
+
+    /**
+     * Evidence string index used for rows without evidence.
+     */
+    static final int NO_EVIDENCE = -1;
+
+    private final ByteBuffer buffer;
+
+    private final int phenotypesCount;
+    private final int diseasesCount;
+    private final int genesCount;
+    private final int stringsCount;
+
+    private final int phenotypeIdsStart;
+    private final int phenotypeOffsetsStart;
+    private final int phenotypeDiseasesStart;
+    private final int diseaseUrisStart;
+    private final int diseaseOffsetsStart;
+    private final int geneUrisStart;
+    private final int geneSymbolsStart;
+    private final int rowGenesStart;
+    private final int rowScoresStart;
+    private final int rowSourcesStart;
+    private final int rowEvidenceStart;
+    private final int stringOffsetsStart;
+    private final int stringBytesStart;
+
+    /**
+     * The {@link Source}{@code s} are decoded when loading, as there are only a few of them and each row refers to one.
+     */
+    private final Source[] sources;
+
+    /**
+     * @param file the index file
+     * @throws CorruptDatabaseException if {@code file} is not a (supported) gene-disease index
+     * @throws IOException if {@code file} could not be read
+     */
+    public GeneDiseaseIndex(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if(channel.size() > Integer.MAX_VALUE) {
+                throw new CorruptDatabaseException(file.getFileName() + " is larger than the supported 2GB.");
+            }
+            // The mapping stays valid after the channel is closed.
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if(buffer.capacity() < HEADER_SIZE * Integer.BYTES || buffer.getInt(0) != MAGIC) {
+            throw new CorruptDatabaseException(file.getFileName() + " is not a gene-disease index.");
+        }
+        if(buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new CorruptDatabaseException(file.getFileName() + " has an unsupported gene-disease index version: " + buffer.getInt(Integer.BYTES));
+        }
+
+        phenotypesCount = buffer.getInt(2 * Integer.BYTES);
+        int phenotypeDiseasesCount = buffer.getInt(3 * Integer.BYTES);
+        diseasesCount = buffer.getInt(4 * Integer.BYTES);
+        genesCount = buffer.getInt(5 * Integer.BYTES);
+        int sourcesCount = buffer.getInt(6 * Integer.BYTES);
+        int rowsCount = buffer.getInt(7 * Integer.BYTES);
+        stringsCount = buffer.getInt(8 * Integer.BYTES);
+        if(phenotypesCount < 0 || phenotypeDiseasesCount < 0 || diseasesCount < 0 || genesCount < 0 ||
+                sourcesCount < 0 || rowsCount < 0 || stringsCount < 0) {
+            throw new CorruptDatabaseException(file.getFileName() + " contains invalid section sizes.");
+        }
+
+        // Calculated as long to prevent an overflow when the header contains invalid sizes.
+        long position = HEADER_SIZE * Integer.BYTES;
+        phenotypeIdsStart = (int) position;
+        position += (long) phenotypesCount * Integer.BYTES;
+        phenotypeOffsetsStart = checkPosition(file, position);
+        position += ((long) phenotypesCount + 1) * Integer.BYTES;
+        phenotypeDiseasesStart = checkPosition(file, position);
+        position += (long) phenotypeDiseasesCount * Integer.BYTES;
+        diseaseUrisStart = checkPosition(file, position);
+        position += (long) diseasesCount * Integer.BYTES;
+        diseaseOffsetsStart = checkPosition(file, position);
+        position += ((long) diseasesCount + 1) * Integer.BYTES;
+        geneUrisStart = checkPosition(file, position);
+        position += (long) genesCount * Integer.BYTES;
+        geneSymbolsStart = checkPosition(file, position);
+        position += (long) genesCount * Integer.BYTES;
+        int sourcesStart = checkPosition(file, position);
+        position += (long) sourcesCount * 3 * Integer.BYTES;
+        rowGenesStart = checkPosition(file, position);
+        position += (long) rowsCount * Integer.BYTES;
+        rowScoresStart = checkPosition(file, position);
+        position += (long) rowsCount * Double.BYTES;
+        rowSourcesStart = checkPosition(file, position);
+        position += (long) rowsCount * Integer.BYTES;
+        rowEvidenceStart = checkPosition(file, position);
+        position += (long) rowsCount * Integer.BYTES;
+        stringOffsetsStart = checkPosition(file, position);
+        position += ((long) stringsCount + 1) * Integer.BYTES;
+        stringBytesStart = checkPosition(file, position);
+        position += buffer.getInt(stringOffsetsStart + stringsCount * Integer.BYTES);
+        if(position != buffer.capacity()) {
+            throw new CorruptDatabaseException(file.getFileName() + " does not have the expected size.");
+        }
+
+        sources = new Source[sourcesCount];
+        for(int i = 0; i < sourcesCount; i++) {
+            int sourceStart = sourcesStart + i * 3 * Integer.BYTES;
+            try {
+                sources[i] = new Source(URI.create(getString(buffer.getInt(sourceStart))),
+                        getString(buffer.getInt(sourceStart + Integer.BYTES)),
+                        Source.Level.valueOf(getString(buffer.getInt(sourceStart + 2 * Integer.BYTES))));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new CorruptDatabaseException(file.getFileName() + " contains an invalid source.", e);
+            }
+        }
+    }
+
+    /**
+     * @param file the file being loaded (for the exception message)
+     * @param position the start of a section
+     * @return {@code position} as {@code int}
+     * @throws CorruptDatabaseException if {@code position} lies beyond the end of the file
+     */
+    private int checkPosition(Path file, long position) throws CorruptDatabaseException {
+        if(position > buffer.capacity()) {
+            throw new CorruptDatabaseException(file.getFileName() + " does not have the expected size.");
+        }
+        return (int) position;
+    }
+
+    @Override
+    public GeneDiseaseCollection retrieve(Set<Phenotype> phenotypes, StageRecorder stageRecorder) {
+        long start = System.nanoTime();
+        GenesForPhenotypeIndexRetriever retriever = new GenesForPhenotypeIndexRetriever(this, phenotypes);
+        retriever.run();
+        // The sources are already decoded when loading the index, so only the retrieval itself is recorded.
+        stageRecorder.record(Stage.GDA_QUERY, System.nanoTime() - start, retriever.getRowsCount(),
+                retriever.getEntitiesCount());
+        return retriever.getGeneDiseaseCollection();
+    }
+
+    /**
+     * Nothing to close, the memory-mapped file is released when this instance is garbage collected.
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Searches the phenotypes section (binary search).
+     * @param phenotype the {@link Phenotype} to search for
+     * @return the phenotype index, or a negative number if the index does not contain {@code phenotype}
+     */
+    int findPhenotype(Phenotype phenotype) {
+        int hpoId;
+        try {
+            hpoId = Integer.parseInt(phenotype.getId());
+        } catch (NumberFormatException e) {
+            return -1; // Only numeric ids are stored.
+        }
+        int low = 0;
+        int high = phenotypesCount - 1;
+        while(low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleId = buffer.getInt(phenotypeIdsStart + middle * Integer.BYTES);
+            if(middleId < hpoId) {
+                low = middle + 1;
+            } else if(middleId > hpoId) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param phenotype a phenotype index
+     * @return the first index (inclusive) of the phenotype diseases belonging to {@code phenotype}
+     */
+    int getPhenotypeDiseasesFrom(int phenotype) {
+        return buffer.getInt(phenotypeOffsetsStart + phenotype * Integer.BYTES);
+    }
+
+    /**
+     * @param phenotype a phenotype index
+     * @return the last index (exclusive) of the phenotype diseases belonging to {@code phenotype}
+     */
+    int getPhenotypeDiseasesTo(int phenotype) {
+        return buffer.getInt(phenotypeOffsetsStart + (phenotype + 1) * Integer.BYTES);
+    }
+
+    /**
+     * @param phenotypeDisease a phenotype disease index
+     * @return the disease index
+     */
+    int getPhenotypeDisease(int phenotypeDisease) {
+        return buffer.getInt(phenotypeDiseasesStart + phenotypeDisease * Integer.BYTES);
+    }
+
+    int getDiseasesCount() {
+        return diseasesCount;
+    }
+
+    String getDiseaseUri(int disease) {
+        return getString(buffer.getInt(diseaseUrisStart + disease * Integer.BYTES));
+    }
+
+    /**
+     * @param disease a disease index
+     * @return the first row (inclusive) belonging to {@code disease}
+     */
+    int getRowsFrom(int disease) {
+        return buffer.getInt(diseaseOffsetsStart + disease * Integer.BYTES);
+    }
+
+    /**
+     * @param disease a disease index
+     * @return the last row (exclusive) belonging to {@code disease}
+     */
+    int getRowsTo(int disease) {
+        return buffer.getInt(diseaseOffsetsStart + (disease + 1) * Integer.BYTES);
+    }
+
+    int getGenesCount() {
+        return genesCount;
+    }
+
+    String getGeneUri(int gene) {
+        return getString(buffer.getInt(geneUrisStart + gene * Integer.BYTES));
+    }
+
+    String getGeneSymbolUri(int gene) {
+        return getString(buffer.getInt(geneSymbolsStart + gene * Integer.BYTES));
+    }
+
+    int getRowGene(int row) {
+        return buffer.getInt(rowGenesStart + row * Integer.BYTES);
+    }
+
+    double getRowScore(int row) {
+        return buffer.getDouble(rowScoresStart + row * Double.BYTES);
+    }
+
+    Source getRowSource(int row) {
+        return sources[buffer.getInt(rowSourcesStart + row * Integer.BYTES)];
+    }
+
+    /**
+     * @param row a row index
+     * @return the evidence URI, or {@code null} if the row has no evidence
+     */
+    String getRowEvidenceUri(int row) {
+        int evidence = buffer.getInt(rowEvidenceStart + row * Integer.BYTES);
+        return evidence == NO_EVIDENCE ? null : getString(evidence);
+    }
+
+    Source[] getSources() {
+        return Arrays.copyOf(sources, sources.length);
+    }
+
+    /**
+     * Decodes a string. Only uses absolute reads on {@link #buffer} so that it can be used by multiple threads.
+     * @param index the string index
+     * @return the decoded {@link String}
+     */
+    private String getString(int index) {
+        if(index < 0 || index >= stringsCount) {
+            throw new IndexOutOfBoundsException("Invalid string index: " + index);
+        }
+        int from = buffer.getInt(stringOffsetsStart + index * Integer.BYTES);
+        int to = buffer.getInt(stringOffsetsStart + (index + 1) * Integer.BYTES);
+        byte[] bytes = new byte[to - from];
+        for(int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(stringBytesStart + from + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
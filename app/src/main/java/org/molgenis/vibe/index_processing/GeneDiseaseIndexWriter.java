@@ -0,0 +1,307 @@
+package org.molgenis.vibe.index_processing;
+
+import static java.util.Objects.requireNonNull;
+
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.RDFNode;
+import org.molgenis.vibe.exceptions.CorruptDatabaseException;
+import org.molgenis.vibe.formats.Source;
+import org.molgenis.vibe.io.input.ModelReader;
+import org.molgenis.vibe.tdb_processing.DisgenetRdfDataRetriever;
+import org.molgenis.vibe.tdb_processing.TdbOptimizationRegistry;
+import org.molgenis.vibe.tdb_processing.query_runner.QueryRunner;
+import org.molgenis.vibe.tdb_processing.query_string_creation.QueryStringGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Creates a {@link GeneDiseaseIndex} file from the DisGeNET RDF data. All data is retrieved using two queries
+ * (phenotype-disease links and disease-gene information) instead of a query per set of phenotypes.
+ */
+public class GeneDiseaseIndexWriter extends DisgenetRdfDataRetriever {
+    /**
+     * Phenotypes that can not be described by a {@link org.molgenis.vibe.formats.Phenotype} are not stored.
+     */
+    private static final Pattern PHENOTYPE_URI_REGEX = Pattern.compile("^http://purl.obolibrary.org/obo/HP_([0-9]{7})$");
+
+    /**
+     * The file to write the index to.
+     */
+    private Path indexFile;
+
+    /**
+     * The linked disease URIs per HPO id (numeric part). Each link found is stored, so a disease can occur multiple
+     * times for a single phenotype.
+     */
+    private SortedMap<Integer, List<String>> phenotypeDiseases = new TreeMap<>();
+
+    /**
+     * The rows per disease URI.
+     */
+    private SortedMap<String, List<Row>> diseaseRows = new TreeMap<>();
+
+    /**
+     * The gene index per gene URI.
+     */
+    private Map<String, Integer> genes = new LinkedHashMap<>();
+
+    /**
+     * The gene symbol URI per gene index.
+     */
+    private List<String> geneSymbols = new ArrayList<>();
+
+    /**
+     * The string index per string.
+     */
+    private Map<String, Integer> strings = new LinkedHashMap<>();
+
+    public GeneDiseaseIndexWriter(ModelReader modelReader, Path indexFile) {
+        super(modelReader);
+        this.indexFile = requireNonNull(indexFile);
+    }
+
+    /**
+     * @throws FileAlreadyExistsException if the index file already exists
+     * @throws IOException if the index file could not be written
+     */
+    @Override
+    public void run() throws IOException {
+        if(Files.exists(indexFile)) {
+            throw new FileAlreadyExistsException(indexFile.getFileName() + " already exists.");
+        }
+        retrieveSources();
+        retrievePhenotypeDiseases();
+        retrieveDiseaseRows();
+        removeDiseasesWithoutRows();
+        write();
+    }
+
+    private void retrievePhenotypeDiseases() {
+        QueryRunner query = new QueryRunner(getModelReader().getModel(),
+                QueryStringGenerator.getDiseasesForAllPhenotypes(TdbOptimizationRegistry.getOptimizations(getModelReader())));
+
+        while(query.hasNext()) {
+            QuerySolution result = query.next();
+
+            RDFNode hpo = result.get("hpo");
+            if(!hpo.isURIResource()) {
+                continue;
+            }
+            Matcher matcher = PHENOTYPE_URI_REGEX.matcher(hpo.asResource().getURI());
+            if(!matcher.matches()) {
+                continue;
+            }
+
+            phenotypeDiseases.computeIfAbsent(Integer.parseInt(matcher.group(1)), k -> new ArrayList<>())
+                    .add(result.get("disease").asResource().getURI());
+        }
+
+        query.close();
+
+        // Only diseases linked to a phenotype are stored.
+        phenotypeDiseases.values().forEach(diseases -> diseases.forEach(disease -> diseaseRows.put(disease, new ArrayList<>())));
+    }
+
+    /**
+     * @throws CorruptDatabaseException if a gene-disease association refers to an unknown {@link Source}
+     */
+    private void retrieveDiseaseRows() throws CorruptDatabaseException {
+        QueryRunner query = new QueryRunner(getModelReader().getModel(),
+                QueryStringGenerator.getGenesForAllDiseases(TdbOptimizationRegistry.getOptimizations(getModelReader())));
+
+        while(query.hasNext()) {
+            QuerySolution result = query.next();
+
+            List<Row> rows = diseaseRows.get(result.get("disease").asResource().getURI());
+            if(rows == null) {
+                continue;
+            }
+
+            String geneUri = result.get("gene").asResource().getURI();
+            Integer gene = genes.get(geneUri);
+            if(gene == null) {
+                gene = genes.size();
+                genes.put(geneUri, gene);
+                geneSymbols.add(result.get("geneSymbol").asResource().getURI());
+            }
+
+            URI source = URI.create(result.get("gdaSource").asResource().getURI());
+            if(getSource(source) == null) {
+                query.close();
+                throw new CorruptDatabaseException("Unknown source: " + source);
+            }
+
+            rows.add(new Row(gene,
+                    result.get("gdaScoreNumber").asLiteral().getDouble(),
+                    source,
+                    result.get("evidence") == null ? null : result.get("evidence").asResource().getURI()));
+        }
+
+        query.close();
+    }
+
+    /**
+     * Removes diseases without gene-disease associations (these do not occur in the query results for a set of
+     * phenotypes either).
+     */
+    private void removeDiseasesWithoutRows() {
+        diseaseRows.values().removeIf(List::isEmpty);
+        phenotypeDiseases.values().forEach(diseases -> diseases.removeIf(disease -> !diseaseRows.containsKey(disease)));
+        phenotypeDiseases.values().removeIf(List::isEmpty);
+    }
+
+    private void write() throws IOException {
+        List<Source> sources = new ArrayList<>(getSources().values());
+        Map<URI, Integer> sourceIndices = new HashMap<>();
+        for(Source source : sources) {
+            sourceIndices.put(source.getUri(), sourceIndices.size());
+        }
+        Map<String, Integer> diseaseIndices = new HashMap<>();
+        for(String disease : diseaseRows.keySet()) {
+            diseaseIndices.put(disease, diseaseIndices.size());
+        }
+        int phenotypeDiseasesCount = phenotypeDiseases.values().stream().mapToInt(List::size).sum();
+        int rowsCount = diseaseRows.values().stream().mapToInt(List::size).sum();
+
+        // Strings are stored in the order they are referred to.
+        int[] diseaseUris = diseaseRows.keySet().stream().mapToInt(this::internString).toArray();
+        int[] geneUris = genes.keySet().stream().mapToInt(this::internString).toArray();
+        int[] geneSymbolUris = geneSymbols.stream().mapToInt(this::internString).toArray();
+        int[][] sourceStrings = new int[sources.size()][];
+        for(int i = 0; i < sources.size(); i++) {
+            sourceStrings[i] = new int[]{internString(sources.get(i).getUri().toString()),
+                    internString(sources.get(i).getFullName()), internString(sources.get(i).getLevel().name())};
+        }
+        for(List<Row> rows : diseaseRows.values()) {
+            for(Row row : rows) {
+                row.evidenceIndex = row.evidence == null ? GeneDiseaseIndex.NO_EVIDENCE : internString(row.evidence);
+            }
+        }
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+            // Header.
+            output.writeInt(GeneDiseaseIndex.MAGIC);
+            output.writeInt(GeneDiseaseIndex.VERSION);
+            output.writeInt(phenotypeDiseases.size());
+            output.writeInt(phenotypeDiseasesCount);
+            output.writeInt(diseaseRows.size());
+            output.writeInt(genes.size());
+            output.writeInt(sources.size());
+            output.writeInt(rowsCount);
+            output.writeInt(strings.size());
+
+            // Phenotypes.
+            for(int hpoId : phenotypeDiseases.keySet()) {
+                output.writeInt(hpoId);
+            }
+            int offset = 0;
+            output.writeInt(offset);
+            for(List<String> diseases : phenotypeDiseases.values()) {
+                offset += diseases.size();
+                output.writeInt(offset);
+            }
+            for(List<String> diseases : phenotypeDiseases.values()) {
+                for(String disease : diseases) {
+                    output.writeInt(diseaseIndices.get(disease));
+                }
+            }
+
+            // Diseases.
+            writeInts(output, diseaseUris);
+            offset = 0;
+            output.writeInt(offset);
+            for(List<Row> rows : diseaseRows.values()) {
+                offset += rows.size();
+                output.writeInt(offset);
+            }
+
+            // Genes.
+            writeInts(output, geneUris);
+            writeInts(output, geneSymbolUris);
+
+            // Sources.
+            for(int[] sourceString : sourceStrings) {
+                writeInts(output, sourceString);
+            }
+
+            // Rows (per column).
+            for(List<Row> rows : diseaseRows.values()) {
+                for(Row row : rows) {
+                    output.writeInt(row.gene);
+                }
+            }
+            for(List<Row> rows : diseaseRows.values()) {
+                for(Row row : rows) {
+                    output.writeDouble(row.score);
+                }
+            }
+            for(List<Row> rows : diseaseRows.values()) {
+                for(Row row : rows) {
+                    output.writeInt(sourceIndices.get(row.source));
+                }
+            }
+            for(List<Row> rows : diseaseRows.values()) {
+                for(Row row : rows) {
+                    output.writeInt(row.evidenceIndex);
+                }
+            }
+
+            // Strings.
+            List<byte[]> encodedStrings = new ArrayList<>();
+            for(String string : strings.keySet()) {
+                encodedStrings.add(string.getBytes(StandardCharsets.UTF_8));
+            }
+            offset = 0;
+            output.writeInt(offset);
+            for(byte[] encodedString : encodedStrings) {
+                offset += encodedString.length;
+                output.writeInt(offset);
+            }
+            for(byte[] encodedString : encodedStrings) {
+                output.write(encodedString);
+            }
+        }
+    }
+
+    private void writeInts(DataOutputStream output, int[] values) throws IOException {
+        for(int value : values) {
+            output.writeInt(value);
+        }
+    }
+
+    /**
+     * @param string the {@link String} to be stored
+     * @return the string index of {@code string}
+     */
+    private int internString(String string) {
+        return strings.computeIfAbsent(string, k -> strings.size());
+    }
+
+    /**
+     * A single gene-disease association (and evidence) result.
+     */
+    private static class Row {
+        private final int gene;
+        private final double score;
+        private final URI source;
+        private final String evidence;
+        private int evidenceIndex;
+
+        Row(int gene, double score, URI source, String evidence) {
+            this.gene = gene;
+            this.score = score;
+            this.source = requireNonNull(source);
+            this.evidence = evidence;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.molgenis.vibe.index_processing;
+
+import static java.util.Objects.requireNonNull;
+
+import org.molgenis.vibe.formats.*;
+
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Retrieves the genes belonging to the given phenotypes from a {@link GeneDiseaseIndex}. Produces the same
+ * {@link GeneDiseaseCollection} as {@link org.molgenis.vibe.tdb_processing.GenesForPhenotypeRetriever} does for the
+ * RDF data the index was created from.
+ */
+public class GenesForPhenotypeIndexRetriever {
+    /**
+     * The index to retrieve the data from.
+     */
+    private GeneDiseaseIndex index;
+
+    /**
+     * The {@link Phenotype}{@code s} to be processed.
+     */
+    private Set<Phenotype> phenotypes;
+
+    /**
+     * {@link Gene}{@code s} storage for easy retrieval (by gene index).
+     */
+    private Map<Integer, Gene> genes = new HashMap<>();
+
+    /**
+     * {@link Disease}{@code s} storage for easy retrieval (by disease index).
+     */
+    private Map<Integer, Disease> diseases = new HashMap<>();
+
+    /**
+     * The {@link GeneDiseaseCombination}{@code s} by gene index (upper 32 bits) and disease index (lower 32 bits).
+     */
+    private Map<Long, GeneDiseaseCombination> combinations = new HashMap<>();
+
+    /**
+     * The number of processed rows.
+     */
+    private long rowsCount;
+
+    /**
+     * The final output to be retrieved for further usage after querying.
+     */
+    private GeneDiseaseCollection geneDiseaseCollection = new GeneDiseaseCollection();
+
+    public GeneDiseaseCollection getGeneDiseaseCollection() {
+        return geneDiseaseCollection;
+    }
+
+    /**
+     * @return the number of rows processed by {@link #run()}
+     */
+    public long getRowsCount() {
+        return rowsCount;
+    }
+
+    /**
+     * @return the number of {@link Gene}{@code s} and {@link Disease}{@code s} created by {@link #run()}
+     */
+    public long getEntitiesCount() {
+        return genes.size() + diseases.size();
+    }
+
+    public GenesForPhenotypeIndexRetriever(GeneDiseaseIndex index, Set<Phenotype> phenotypes) {
+        this.index = requireNonNull(index);
+        this.phenotypes = requireNonNull(phenotypes);
+    }
+
+    public void run() {
+        for(Phenotype phenotype : phenotypes) {
+            int phenotypeIndex = index.findPhenotype(phenotype);
+            if(phenotypeIndex < 0) {
+                continue;
+            }
+
+            // A disease is processed as often as it is linked to the phenotype (same as the query results).
+            int phenotypeDiseasesTo = index.getPhenotypeDiseasesTo(phenotypeIndex);
+            for(int i = index.getPhenotypeDiseasesFrom(phenotypeIndex); i < phenotypeDiseasesTo; i++) {
+                retrieveDiseaseRows(index.getPhenotypeDisease(i));
+            }
+        }
+    }
+
+    /**
+     * Adds all rows belonging to a disease to {@link #geneDiseaseCollection}.
+     * @param diseaseIndex the disease index
+     */
+    private void retrieveDiseaseRows(int diseaseIndex) {
+        int rowsFrom = index.getRowsFrom(diseaseIndex);
+        int rowsTo = index.getRowsTo(diseaseIndex);
+        if(rowsFrom == rowsTo) {
+            return;
+        }
+
+        Disease disease = diseases.get(diseaseIndex);
+        if(disease == null) {
+            disease = new Disease(URI.create(index.getDiseaseUri(diseaseIndex)));
+            diseases.put(diseaseIndex, disease);
+        }
+
+        rowsCount += rowsTo - rowsFrom;
+        for(int row = rowsFrom; row < rowsTo; row++) {
+            int geneIndex = index.getRowGene(row);
+            long combinationKey = ((long) geneIndex << 32) | diseaseIndex;
+
+            // If the gene-disease combination is not present yet, creates it and also adds it to the collection.
+            GeneDiseaseCombination gdc = combinations.get(combinationKey);
+            if(gdc == null) {
+                Gene gene = genes.get(geneIndex);
+                if(gene == null) {
+                    gene = new Gene(URI.create(index.getGeneUri(geneIndex)),
+                            new GeneSymbol(URI.create(index.getGeneSymbolUri(geneIndex))));
+                    genes.put(geneIndex, gene);
+                }
+                gdc = new GeneDiseaseCombination(gene, disease, index.getRowScore(row));
+                combinations.put(combinationKey, gdc);
+                geneDiseaseCollection.add(gdc);
+            }
+
+            // Adds source to gene-disease combination (with evidence if available).
+            String evidence = index.getRowEvidenceUri(row);
+            if(evidence != null) {
+                gdc.add(index.getRowSource(row), EvidenceDictionary.getId(evidence));
+            } else {
+                gdc.add(index.getRowSource(row));
+            }
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package org.molgenis.vibe.io.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import org.molgenis.vibe.exceptions.CorruptDatabaseException;
+import org.molgenis.vibe.formats.*;
+import org.molgenis.vibe.io.input.DatasetVersion;
+import org.molgenis.vibe.ontology_processing.PhenotypesRetrieverFactory;
+import org.molgenis.vibe.tdb_processing.query_string_creation.GdaQueryOptions;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A directory storing the {@link GeneDiseaseCollection} of previous runs, so that re-running an identical run does not
+ * need to access the main dataset (or the phenotype ontology) at all. Each {@link GeneDiseaseCollection} is stored in
+ * its own file, named after the SHA-256 of its key (see {@link #createKey(String, Set, PhenotypesRetrieverFactory, Integer, String)}).
+ * <br /><br />
+ * The total size of the files is bounded: after storing a file, the least recently used files are removed until the
+ * directory fits within the maximum size again (a file is marked as used by updating its modification time).
+ * <br /><br />
+ * A file consists of (all numbers are big-endian, other strings are stored as modified UTF-8):
+ * <ul>
+ *     <li>header: {@link #MAGIC}, {@link #VERSION} and the full key as UTF-8 bytes preceded by its length (to
+ *     exclude hash collisions)</li>
+ *     <li>sources: the source URI, title and {@link Source.Level}</li>
+ *     <li>genes: the gene URI and gene symbol URI</li>
+ *     <li>diseases: the disease URI</li>
+ *     <li>combinations: the gene index, disease index, score and per source the source index, the count and the
+ *     evidence URIs</li>
+ * </ul>
+ * Each section starts with the number of items within it.
+ */
+public class GeneDiseaseCollectionCache {
+    /**
+     * Identifies a file as a cached gene-disease collection ("VGDC" in ASCII).
+     */
+    static final int MAGIC = 0x56474443;
+
+    /**
+     * The version of the file format. Should be increased whenever the format (or the content of a
+     * {@link GeneDiseaseCollection} for a specific key) changes.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The extension of the cache files.
+     */
+    static final String EXTENSION = ".gdc";
+
+    private final Path directory;
+
+    /**
+     * The maximum total size of all cache files in bytes.
+     */
+    private final long maxSize;
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @param directory the cache directory (is created if it does not exist yet)
+     * @param maxSize the maximum total size of all cache files in bytes
+     * @throws IOException if the directory could not be created
+     * @throws IllegalArgumentException if {@code maxSize} is lower than 1
+     */
+    public GeneDiseaseCollectionCache(Path directory, long maxSize) throws IOException {
+        if(maxSize < 1) {
+            throw new IllegalArgumentException("The cache size should be at least 1.");
+        }
+        this.directory = Files.createDirectories(requireNonNull(directory));
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creates the key for a run. Different keys always belong to different runs, while the same key indicates that the
+     * same {@link GeneDiseaseCollection} would be retrieved.
+     * @param datasetVersion the version of the main dataset (see {@link DatasetVersion})
+     * @param phenotypes the input {@link Phenotype}{@code s}
+     * @param phenotypesRetrieverFactory the algorithm used for retrieving associated phenotypes ({@code null} if none)
+     * @param maxDistance the maximum distance used for {@code phenotypesRetrieverFactory} ({@code null} if none)
+     * @param ontologyVersion the version of the phenotype ontology ({@code null} if none)
+     * @return the key
+     */
+    public static String createKey(String datasetVersion, Set<Phenotype> phenotypes,
+                                   PhenotypesRetrieverFactory phenotypesRetrieverFactory, Integer maxDistance,
+                                   String ontologyVersion) {
+        return createKey(datasetVersion, phenotypes, phenotypesRetrieverFactory, maxDistance, ontologyVersion,
+                GdaQueryOptions.ALL);
+    }
+
+    /**
+     * Same as {@link #createKey(String, Set, PhenotypesRetrieverFactory, Integer, String)}, but for a run that only
+     * retrieved the gene-disease associations matching {@code options}. If these are {@link GdaQueryOptions#ALL}, the
+     * key is the same as when no options are given.
+     * @param datasetVersion the version of the main dataset (see {@link DatasetVersion})
+     * @param phenotypes the input {@link Phenotype}{@code s}
+     * @param phenotypesRetrieverFactory the algorithm used for retrieving associated phenotypes ({@code null} if none)
+     * @param maxDistance the maximum distance used for {@code phenotypesRetrieverFactory} ({@code null} if none)
+     * @param ontologyVersion the version of the phenotype ontology ({@code null} if none)
+     * @param options the {@link GdaQueryOptions} used for retrieving the gene-disease associations
+     * @return the key
+     */
+    public static String createKey(String datasetVersion, Set<Phenotype> phenotypes,
+                                   PhenotypesRetrieverFactory phenotypesRetrieverFactory, Integer maxDistance,
+                                   String ontologyVersion, GdaQueryOptions options) {
+        // Sorted so that the order in which phenotypes were given does not matter.
+        String phenotypeIds = phenotypes.stream().map(Phenotype::getFormattedId).sorted().collect(Collectors.joining(","));
+        return "dataset=" + requireNonNull(datasetVersion) + "\n" +
+                "phenotypes=" + phenotypeIds + "\n" +
+                "algorithm=" + (phenotypesRetrieverFactory == null ? "" : phenotypesRetrieverFactory.getId()) + "\n" +
+                "maxDistance=" + (maxDistance == null ? "" : maxDistance) + "\n" +
+                "ontology=" + (ontologyVersion == null ? "" : ontologyVersion) + "\n" +
+                (options.equals(GdaQueryOptions.ALL) ? "" : "gdaOptions=" + options + "\n");
+    }
+
+    /**
+     * @param key see {@link #createKey(String, Set, PhenotypesRetrieverFactory, Integer, String)}
+     * @return the cache file belonging to {@code key}
+     */
+    Path getFile(String key) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every Java platform is required to support SHA-256.
+        }
+        return directory.resolve(DatasetVersion.toHex(digest.digest(key.getBytes(StandardCharsets.UTF_8))) + EXTENSION);
+    }
+
+    /**
+     * Retrieves a stored {@link GeneDiseaseCollection}. An invalid file (or one belonging to a different key) is removed
+     * and treated as not stored.
+     * @param key see {@link #createKey(String, Set, PhenotypesRetrieverFactory, Integer, String)}
+     * @return the stored {@link GeneDiseaseCollection}, or {@code null} if none is stored for {@code key}
+     * @throws IOException if an existing file could not be read
+     */
+    public GeneDiseaseCollection read(String key) throws IOException {
+        Path file = getFile(key);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            GeneDiseaseCollection collection = read(input, key);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return collection;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (CorruptDatabaseException | EOFException | UTFDataFormatException e) {
+            Files.deleteIfExists(file);
+            return null;
+        }
+    }
+
+    private GeneDiseaseCollection read(DataInputStream input, String key) throws IOException {
+        if(input.readInt() != MAGIC || input.readInt() != VERSION) {
+            throw new CorruptDatabaseException("Not a (supported) cached gene-disease collection.");
+        }
+        // The key is not stored using writeUTF(), as it can exceed its maximum length when using many phenotypes.
+        int keyLength = input.readInt();
+        byte[] storedKey = key.getBytes(StandardCharsets.UTF_8);
+        if(keyLength != storedKey.length) {
+            throw new CorruptDatabaseException("Cached gene-disease collection belongs to a different key.");
+        }
+        input.readFully(storedKey);
+        if(!new String(storedKey, StandardCharsets.UTF_8).equals(key)) {
+            throw new CorruptDatabaseException("Cached gene-disease collection belongs to a different key.");
+        }
+
+        try {
+            Source[] sources = new Source[input.readInt()];
+            for(int i = 0; i < sources.length; i++) {
+                sources[i] = new Source(URI.create(input.readUTF()), input.readUTF(), Source.Level.valueOf(input.readUTF()));
+            }
+            Gene[] genes = new Gene[input.readInt()];
+            for(int i = 0; i < genes.length; i++) {
+                genes[i] = new Gene(URI.create(input.readUTF()), new GeneSymbol(URI.create(input.readUTF())));
+            }
+            Disease[] diseases = new Disease[input.readInt()];
+            for(int i = 0; i < diseases.length; i++) {
+                diseases[i] = new Disease(URI.create(input.readUTF()));
+            }
+
+            GeneDiseaseCollection collection = new GeneDiseaseCollection();
+            int combinationsCount = input.readInt();
+            for(int i = 0; i < combinationsCount; i++) {
+                GeneDiseaseCombination gdc = new GeneDiseaseCombination(genes[input.readInt()], diseases[input.readInt()],
+                        input.readDouble());
+                int sourcesCount = input.readInt();
+                for(int j = 0; j < sourcesCount; j++) {
+                    Source source = sources[input.readInt()];
+                    int count = input.readInt();
+                    int evidenceCount = input.readInt();
+                    for(int k = 0; k < evidenceCount; k++) {
+                        gdc.add(source, EvidenceDictionary.getId(input.readUTF()));
+                    }
+                    for(int k = evidenceCount; k < count; k++) {
+                        gdc.add(source);
+                    }
+                }
+                collection.add(gdc);
+            }
+            if(input.read() != -1) {
+                throw new CorruptDatabaseException("Cached gene-disease collection contains more data than expected.");
+            }
+            return collection;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new CorruptDatabaseException("Cached gene-disease collection contains invalid data.", e);
+        }
+    }
+
+    /**
+     * Stores a {@link GeneDiseaseCollection} (replacing any previously stored one for the same key) and removes the least
+     * recently used files if the maximum size is exceeded. The file is first written to a temporary file within the
+     * cache directory, so that simultaneous runs never read an incomplete file.
+     * @param key see {@link #createKey(String, Set, PhenotypesRetrieverFactory, Integer, String)}
+     * @param collection the {@link GeneDiseaseCollection} to store
+     * @throws IOException if the file could not be written
+     */
+    public void write(String key, GeneDiseaseCollection collection) throws IOException {
+        Path file = getFile(key);
+        Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                write(output, key, collection);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        evict();
+    }
+
+    private void write(DataOutputStream output, String key, GeneDiseaseCollection collection) throws IOException {
+        // Entities are stored once and referred to by their index.
+        Map<Source, Integer> sources = new LinkedHashMap<>();
+        Map<Gene, Integer> genes = new LinkedHashMap<>();
+        Map<Disease, Integer> diseases = new LinkedHashMap<>();
+        for(GeneDiseaseCombination gdc : collection) {
+            genes.putIfAbsent(gdc.getGene(), genes.size());
+            diseases.putIfAbsent(gdc.getDisease(), diseases.size());
+            for(Source source : gdc.getSourcesWithCount()) {
+                sources.putIfAbsent(source, sources.size());
+            }
+        }
+
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(keyBytes.length);
+        output.write(keyBytes);
+
+        output.writeInt(sources.size());
+        for(Source source : sources.keySet()) {
+            output.writeUTF(source.getUri().toString());
+            output.writeUTF(source.getFullName());
+            output.writeUTF(source.getLevel().name());
+        }
+        output.writeInt(genes.size());
+        for(Gene gene : genes.keySet()) {
+            output.writeUTF(gene.getUri().toString());
+            output.writeUTF(gene.getSymbol().getUri().toString());
+        }
+        output.writeInt(diseases.size());
+        for(Disease disease : diseases.keySet()) {
+            output.writeUTF(disease.getUri().toString());
+        }
+
+        output.writeInt(collection.size());
+        for(GeneDiseaseCombination gdc : collection) {
+            output.writeInt(genes.get(gdc.getGene()));
+            output.writeInt(diseases.get(gdc.getDisease()));
+            output.writeDouble(gdc.getDisgenetScore());
+            output.writeInt(gdc.getSourcesWithCount().size());
+            for(Source source : gdc.getSourcesWithCount()) {
+                output.writeInt(sources.get(source));
+                output.writeInt(gdc.getCountForSource(source));
+                int[] evidence = gdc.getEvidenceIdsForSource(source);
+                if(evidence == null) {
+                    output.writeInt(0);
+                } else {
+                    output.writeInt(evidence.length);
+                    for(int evidenceId : evidence) {
+                        output.writeUTF(EvidenceDictionary.getUriString(evidenceId));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the least recently used files until the total size does not exceed {@link #maxSize}.
+     * @throws IOException if the cache directory could not be read
+     */
+    private synchronized void evict() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(file -> file.getFileName().toString().endsWith(EXTENSION)).collect(Collectors.toList());
+        }
+
+        Map<Path, FileTime> lastUsed = new HashMap<>();
+        long size = 0;
+        for(Path file : files) {
+            try {
+                lastUsed.put(file, Files.getLastModifiedTime(file));
+                size += Files.size(file);
+            } catch (NoSuchFileException e) {
+                // Removed by a simultaneous run.
+            }
+        }
+        if(size <= maxSize) {
+            return;
+        }
+
+        List<Path> leastRecentlyUsed = new ArrayList<>(lastUsed.keySet());
+        leastRecentlyUsed.sort(Comparator.comparing(lastUsed::get));
+        for(Path file : leastRecentlyUsed) {
+            if(size <= maxSize) {
+                break;
+            }
+            try {
+                size -= Files.size(file);
+                Files.delete(file);
+            } catch (NoSuchFileException e) {
+                // Removed by a simultaneous run.
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.molgenis.vibe.io.input;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Identifies the version of a dataset on disk (such as a TDB directory or an index file) without reading its content.
+ * The version is based on the names, sizes and modification times of the files, so any change to the dataset results in
+ * a different version.
+ */
+public final class DatasetVersion {
+    /**
+     * Files within a TDB directory that can change without the data itself being changed.
+     */
+    private static final Set<String> IGNORED_FILES = new HashSet<>(Arrays.asList("tdb.lock", "journal.jrnl"));
+
+    private DatasetVersion() {
+    }
+
+    /**
+     * @param dataset a file or a directory (of which all files within it are used, including those in subdirectories)
+     * @return the dataset version (hexadecimal SHA-256 string)
+     * @throws IOException if {@code dataset} could not be read
+     */
+    public static String calculate(Path dataset) throws IOException {
+        List<Path> files;
+        if(Files.isDirectory(dataset)) {
+            try (Stream<Path> stream = Files.walk(dataset)) {
+                files = stream.filter(Files::isRegularFile)
+                        .filter(file -> !IGNORED_FILES.contains(file.getFileName().toString()))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        } else {
+            files = Collections.singletonList(dataset);
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every Java platform is required to support SHA-256.
+        }
+        for(Path file : files) {
+            // Uses the relative path (so that moving the dataset does not change its version).
+            Path name = file.equals(dataset) ? file.getFileName() : dataset.relativize(file);
+            String fileVersion = name + "\t" + Files.size(file) + "\t" + Files.getLastModifiedTime(file).toMillis() + "\n";
+            digest.update(fileVersion.getBytes(StandardCharsets.UTF_8));
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @param bytes the bytes to convert
+     * @return a lowercase hexadecimal {@link String}
+     */
+    public static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for(byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
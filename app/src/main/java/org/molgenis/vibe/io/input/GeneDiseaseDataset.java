@@ -0,0 +1,33 @@
+package org.molgenis.vibe.io.input;
+
+import org.molgenis.vibe.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.metrics.StageRecorder;
+
+import java.util.Set;
+
+/**
+ * A loaded dataset from which a {@link GeneDiseaseCollection} can be retrieved for any number of sets of
+ * {@link Phenotype}{@code s}. Implementations should allow {@link #retrieve(Set, StageRecorder)} to be called from
+ * multiple threads simultaneously.
+ */
+public interface GeneDiseaseDataset {
+    /**
+     * Retrieves the gene-disease combinations belonging to the given {@link Phenotype}{@code s}.
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve gene-disease combinations for
+     * @return a new {@link GeneDiseaseCollection}
+     */
+    default GeneDiseaseCollection retrieve(Set<Phenotype> phenotypes) {
+        return retrieve(phenotypes, StageRecorder.NONE);
+    }
+
+    /**
+     * Retrieves the gene-disease combinations belonging to the given {@link Phenotype}{@code s}.
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve gene-disease combinations for
+     * @param stageRecorder receives the metrics of the retrieval stages
+     * @return a new {@link GeneDiseaseCollection}
+     */
+    GeneDiseaseCollection retrieve(Set<Phenotype> phenotypes, StageRecorder stageRecorder);
+
+    void close();
+}
@@ -0,0 +1,127 @@
+package org.molgenis.vibe.io.input;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.system.Txn;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Creates a {@link Model} by copying all triples of another {@link ModelReader} (such as a TDB) into an indexed,
+ * transactional in-memory dataset (see {@link DatasetFactory#createTxnMem()}). After loading, queries do not depend on
+ * memory-mapped files or the page cache of the operating system, so their latency is predictable from the first query
+ * onwards (at the cost of keeping the complete dataset on the heap).
+ */
+public class InMemoryDbReader implements ModelReader {
+    /**
+     * The number of triples after which the loading progress is reported.
+     */
+    public static final long PROGRESS_INTERVAL = 1_000_000;
+
+    private Dataset dataset;
+
+    private Model model;
+
+    /**
+     * The number of triples loaded into memory.
+     */
+    private long triplesCount;
+
+    @Override
+    public Model getModel() {
+        return model;
+    }
+
+    public long getTriplesCount() {
+        return triplesCount;
+    }
+
+    /**
+     * Loads a TDB into memory (the TDB itself is closed afterwards).
+     * @param tdb {@link Path} to the TDB
+     * @param progress receives a message after each {@link #PROGRESS_INTERVAL} triples and after loading finished
+     * @throws IOException see {@link TripleStoreDbReader#TripleStoreDbReader(Path)}
+     */
+    public InMemoryDbReader(Path tdb, Consumer<String> progress) throws IOException {
+        TripleStoreDbReader tdbReader = new TripleStoreDbReader(tdb);
+        try {
+            load(tdbReader, progress);
+        } finally {
+            tdbReader.close();
+        }
+    }
+
+    /**
+     * @param source the {@link ModelReader} to copy the triples from (is not closed afterwards)
+     * @param progress receives a message after each {@link #PROGRESS_INTERVAL} triples and after loading finished
+     */
+    public InMemoryDbReader(ModelReader source, Consumer<String> progress) {
+        load(source, progress);
+    }
+
+    private void load(ModelReader source, Consumer<String> progress) {
+        requireNonNull(progress);
+        dataset = DatasetFactory.createTxnMem();
+        Txn.executeWrite(dataset, () -> source.calculateRead(() -> {
+            Graph sourceGraph = source.getModel().getGraph();
+            long total = sourceGraph.size();
+            Graph targetGraph = dataset.asDatasetGraph().getDefaultGraph();
+
+            ExtendedIterator<Triple> triples = sourceGraph.find();
+            try {
+                while(triples.hasNext()) {
+                    targetGraph.add(triples.next());
+                    triplesCount++;
+                    if(triplesCount % PROGRESS_INTERVAL == 0) {
+                        progress.accept(createProgressMessage(total));
+                    }
+                }
+            } finally {
+                triples.close();
+            }
+            return null;
+        }));
+        progress.accept(createProgressMessage(triplesCount));
+
+        // Same as TripleStoreDbReader: the creating thread stays within a read transaction.
+        dataset.begin(ReadWrite.READ);
+        model = dataset.getDefaultModel();
+    }
+
+    /**
+     * @param total the total number of triples to load
+     * @return a message describing the loading progress
+     */
+    private String createProgressMessage(long total) {
+        return "Loaded " + triplesCount + " of " + total + " triples into memory (" +
+                (total == 0 ? 100 : triplesCount * 100 / total) + "%).";
+    }
+
+    /**
+     * Runs {@code action} within a read transaction on the in-memory dataset for the current {@link Thread} (see
+     * {@link TripleStoreDbReader#calculateRead(Supplier)}).
+     * @param action the action that reads from the {@link Model}
+     * @param <T> the type of the output from {@code action}
+     * @return the output of {@code action}
+     */
+    @Override
+    public <T> T calculateRead(Supplier<T> action) {
+        return Txn.calculateRead(dataset, action);
+    }
+
+    @Override
+    public void close() {
+        dataset.end();
+        dataset.close();
+    }
+}
@@ -2,6 +2,8 @@ package org.molgenis.vibe.io.input;
 
 import org.apache.jena.rdf.model.Model;
 
+import java.util.function.Supplier;
+
 /**
  * Interface describing a {@link Class} that reads in a {@link Model}.
  */
@@ -10,4 +12,16 @@ public interface ModelReader {
     Model getModel();
 
     void close();
+
+    /**
+     * Runs {@code action} so that it is able to read from {@link #getModel()} on the current {@link Thread}.
+     * Implementations backed by a transactional store should run it within a read transaction, as such transactions
+     * are bound to the {@link Thread} that started them.
+     * @param action the action that reads from the {@link Model}
+     * @param <T> the type of the output from {@code action}
+     * @return the output of {@code action}
+     */
+    default <T> T calculateRead(Supplier<T> action) {
+        return action.get();
+    }
 }
@@ -3,6 +3,7 @@ package org.molgenis.vibe.io.input;
 import org.apache.jena.ontology.OntModel;
 import org.apache.jena.ontology.OntModelSpec;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.molgenis.vibe.ontology_processing.PhenotypeGraph;
 
 /**
  * Generates an {@link OntModel} using {@link OntModelSpec#OWL_MEM}. This disables any reasoner resulting in manual
@@ -12,7 +13,12 @@ import org.apache.jena.rdf.model.ModelFactory;
  * @see <a href="https://jena.apache.org/documentation/ontology/#creating-ontology-models">https://jena.apache.org/documentation/ontology/#creating-ontology-models</a>
  * @see <a href=https://jena.apache.org/documentation/inference/#direct-and-indirect-relationships">https://jena.apache.org/documentation/inference/#direct-and-indirect-relationships</a>
  */
-public class OntologyModelFilesReader extends ModelFilesReader {
+public class OntologyModelFilesReader extends ModelFilesReader implements OntologyModelReader {
+    /**
+     * Created on first usage.
+     */
+    private PhenotypeGraph phenotypeGraph;
+
     public OntologyModelFilesReader(String file) {
         super(file);
     }
@@ -22,6 +28,14 @@ public class OntologyModelFilesReader extends ModelFilesReader {
         return (OntModel) super.getModel();
     }
 
+    @Override
+    public synchronized PhenotypeGraph getPhenotypeGraph() {
+        if(phenotypeGraph == null) {
+            phenotypeGraph = PhenotypeGraph.create(getModel());
+        }
+        return phenotypeGraph;
+    }
+
     @Override
     protected OntModel generateModel() {
         return ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM);
@@ -0,0 +1,18 @@
+package org.molgenis.vibe.io.input;
+
+import org.apache.jena.ontology.OntModel;
+import org.molgenis.vibe.ontology_processing.PhenotypeGraph;
+
+/**
+ * Interface describing a {@link Class} that reads in an {@link OntModel}.
+ */
+public interface OntologyModelReader extends ModelReader {
+
+    @Override
+    OntModel getModel();
+
+    /**
+     * @return the subclass hierarchy of the phenotypes within the ontology (should be thread-safe)
+     */
+    PhenotypeGraph getPhenotypeGraph();
+}
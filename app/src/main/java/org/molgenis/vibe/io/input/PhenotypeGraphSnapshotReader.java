@@ -0,0 +1,160 @@
+package org.molgenis.vibe.io.input;
+
+import org.apache.jena.ontology.OntModel;
+import org.molgenis.vibe.exceptions.CorruptDatabaseException;
+import org.molgenis.vibe.io.output.PhenotypeGraphSnapshotWriter;
+import org.molgenis.vibe.ontology_processing.PhenotypeGraph;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads a {@link PhenotypeGraph} snapshot as created by {@link PhenotypeGraphSnapshotWriter}. If an {@link OntModel} is
+ * requested, a minimal one is created from the {@link PhenotypeGraph} on first usage (see
+ * {@link PhenotypeGraph#toOntModel()}).
+ * <br /><br />
+ * The snapshot stores a SHA-256 checksum of the ontology file it was created from, so that an outdated snapshot can be
+ * detected using {@link #readChecksum(Path)} and {@link #calculateChecksum(Path)}.
+ */
+public class PhenotypeGraphSnapshotReader implements OntologyModelReader {
+    /**
+     * Identifies a file as a phenotype graph snapshot ("HPOG" in ASCII).
+     */
+    public static final int MAGIC = 0x48504F47;
+
+    /**
+     * The version of the file format. Should be increased whenever the format changes.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The number of bytes of a SHA-256 checksum.
+     */
+    public static final int CHECKSUM_LENGTH = 32;
+
+    private PhenotypeGraph phenotypeGraph;
+
+    /**
+     * Created on first usage.
+     */
+    private OntModel model;
+
+    @Override
+    public PhenotypeGraph getPhenotypeGraph() {
+        return phenotypeGraph;
+    }
+
+    @Override
+    public synchronized OntModel getModel() {
+        if(model == null) {
+            model = phenotypeGraph.toOntModel();
+        }
+        return model;
+    }
+
+    /**
+     * @param snapshot the snapshot file
+     * @throws CorruptDatabaseException if {@code snapshot} is not a (supported) phenotype graph snapshot
+     * @throws IOException if {@code snapshot} could not be read
+     */
+    public PhenotypeGraphSnapshotReader(Path snapshot) throws IOException {
+        long size = Files.size(requireNonNull(snapshot));
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if(readHeader(snapshot, input) == null) {
+                throw new CorruptDatabaseException(snapshot.getFileName() + " has an unsupported snapshot version.");
+            }
+
+            int[] hpoIds = readInts(input, input.readInt(), size);
+            int[] parentOffsets = readInts(input, hpoIds.length + 1, size);
+            int[] parents = readInts(input, input.readInt(), size);
+            int[] childOffsets = readInts(input, hpoIds.length + 1, size);
+            int[] children = readInts(input, parents.length, size);
+            if(input.read() != -1) {
+                throw new CorruptDatabaseException(snapshot.getFileName() + " does not have the expected size.");
+            }
+
+            phenotypeGraph = new PhenotypeGraph(hpoIds, parentOffsets, parents, childOffsets, children);
+        } catch (EOFException | IllegalArgumentException e) {
+            throw new CorruptDatabaseException(snapshot.getFileName() + " is not a valid snapshot.", e);
+        }
+    }
+
+    /**
+     * Reads the checksum of the ontology file the snapshot was created from.
+     * @param snapshot the snapshot file
+     * @return the checksum, or {@code null} if the snapshot was created with an unsupported version (and therefore
+     * should be re-created)
+     * @throws CorruptDatabaseException if {@code snapshot} is not a phenotype graph snapshot
+     * @throws IOException if {@code snapshot} could not be read
+     */
+    public static byte[] readChecksum(Path snapshot) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            return readHeader(snapshot, input);
+        } catch (EOFException e) {
+            throw new CorruptDatabaseException(snapshot.getFileName() + " is not a phenotype graph snapshot.", e);
+        }
+    }
+
+    /**
+     * @param file the file to calculate the checksum for
+     * @return the SHA-256 checksum of {@code file}
+     * @throws IOException if {@code file} could not be read
+     */
+    public static byte[] calculateChecksum(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every Java platform is required to support SHA-256.
+        }
+        try (InputStream input = new DigestInputStream(Files.newInputStream(file), digest)) {
+            byte[] buffer = new byte[8192];
+            while(input.read(buffer) != -1) {
+                // Reading updates the digest.
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * @return the checksum, or {@code null} if the version is not supported
+     */
+    private static byte[] readHeader(Path snapshot, DataInputStream input) throws IOException {
+        if(input.readInt() != MAGIC) {
+            throw new CorruptDatabaseException(snapshot.getFileName() + " is not a phenotype graph snapshot.");
+        }
+        if(input.readInt() != VERSION) {
+            return null;
+        }
+        byte[] checksum = new byte[CHECKSUM_LENGTH];
+        input.readFully(checksum);
+        return checksum;
+    }
+
+    /**
+     * @param size the file size (to prevent allocating large arrays due to an invalid {@code length})
+     */
+    private static int[] readInts(DataInputStream input, int length, long size) throws IOException {
+        if(length < 0 || (long) length * Integer.BYTES > size) {
+            throw new EOFException("Invalid length: " + length);
+        }
+        int[] values = new int[length];
+        for(int i = 0; i < length; i++) {
+            values[i] = input.readInt();
+        }
+        return values;
+    }
+
+    @Override
+    public synchronized void close() {
+        if(model != null) {
+            model.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.molgenis.vibe.io.input;
+
+import org.molgenis.vibe.exceptions.InvalidStringFormatException;
+import org.molgenis.vibe.formats.Phenotype;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads a manifest file describing the {@link Phenotype}{@code s} per sample. Each line contains a single sample, where
+ * the sample id is followed by one or more HPO ids (all tab-separated, though the HPO ids may also be separated by a
+ * comma). Empty lines and lines starting with a {@code #} are ignored.
+ *
+ * Example: {@code sample1	HP:0002996	HP:0001377}
+ */
+public class SamplePhenotypesManifestReader {
+    /**
+     * Sample ids are used for file names, so only a limited set of characters is allowed.
+     */
+    private static final String SAMPLE_ID_REGEX = "^[A-Za-z0-9._-]+$";
+
+    /**
+     * The manifest file.
+     */
+    private Path manifest;
+
+    public SamplePhenotypesManifestReader(Path manifest) {
+        this.manifest = requireNonNull(manifest);
+    }
+
+    /**
+     * Reads the manifest file.
+     * @return the {@link Phenotype}{@code s} per sample id (ordered as in the manifest file)
+     * @throws IOException if the file could not be read or contains invalid lines
+     */
+    public Map<String, Set<Phenotype>> read() throws IOException {
+        Map<String, Set<Phenotype>> samples = new LinkedHashMap<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while((line = reader.readLine()) != null) {
+                lineNumber++;
+                if(line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] fields = line.trim().split("[\t,]");
+                String sampleId = fields[0].trim();
+                if(!sampleId.matches(SAMPLE_ID_REGEX)) {
+                    throw new IOException(manifestError(lineNumber, "sample id \"" + sampleId + "\" does not adhere the required format: " + SAMPLE_ID_REGEX));
+                }
+                if(samples.containsKey(sampleId)) {
+                    throw new IOException(manifestError(lineNumber, "sample id \"" + sampleId + "\" is used multiple times"));
+                }
+
+                Set<Phenotype> phenotypes = new HashSet<>();
+                try {
+                    for(int i = 1; i < fields.length; i++) {
+                        if(!fields[i].trim().isEmpty()) {
+                            phenotypes.add(new Phenotype(fields[i].trim()));
+                        }
+                    }
+                } catch (InvalidStringFormatException e) {
+                    throw new IOException(manifestError(lineNumber, e.getMessage()));
+                }
+                if(phenotypes.isEmpty()) {
+                    throw new IOException(manifestError(lineNumber, "sample \"" + sampleId + "\" has no phenotypes"));
+                }
+
+                samples.put(sampleId, phenotypes);
+            }
+        }
+
+        return samples;
+    }
+
+    private String manifestError(int lineNumber, String message) {
+        return manifest.getFileName() + " (line " + lineNumber + "): " + message;
+    }
+}
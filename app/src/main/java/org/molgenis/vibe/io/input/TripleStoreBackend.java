@@ -0,0 +1,99 @@
+package org.molgenis.vibe.io.input;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.tdb.TDBFactory;
+import org.apache.jena.tdb2.TDB2Factory;
+import org.molgenis.vibe.formats.EnumTypeDefiner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * The storage layer of a TDB directory. A TDB2 directory stores its data in (one or more, after compaction)
+ * {@code Data-NNNN} subdirectories, while a TDB1 directory stores its data directly within the directory.
+ */
+public enum TripleStoreBackend implements EnumTypeDefiner {
+    TDB1("tdb1") {
+        @Override
+        public Dataset connect(Path directory) {
+            return TDBFactory.createDataset(directory.toString());
+        }
+
+        @Override
+        public Path dataDirectory(Path directory) {
+            return directory;
+        }
+    },
+    TDB2("tdb2") {
+        @Override
+        public Dataset connect(Path directory) {
+            return TDB2Factory.connectDataset(directory.toString());
+        }
+
+        @Override
+        public Path dataDirectory(Path directory) throws IOException {
+            try (Stream<Path> files = Files.list(directory)) {
+                // The highest number is the current one (older ones remain after compaction until manually removed).
+                return files.filter(TripleStoreBackend::isTdb2DataDirectory)
+                        .max(Comparator.comparingInt(file -> Integer.parseInt(file.getFileName().toString().substring(5))))
+                        .orElseThrow(() -> new IOException("No TDB2 data directory found in: " + directory));
+            }
+        }
+    };
+
+    /**
+     * The subdirectories of a TDB2 directory containing the actual data.
+     */
+    private static final Pattern TDB2_DATA_DIRECTORY = Pattern.compile("Data-\\d+");
+
+    private String id;
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    TripleStoreBackend(String id) {
+        this.id = id;
+    }
+
+    /**
+     * @param directory the TDB directory
+     * @return a {@link Dataset} for the TDB in {@code directory}
+     */
+    public abstract Dataset connect(Path directory);
+
+    /**
+     * @param directory the TDB directory
+     * @return the directory that contains the node table and index files of the TDB in {@code directory}
+     * @throws IOException if {@code directory} could not be read (or does not contain data for this backend)
+     */
+    public abstract Path dataDirectory(Path directory) throws IOException;
+
+    /**
+     * Detects the backend of a TDB directory. A directory that does not exist (or is empty) is seen as {@link #TDB1}.
+     * @param directory the TDB directory
+     * @return {@link #TDB2} if {@code directory} contains a TDB2 data subdirectory, otherwise {@link #TDB1}
+     * @throws IOException if {@code directory} could not be read
+     */
+    public static TripleStoreBackend detect(Path directory) throws IOException {
+        if(!Files.isDirectory(directory)) {
+            return TDB1;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.anyMatch(TripleStoreBackend::isTdb2DataDirectory) ? TDB2 : TDB1;
+        }
+    }
+
+    private static boolean isTdb2DataDirectory(Path file) {
+        return Files.isDirectory(file) && TDB2_DATA_DIRECTORY.matcher(file.getFileName().toString()).matches();
+    }
+
+    public static TripleStoreBackend retrieve(String id) {
+        return EnumTypeDefiner.retrieve(id, TripleStoreBackend.class);
+    }
+}
@@ -3,18 +3,40 @@ package org.molgenis.vibe.io.input;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.ReadWrite;
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.tdb.TDBException; // A TDBException is also available in: org.apache.jena.tdb2.TDBException
-import org.apache.jena.tdb.TDBFactory;
+import org.apache.jena.tdb.TDBException;
+import org.apache.jena.system.Txn;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
 
 /**
- * Creates an (Ontology) {@link Model} from a TDB database.
+ * Creates an (Ontology) {@link Model} from a TDB database. Both TDB1 and TDB2 databases are supported (see
+ * {@link TripleStoreBackend}).
  */
 public class TripleStoreDbReader implements ModelReader {
+    /**
+     * The files read by {@link #warmUp()}: the node table and the default graph indexes (the named graph indexes are
+     * not used by the queries). Matches the file names of both TDB1 and TDB2.
+     */
+    private static final Pattern WARM_UP_FILES = Pattern.compile("(nodes|nodes-data|node2id|SPO|POS|OSP)\\.(dat|idn|bpt|obj|bdf)");
+
+    /**
+     * The size of the buffer used by {@link #warmUp()}.
+     */
+    private static final int WARM_UP_BUFFER_SIZE = 1024 * 1024;
+
     /**
      * The model that is created from the RDF files.
      */
@@ -25,37 +47,130 @@ public class TripleStoreDbReader implements ModelReader {
      */
     private Dataset dataset;
 
+    /**
+     * The directory containing the TDB.
+     */
+    private Path directory;
+
+    /**
+     * The storage layer of the TDB.
+     */
+    private TripleStoreBackend backend;
+
     @Override
     public Model getModel() {
         return model;
     }
 
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public TripleStoreBackend getBackend() {
+        return backend;
+    }
+
     /**
      * @param dir {@link Path} to the TDB
      * @throws IOException see {@link #TripleStoreDbReader(String)}
      */
     public TripleStoreDbReader(Path dir) throws IOException {
-        this(dir.toString());
+        this(dir, TripleStoreBackend.detect(dir));
     }
 
     /**
+     * Uses the {@link TripleStoreBackend} as detected from the TDB directory (see {@link TripleStoreBackend#detect(Path)}).
      * @param dir {@link String} containing the path to the TDB
      * @throws IOException thrown when something goes wrong with digesting the TDB (such as the TDB already being used by another JVM)
      */
     public TripleStoreDbReader(String dir) throws IOException {
+        this(Paths.get(requireNonNull(dir)), TripleStoreBackend.detect(Paths.get(dir)));
+    }
+
+    /**
+     * @param dir {@link Path} to the TDB
+     * @param backend the storage layer of the TDB
+     * @throws IOException thrown when something goes wrong with digesting the TDB (such as the TDB already being used by another JVM)
+     */
+    public TripleStoreDbReader(Path dir, TripleStoreBackend backend) throws IOException {
         try {
-            dataset = TDBFactory.createDataset(requireNonNull(dir));
+            directory = requireNonNull(dir);
+            this.backend = requireNonNull(backend);
+            dataset = backend.connect(dir);
             dataset.begin(ReadWrite.READ);
             model = dataset.getDefaultModel();
-        } catch (TDBException e) {
+        } catch (TDBException | org.apache.jena.tdb2.TDBException e) {
             throw new IOException(e.getMessage());
         }
     }
 
+    /**
+     * Sequentially reads the node table and index files of the TDB, so that they are present in the page cache of the
+     * operating system before the first query (instead of being read through random access by the first queries).
+     * Whether the files stay cached depends on the available memory of the system.
+     * @return which part of the TDB was read
+     * @throws IOException if the TDB files could not be read
+     */
+    public WarmUpSummary warmUp() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(backend.dataDirectory(directory))) {
+            files = stream.filter(file -> WARM_UP_FILES.matcher(file.getFileName().toString()).matches())
+                    .sorted().collect(Collectors.toList());
+        }
+
+        long bytes = 0;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(WARM_UP_BUFFER_SIZE);
+        for(Path file : files) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                int read;
+                while((read = channel.read(buffer)) != -1) {
+                    bytes += read;
+                    buffer.clear();
+                }
+            }
+        }
+        return new WarmUpSummary(files.size(), bytes);
+    }
+
+    /**
+     * Runs {@code action} within a read transaction on the TDB for the current {@link Thread}. If the current
+     * {@link Thread} is already within a transaction (such as the one that created this {@link TripleStoreDbReader}),
+     * that transaction is used instead.
+     * @param action the action that reads from the {@link Model}
+     * @param <T> the type of the output from {@code action}
+     * @return the output of {@code action}
+     */
+    @Override
+    public <T> T calculateRead(Supplier<T> action) {
+        return Txn.calculateRead(dataset, action);
+    }
+
     @Override
     public void close() {
-        model.close();
+        // The model belongs to the dataset. With TDB2, closing the model itself would close the graph that is shared by
+        // all connections to the same directory.
         dataset.end();
         dataset.close();
     }
+
+    /**
+     * Describes the files read by {@link #warmUp()}.
+     */
+    public static class WarmUpSummary {
+        private final int files;
+        private final long bytes;
+
+        public int getFiles() {
+            return files;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        WarmUpSummary(int files, long bytes) {
+            this.files = files;
+            this.bytes = bytes;
+        }
+    }
 }
@@ -11,6 +11,7 @@ import org.molgenis.vibe.io.output.format.gene_prioritized.GenePrioritizedOutput
 import java.io.IOException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.InvalidPathException;
+import java.nio.file.NotDirectoryException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -84,6 +85,14 @@ public class CommandLineOptionsParser extends OptionsParser {
                 .argName("FILE")
                 .build());
 
+        options.addOption(Option.builder()
+                .longOpt("hpo-snapshot")
+                .desc("A snapshot of the ontology given with -w, which is loaded a lot faster than the ontology itself." + System.lineSeparator() +
+                        "Is (re)created from the ontology if the file does not exist yet or belongs to a different ontology file.")
+                .hasArg()
+                .argName("FILE")
+                .build());
+
         options.addOption(Option.builder("n")
                 .longOpt("ontology-algorithm")
                 .desc("The ontology algorithm to be used for related HPO retrieval:" + System.lineSeparator() +
@@ -107,9 +116,23 @@ public class CommandLineOptionsParser extends OptionsParser {
                 .argName("DIR")
                 .build());
 
+        options.addOption(Option.builder("i")
+                .longOpt("index")
+                .desc("A gene-disease index file (created with -x) to use instead of the TDB. Can't be combined with -t.")
+                .hasArg()
+                .argName("FILE")
+                .build());
+
+        options.addOption(Option.builder("x")
+                .longOpt("create-index")
+                .desc("Creates a gene-disease index file from the TDB (-t) for usage with -i.")
+                .hasArg()
+                .argName("FILE")
+                .build());
+
         options.addOption(Option.builder("o")
                 .longOpt("output")
-                .desc("The file to write output to.")
+                .desc("The file to write output to (or the directory to write output files to when using -b).")
                 .hasArg()
                 .argName("FILE")
                 .build());
@@ -124,13 +147,136 @@ public class CommandLineOptionsParser extends OptionsParser {
                 .desc("Returns uri's instead of id's for certain output fields" + System.lineSeparator() +
                         "(doesn't work in combination with -l).")
                 .build());
+
+        options.addOption(Option.builder("s")
+                .longOpt("server")
+                .desc("Starts a local server on the given port that keeps the data loaded and answers requests" + System.lineSeparator() +
+                        "(GET /prioritize?p=<HPO ID>&p=<HPO ID>). Can't be combined with -p or -o.")
+                .hasArg()
+                .argName("PORT")
+                .build());
+
+        options.addOption(Option.builder("b")
+                .longOpt("batch")
+                .desc("A manifest file where each line contains a sample id followed by its HPO ids (tab-separated)." + System.lineSeparator() +
+                        "Requires -o to be a directory, to which the output is written per sample. Can't be combined with -p.")
+                .hasArg()
+                .argName("FILE")
+                .build());
+
+        options.addOption(Option.builder("c")
+                .longOpt("threads")
+                .desc("The number of samples (-b) or requests (-s) to process simultaneously (default: 1).")
+                .hasArg()
+                .argName("NUMBER")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("query-cache")
+                .desc("Caches the TDB query results per phenotype when using -b or -s, so that phenotypes shared between" + System.lineSeparator() +
+                        "samples/requests are only queried once. The least recently used phenotypes are removed from" + System.lineSeparator() +
+                        "the cache when it contains more than the given number of query results. Can't be combined with -i.")
+                .hasArg()
+                .argName("NUMBER")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("in-memory")
+                .desc("Loads the complete TDB into memory before querying it, so that the query latency does not depend" + System.lineSeparator() +
+                        "on disk access (requires a heap size that fits the TDB). Can't be combined with -i or -x.")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("warm-up")
+                .desc("Reads the node table and index files of the TDB once before querying it, so that the first queries" + System.lineSeparator() +
+                        "do not need to read them from disk. Can't be combined with -i, -x or --in-memory.")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("query-chunk-size")
+                .desc("Splits the phenotypes (including associated phenotypes) into TDB queries of at most the given number" + System.lineSeparator() +
+                        "of phenotypes, which are run simultaneously. Useful when -m retrieves many phenotypes. Can't be" + System.lineSeparator() +
+                        "combined with -i or -x.")
+                .hasArg()
+                .argName("NUMBER")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("query-threads")
+                .desc("The number of --query-chunk-size queries to run simultaneously (default: the number of processors).")
+                .hasArg()
+                .argName("NUMBER")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("result-cache")
+                .desc("Stores the retrieved gene-disease combinations per set of phenotypes in a directory, so that repeated" + System.lineSeparator() +
+                        "runs with the same phenotypes (and the same dataset/ontology/settings) skip the dataset entirely." + System.lineSeparator() +
+                        "Can't be combined with -s or -x.")
+                .hasArg()
+                .argName("DIR")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("result-cache-size")
+                .desc("The maximum size of the --result-cache directory in megabytes (default: 1024). The least recently" + System.lineSeparator() +
+                        "used results are removed when exceeded.")
+                .hasArg()
+                .argName("MB")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("metrics")
+                .desc("Writes the duration, processed rows, created entities and used heap size of each stage to a CSV file" + System.lineSeparator() +
+                        "(per sample when using -b). Can't be combined with -s or -x.")
+                .hasArg()
+                .argName("FILE")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("query-profile")
+                .desc("Writes the parse time, time until the first row, number of rows, total time and optimized algebra of" + System.lineSeparator() +
+                        "each query on the TDB to a file. Can't be combined with -i or -x.")
+                .hasArg()
+                .argName("FILE")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("min-score")
+                .desc("Only retrieves gene-disease associations with at least this DisGeNET score (between 0 and 1)." + System.lineSeparator() +
+                        "Can't be combined with -i or -x.")
+                .hasArg()
+                .argName("NUMBER")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("source-levels")
+                .desc("Only retrieves gene-disease associations from sources with these comma-separated levels" + System.lineSeparator() +
+                        "(curated, model and/or literature). Can't be combined with -i or -x.")
+                .hasArg()
+                .argName("LEVELS")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("no-evidence")
+                .desc("Does not retrieve the evidence of gene-disease associations (the output then contains no evidence" + System.lineSeparator() +
+                        "and each source is counted once per association). Can't be combined with -i or -x.")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("top")
+                .desc("Only writes the genes with the highest priority (at most this number of genes)." + System.lineSeparator() +
+                        "Can't be combined with -x.")
+                .hasArg()
+                .argName("NUMBER")
+                .build());
     }
 
     /**
      * Prints the help message to stdout.
      */
     public static void printHelpMessage() {
-        String cmdSyntax = "java -jar vibe-with-dependencies.jar [-h] [-v] -t <FILE> [-w <FILE> -n <NAME> -m <NUMBER>] [-o <FILE>] [-l] [-u] -p <HPO ID> [-p <HPO ID>]...";
+        String cmdSyntax = "java -jar vibe-with-dependencies.jar [-h] [-v] (-t <FILE> | -i <FILE>) [-w <FILE> [--hpo-snapshot <FILE>] -n <NAME> -m <NUMBER>] [-l] [-u] ([-o <FILE>] -p <HPO ID> [-p <HPO ID>]... | -o <DIR> -b <FILE> [-c <NUMBER>] | -s <PORT> [-c <NUMBER>] | -x <FILE>) [--query-cache <NUMBER>] [--in-memory | --warm-up] [--query-chunk-size <NUMBER> [--query-threads <NUMBER>]] [--result-cache <DIR> [--result-cache-size <MB>]] [--metrics <FILE>] [--query-profile <FILE>] [--min-score <NUMBER>] [--source-levels <LEVELS>] [--no-evidence] [--top <NUMBER>]";
         String helpHeader = "";
         String helpFooter = "Molgenis VIBE";
 
@@ -184,17 +330,29 @@ public class CommandLineOptionsParser extends OptionsParser {
             setVerbose(true);
         }
 
-        // REQUIRED: TDB.
+        // REQUIRED (unless a gene-disease index is used instead): TDB.
         if(commandLine.hasOption("t")) {
             try {
                 setDatabase(commandLine.getOptionValue("t"));
             } catch (InvalidPathException | IOException e) {
                 errors.add(e.getMessage());
             }
-        } else {
+        } else if(!commandLine.hasOption("i")) {
             missing.add("-t");
         }
 
+        // OPTIONAL: Gene-disease index (replaces the TDB).
+        if(commandLine.hasOption("i")) {
+            try {
+                setGeneDiseaseIndex(commandLine.getOptionValue("i"));
+            } catch (InvalidPathException | IOException e) {
+                errors.add(e.getMessage());
+            }
+            if(commandLine.hasOption("t")) {
+                errors.add("-i cannot be combined with -t");
+            }
+        }
+
         // OPTIONAL: HPO ontology file. Required for -n & -m.
         if(commandLine.hasOption("w")) {
             try {
@@ -204,6 +362,19 @@ public class CommandLineOptionsParser extends OptionsParser {
             }
         }
 
+        // OPTIONAL: HPO ontology snapshot. Requires -w.
+        if(commandLine.hasOption("hpo-snapshot")) {
+            if(commandLine.hasOption("w")) {
+                try {
+                    setHpoSnapshot(commandLine.getOptionValue("hpo-snapshot"));
+                } catch (InvalidPathException | IOException e) {
+                    errors.add(e.getMessage());
+                }
+            } else {
+                missing.add("-w");
+            }
+        }
+
         // OPTIONAL: HPO ontology retrieval algorithm. Both -n and -m need to be provided as well as -w.
         if(commandLine.hasOption("n") || commandLine.hasOption("m")) {
             if (commandLine.hasOption("w") && commandLine.hasOption("n") && commandLine.hasOption("m")) {
@@ -227,19 +398,237 @@ public class CommandLineOptionsParser extends OptionsParser {
             }
         }
 
-        // REQUIRED: Phenotypes.
+        // OPTIONAL: Run as server. Phenotypes are then given per request instead.
+        if(commandLine.hasOption("s")) {
+            setRunMode(RunMode.SERVER);
+            try {
+                setServerPort(commandLine.getOptionValue("s"));
+            } catch (IllegalArgumentException e) { // includes NumberFormatException
+                errors.add("Invalid port: " + e.getMessage());
+            }
+            if(commandLine.hasOption("p")) {
+                errors.add("-p cannot be combined with -s");
+            }
+            if(commandLine.hasOption("o")) {
+                errors.add("-o cannot be combined with -s");
+            }
+        }
+
+        // OPTIONAL: Process multiple samples. Phenotypes are then given per sample within the manifest file.
+        if(commandLine.hasOption("b")) {
+            setRunMode(RunMode.BATCH);
+            try {
+                setSamples(commandLine.getOptionValue("b"));
+            } catch (InvalidPathException | IOException e) {
+                errors.add(e.getMessage());
+            }
+            if(commandLine.hasOption("p")) {
+                errors.add("-p cannot be combined with -b");
+            }
+            if(commandLine.hasOption("s")) {
+                errors.add("-s cannot be combined with -b");
+            }
+        }
+
+        // OPTIONAL: The number of samples/requests processed simultaneously. Only usable when processing multiple samples
+        // or when running a server.
+        if(commandLine.hasOption("c")) {
+            if(commandLine.hasOption("b") || commandLine.hasOption("s")) {
+                try {
+                    setThreads(commandLine.getOptionValue("c"));
+                } catch (IllegalArgumentException e) { // includes NumberFormatException
+                    errors.add("Invalid number of threads: " + e.getMessage());
+                }
+            } else {
+                missing.add("-b or -s");
+            }
+        }
+
+        // OPTIONAL: Create a gene-disease index from the TDB. No phenotypes are processed then.
+        if(commandLine.hasOption("x")) {
+            setRunMode(RunMode.CREATE_GENE_DISEASE_INDEX);
+            try {
+                setGeneDiseaseIndexOutput(commandLine.getOptionValue("x"));
+            } catch (InvalidPathException | FileAlreadyExistsException e) {
+                errors.add(e.getMessage());
+            }
+            for(String option : new String[]{"i", "p", "s", "b"}) {
+                if(commandLine.hasOption(option)) {
+                    errors.add("-" + option + " cannot be combined with -x");
+                }
+            }
+        }
+
+        // OPTIONAL: Cache query results per phenotype. Only usable when processing multiple phenotype sets using the TDB.
+        if(commandLine.hasOption("query-cache")) {
+            if(commandLine.hasOption("b") || commandLine.hasOption("s")) {
+                try {
+                    setQueryCacheSize(commandLine.getOptionValue("query-cache"));
+                } catch (IllegalArgumentException e) { // includes NumberFormatException
+                    errors.add("Invalid query cache size: " + e.getMessage());
+                }
+            } else {
+                missing.add("-b or -s");
+            }
+            if(commandLine.hasOption("i")) {
+                errors.add("--query-cache cannot be combined with -i");
+            }
+        }
+
+        // OPTIONAL: Load the TDB into memory. Only usable when querying the TDB.
+        if(commandLine.hasOption("in-memory")) {
+            setInMemory(true);
+            for(String option : new String[]{"i", "x"}) {
+                if(commandLine.hasOption(option)) {
+                    errors.add("--in-memory cannot be combined with -" + option);
+                }
+            }
+        }
+
+        // OPTIONAL: Read the TDB files before querying. Only usable when querying the TDB from disk.
+        if(commandLine.hasOption("warm-up")) {
+            setWarmUp(true);
+            for(String option : new String[]{"i", "x"}) {
+                if(commandLine.hasOption(option)) {
+                    errors.add("--warm-up cannot be combined with -" + option);
+                }
+            }
+            if(commandLine.hasOption("in-memory")) {
+                errors.add("--warm-up cannot be combined with --in-memory");
+            }
+        }
+
+        // OPTIONAL: Split large phenotype sets into multiple queries. Only usable when querying the TDB.
+        if(commandLine.hasOption("query-chunk-size")) {
+            try {
+                setQueryChunkSize(commandLine.getOptionValue("query-chunk-size"));
+            } catch (IllegalArgumentException e) { // includes NumberFormatException
+                errors.add("Invalid query chunk size: " + e.getMessage());
+            }
+            for(String option : new String[]{"i", "x"}) {
+                if(commandLine.hasOption(option)) {
+                    errors.add("--query-chunk-size cannot be combined with -" + option);
+                }
+            }
+        }
+        if(commandLine.hasOption("query-threads")) {
+            if(commandLine.hasOption("query-chunk-size")) {
+                try {
+                    setQueryThreads(commandLine.getOptionValue("query-threads"));
+                } catch (IllegalArgumentException e) { // includes NumberFormatException
+                    errors.add("Invalid number of query threads: " + e.getMessage());
+                }
+            } else {
+                missing.add("--query-chunk-size");
+            }
+        }
+
+        // OPTIONAL: Store retrieved gene-disease combinations per set of phenotypes. Not available for long-running or
+        // index-creating modes.
+        if(commandLine.hasOption("result-cache")) {
+            try {
+                setResultCache(commandLine.getOptionValue("result-cache"));
+            } catch (InvalidPathException | NotDirectoryException e) {
+                errors.add(e.getMessage());
+            }
+            for(String option : new String[]{"s", "x"}) {
+                if(commandLine.hasOption(option)) {
+                    errors.add("--result-cache cannot be combined with -" + option);
+                }
+            }
+        }
+        if(commandLine.hasOption("result-cache-size")) {
+            if(commandLine.hasOption("result-cache")) {
+                try {
+                    setResultCacheMaxSize(commandLine.getOptionValue("result-cache-size"));
+                } catch (IllegalArgumentException e) { // includes NumberFormatException
+                    errors.add("Invalid result cache size: " + e.getMessage());
+                }
+            } else {
+                missing.add("--result-cache");
+            }
+        }
+
+        // OPTIONAL: Write the metrics of each stage to a file. Not available for long-running or index-creating modes.
+        if(commandLine.hasOption("metrics")) {
+            try {
+                setMetricsReport(commandLine.getOptionValue("metrics"));
+            } catch (InvalidPathException | FileAlreadyExistsException e) {
+                errors.add(e.getMessage());
+            }
+            for(String option : new String[]{"s", "x"}) {
+                if(commandLine.hasOption(option)) {
+                    errors.add("--metrics cannot be combined with -" + option);
+                }
+            }
+        }
+
+        // OPTIONAL: Write the execution statistics of each query to a file. Only available when querying the TDB.
+        if(commandLine.hasOption("query-profile")) {
+            try {
+                setQueryProfile(commandLine.getOptionValue("query-profile"));
+            } catch (InvalidPathException | FileAlreadyExistsException e) {
+                errors.add(e.getMessage());
+            }
+            for(String option : new String[]{"i", "x"}) {
+                if(commandLine.hasOption(option)) {
+                    errors.add("--query-profile cannot be combined with -" + option);
+                }
+            }
+        }
+
+        // OPTIONAL: Filter the gene-disease associations within the TDB query itself. Only usable when querying the TDB.
+        if(commandLine.hasOption("min-score")) {
+            try {
+                setMinScore(commandLine.getOptionValue("min-score"));
+            } catch (IllegalArgumentException e) { // includes NumberFormatException
+                errors.add("Invalid minimum score: " + e.getMessage());
+            }
+        }
+        if(commandLine.hasOption("source-levels")) {
+            try {
+                setSourceLevels(commandLine.getOptionValue("source-levels"));
+            } catch (IllegalArgumentException e) { // includes InvalidStringFormatException
+                errors.add("Invalid source levels: " + e.getMessage());
+            }
+        }
+        if(commandLine.hasOption("no-evidence")) {
+            setEvidence(false);
+        }
+        for(String queryOption : new String[]{"min-score", "source-levels", "no-evidence"}) {
+            if(commandLine.hasOption(queryOption)) {
+                for(String option : new String[]{"i", "x"}) {
+                    if(commandLine.hasOption(option)) {
+                        errors.add("--" + queryOption + " cannot be combined with -" + option);
+                    }
+                }
+            }
+        }
+
+        // REQUIRED (unless running as server, processing multiple samples or creating an index): Phenotypes.
         if(commandLine.hasOption("p")) {
             try {
                 setPhenotypes(commandLine.getOptionValues("p")); // throws InvalidStringFormatException (IllegalArgumentException)
             } catch(InvalidStringFormatException e) {
                 errors.add(e.getMessage());
             }
-        } else {
+        } else if(!commandLine.hasOption("s") && !commandLine.hasOption("b") && !commandLine.hasOption("x")) {
             missing.add("-p");
         }
 
-        // If given, sets output file. Otherwise writes to stdout.
-        if(commandLine.hasOption("o")) {
+        // If given, sets output file. Otherwise writes to stdout. When processing multiple samples, an output directory
+        // is required instead.
+        if(getRunMode() == RunMode.BATCH) {
+            if(commandLine.hasOption("o")) {
+                try {
+                    setOutputDirectory(commandLine.getOptionValue("o"));
+                } catch (InvalidPathException | IOException e) {
+                    errors.add(e.getMessage());
+                }
+            } else {
+                missing.add("-o");
+            }
+        } else if(commandLine.hasOption("o")) {
             try {
                 setFileOutputWriter(commandLine.getOptionValue("o"));
             } catch(InvalidPathException | FileAlreadyExistsException e) {
@@ -261,6 +650,18 @@ public class CommandLineOptionsParser extends OptionsParser {
 
         }
 
+        // OPTIONAL: Limits the output to the genes with the highest priority.
+        if(commandLine.hasOption("top")) {
+            try {
+                setMaxGenes(commandLine.getOptionValue("top"));
+            } catch (IllegalArgumentException e) { // includes NumberFormatException
+                errors.add("Invalid number of genes: " + e.getMessage());
+            }
+            if(commandLine.hasOption("x")) {
+                errors.add("--top cannot be combined with -x");
+            }
+        }
+
         // Processes missing and errors and throws an Exception if any errors were present.
         if(missing.size() > 0) {
             errors.add(0, "Missing arguments: " + StringUtils.join(missing, ", "));
@@ -3,6 +3,8 @@ package org.molgenis.vibe.io.options_digestion;
 import org.molgenis.vibe.RunMode;
 import org.molgenis.vibe.exceptions.InvalidStringFormatException;
 import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.formats.Source;
+import org.molgenis.vibe.io.input.SamplePhenotypesManifestReader;
 import org.molgenis.vibe.io.output.format.PrioritizedOutputFormatWriter;
 import org.molgenis.vibe.io.output.format.gene_prioritized.GenePrioritizedOutputFormatWriterFactory;
 import org.molgenis.vibe.io.output.target.FileOutputWriter;
@@ -10,10 +12,14 @@ import org.molgenis.vibe.io.output.target.OutputWriter;
 import org.molgenis.vibe.io.output.target.StdoutOutputWriter;
 import org.molgenis.vibe.ontology_processing.PhenotypesRetrieverFactory;
 import org.molgenis.vibe.query_output_digestion.prioritization.gene.GenePrioritizerFactory;
+import org.molgenis.vibe.tdb_processing.query_string_creation.GdaQueryOptions;
 
 import java.io.IOException;
 import java.nio.file.*;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -39,11 +45,26 @@ public abstract class OptionsParser {
      */
     private Path hpoOntology;
 
+    /**
+     * Path to the snapshot of the Human Phenotype Ontology (created from {@link #hpoOntology} if missing or outdated).
+     */
+    private Path hpoSnapshot;
+
     /**
      * Path to the directory storing the main database to use.
      */
     private Path database;
 
+    /**
+     * Path to the gene-disease index file to use instead of the main database.
+     */
+    private Path geneDiseaseIndex;
+
+    /**
+     * Path to write the gene-disease index to ({@link RunMode#CREATE_GENE_DISEASE_INDEX}).
+     */
+    private Path geneDiseaseIndexOutput;
+
     /**
      * The phenotype(s) to be used within the application.
      */
@@ -75,6 +96,84 @@ public abstract class OptionsParser {
      */
     private GenePrioritizerFactory genePrioritizerFactory = GenePrioritizerFactory.HIGHEST_DISGENET_SCORE;
 
+    /**
+     * The maximum number of genes in the output (all genes are written if not set).
+     */
+    private Integer maxGenes;
+
+    /**
+     * The port to be used when running as a server ({@link RunMode#SERVER}).
+     */
+    private Integer serverPort;
+
+    /**
+     * The phenotype(s) per sample when processing multiple samples ({@link RunMode#BATCH}).
+     */
+    private Map<String, Set<Phenotype>> samples = new LinkedHashMap<>();
+
+    /**
+     * The directory to write the output to when processing multiple samples ({@link RunMode#BATCH}).
+     */
+    private Path outputDirectory;
+
+    /**
+     * The number of threads to be used when processing multiple samples ({@link RunMode#BATCH}) or requests
+     * ({@link RunMode#SERVER}).
+     */
+    private int threads = 1;
+
+    /**
+     * The maximum number of query results to cache when querying the main database (no cache is used if not set).
+     */
+    private Long queryCacheSize;
+
+    /**
+     * Whether the main database should be loaded into memory before querying it.
+     */
+    private boolean inMemory = false;
+
+    /**
+     * Whether the files of the main database should be read once before querying it (to fill the page cache).
+     */
+    private boolean warmUp = false;
+
+    /**
+     * The maximum number of phenotypes per query when querying the main database (a single query is used if not set).
+     */
+    private Integer queryChunkSize;
+
+    /**
+     * The number of chunks (see {@link #queryChunkSize}) to query simultaneously.
+     */
+    private int queryThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Path to write the metrics of the application stages to (no metrics are collected if not set).
+     */
+    private Path metricsReport;
+
+    /**
+     * Path to write the execution statistics and algebra of each query on the main database to (no queries are profiled
+     * if not set).
+     */
+    private Path queryProfile;
+
+    /**
+     * Defines which gene-disease associations are retrieved when querying the main database.
+     */
+    private GdaQueryOptions gdaQueryOptions = GdaQueryOptions.ALL;
+
+    /**
+     * Directory to store the retrieved gene-disease combinations per set of phenotypes in (no result cache is used if
+     * not set).
+     */
+    private Path resultCache;
+
+    /**
+     * The maximum size of {@link #resultCache} in megabytes.
+     */
+    private long resultCacheMaxSize = 1024;
+
     public boolean isVerbose() {
         return verbose;
     }
@@ -113,6 +212,25 @@ public abstract class OptionsParser {
         }
     }
 
+    public Path getHpoSnapshot() {
+        return hpoSnapshot;
+    }
+
+    protected void setHpoSnapshot(String hpoSnapshot) throws InvalidPathException, IOException {
+        setHpoSnapshot(Paths.get(hpoSnapshot));
+    }
+
+    /**
+     * @param hpoSnapshot the snapshot file (does not need to exist yet)
+     * @throws IOException if {@code hpoSnapshot} exists but is not a readable file
+     */
+    protected void setHpoSnapshot(Path hpoSnapshot) throws IOException {
+        if(Files.exists(hpoSnapshot) && !checkIfPathIsReadableFile(hpoSnapshot)) {
+            throw new IOException(hpoSnapshot.getFileName() + " is not a readable file.");
+        }
+        this.hpoSnapshot = hpoSnapshot;
+    }
+
     public Path getDatabase() {
         return database;
     }
@@ -129,6 +247,47 @@ public abstract class OptionsParser {
         }
     }
 
+    public Path getGeneDiseaseIndex() {
+        return geneDiseaseIndex;
+    }
+
+    protected void setGeneDiseaseIndex(String geneDiseaseIndex) throws InvalidPathException, IOException {
+        setGeneDiseaseIndex(Paths.get(geneDiseaseIndex));
+    }
+
+    protected void setGeneDiseaseIndex(Path geneDiseaseIndex) throws IOException {
+        if(checkIfPathIsReadableFile(geneDiseaseIndex)) {
+            this.geneDiseaseIndex = geneDiseaseIndex;
+        } else {
+            throw new IOException(geneDiseaseIndex.getFileName() + " is not a readable file.");
+        }
+    }
+
+    public Path getGeneDiseaseIndexOutput() {
+        return geneDiseaseIndexOutput;
+    }
+
+    /**
+     * Wrapper for {@link #setGeneDiseaseIndexOutput(Path)}.
+     * @param geneDiseaseIndexOutput the file path to write the gene-disease index to
+     * @throws InvalidPathException if {@code geneDiseaseIndexOutput} could not be converted to {@link Path}
+     * @throws FileAlreadyExistsException if file already exists
+     */
+    protected void setGeneDiseaseIndexOutput(String geneDiseaseIndexOutput) throws InvalidPathException, FileAlreadyExistsException {
+        setGeneDiseaseIndexOutput(Paths.get(geneDiseaseIndexOutput));
+    }
+
+    /**
+     * @param geneDiseaseIndexOutput the file path to write the gene-disease index to
+     * @throws FileAlreadyExistsException if file already exists
+     */
+    protected void setGeneDiseaseIndexOutput(Path geneDiseaseIndexOutput) throws FileAlreadyExistsException {
+        if(Files.exists(geneDiseaseIndexOutput)) {
+            throw new FileAlreadyExistsException(geneDiseaseIndexOutput.getFileName() + " already exists.");
+        }
+        this.geneDiseaseIndexOutput = geneDiseaseIndexOutput;
+    }
+
     public Set<Phenotype> getPhenotypes() {
         return phenotypes;
     }
@@ -249,6 +408,378 @@ public abstract class OptionsParser {
         return genePrioritizerFactory;
     }
 
+    public Integer getMaxGenes() {
+        return maxGenes;
+    }
+
+    /**
+     * @param maxGenes {@link String} containing the maximum number of genes in the output
+     * @throws NumberFormatException if {@code maxGenes} is not a number
+     * @throws IllegalArgumentException if {@code maxGenes} is lower than 1
+     */
+    protected void setMaxGenes(String maxGenes) throws NumberFormatException {
+        setMaxGenes(Integer.parseInt(maxGenes));
+    }
+
+    /**
+     * @param maxGenes the maximum number of genes in the output
+     * @throws IllegalArgumentException if {@code maxGenes} is lower than 1
+     */
+    protected void setMaxGenes(int maxGenes) {
+        if(maxGenes < 1) {
+            throw new IllegalArgumentException("The maximum number of genes should be at least 1.");
+        }
+        this.maxGenes = maxGenes;
+    }
+
+    public int getServerPort() {
+        return serverPort;
+    }
+
+    /**
+     * @param serverPort {@link String} containing the port number
+     * @throws NumberFormatException if {@code serverPort} is not a number
+     * @throws IllegalArgumentException if {@code serverPort} is not a valid port number
+     */
+    protected void setServerPort(String serverPort) throws NumberFormatException {
+        setServerPort(Integer.parseInt(serverPort));
+    }
+
+    /**
+     * @param serverPort the port number
+     * @throws IllegalArgumentException if {@code serverPort} is not a valid port number (1-65535)
+     */
+    protected void setServerPort(int serverPort) {
+        if(serverPort < 1 || serverPort > 65535) {
+            throw new IllegalArgumentException(serverPort + " is not a valid port number.");
+        }
+        this.serverPort = serverPort;
+    }
+
+    /**
+     * @return the {@link Phenotype}{@code s} per sample id
+     */
+    public Map<String, Set<Phenotype>> getSamples() {
+        return samples;
+    }
+
+    /**
+     * Wrapper for {@link #setSamples(Path)}.
+     * @param manifest the manifest file containing the phenotypes per sample
+     * @throws InvalidPathException if {@code manifest} could not be converted to {@link Path}
+     * @throws IOException see {@link #setSamples(Path)}
+     */
+    protected void setSamples(String manifest) throws InvalidPathException, IOException {
+        setSamples(Paths.get(manifest));
+    }
+
+    /**
+     * @param manifest the manifest file containing the phenotypes per sample
+     * @throws IOException if {@code manifest} is not a readable file or if its content is invalid
+     * @see SamplePhenotypesManifestReader
+     */
+    protected void setSamples(Path manifest) throws IOException {
+        if(checkIfPathIsReadableFile(manifest)) {
+            this.samples = new SamplePhenotypesManifestReader(manifest).read();
+        } else {
+            throw new IOException(manifest.getFileName() + " is not a readable file.");
+        }
+    }
+
+    public Path getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    /**
+     * Wrapper for {@link #setOutputDirectory(Path)}.
+     * @param outputDirectory the directory to write output files to
+     * @throws InvalidPathException if {@code outputDirectory} could not be converted to {@link Path}
+     * @throws IOException see {@link #setOutputDirectory(Path)}
+     */
+    protected void setOutputDirectory(String outputDirectory) throws InvalidPathException, IOException {
+        setOutputDirectory(Paths.get(outputDirectory));
+    }
+
+    /**
+     * @param outputDirectory the directory to write output files to (is created if it does not exist yet)
+     * @throws IOException if {@code outputDirectory} already exists but is not a directory
+     */
+    protected void setOutputDirectory(Path outputDirectory) throws IOException {
+        if(Files.exists(outputDirectory) && !checkIfPathIsDir(outputDirectory)) {
+            throw new IOException(outputDirectory.getFileName() + " is not a directory.");
+        }
+        this.outputDirectory = outputDirectory;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @param threads {@link String} containing the number of threads
+     * @throws NumberFormatException if {@code threads} is not a number
+     * @throws IllegalArgumentException if {@code threads} is lower than 1
+     */
+    protected void setThreads(String threads) throws NumberFormatException {
+        setThreads(Integer.parseInt(threads));
+    }
+
+    /**
+     * @param threads the number of threads
+     * @throws IllegalArgumentException if {@code threads} is lower than 1
+     */
+    protected void setThreads(int threads) {
+        if(threads < 1) {
+            throw new IllegalArgumentException("The number of threads should be at least 1.");
+        }
+        this.threads = threads;
+    }
+
+    public Long getQueryCacheSize() {
+        return queryCacheSize;
+    }
+
+    /**
+     * @param queryCacheSize {@link String} containing the maximum number of query results to cache
+     * @throws NumberFormatException if {@code queryCacheSize} is not a number
+     * @throws IllegalArgumentException if {@code queryCacheSize} is lower than 1
+     */
+    protected void setQueryCacheSize(String queryCacheSize) throws NumberFormatException {
+        setQueryCacheSize(Long.parseLong(queryCacheSize));
+    }
+
+    /**
+     * @param queryCacheSize the maximum number of query results to cache
+     * @throws IllegalArgumentException if {@code queryCacheSize} is lower than 1
+     */
+    protected void setQueryCacheSize(long queryCacheSize) {
+        if(queryCacheSize < 1) {
+            throw new IllegalArgumentException("The query cache size should be at least 1.");
+        }
+        this.queryCacheSize = queryCacheSize;
+    }
+
+    public boolean isInMemory() {
+        return inMemory;
+    }
+
+    protected void setInMemory(boolean inMemory) {
+        this.inMemory = inMemory;
+    }
+
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    protected void setWarmUp(boolean warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    public Integer getQueryChunkSize() {
+        return queryChunkSize;
+    }
+
+    /**
+     * @param queryChunkSize {@link String} containing the maximum number of phenotypes per query
+     * @throws NumberFormatException if {@code queryChunkSize} is not a number
+     * @throws IllegalArgumentException if {@code queryChunkSize} is lower than 1
+     */
+    protected void setQueryChunkSize(String queryChunkSize) throws NumberFormatException {
+        setQueryChunkSize(Integer.parseInt(queryChunkSize));
+    }
+
+    /**
+     * @param queryChunkSize the maximum number of phenotypes per query
+     * @throws IllegalArgumentException if {@code queryChunkSize} is lower than 1
+     */
+    protected void setQueryChunkSize(int queryChunkSize) {
+        if(queryChunkSize < 1) {
+            throw new IllegalArgumentException("The query chunk size should be at least 1.");
+        }
+        this.queryChunkSize = queryChunkSize;
+    }
+
+    public int getQueryThreads() {
+        return queryThreads;
+    }
+
+    /**
+     * @param queryThreads {@link String} containing the number of chunks to query simultaneously
+     * @throws NumberFormatException if {@code queryThreads} is not a number
+     * @throws IllegalArgumentException if {@code queryThreads} is lower than 1
+     */
+    protected void setQueryThreads(String queryThreads) throws NumberFormatException {
+        setQueryThreads(Integer.parseInt(queryThreads));
+    }
+
+    /**
+     * @param queryThreads the number of chunks to query simultaneously
+     * @throws IllegalArgumentException if {@code queryThreads} is lower than 1
+     */
+    protected void setQueryThreads(int queryThreads) {
+        if(queryThreads < 1) {
+            throw new IllegalArgumentException("The number of query threads should be at least 1.");
+        }
+        this.queryThreads = queryThreads;
+    }
+
+    public Path getMetricsReport() {
+        return metricsReport;
+    }
+
+    /**
+     * Wrapper for {@link #setMetricsReport(Path)}.
+     * @param metricsReport the file path to write the metrics to
+     * @throws InvalidPathException if {@code metricsReport} could not be converted to {@link Path}
+     * @throws FileAlreadyExistsException if file already exists
+     */
+    protected void setMetricsReport(String metricsReport) throws InvalidPathException, FileAlreadyExistsException {
+        setMetricsReport(Paths.get(metricsReport));
+    }
+
+    /**
+     * @param metricsReport the file path to write the metrics to
+     * @throws FileAlreadyExistsException if file already exists
+     */
+    protected void setMetricsReport(Path metricsReport) throws FileAlreadyExistsException {
+        if(Files.exists(metricsReport)) {
+            throw new FileAlreadyExistsException(metricsReport.getFileName() + " already exists.");
+        }
+        this.metricsReport = metricsReport;
+    }
+
+    public Path getQueryProfile() {
+        return queryProfile;
+    }
+
+    /**
+     * Wrapper for {@link #setQueryProfile(Path)}.
+     * @param queryProfile the file path to write the query profiles to
+     * @throws InvalidPathException if {@code queryProfile} could not be converted to {@link Path}
+     * @throws FileAlreadyExistsException if file already exists
+     */
+    protected void setQueryProfile(String queryProfile) throws InvalidPathException, FileAlreadyExistsException {
+        setQueryProfile(Paths.get(queryProfile));
+    }
+
+    /**
+     * @param queryProfile the file path to write the query profiles to
+     * @throws FileAlreadyExistsException if file already exists
+     */
+    protected void setQueryProfile(Path queryProfile) throws FileAlreadyExistsException {
+        if(Files.exists(queryProfile)) {
+            throw new FileAlreadyExistsException(queryProfile.getFileName() + " already exists.");
+        }
+        this.queryProfile = queryProfile;
+    }
+
+    public GdaQueryOptions getGdaQueryOptions() {
+        return gdaQueryOptions;
+    }
+
+    /**
+     * @param minScore {@link String} containing the minimum score of the gene-disease associations to retrieve
+     * @throws NumberFormatException if {@code minScore} is not a number
+     * @throws IllegalArgumentException if {@code minScore} is not between 0 and 1
+     */
+    protected void setMinScore(String minScore) throws NumberFormatException {
+        setMinScore(Double.parseDouble(minScore));
+    }
+
+    /**
+     * @param minScore the minimum score of the gene-disease associations to retrieve
+     * @throws IllegalArgumentException if {@code minScore} is not between 0 and 1
+     */
+    protected void setMinScore(double minScore) {
+        gdaQueryOptions = new GdaQueryOptions(minScore, gdaQueryOptions.getSourceLevels(),
+                gdaQueryOptions.includesEvidence());
+    }
+
+    /**
+     * @param sourceLevels comma-separated {@link Source.Level}{@code s} from which gene-disease associations should be
+     *                     retrieved (see {@link Source.Level#retrieveLevelByDisgenetVoidString(String)})
+     * @throws InvalidStringFormatException if any of the {@code sourceLevels} is not a {@link Source.Level}
+     * @throws IllegalArgumentException if {@code sourceLevels} does not contain any {@link Source.Level}
+     */
+    protected void setSourceLevels(String sourceLevels) throws InvalidStringFormatException {
+        Set<Source.Level> levels = EnumSet.noneOf(Source.Level.class);
+        for(String level : sourceLevels.split(",")) {
+            if(!level.trim().isEmpty()) {
+                levels.add(Source.Level.retrieveLevelByDisgenetVoidString(level.trim()));
+            }
+        }
+        setSourceLevels(levels);
+    }
+
+    /**
+     * @param sourceLevels the {@link Source.Level}{@code s} from which gene-disease associations should be retrieved
+     * @throws IllegalArgumentException if {@code sourceLevels} is empty
+     */
+    protected void setSourceLevels(Set<Source.Level> sourceLevels) {
+        gdaQueryOptions = new GdaQueryOptions(gdaQueryOptions.getMinScore(), sourceLevels,
+                gdaQueryOptions.includesEvidence());
+    }
+
+    /**
+     * @param evidence whether the evidence of the gene-disease associations should be retrieved
+     */
+    protected void setEvidence(boolean evidence) {
+        gdaQueryOptions = new GdaQueryOptions(gdaQueryOptions.getMinScore(), gdaQueryOptions.getSourceLevels(),
+                evidence);
+    }
+
+    public Path getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Wrapper for {@link #setResultCache(Path)}.
+     * @param resultCache the directory to store the result cache in
+     * @throws InvalidPathException if {@code resultCache} could not be converted to {@link Path}
+     * @throws NotDirectoryException if {@code resultCache} exists but is not a directory
+     */
+    protected void setResultCache(String resultCache) throws InvalidPathException, NotDirectoryException {
+        setResultCache(Paths.get(resultCache));
+    }
+
+    /**
+     * @param resultCache the directory to store the result cache in (created if it does not exist yet)
+     * @throws NotDirectoryException if {@code resultCache} exists but is not a directory
+     */
+    protected void setResultCache(Path resultCache) throws NotDirectoryException {
+        if(Files.exists(resultCache) && !Files.isDirectory(resultCache)) {
+            throw new NotDirectoryException(resultCache.getFileName() + " is not a directory.");
+        }
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * @return the maximum size of the result cache in megabytes
+     */
+    public long getResultCacheMaxSize() {
+        return resultCacheMaxSize;
+    }
+
+    /**
+     * @param resultCacheMaxSize {@link String} containing the maximum size of the result cache in megabytes
+     * @throws NumberFormatException if {@code resultCacheMaxSize} is not a number
+     * @throws IllegalArgumentException if {@code resultCacheMaxSize} is lower than 1
+     */
+    protected void setResultCacheMaxSize(String resultCacheMaxSize) throws NumberFormatException {
+        setResultCacheMaxSize(Long.parseLong(resultCacheMaxSize));
+    }
+
+    /**
+     * @param resultCacheMaxSize the maximum size of the result cache in megabytes
+     * @throws IllegalArgumentException if {@code resultCacheMaxSize} is lower than 1
+     */
+    protected void setResultCacheMaxSize(long resultCacheMaxSize) {
+        if(resultCacheMaxSize < 1) {
+            throw new IllegalArgumentException("The result cache size should be at least 1.");
+        }
+        this.resultCacheMaxSize = resultCacheMaxSize;
+    }
+
     /**
      * Checks whether the set variables adhere to the selected {@link RunMode}. Can be used after processing of
      * user input if variables are set correctly (based on the specified {@link RunMode}.
@@ -257,12 +788,8 @@ public abstract class OptionsParser {
     protected boolean checkConfig() {
         // With RunMode.NONE there are no requirements.
         if(!runMode.equals(RunMode.NONE)) {
-            // Check if DisGeNET data is set.
-            if (database == null) {
-                return false;
-            }
-            // Check if an output file was given.
-            if (outputWriter == null) {
+            // Check if DisGeNET data is set (either as database or as gene-disease index).
+            if (database == null && geneDiseaseIndex == null) {
                 return false;
             }
             // Checks if a gene prioritized output format factory was given.
@@ -277,32 +804,72 @@ public abstract class OptionsParser {
             switch (runMode) {
                 // Additional checks if related HPOs need to be retrieved.
                 case GENES_FOR_PHENOTYPES_WITH_ASSOCIATED_PHENOTYPES:
-                    // Check if a factory for related HPO retrieval was set.
-                    if(phenotypesRetrieverFactory == null) {
-                        return false;
-                    }
-                    // Check if HPO ontology data is set.
-                    if (hpoOntology == null) {
-                        return false;
-                    }
-                    // Check if a max distance for related HPO retrieval was set.
-                    if(ontologyMaxDistance == null) {
+                    if(!checkAssociatedPhenotypesConfig()) {
                         return false;
                     }
                     // NO BREAK: continues!!!
 
                 // Checks for if no associated phenotypes need to be retrieved.
                 case GENES_FOR_PHENOTYPES:
+                    // Check if an output file was given.
+                    if (outputWriter == null) {
+                        return false;
+                    }
                     // Check if there are any input phenotypes.
                     if (phenotypes.size() == 0) {
                         return false;
                     }
+                    break;
+
+                // Phenotypes are given per sample and output is written per sample.
+                case BATCH:
+                    // Check if there are any samples.
+                    if(samples.isEmpty()) {
+                        return false;
+                    }
+                    // Check if an output directory was given.
+                    if(outputDirectory == null) {
+                        return false;
+                    }
+                    // Retrieving related HPOs is optional, but if requested should be fully configured.
+                    if(phenotypesRetrieverFactory != null && !checkAssociatedPhenotypesConfig()) {
+                        return false;
+                    }
+                    break;
+
+                // Phenotypes and output are given per request instead.
+                case SERVER:
+                    // Check if a port was given.
+                    if(serverPort == null) {
+                        return false;
+                    }
+                    // Retrieving related HPOs is optional, but if requested should be fully configured.
+                    if(phenotypesRetrieverFactory != null && !checkAssociatedPhenotypesConfig()) {
+                        return false;
+                    }
+                    break;
+
+                // The index is created from the database.
+                case CREATE_GENE_DISEASE_INDEX:
+                    if(database == null || geneDiseaseIndexOutput == null) {
+                        return false;
+                    }
             }
         }
 
         return true;
     }
 
+    /**
+     * Checks whether all settings needed for retrieving associated phenotypes are set.
+     * @return {@code true} if all needed variables are set, {@code false} if not
+     */
+    private boolean checkAssociatedPhenotypesConfig() {
+        // Check if a factory for related HPO retrieval was set, if HPO ontology data is set and if a max distance for
+        // related HPO retrieval was set.
+        return phenotypesRetrieverFactory != null && hpoOntology != null && ontologyMaxDistance != null;
+    }
+
     /**
      * Checks if a given {@link Path} is an existing readable file.
      * @param path {@link Path}
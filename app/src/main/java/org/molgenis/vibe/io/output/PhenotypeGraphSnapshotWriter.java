@@ -0,0 +1,87 @@
+package org.molgenis.vibe.io.output;
+
+import org.molgenis.vibe.io.input.PhenotypeGraphSnapshotReader;
+import org.molgenis.vibe.ontology_processing.PhenotypeGraph;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes a {@link PhenotypeGraph} to a compact binary snapshot that can be read using
+ * {@link PhenotypeGraphSnapshotReader}. The snapshot contains (all numbers are big-endian):
+ * <ul>
+ *     <li>{@link PhenotypeGraphSnapshotReader#MAGIC} and {@link PhenotypeGraphSnapshotReader#VERSION}</li>
+ *     <li>the SHA-256 checksum of the ontology file the {@link PhenotypeGraph} was created from</li>
+ *     <li>the number of terms followed by the HPO ids (numeric part, ascending)</li>
+ *     <li>the parent offsets, the number of parent-child links and the parent indices</li>
+ *     <li>the child offsets and the child indices</li>
+ * </ul>
+ */
+public class PhenotypeGraphSnapshotWriter {
+    private PhenotypeGraph phenotypeGraph;
+
+    private byte[] checksum;
+
+    /**
+     * @param phenotypeGraph the {@link PhenotypeGraph} to be written
+     * @param checksum the checksum of the ontology file {@code phenotypeGraph} was created from (see
+     *                 {@link PhenotypeGraphSnapshotReader#calculateChecksum(Path)})
+     */
+    public PhenotypeGraphSnapshotWriter(PhenotypeGraph phenotypeGraph, byte[] checksum) {
+        this.phenotypeGraph = requireNonNull(phenotypeGraph);
+        this.checksum = requireNonNull(checksum);
+        if(checksum.length != PhenotypeGraphSnapshotReader.CHECKSUM_LENGTH) {
+            throw new IllegalArgumentException("Invalid checksum length: " + checksum.length);
+        }
+    }
+
+    /**
+     * Writes the snapshot. The snapshot is first written to a temporary file within the same directory, which then
+     * replaces {@code snapshot} (so that other processes never read a partially written snapshot).
+     * @param snapshot the file to write the snapshot to (is replaced if it already exists)
+     * @throws IOException if the snapshot could not be written
+     */
+    public void write(Path snapshot) throws IOException {
+        Path directory = snapshot.toAbsolutePath().getParent();
+        Path tempFile = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                output.writeInt(PhenotypeGraphSnapshotReader.MAGIC);
+                output.writeInt(PhenotypeGraphSnapshotReader.VERSION);
+                output.write(checksum);
+
+                int size = phenotypeGraph.size();
+                output.writeInt(size);
+                for(int term = 0; term < size; term++) {
+                    output.writeInt(phenotypeGraph.getHpoId(term));
+                }
+
+                for(int term = 0; term < size; term++) {
+                    output.writeInt(phenotypeGraph.getParentsFrom(term));
+                }
+                output.writeInt(phenotypeGraph.linksCount()); // last offset
+                output.writeInt(phenotypeGraph.linksCount()); // number of links
+                for(int i = 0; i < phenotypeGraph.linksCount(); i++) {
+                    output.writeInt(phenotypeGraph.getParent(i));
+                }
+
+                for(int term = 0; term < size; term++) {
+                    output.writeInt(phenotypeGraph.getChildrenFrom(term));
+                }
+                output.writeInt(phenotypeGraph.linksCount()); // last offset
+                for(int i = 0; i < phenotypeGraph.linksCount(); i++) {
+                    output.writeInt(phenotypeGraph.getChild(i));
+                }
+            }
+            Files.move(tempFile, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
@@ -19,11 +19,6 @@ import static java.util.Objects.requireNonNull;
  */
 public class OrderedGenesOutputFormatWriter extends PrioritizedOutputFormatWriter<Gene> {
 
-    /**
-     * The order of the {@link Gene}{@code s}.
-     */
-    private List<Gene> priority;
-
     /**
      * The second level separator to be used to separate values within a single field separated by the primary separator.
      */
@@ -37,6 +32,11 @@ public class OrderedGenesOutputFormatWriter extends PrioritizedOutputFormatWrite
 
     @Override
     protected void generateOutput() throws IOException {
+        List<Gene> priority = getPrioritizer().getPriority();
+        // Nothing is written if there are no genes.
+        if(priority.isEmpty()) {
+            return;
+        }
         // Writes all genes except last one (with added separator).
         for(int i = 0; i < priority.size()-1; i++) {
             getOutputWriter().write(priority.get(i).getId() + separator);
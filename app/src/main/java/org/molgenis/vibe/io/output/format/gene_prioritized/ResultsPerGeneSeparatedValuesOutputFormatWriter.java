@@ -109,7 +109,7 @@ public abstract class ResultsPerGeneSeparatedValuesOutputFormatWriter extends Pr
                 getOutputWriter().write(" (" + gdc.getDisgenetScore() + ")");
 
                 // If there is evidence, writes these as well.
-                if(gdc.getAllEvidence().size() > 0) {
+                if(gdc.hasEvidence()) {
                     // Merges the evidence URIs with as separator the values separator.
                     String evidence = StringUtils.join(writeEvidence(gdc), valuesSeparator.toString());
                     getOutputWriter().write(keyValueSeparator + evidence);
@@ -0,0 +1,44 @@
+package org.molgenis.vibe.io.output.target;
+
+/**
+ * Writer for writing output to a {@link String} held in memory (for example to be used as a response).
+ */
+public class StringOutputWriter extends OutputWriter {
+    /**
+     * Stores the written output.
+     */
+    private StringBuilder output = new StringBuilder();
+
+    /**
+     * @return all output written so far
+     */
+    public String getOutput() {
+        return output.toString();
+    }
+
+    @Override
+    public String target() {
+        return "memory";
+    }
+
+    @Override
+    public void initialize() {}
+
+    @Override
+    public void close() {}
+
+    @Override
+    public void write(String output) {
+        this.output.append(output);
+    }
+
+    @Override
+    public void writeHeader(String output) {
+        this.output.append(output);
+    }
+
+    @Override
+    public void writeNewLine() {
+        output.append(System.lineSeparator());
+    }
+}
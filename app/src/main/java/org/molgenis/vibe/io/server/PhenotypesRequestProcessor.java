@@ -0,0 +1,20 @@
+package org.molgenis.vibe.io.server;
+
+import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.io.output.target.OutputWriter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Processes a single request consisting of a set of {@link Phenotype}{@code s}.
+ */
+@FunctionalInterface
+public interface PhenotypesRequestProcessor {
+    /**
+     * @param phenotypes the {@link Phenotype}{@code s} belonging to a single request
+     * @param outputWriter where the output for the request should be written to
+     * @throws IOException if the request could not be processed
+     */
+    void process(Set<Phenotype> phenotypes, OutputWriter outputWriter) throws IOException;
+}
@@ -0,0 +1,214 @@
+package org.molgenis.vibe.io.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.jena.ext.com.google.common.base.Stopwatch;
+import org.molgenis.vibe.exceptions.InvalidStringFormatException;
+import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.io.output.target.StringOutputWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A local HTTP server that answers requests consisting of a set of {@link Phenotype}{@code s} using a
+ * {@link PhenotypesRequestProcessor}. The server only binds to the loopback address and handles a fixed number of
+ * requests simultaneously (other requests wait until a thread is available).
+ *
+ * A request is done as {@code GET /prioritize?p=HP:0000001&p=HP:0000002}, where multiple phenotypes can also be given
+ * comma-separated within a single {@code p} parameter. The time needed for processing a request is returned through the
+ * {@link #ELAPSED_TIME_HEADER} response header.
+ */
+public class PrioritizationServer {
+    /**
+     * The path requests should be send to.
+     */
+    public static final String CONTEXT_PATH = "/prioritize";
+
+    /**
+     * The query parameter containing the phenotypes.
+     */
+    public static final String PHENOTYPE_PARAMETER = "p";
+
+    /**
+     * Response header containing the time in milliseconds needed to process the request.
+     */
+    public static final String ELAPSED_TIME_HEADER = "X-Vibe-Elapsed-Time";
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    private PhenotypesRequestProcessor processor;
+
+    /**
+     * Receives a message for each handled request (containing the request latency).
+     */
+    private Consumer<String> requestLogger;
+
+    private AtomicLong requestCounter = new AtomicLong();
+
+    /**
+     * Released when the server is stopped.
+     */
+    private CountDownLatch stopped = new CountDownLatch(1);
+
+    /**
+     * @param port the port to listen on ({@code 0} uses any available port)
+     * @param processor processes the phenotypes from each request
+     * @param requestLogger receives a message for each handled request
+     * @throws IOException if the server could not be bound to the given port
+     */
+    public PrioritizationServer(int port, PhenotypesRequestProcessor processor, Consumer<String> requestLogger) throws IOException {
+        this(port, 1, processor, requestLogger);
+    }
+
+    /**
+     * @param port the port to listen on ({@code 0} uses any available port)
+     * @param threads the number of requests to process simultaneously ({@code processor} should be thread-safe if
+     *                higher than 1)
+     * @param processor processes the phenotypes from each request
+     * @param requestLogger receives a message for each handled request
+     * @throws IOException if the server could not be bound to the given port
+     * @throws IllegalArgumentException if {@code threads} is lower than 1
+     */
+    public PrioritizationServer(int port, int threads, PhenotypesRequestProcessor processor, Consumer<String> requestLogger)
+            throws IOException {
+        if(threads < 1) {
+            throw new IllegalArgumentException("The number of threads should be at least 1.");
+        }
+        this.processor = requireNonNull(processor);
+        this.requestLogger = requireNonNull(requestLogger);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(CONTEXT_PATH, this::handle);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * @return the port the server listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return the URL requests should be send to
+     */
+    public String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + getPort() + CONTEXT_PATH;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server after finishing the requests that are currently being processed (if any).
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Blocks until {@link #stop()} has finished.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        long requestNumber = requestCounter.incrementAndGet();
+        int status;
+        String response;
+        Set<Phenotype> phenotypes = new HashSet<>();
+
+        try {
+            if(!exchange.getRequestMethod().equals("GET")) {
+                status = HttpURLConnection.HTTP_BAD_METHOD;
+                response = "Only GET requests are supported.";
+            } else {
+                phenotypes = parsePhenotypes(exchange.getRequestURI().getRawQuery());
+                if(phenotypes.isEmpty()) {
+                    status = HttpURLConnection.HTTP_BAD_REQUEST;
+                    response = "No phenotypes given. Use: " + CONTEXT_PATH + "?" + PHENOTYPE_PARAMETER + "=<HPO ID>";
+                } else {
+                    StringOutputWriter outputWriter = new StringOutputWriter();
+                    processor.process(phenotypes, outputWriter);
+                    status = HttpURLConnection.HTTP_OK;
+                    response = outputWriter.getOutput();
+                }
+            }
+        } catch (InvalidStringFormatException e) {
+            status = HttpURLConnection.HTTP_BAD_REQUEST;
+            response = e.getMessage();
+        } catch (IOException | RuntimeException e) {
+            status = HttpURLConnection.HTTP_INTERNAL_ERROR;
+            response = "Request could not be processed: " + e.getMessage();
+        }
+
+        stopwatch.stop();
+        byte[] body = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.getResponseHeaders().set(ELAPSED_TIME_HEADER, Long.toString(stopwatch.elapsed(TimeUnit.MILLISECONDS)));
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+
+        requestLogger.accept("Request " + requestNumber + " (" + phenotypes.size() + " phenotypes) returned status " +
+                status + " in: " + stopwatch.toString());
+    }
+
+    /**
+     * Retrieves the {@link Phenotype}{@code s} from a raw query string.
+     * @param rawQuery the query string (not yet URL-decoded)
+     * @return the {@link Phenotype}{@code s} from all {@link #PHENOTYPE_PARAMETER} parameters
+     * @throws InvalidStringFormatException if a value is not a valid {@link Phenotype} id
+     */
+    static Set<Phenotype> parsePhenotypes(String rawQuery) throws InvalidStringFormatException, UnsupportedEncodingException {
+        Set<Phenotype> phenotypes = new HashSet<>();
+        if(rawQuery == null) {
+            return phenotypes;
+        }
+
+        for(String parameter : rawQuery.split("&")) {
+            String[] keyValue = parameter.split("=", 2);
+            if(keyValue.length == 2 && URLDecoder.decode(keyValue[0], "UTF-8").equals(PHENOTYPE_PARAMETER)) {
+                for(String id : URLDecoder.decode(keyValue[1], "UTF-8").split(",")) {
+                    if(!id.trim().isEmpty()) {
+                        phenotypes.add(new Phenotype(id.trim()));
+                    }
+                }
+            }
+        }
+
+        return phenotypes;
+    }
+}
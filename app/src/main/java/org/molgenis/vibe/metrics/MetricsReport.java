@@ -0,0 +1,77 @@
+package org.molgenis.vibe.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Collects the metrics of all {@link Stage}{@code s} of a run, which can be written as a CSV file. Each line contains:
+ * <ul>
+ *     <li>sample: the sample the {@link Stage} belongs to (empty if not sample-specific)</li>
+ *     <li>stage: see {@link Stage#getId()}</li>
+ *     <li>duration_ms: the duration in milliseconds</li>
+ *     <li>rows/entities: see {@link Stage} (empty if not applicable)</li>
+ *     <li>heap_used_bytes: the used heap size directly after the {@link Stage} finished</li>
+ * </ul>
+ * Metrics can be recorded from multiple threads simultaneously.
+ */
+public class MetricsReport {
+    private static final String HEADER = "sample,stage,duration_ms,rows,entities,heap_used_bytes";
+
+    private final List<String> lines = new ArrayList<>();
+
+    /**
+     * @param sample the sample for which metrics will be recorded (empty if not sample-specific)
+     * @return a {@link StageRecorder} that adds the metrics to this report
+     */
+    public StageRecorder forSample(String sample) {
+        return (stage, durationNanos, rows, entities) -> add(sample, stage, durationNanos, rows, entities);
+    }
+
+    private void add(String sample, Stage stage, long durationNanos, long rows, long entities) {
+        Runtime runtime = Runtime.getRuntime();
+        String line = String.join(",", escape(sample), stage.getId(),
+                String.format(Locale.ROOT, "%.3f", durationNanos / 1_000_000.0),
+                count(rows), count(entities), Long.toString(runtime.totalMemory() - runtime.freeMemory()));
+        synchronized (lines) {
+            lines.add(line);
+        }
+    }
+
+    private String count(long count) {
+        return count == StageRecorder.NOT_APPLICABLE ? "" : Long.toString(count);
+    }
+
+    /**
+     * Quotes a value if it contains characters that have a special meaning within a CSV file.
+     */
+    private String escape(String value) {
+        if(value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * Writes all metrics recorded so far.
+     * @param file the file to write the metrics to
+     * @throws IOException if the file could not be written
+     */
+    public void write(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            synchronized (lines) {
+                for(String line : lines) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.molgenis.vibe.metrics;
+
+/**
+ * The stages of the application for which metrics are recorded. Per stage is described what the counts (rows and
+ * entities) represent.
+ */
+public enum Stage {
+    /**
+     * Retrieving the gene-disease associations from the result cache. Entities: the number of gene-disease combinations
+     * (0 if not cached).
+     */
+    RESULT_CACHE("result_cache"),
+    /**
+     * Loading the phenotype ontology. Entities: the number of phenotypes within the ontology.
+     */
+    ONTOLOGY_LOAD("ontology_load"),
+    /**
+     * Loading the main dataset. Rows: the number of triples loaded into memory (only when loading the TDB into memory).
+     */
+    DATASET_LOAD("dataset_load"),
+    /**
+     * Measuring the heap used by the main dataset (only when loading the TDB into memory). The duration is the time
+     * spent on the garbage collections needed for this. Rows: the increase of the used heap size in bytes across
+     * loading the dataset. Entities: the number of triples loaded into memory.
+     */
+    DATASET_HEAP("dataset_heap"),
+    /**
+     * Reading the files of the main dataset before querying it. Rows: the number of bytes read. Entities: the number of
+     * files read.
+     */
+    DATASET_WARM_UP("dataset_warm_up"),
+    /**
+     * Retrieving the phenotypes associated to the input phenotypes. Entities: the number of phenotypes found.
+     */
+    PHENOTYPE_EXPANSION("phenotype_expansion"),
+    /**
+     * Retrieving the sources from the main dataset. Rows: the number of query results. Entities: the number of sources.
+     */
+    SOURCE_RETRIEVAL("source_retrieval"),
+    /**
+     * Retrieving the gene-disease associations from the main dataset. Rows: the number of query results (or index rows).
+     * Entities: the number of genes and diseases created.
+     */
+    GDA_QUERY("gda_query"),
+    /**
+     * Ordering the genes. Entities: the number of genes.
+     */
+    PRIORITIZATION("prioritization"),
+    /**
+     * Writing the prioritized genes.
+     */
+    OUTPUT("output");
+
+    private String id;
+
+    public String getId() {
+        return id;
+    }
+
+    Stage(String id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,24 @@
+package org.molgenis.vibe.metrics;
+
+/**
+ * Receives the metrics of a finished {@link Stage}.
+ */
+public interface StageRecorder {
+    /**
+     * Can be used for a count that does not apply to a {@link Stage}.
+     */
+    long NOT_APPLICABLE = -1;
+
+    /**
+     * A {@link StageRecorder} that ignores all metrics.
+     */
+    StageRecorder NONE = (stage, durationNanos, rows, entities) -> {};
+
+    /**
+     * @param stage the finished {@link Stage}
+     * @param durationNanos the duration of {@code stage} in nanoseconds
+     * @param rows the number of rows processed (or {@link #NOT_APPLICABLE})
+     * @param entities the number of entities created/found (or {@link #NOT_APPLICABLE})
+     */
+    void record(Stage stage, long durationNanos, long rows, long entities);
+}
@@ -0,0 +1,24 @@
+package org.molgenis.vibe.ontology_processing;
+
+import org.molgenis.vibe.formats.Phenotype;
+
+import java.util.Collection;
+
+/**
+ * Retrieves the same {@link Phenotype}{@code s} as {@link ChildrenRetriever}, but using a {@link PhenotypeGraph}.
+ */
+public class ChildrenGraphRetriever extends PhenotypeGraphRetriever {
+    public ChildrenGraphRetriever(PhenotypeGraph phenotypeGraph, Collection<Phenotype> inputPhenotypes, int maxDistance) {
+        super(phenotypeGraph, inputPhenotypes, maxDistance);
+    }
+
+    public ChildrenGraphRetriever(PhenotypeGraph phenotypeGraph, Collection<Phenotype> inputPhenotypes, int maxDistance,
+                                  boolean multiSource) {
+        super(phenotypeGraph, inputPhenotypes, maxDistance, multiSource);
+    }
+
+    @Override
+    protected boolean isTraversingParents() {
+        return false;
+    }
+}
@@ -0,0 +1,24 @@
+package org.molgenis.vibe.ontology_processing;
+
+import org.molgenis.vibe.formats.Phenotype;
+
+import java.util.Collection;
+
+/**
+ * Retrieves the same {@link Phenotype}{@code s} as {@link MaxDistanceRetriever2}, but using a {@link PhenotypeGraph}.
+ */
+public class MaxDistanceGraphRetriever extends PhenotypeGraphRetriever {
+    public MaxDistanceGraphRetriever(PhenotypeGraph phenotypeGraph, Collection<Phenotype> inputPhenotypes, int maxDistance) {
+        super(phenotypeGraph, inputPhenotypes, maxDistance);
+    }
+
+    public MaxDistanceGraphRetriever(PhenotypeGraph phenotypeGraph, Collection<Phenotype> inputPhenotypes, int maxDistance,
+                                     boolean multiSource) {
+        super(phenotypeGraph, inputPhenotypes, maxDistance, multiSource);
+    }
+
+    @Override
+    protected boolean isTraversingParents() {
+        return true;
+    }
+}
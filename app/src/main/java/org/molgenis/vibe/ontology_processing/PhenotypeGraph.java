@@ -0,0 +1,271 @@
+package org.molgenis.vibe.ontology_processing;
+
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.rdf.model.*;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.molgenis.vibe.formats.Phenotype;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The subclass hierarchy of the Human Phenotype Ontology, where each term is identified by its index (the position of
+ * its HPO id within the ascending {@link #hpoIds}). The parents and children of each term are stored as adjacency
+ * arrays: the parents of term {@code i} are {@code parents[parentOffsets[i]]} up to (excluding)
+ * {@code parents[parentOffsets[i + 1]]} (and the same for the children).
+ * <br /><br />
+ * Only terms that can be described as a {@link Phenotype} are included (so for example UPHENO terms are left out).
+ */
+public class PhenotypeGraph {
+    private static final String PHENOTYPE_URI_PREFIX = "http://purl.obolibrary.org/obo/HP_";
+    private static final Pattern PHENOTYPE_URI_REGEX = Pattern.compile("^" + PHENOTYPE_URI_PREFIX + "([0-9]{7})$");
+
+    /**
+     * The HPO ids (numeric part) in ascending order.
+     */
+    private final int[] hpoIds;
+
+    private final int[] parentOffsets;
+    private final int[] parents;
+    private final int[] childOffsets;
+    private final int[] children;
+
+    /**
+     * @param hpoIds the HPO ids (numeric part) in ascending order
+     * @param parentOffsets per term the start of its parents within {@code parents} (with as last value the length of
+     *                      {@code parents})
+     * @param parents the parent term indices
+     * @param childOffsets per term the start of its children within {@code children} (with as last value the length of
+     *                     {@code children})
+     * @param children the child term indices
+     * @throws IllegalArgumentException if the arrays do not describe a valid graph
+     */
+    public PhenotypeGraph(int[] hpoIds, int[] parentOffsets, int[] parents, int[] childOffsets, int[] children) {
+        this.hpoIds = requireNonNull(hpoIds);
+        this.parentOffsets = requireNonNull(parentOffsets);
+        this.parents = requireNonNull(parents);
+        this.childOffsets = requireNonNull(childOffsets);
+        this.children = requireNonNull(children);
+        validate();
+    }
+
+    private void validate() {
+        for(int i = 1; i < hpoIds.length; i++) {
+            if(hpoIds[i - 1] >= hpoIds[i]) {
+                throw new IllegalArgumentException("HPO ids are not stored in ascending order.");
+            }
+        }
+        validateAdjacency(parentOffsets, parents);
+        validateAdjacency(childOffsets, children);
+        if(parents.length != children.length) {
+            throw new IllegalArgumentException("The number of parent and child links differ.");
+        }
+    }
+
+    private void validateAdjacency(int[] offsets, int[] targets) {
+        if(offsets.length != hpoIds.length + 1 || offsets[0] != 0 || offsets[hpoIds.length] != targets.length) {
+            throw new IllegalArgumentException("Invalid adjacency offsets.");
+        }
+        for(int i = 1; i < offsets.length; i++) {
+            if(offsets[i - 1] > offsets[i]) {
+                throw new IllegalArgumentException("Invalid adjacency offsets.");
+            }
+        }
+        for(int target : targets) {
+            if(target < 0 || target >= hpoIds.length) {
+                throw new IllegalArgumentException("Invalid term index: " + target);
+            }
+        }
+    }
+
+    /**
+     * Creates a {@link PhenotypeGraph} from the (asserted) {@code rdfs:subClassOf} statements between the HPO classes
+     * within {@code model}.
+     * @param model a {@link Model} containing the Human Phenotype Ontology
+     * @return a new {@link PhenotypeGraph}
+     */
+    public static PhenotypeGraph create(Model model) {
+        // Collects all HPO classes.
+        SortedSet<Integer> ids = new TreeSet<>();
+        for(ResIterator it = model.listResourcesWithProperty(RDF.type, OWL.Class); it.hasNext(); ) {
+            Integer hpoId = retrieveHpoId(it.next());
+            if(hpoId != null) {
+                ids.add(hpoId);
+            }
+        }
+        int[] hpoIds = ids.stream().mapToInt(Integer::intValue).toArray();
+
+        // Collects the parents per class.
+        List<List<Integer>> parentLists = new ArrayList<>();
+        List<List<Integer>> childLists = new ArrayList<>();
+        for(int i = 0; i < hpoIds.length; i++) {
+            parentLists.add(new ArrayList<>());
+            childLists.add(new ArrayList<>());
+        }
+        for(StmtIterator it = model.listStatements(null, RDFS.subClassOf, (RDFNode) null); it.hasNext(); ) {
+            Statement statement = it.next();
+            int child = indexOf(hpoIds, retrieveHpoId(statement.getSubject()));
+            int parent = statement.getObject().isResource() ? indexOf(hpoIds, retrieveHpoId(statement.getObject().asResource())) : -1;
+            if(child >= 0 && parent >= 0 && !parentLists.get(child).contains(parent)) {
+                parentLists.get(child).add(parent);
+                childLists.get(parent).add(child);
+            }
+        }
+
+        int[] parentOffsets = new int[hpoIds.length + 1];
+        int[] childOffsets = new int[hpoIds.length + 1];
+        int[] parents = flatten(parentLists, parentOffsets);
+        int[] children = flatten(childLists, childOffsets);
+        return new PhenotypeGraph(hpoIds, parentOffsets, parents, childOffsets, children);
+    }
+
+    /**
+     * @param resource the {@link Resource} to retrieve the HPO id from
+     * @return the HPO id (numeric part), or {@code null} if {@code resource} is not an HPO term
+     */
+    private static Integer retrieveHpoId(Resource resource) {
+        if(!resource.isURIResource()) {
+            return null;
+        }
+        Matcher matcher = PHENOTYPE_URI_REGEX.matcher(resource.getURI());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : null;
+    }
+
+    private static int indexOf(int[] hpoIds, Integer hpoId) {
+        return hpoId == null ? -1 : Arrays.binarySearch(hpoIds, hpoId);
+    }
+
+    private static int[] flatten(List<List<Integer>> lists, int[] offsets) {
+        for(int i = 0; i < lists.size(); i++) {
+            offsets[i + 1] = offsets[i] + lists.get(i).size();
+        }
+        int[] flattened = new int[offsets[lists.size()]];
+        for(int i = 0; i < lists.size(); i++) {
+            for(int j = 0; j < lists.get(i).size(); j++) {
+                flattened[offsets[i] + j] = lists.get(i).get(j);
+            }
+        }
+        return flattened;
+    }
+
+    /**
+     * @return the number of terms
+     */
+    public int size() {
+        return hpoIds.length;
+    }
+
+    /**
+     * @return the number of parent-child links
+     */
+    public int linksCount() {
+        return parents.length;
+    }
+
+    /**
+     * @param phenotype the {@link Phenotype} to search for
+     * @return the term index, or a negative number if {@code phenotype} is not present
+     */
+    public int indexOf(Phenotype phenotype) {
+        try {
+            return Arrays.binarySearch(hpoIds, Integer.parseInt(phenotype.getId()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param term a term index
+     * @return a new {@link Phenotype} for the term
+     */
+    public Phenotype getPhenotype(int term) {
+        return new Phenotype(String.format("hp:%07d", hpoIds[term]));
+    }
+
+    public int getHpoId(int term) {
+        return hpoIds[term];
+    }
+
+    /**
+     * @param term a term index
+     * @return the first index (inclusive) to use with {@link #getParent(int)}
+     */
+    public int getParentsFrom(int term) {
+        return parentOffsets[term];
+    }
+
+    /**
+     * @param term a term index
+     * @return the last index (exclusive) to use with {@link #getParent(int)}
+     */
+    public int getParentsTo(int term) {
+        return parentOffsets[term + 1];
+    }
+
+    public int getParent(int index) {
+        return parents[index];
+    }
+
+    /**
+     * @param term a term index
+     * @return the first index (inclusive) to use with {@link #getChild(int)}
+     */
+    public int getChildrenFrom(int term) {
+        return childOffsets[term];
+    }
+
+    /**
+     * @param term a term index
+     * @return the last index (exclusive) to use with {@link #getChild(int)}
+     */
+    public int getChildrenTo(int term) {
+        return childOffsets[term + 1];
+    }
+
+    public int getChild(int index) {
+        return children[index];
+    }
+
+    /**
+     * Creates an {@link OntModel} (using {@link OntModelSpec#OWL_MEM}) containing only the terms and their
+     * {@code rdfs:subClassOf} statements, which is sufficient for usage with a {@link PhenotypesRetriever}.
+     * @return a new {@link OntModel}
+     */
+    public OntModel toOntModel() {
+        OntModel model = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM);
+        Resource[] terms = new Resource[hpoIds.length];
+        for(int i = 0; i < hpoIds.length; i++) {
+            terms[i] = model.createResource(PHENOTYPE_URI_PREFIX + String.format("%07d", hpoIds[i]));
+            model.add(terms[i], RDF.type, OWL.Class);
+        }
+        for(int i = 0; i < hpoIds.length; i++) {
+            for(int j = parentOffsets[i]; j < parentOffsets[i + 1]; j++) {
+                model.add(terms[i], RDFS.subClassOf, terms[parents[j]]);
+            }
+        }
+        return model;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PhenotypeGraph that = (PhenotypeGraph) o;
+        return Arrays.equals(hpoIds, that.hpoIds) &&
+                Arrays.equals(parentOffsets, that.parentOffsets) &&
+                Arrays.equals(parents, that.parents) &&
+                Arrays.equals(childOffsets, that.childOffsets) &&
+                Arrays.equals(children, that.children);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(hpoIds), Arrays.hashCode(parents));
+    }
+}
@@ -0,0 +1,282 @@
+package org.molgenis.vibe.ontology_processing;
+
+import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.formats.PhenotypeNetwork;
+
+import java.util.*;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link PhenotypesRetriever} that traverses a {@link PhenotypeGraph} instead of an
+ * {@link org.apache.jena.ontology.OntModel}. The graph is traversed breadth-first, so every found {@link Phenotype} is
+ * added to a {@link PhenotypeNetwork} only once (with its shortest distance). Two traversal modes are available:
+ * <ul>
+ *     <li>single-source: each input {@link Phenotype} is traversed separately using an {@code int[]} queue and a
+ *     {@link BitSet} of visited terms (both re-used for all input {@link Phenotype}{@code s})</li>
+ *     <li>multi-source: up to {@link #SOURCES_PER_TRAVERSAL} input {@link Phenotype}{@code s} are traversed at once,
+ *     where each term stores (as bits of a {@code long}) which sources reached it, so that overlapping parts of the
+ *     graph are only traversed once</li>
+ * </ul>
+ * Both modes produce the same output. As the traversal data is re-used, a single instance should not be run by
+ * multiple threads simultaneously.
+ */
+public abstract class PhenotypeGraphRetriever extends PhenotypesRetriever {
+    /**
+     * The maximum number of sources traversed simultaneously in multi-source mode (the number of bits in a
+     * {@code long}).
+     */
+    public static final int SOURCES_PER_TRAVERSAL = Long.SIZE;
+
+    private PhenotypeGraph phenotypeGraph;
+
+    /**
+     * Whether multiple sources should be traversed simultaneously.
+     */
+    private boolean multiSource;
+
+    /**
+     * Single-source: the breadth-first search queue (each term can only be added once per traversal).
+     */
+    private int[] queue;
+
+    /**
+     * Single-source: the number of terms added to {@link #queue} during the current traversal.
+     */
+    private int queueSize;
+
+    /**
+     * Single-source: the terms added to {@link #queue} during the current traversal.
+     */
+    private BitSet visited;
+
+    /**
+     * Multi-source: per term the sources that reached it.
+     */
+    private long[] reached;
+
+    /**
+     * Multi-source: per term the sources for which the term has the current distance.
+     */
+    private long[] current;
+
+    /**
+     * Multi-source: per term the sources for which the term has the next distance.
+     */
+    private long[] next;
+
+    /**
+     * Multi-source: the terms for which {@link #current} is not 0.
+     */
+    private int[] currentTerms;
+
+    /**
+     * Multi-source: the terms for which {@link #next} is not 0.
+     */
+    private int[] nextTerms;
+
+    protected PhenotypeGraph getPhenotypeGraph() {
+        return phenotypeGraph;
+    }
+
+    public boolean isMultiSource() {
+        return multiSource;
+    }
+
+    /**
+     * Creates a multi-source {@link PhenotypeGraphRetriever}.
+     */
+    public PhenotypeGraphRetriever(PhenotypeGraph phenotypeGraph, Collection<Phenotype> inputPhenotypes, int maxDistance) {
+        this(phenotypeGraph, inputPhenotypes, maxDistance, true);
+    }
+
+    public PhenotypeGraphRetriever(PhenotypeGraph phenotypeGraph, Collection<Phenotype> inputPhenotypes, int maxDistance,
+                                   boolean multiSource) {
+        super(inputPhenotypes, maxDistance);
+        this.phenotypeGraph = requireNonNull(phenotypeGraph);
+        this.multiSource = multiSource;
+    }
+
+    /**
+     * @return {@code true} if the parents of a term should be traversed as well (the children are always traversed)
+     */
+    protected abstract boolean isTraversingParents();
+
+    @Override
+    public void run() {
+        if(multiSource) {
+            runMultiSource();
+        } else {
+            runSingleSource();
+        }
+    }
+
+    private void runSingleSource() {
+        if(queue == null) {
+            queue = new int[phenotypeGraph.size()];
+            visited = new BitSet(phenotypeGraph.size());
+        }
+
+        for(Phenotype phenotype : getInputPhenotypes()) {
+            PhenotypeNetwork network = new PhenotypeNetwork(phenotype);
+            int source = phenotypeGraph.indexOf(phenotype);
+            if(source >= 0) {
+                traverse(source, network);
+            }
+            getPhenotypeNetworkCollection().add(network);
+        }
+    }
+
+    /**
+     * Traverses the {@link PhenotypeGraph} level by level, starting from {@code source}.
+     * @param source the term index of the {@link PhenotypeNetwork#getSource()}
+     * @param network stores the {@link Phenotype}{@code s} based on traversal
+     */
+    private void traverse(int source, PhenotypeNetwork network) {
+        queueSize = 0;
+        enqueue(source);
+
+        int distance = 0;
+        int distanceEnd = queueSize; // The queue position after the last term with the current distance.
+        for(int head = 0; head < queueSize; head++) {
+            if(head == distanceEnd) {
+                distance++;
+                distanceEnd = queueSize;
+            }
+
+            int term = queue[head];
+            if(distance > 0) {
+                network.add(phenotypeGraph.getPhenotype(term), distance);
+            }
+            if(distance < getMaxDistance()) {
+                if(isTraversingParents()) {
+                    for(int i = phenotypeGraph.getParentsFrom(term); i < phenotypeGraph.getParentsTo(term); i++) {
+                        enqueue(phenotypeGraph.getParent(i));
+                    }
+                }
+                for(int i = phenotypeGraph.getChildrenFrom(term); i < phenotypeGraph.getChildrenTo(term); i++) {
+                    enqueue(phenotypeGraph.getChild(i));
+                }
+            }
+        }
+
+        // Only resets the visited terms so that a small traversal stays cheap.
+        for(int i = 0; i < queueSize; i++) {
+            visited.clear(queue[i]);
+        }
+    }
+
+    /**
+     * Adds a term to the queue (if it was not added before during the current traversal).
+     * @param term a term index
+     */
+    private void enqueue(int term) {
+        if(!visited.get(term)) {
+            visited.set(term);
+            queue[queueSize++] = term;
+        }
+    }
+
+    private void runMultiSource() {
+        if(reached == null) {
+            reached = new long[phenotypeGraph.size()];
+            current = new long[phenotypeGraph.size()];
+            next = new long[phenotypeGraph.size()];
+            currentTerms = new int[phenotypeGraph.size()];
+            nextTerms = new int[phenotypeGraph.size()];
+        }
+
+        List<PhenotypeNetwork> networks = new ArrayList<>(SOURCES_PER_TRAVERSAL);
+        for(Phenotype phenotype : getInputPhenotypes()) {
+            networks.add(new PhenotypeNetwork(phenotype));
+            if(networks.size() == SOURCES_PER_TRAVERSAL) {
+                traverse(networks);
+                networks.clear();
+            }
+        }
+        if(!networks.isEmpty()) {
+            traverse(networks);
+        }
+    }
+
+    /**
+     * Traverses the {@link PhenotypeGraph} level by level for all {@code networks} simultaneously. The source of
+     * {@code networks.get(i)} is represented by bit {@code i}.
+     * @param networks the networks to fill (at most {@link #SOURCES_PER_TRAVERSAL})
+     */
+    private void traverse(List<PhenotypeNetwork> networks) {
+        int currentSize = 0;
+        for(int i = 0; i < networks.size(); i++) {
+            int source = phenotypeGraph.indexOf(networks.get(i).getSource());
+            if(source >= 0) {
+                if(current[source] == 0) {
+                    currentTerms[currentSize++] = source;
+                }
+                current[source] |= 1L << i;
+                reached[source] |= 1L << i;
+            }
+        }
+
+        for(int distance = 1; distance <= getMaxDistance() && currentSize > 0; distance++) {
+            // Collects the sources for which the linked terms have the next distance.
+            int nextSize = 0;
+            for(int i = 0; i < currentSize; i++) {
+                int term = currentTerms[i];
+                long sources = current[term];
+                current[term] = 0;
+                if(isTraversingParents()) {
+                    for(int j = phenotypeGraph.getParentsFrom(term); j < phenotypeGraph.getParentsTo(term); j++) {
+                        nextSize = expand(phenotypeGraph.getParent(j), sources, nextSize);
+                    }
+                }
+                for(int j = phenotypeGraph.getChildrenFrom(term); j < phenotypeGraph.getChildrenTo(term); j++) {
+                    nextSize = expand(phenotypeGraph.getChild(j), sources, nextSize);
+                }
+            }
+
+            // Adds the found terms to the networks of their sources and continues with them.
+            for(int i = 0; i < nextSize; i++) {
+                int term = nextTerms[i];
+                Phenotype phenotype = phenotypeGraph.getPhenotype(term);
+                for(long sources = next[term]; sources != 0; sources &= sources - 1) {
+                    networks.get(Long.numberOfTrailingZeros(sources)).add(phenotype, distance);
+                }
+                current[term] = next[term];
+                next[term] = 0;
+            }
+            int[] swap = currentTerms;
+            currentTerms = nextTerms;
+            nextTerms = swap;
+            currentSize = nextSize;
+        }
+
+        // Resets the traversal data for the next call.
+        for(int i = 0; i < currentSize; i++) {
+            current[currentTerms[i]] = 0;
+        }
+        Arrays.fill(reached, 0);
+
+        for(PhenotypeNetwork network : networks) {
+            getPhenotypeNetworkCollection().add(network);
+        }
+    }
+
+    /**
+     * Marks {@code term} as having the next distance for each source in {@code sources} that did not reach it yet.
+     * @param term a term index
+     * @param sources the sources (as bits) that reached a term linked to {@code term} at the current distance
+     * @param nextSize the number of terms currently stored in {@link #nextTerms}
+     * @return the new number of terms stored in {@link #nextTerms}
+     */
+    private int expand(int term, long sources, int nextSize) {
+        long newSources = sources & ~reached[term];
+        if(newSources != 0) {
+            if(next[term] == 0) {
+                nextTerms[nextSize++] = term;
+            }
+            next[term] |= newSources;
+            reached[term] |= newSources;
+        }
+        return nextSize;
+    }
+}
@@ -54,6 +54,16 @@ public abstract class PhenotypesRetriever {
         this.maxDistance = requireNonNull(maxDistance);
     }
 
+    /**
+     * For a {@link PhenotypesRetriever} that does not use an {@link OntModel} (see {@link PhenotypeGraphRetriever}).
+     * @param inputPhenotypes the {@link Phenotype}{@code s} for which linked {@link Phenotype}{@code s} need to be found
+     * @param maxDistance the maximum distance to be used
+     */
+    protected PhenotypesRetriever(Collection<Phenotype> inputPhenotypes, int maxDistance) {
+        this.inputPhenotypes = requireNonNull(inputPhenotypes);
+        this.maxDistance = maxDistance;
+    }
+
     protected OntClass retrievePhenotypeFromModel(Phenotype phenotype) {
         return model.getOntClass(phenotype.getUri().toString());
     }
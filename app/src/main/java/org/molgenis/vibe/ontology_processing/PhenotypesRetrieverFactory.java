@@ -12,12 +12,22 @@ public enum PhenotypesRetrieverFactory implements EnumTypeDefiner {
         public PhenotypesRetriever create(OntModel model, Collection<Phenotype> inputPhenotypes, int distance) {
             return new ChildrenRetriever(model, inputPhenotypes, distance);
         }
+
+        @Override
+        public PhenotypesRetriever create(PhenotypeGraph phenotypeGraph, Collection<Phenotype> inputPhenotypes, int distance) {
+            return new ChildrenGraphRetriever(phenotypeGraph, inputPhenotypes, distance);
+        }
     },
     DISTANCE("distance", "Retrieving connected HPOs.") {
         @Override
         public PhenotypesRetriever create(OntModel model, Collection<Phenotype> inputPhenotypes, int distance) {
             return new MaxDistanceRetriever2(model, inputPhenotypes, distance);
         }
+
+        @Override
+        public PhenotypesRetriever create(PhenotypeGraph phenotypeGraph, Collection<Phenotype> inputPhenotypes, int distance) {
+            return new MaxDistanceGraphRetriever(phenotypeGraph, inputPhenotypes, distance);
+        }
     };
 
     private String id;
@@ -40,6 +50,12 @@ public enum PhenotypesRetrieverFactory implements EnumTypeDefiner {
 
     public abstract PhenotypesRetriever create(OntModel model, Collection<Phenotype> inputPhenotypes, int distance);
 
+    /**
+     * Creates a {@link PhenotypesRetriever} that gives the same output as {@link #create(OntModel, Collection, int)},
+     * but traverses a {@link PhenotypeGraph} instead (which is a lot faster).
+     */
+    public abstract PhenotypesRetriever create(PhenotypeGraph phenotypeGraph, Collection<Phenotype> inputPhenotypes, int distance);
+
     public static PhenotypesRetrieverFactory retrieve(String name) {
         return EnumTypeDefiner.retrieve(name, PhenotypesRetrieverFactory.class);
     }
@@ -9,6 +9,11 @@ public enum GenePrioritizerFactory implements EnumTypeDefiner{
         public GenePrioritizer create(GeneDiseaseCollection geneDiseaseCollection) {
              return new HighestSingleDisgenetScoreGenePrioritizer(geneDiseaseCollection);
         }
+
+        @Override
+        public GenePrioritizer create(GeneDiseaseCollection geneDiseaseCollection, int maxGenes) {
+            return new HighestSingleDisgenetScoreGenePrioritizer(geneDiseaseCollection, maxGenes);
+        }
     };
 
     private String id;
@@ -24,6 +29,15 @@ public enum GenePrioritizerFactory implements EnumTypeDefiner{
 
     public abstract GenePrioritizer create(GeneDiseaseCollection geneDiseaseCollection);
 
+    /**
+     * @param geneDiseaseCollection the data to be used for creating a priority order
+     * @param maxGenes the maximum number of genes in the priority order (only the ones with the highest priority are
+     *                 kept)
+     * @return a {@link GenePrioritizer}
+     * @throws IllegalArgumentException if {@code maxGenes} is lower than 1
+     */
+    public abstract GenePrioritizer create(GeneDiseaseCollection geneDiseaseCollection, int maxGenes);
+
     public static GenePrioritizerFactory retrieve(String name) {
         return EnumTypeDefiner.retrieve(name, GenePrioritizerFactory.class);
     }
@@ -11,6 +11,10 @@ import static java.util.Objects.requireNonNull;
 /**
  * Generates a priority order for a given collection ({@link List} or {@link Set}) of {@link Gene}{@code s}.
  * The priority order is based on the highest {@link GeneDiseaseCombination#getDisgenetScore()} per {@link Gene}.
+ * Genes with the same score keep their original order.
+ * <br /><br />
+ * Optionally, only the genes with the highest priority are kept. These are selected using a heap bounded to that
+ * number of genes, so the remaining genes never need to be sorted.
  */
 public class HighestSingleDisgenetScoreGenePrioritizer extends GenePrioritizer {
     /**
@@ -18,36 +22,126 @@ public class HighestSingleDisgenetScoreGenePrioritizer extends GenePrioritizer {
      */
     private GeneDiseaseCollection geneDiseaseCollection;
 
+    /**
+     * The maximum number of {@link Gene}{@code s} in the priority order.
+     */
+    private int maxGenes;
+
+    /**
+     * The highest score per {@link Gene} (by their index within the original order).
+     */
+    private double[] scores;
+
     public HighestSingleDisgenetScoreGenePrioritizer(GeneDiseaseCollection geneDiseaseCollection) {
+        this(geneDiseaseCollection, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param geneDiseaseCollection the data to be used for creating a priority order
+     * @param maxGenes the maximum number of {@link Gene}{@code s} in the priority order (only the ones with the highest
+     *                 priority are kept)
+     * @throws IllegalArgumentException if {@code maxGenes} is lower than 1
+     */
+    public HighestSingleDisgenetScoreGenePrioritizer(GeneDiseaseCollection geneDiseaseCollection, int maxGenes) {
         super(geneDiseaseCollection.getGenes());
+        if(maxGenes < 1) {
+            throw new IllegalArgumentException("The maximum number of genes should be at least 1.");
+        }
         this.geneDiseaseCollection = requireNonNull(geneDiseaseCollection);
+        this.maxGenes = maxGenes;
     }
 
     @Override
     public void run() {
         List<Gene> genes = getPriority();
-        Map<Gene, Double> highestGeneScores = new HashMap<>();
 
-        // Goes through all genes.
-        for(Gene gene : genes) {
+        // Stores the highest DisGeNET gene-disease score for each gene.
+        scores = new double[genes.size()];
+        for(int i = 0; i < genes.size(); i++) {
             double scoreForGene = 0;
-            Set<GeneDiseaseCombination> combinationsForGene = geneDiseaseCollection.getByGene(gene);
-            // Goes through all disease combinations for a single gene.
-            for(GeneDiseaseCombination combination : combinationsForGene) {
-                // Stores highest DisGeNET gene-disease score for that gene.
+            for(GeneDiseaseCombination combination : geneDiseaseCollection.getByGene(genes.get(i))) {
                 if(combination.getDisgenetScore() > scoreForGene) {
                     scoreForGene = combination.getDisgenetScore();
                 }
             }
+            scores[i] = scoreForGene;
+        }
 
-            // Stores the gene with its highest score in a HashMap.
-            highestGeneScores.put(gene, scoreForGene);
+        // Keeps the indices of the genes with the highest priority in a heap where the root has the lowest priority.
+        int[] heap = new int[Math.min(maxGenes, genes.size())];
+        int heapSize = 0;
+        for(int i = 0; i < genes.size(); i++) {
+            if(heapSize < heap.length) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++);
+            } else if(hasHigherPriority(i, heap[0])) { // Genes that would not be kept are discarded directly.
+                heap[0] = i;
+                siftDown(heap, heapSize);
+            }
         }
 
-        // Sorts the gene list based on the highest gene-disease score per gene.
-        Collections.sort(genes, Comparator.comparingDouble(highestGeneScores::get).reversed());
+        // Removes the root (the lowest priority left) each time, so the priority order is filled from the end.
+        Gene[] priority = new Gene[heapSize];
+        while(heapSize > 0) {
+            priority[heapSize - 1] = genes.get(heap[0]);
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize);
+        }
 
         // Updates the priority order.
-        setPriority(genes);
+        setPriority(new ArrayList<>(Arrays.asList(priority)));
+    }
+
+    /**
+     * @param gene1 the index of a gene
+     * @param gene2 the index of another gene
+     * @return {@code true} if {@code gene1} has a higher score than {@code gene2}, or the same score and an earlier
+     * position in the original order
+     */
+    private boolean hasHigherPriority(int gene1, int gene2) {
+        return scores[gene1] > scores[gene2] || (scores[gene1] == scores[gene2] && gene1 < gene2);
+    }
+
+    /**
+     * Moves the gene at {@code index} up until its parent has a lower priority.
+     * @param heap the heap of gene indices
+     * @param index the position within {@code heap} of the gene to move
+     */
+    private void siftUp(int[] heap, int index) {
+        int gene = heap[index];
+        while(index > 0) {
+            int parent = (index - 1) >>> 1;
+            if(!hasHigherPriority(heap[parent], gene)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = gene;
+    }
+
+    /**
+     * Moves the gene at the root down until its children have a higher priority.
+     * @param heap the heap of gene indices
+     * @param heapSize the number of gene indices within {@code heap}
+     */
+    private void siftDown(int[] heap, int heapSize) {
+        int index = 0;
+        int gene = heap[0];
+        while(true) {
+            int child = 2 * index + 1;
+            if(child >= heapSize) {
+                break;
+            }
+            if(child + 1 < heapSize && hasHigherPriority(heap[child], heap[child + 1])) {
+                child++;
+            }
+            if(!hasHigherPriority(gene, heap[child])) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = gene;
     }
 }
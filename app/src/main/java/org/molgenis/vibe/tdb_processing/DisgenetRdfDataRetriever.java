@@ -2,15 +2,12 @@ package org.molgenis.vibe.tdb_processing;
 
 import static java.util.Objects.requireNonNull;
 
-import org.apache.jena.query.QuerySolution;
 import org.molgenis.vibe.formats.Source;
 import org.molgenis.vibe.io.input.ModelReader;
-import org.molgenis.vibe.tdb_processing.query_string_creation.QueryStringGenerator;
-import org.molgenis.vibe.tdb_processing.query_runner.QueryRunner;
 
 import java.io.IOException;
 import java.net.URI;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -18,7 +15,7 @@ import java.util.Map;
  */
 public abstract class DisgenetRdfDataRetriever {
     private ModelReader modelReader;
-    private Map<URI,Source> sources = new HashMap<>();
+    private Map<URI,Source> sources = Collections.emptyMap();
 
     protected ModelReader getModelReader() {
         return modelReader;
@@ -48,22 +45,9 @@ public abstract class DisgenetRdfDataRetriever {
     public abstract void run() throws IOException;
 
     /**
-     * Retrieves sources from the database.
+     * Retrieves sources from the database (only queried once per {@link ModelReader}, see {@link SourceRegistry}).
      */
     protected void retrieveSources() {
-        QueryRunner query = new QueryRunner(getModelReader().getModel(),
-                QueryStringGenerator.getSources());
-
-        while(query.hasNext()) {
-            QuerySolution result = query.next();
-
-            URI sourceUri = URI.create(result.get("source").asResource().getURI());
-            sources.put(sourceUri,
-                    new Source(sourceUri,
-                            result.get("sourceTitle").asLiteral().getString(),
-                            result.get("sourceLevel").asResource().getURI())
-            );
-        }
-        query.close();
+        sources = SourceRegistry.getSources(getModelReader());
     }
 }
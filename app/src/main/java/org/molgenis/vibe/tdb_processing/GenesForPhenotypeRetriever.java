@@ -2,14 +2,23 @@ package org.molgenis.vibe.tdb_processing;
 
 import static java.util.Objects.requireNonNull;
 
-import org.apache.jena.query.QuerySolution;
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
 import org.molgenis.vibe.formats.*;
 import org.molgenis.vibe.io.input.ModelReader;
+import org.molgenis.vibe.metrics.Stage;
+import org.molgenis.vibe.metrics.StageRecorder;
+import org.molgenis.vibe.tdb_processing.query_string_creation.GdaQueryOptions;
 import org.molgenis.vibe.tdb_processing.query_string_creation.QueryStringGenerator;
+import org.molgenis.vibe.tdb_processing.query_string_creation.TdbOptimization;
+import org.molgenis.vibe.tdb_processing.query_runner.QueryProfiler;
 import org.molgenis.vibe.tdb_processing.query_runner.QueryRunner;
 
 import java.net.URI;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Retrieves all required information for further processing regarding the genes belonging to a given phenotype.
@@ -20,15 +29,75 @@ public class GenesForPhenotypeRetriever extends DisgenetRdfDataRetriever {
      */
     private Set<Phenotype> phenotypes;
 
+    private static final Var HPO = Var.alloc("hpo");
+    private static final Var DISEASE = Var.alloc("disease");
+    private static final Var GENE = Var.alloc("gene");
+    private static final Var GENE_SYMBOL = Var.alloc("geneSymbol");
+    private static final Var GDA_SCORE = Var.alloc("gdaScoreNumber");
+    private static final Var GDA_SOURCE = Var.alloc("gdaSource");
+    private static final Var EVIDENCE = Var.alloc("evidence");
+
+    /**
+     * {@link Gene}{@code s} storage for easy retrieval (by the {@link Node} of the gene).
+     */
+    private Map<Node, Gene> genes = new HashMap<>();
+
+    /**
+     * {@link Disease}{@code s} storage for easy retrieval (by the {@link Node} of the disease).
+     */
+    private Map<Node, Disease> diseases = new HashMap<>();
+
+    /**
+     * The {@link GeneDiseaseCombination}{@code s} by the {@link Node} of the disease and of the gene.
+     */
+    private Map<Node, Map<Node, GeneDiseaseCombination>> combinations = new HashMap<>();
+
+    /**
+     * The {@link Source}{@code s} by their {@link Node}.
+     */
+    private Map<Node, Source> sourcesByNode = new HashMap<>();
+
+    /**
+     * The evidence ids (see {@link EvidenceDictionary}) by their {@link Node} (evidence is often shared between
+     * combinations).
+     */
+    private Map<Node, Integer> evidence = new HashMap<>();
+
+    /**
+     * Receives the metrics of {@link Stage#SOURCE_RETRIEVAL} and {@link Stage#GDA_QUERY}.
+     */
+    private StageRecorder stageRecorder;
+
     /**
-     * {@link Gene}{@code s} storage for easy retrieval.
+     * If not {@code null}, the query results are stored/retrieved per {@link Phenotype}.
      */
-    private Map<Gene, Gene> genes = new HashMap<>();
+    private PhenotypeQueryCache cache;
 
     /**
-     * {@link Disease}{@code s} storage for easy retrieval.
+     * If not {@code null}, large sets of {@link Phenotype}{@code s} are queried in chunks.
      */
-    private Map<Disease, Disease> diseases = new HashMap<>();
+    private PhenotypeQueryPlanner planner;
+
+    /**
+     * If not {@code null}, receives the execution statistics of each query.
+     */
+    private QueryProfiler profiler;
+
+    /**
+     * Defines which gene-disease associations are retrieved (results in the {@link #cache} should be retrieved using
+     * the same options).
+     */
+    private GdaQueryOptions options;
+
+    /**
+     * The {@link TdbOptimization}{@code s} that can be used when querying (see {@link TdbOptimizationRegistry}).
+     */
+    private Set<TdbOptimization> optimizations;
+
+    /**
+     * The number of processed query results.
+     */
+    private long rowsCount;
 
     /**
      * The final output to be retrieved for further usage after querying.
@@ -40,65 +109,177 @@ public class GenesForPhenotypeRetriever extends DisgenetRdfDataRetriever {
     }
 
     public GenesForPhenotypeRetriever(ModelReader modelReader, Set<Phenotype> phenotypes) {
+        this(modelReader, phenotypes, StageRecorder.NONE, RetrievalSettings.DEFAULT);
+    }
+
+    /**
+     * @param modelReader the DisGeNET data
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve the genes for
+     * @param stageRecorder receives the metrics of the retrieval stages
+     * @param settings the cache, planner, profiler and {@link GdaQueryOptions} to use
+     */
+    public GenesForPhenotypeRetriever(ModelReader modelReader, Set<Phenotype> phenotypes, StageRecorder stageRecorder,
+                                      RetrievalSettings settings) {
         super(modelReader);
         this.phenotypes = requireNonNull(phenotypes);
+        this.stageRecorder = requireNonNull(stageRecorder);
+        this.cache = settings.getCache();
+        this.planner = settings.getPlanner();
+        this.profiler = settings.getProfiler();
+        this.options = settings.getOptions();
     }
 
     @Override
     public void run() {
+        long start = System.nanoTime();
         retrieveSources();
-        retrieveData();
+        long sourcesEnd = System.nanoTime();
+        stageRecorder.record(Stage.SOURCE_RETRIEVAL, sourcesEnd - start, getSources().size(), getSources().size());
+
+        optimizations = TdbOptimizationRegistry.getOptimizations(getModelReader());
+        if(cache == null) {
+            retrieveData();
+        } else {
+            retrieveDataUsingCache();
+        }
+        stageRecorder.record(Stage.GDA_QUERY, System.nanoTime() - sourcesEnd, rowsCount, genes.size() + diseases.size());
     }
 
+    /**
+     * Processes the query results. Each query result only contains {@link Node}{@code s} which are already known for
+     * the most part (a gene-disease combination is returned for each evidence/source), so entities are only created
+     * the first time their {@link Node} is encountered.
+     */
     private void retrieveData() {
-        QueryRunner query = new QueryRunner(getModelReader().getModel(),
-                QueryStringGenerator.getGenesForPhenotypes(phenotypes));
-
-        while(query.hasNext()) {
-            QuerySolution result = query.next();
+        query(phenotypes, result -> processResult(toRow(result)));
+    }
 
-            // Store new disease, or retrieves existing disease instance if already exists.
-            Disease retrievedDisease = new Disease(URI.create(result.get("disease").asResource().getURI()));
-            Disease disease = diseases.put(retrievedDisease, retrievedDisease);
-            if(disease == null) {
-                disease = retrievedDisease;
+    /**
+     * Same as {@link #retrieveData()}, but only queries the {@link Phenotype}{@code s} that are not present in
+     * {@link #cache} (after which their results are added to the cache).
+     */
+    private void retrieveDataUsingCache() {
+        // Processes the cached phenotypes and collects the missing ones.
+        Map<Phenotype, List<PhenotypeQueryCache.Row>> missing = new HashMap<>();
+        for(Phenotype phenotype : phenotypes) {
+            List<PhenotypeQueryCache.Row> rows = cache.get(phenotype);
+            if(rows == null) {
+                missing.put(phenotype, new ArrayList<>());
+            } else {
+                rows.forEach(this::processResult);
             }
+        }
+        if(missing.isEmpty()) {
+            return;
+        }
 
-            // Store new gene, or retrieves existing disease instance if already exists.
-            Gene retrievedGene = new Gene(URI.create(result.get("gene").asResource().getURI()),
-                    new GeneSymbol(URI.create(result.get("geneSymbol").asResource().getURI())));
-            Gene gene = genes.put(retrievedGene, retrievedGene);
-            if(gene == null) {
-                gene = retrievedGene;
-            }
+        // The query results are linked to the phenotypes through their URI.
+        Map<String, List<PhenotypeQueryCache.Row>> missingByUri = new HashMap<>();
+        for(Map.Entry<Phenotype, List<PhenotypeQueryCache.Row>> phenotypeRows : missing.entrySet()) {
+            missingByUri.put(phenotypeRows.getKey().getUri().toString(), phenotypeRows.getValue());
+        }
 
-            // Retrieves score belonging to the gene-disease combination.
-            double score = result.get("gdaScoreNumber").asLiteral().getDouble();
+        query(missing.keySet(), result -> {
+            PhenotypeQueryCache.Row row = toRow(result);
+            missingByUri.get(result.get(HPO).getURI()).add(row);
+            processResult(row);
+        });
 
-            // The gene-disease combination belonging to the single query result.
-            GeneDiseaseCombination comparisonGdc = new GeneDiseaseCombination(gene, disease, score);
+        missing.forEach(cache::put);
+    }
 
-            // Retrieves it from the collection (if it already exists).
-            GeneDiseaseCombination gdc = geneDiseaseCollection.get(comparisonGdc);
+    /**
+     * Queries the genes for {@code phenotypesToQuery}. If {@link #planner} splits them into multiple chunks, the
+     * chunks are queried concurrently after which their results are processed in the order of the chunks. Otherwise,
+     * the results are processed directly while iterating over them.
+     * @param phenotypesToQuery the {@link Phenotype}{@code s} to query
+     * @param processor processes each query result (always on the current {@link Thread})
+     */
+    private void query(Set<Phenotype> phenotypesToQuery, Consumer<Binding> processor) {
+        if(planner == null || !planner.isSplit(phenotypesToQuery)) {
+            QueryRunner query = new QueryRunner(getModelReader().getModel(),
+                    QueryStringGenerator.getGenesForPhenotypes(phenotypesToQuery, optimizations, options,
+                            getSources().values()), profiler);
+            while(query.hasNext()) {
+                processor.accept(query.nextBinding());
+            }
+            query.close();
+            return;
+        }
 
-            // If the gene-disease combination is not present yet, uses the comparison gdc and also adds it to the collection.
-            if(gdc == null) {
-                gdc = comparisonGdc;
-                geneDiseaseCollection.add(gdc);
+        List<List<Binding>> chunkResults = planner.execute(getModelReader(), phenotypesToQuery, chunk -> {
+            List<Binding> results = new ArrayList<>();
+            QueryRunner query = new QueryRunner(getModelReader().getModel(),
+                    QueryStringGenerator.getGenesForPhenotypes(chunk, optimizations, options,
+                            getSources().values()), profiler);
+            while(query.hasNext()) {
+                // Copied so that the results can be read outside of the read action of the chunk.
+                results.add(BindingFactory.copy(query.nextBinding()));
             }
+            query.close();
+            return results;
+        });
+        for(List<Binding> results : chunkResults) {
+            results.forEach(processor);
+        }
+    }
 
-            // Retrieves source belonging to match. If this causes an error, this might indicate a corrupt database (as
-            // retrieveSources() should retrieve all possible sources available).
-            Source source = getSources().get(URI.create(result.get("gdaSource").asResource().getURI()));
+    /**
+     * @param result a query result
+     * @return the {@link Node}{@code s} of {@code result} needed for processing
+     */
+    private PhenotypeQueryCache.Row toRow(Binding result) {
+        return new PhenotypeQueryCache.Row(result.get(DISEASE), result.get(GENE), result.get(GENE_SYMBOL),
+                result.get(GDA_SCORE), result.get(GDA_SOURCE), result.get(EVIDENCE));
+    }
 
-            // Adds source to gene-disease combination (with evidence if available).
-            if(result.get("evidence") != null) {
-                gdc.add(source, URI.create(result.get("evidence").asResource().getURI()));
-            } else {
-                gdc.add(source);
-            }
+    /**
+     * Adds a single query result to {@link #geneDiseaseCollection}.
+     * @param result the query result
+     */
+    private void processResult(PhenotypeQueryCache.Row result) {
+        rowsCount++;
+        Node diseaseNode = result.getDisease();
+        Node geneNode = result.getGene();
+
+        // Retrieves the gene-disease combination, or creates it (and adds it to the collection) if it is new.
+        Map<Node, GeneDiseaseCombination> diseaseCombinations = combinations.computeIfAbsent(diseaseNode, k -> new HashMap<>());
+        GeneDiseaseCombination gdc = diseaseCombinations.get(geneNode);
+        if(gdc == null) {
+            gdc = new GeneDiseaseCombination(retrieveGene(geneNode, result.getGeneSymbol()), retrieveDisease(diseaseNode),
+                    ((Number) result.getGdaScore().getLiteralValue()).doubleValue());
+            diseaseCombinations.put(geneNode, gdc);
+            geneDiseaseCollection.add(gdc);
+        }
+
+        // Retrieves source belonging to match. If this causes an error, this might indicate a corrupt database (as
+        // retrieveSources() should retrieve all possible sources available).
+        Source source = sourcesByNode.computeIfAbsent(result.getGdaSource(), k -> getSources().get(URI.create(k.getURI())));
+
+        // Adds source to gene-disease combination (with evidence if available).
+        Node evidenceNode = result.getEvidence();
+        if(evidenceNode != null) {
+            gdc.add(source, evidence.computeIfAbsent(evidenceNode, k -> EvidenceDictionary.getId(k.getURI())));
+        } else {
+            gdc.add(source);
         }
+    }
 
-        query.close();
+    /**
+     * @param diseaseNode the {@link Node} of the disease
+     * @return the stored {@link Disease}, or a new one if this is the first time {@code diseaseNode} is encountered
+     */
+    private Disease retrieveDisease(Node diseaseNode) {
+        return diseases.computeIfAbsent(diseaseNode, k -> new Disease(URI.create(k.getURI())));
+    }
+
+    /**
+     * @param geneNode the {@link Node} of the gene
+     * @param geneSymbolNode the {@link Node} of the gene symbol (only used for a new gene)
+     * @return the stored {@link Gene}, or a new one if this is the first time {@code geneNode} is encountered
+     */
+    private Gene retrieveGene(Node geneNode, Node geneSymbolNode) {
+        return genes.computeIfAbsent(geneNode, k -> new Gene(URI.create(k.getURI()),
+                new GeneSymbol(URI.create(geneSymbolNode.getURI()))));
     }
 }
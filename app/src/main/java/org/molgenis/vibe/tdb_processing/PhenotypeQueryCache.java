@@ -0,0 +1,187 @@
+package org.molgenis.vibe.tdb_processing;
+
+import static java.util.Objects.requireNonNull;
+
+import org.apache.jena.graph.Node;
+import org.molgenis.vibe.formats.Phenotype;
+
+import java.util.*;
+
+/**
+ * Stores the gene-disease query results per single {@link Phenotype}, so that phenotypes shared between requests (such
+ * as different samples within a batch or different requests to a server) only need to be queried once. The results of
+ * a {@link Phenotype} are stored as {@link Row}{@code s} (only containing the {@link Node}{@code s} needed by
+ * {@link GenesForPhenotypeRetriever}).
+ * <br /><br />
+ * The cache is bounded by the total number of stored {@link Row}{@code s}: when exceeded, the least recently used
+ * {@link Phenotype}{@code s} are evicted. A {@link Phenotype} without any results is stored as well (and counts as a
+ * single row). Can be used by multiple threads simultaneously.
+ */
+public class PhenotypeQueryCache {
+    /**
+     * The maximum number of {@link Row}{@code s} to store.
+     */
+    private final long maxRows;
+
+    /**
+     * The number of {@link Row}{@code s} currently stored.
+     */
+    private long rows;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * The stored {@link Row}{@code s} in access order (least recently used first).
+     */
+    private final LinkedHashMap<Phenotype, List<Row>> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param maxRows the maximum number of {@link Row}{@code s} to store
+     * @throws IllegalArgumentException if {@code maxRows} is lower than 1
+     */
+    public PhenotypeQueryCache(long maxRows) {
+        if(maxRows < 1) {
+            throw new IllegalArgumentException("The cache size should be at least 1.");
+        }
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * @param phenotype the {@link Phenotype} to retrieve the stored {@link Row}{@code s} for
+     * @return the stored {@link Row}{@code s} (unmodifiable), or {@code null} if {@code phenotype} is not stored
+     */
+    public synchronized List<Row> get(Phenotype phenotype) {
+        List<Row> phenotypeRows = cache.get(phenotype);
+        if(phenotypeRows == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return phenotypeRows;
+    }
+
+    /**
+     * Stores the {@link Row}{@code s} of a {@link Phenotype} (replacing any previously stored ones) and evicts the least
+     * recently used {@link Phenotype}{@code s} if needed. If {@code phenotypeRows} exceeds the maximum size on its own,
+     * it is not stored at all.
+     * @param phenotype the {@link Phenotype} the {@link Row}{@code s} belong to
+     * @param phenotypeRows all query results belonging to {@code phenotype}
+     */
+    public synchronized void put(Phenotype phenotype, List<Row> phenotypeRows) {
+        long size = size(phenotypeRows);
+        if(size > maxRows) {
+            return;
+        }
+
+        List<Row> previous = cache.put(phenotype, Collections.unmodifiableList(new ArrayList<>(phenotypeRows)));
+        if(previous != null) {
+            rows -= size(previous);
+        }
+        rows += size;
+
+        Iterator<Map.Entry<Phenotype, List<Row>>> iterator = cache.entrySet().iterator();
+        while(rows > maxRows) {
+            Map.Entry<Phenotype, List<Row>> eldest = iterator.next();
+            rows -= size(eldest.getValue());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * @param phenotypeRows the {@link Row}{@code s} of a {@link Phenotype}
+     * @return the number of rows counted towards the maximum size
+     */
+    private long size(List<Row> phenotypeRows) {
+        return Math.max(1, phenotypeRows.size());
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of {@link Phenotype}{@code s} currently stored
+     */
+    public synchronized int getPhenotypesCount() {
+        return cache.size();
+    }
+
+    /**
+     * @return the number of {@link Row}{@code s} currently stored (where a {@link Phenotype} without results counts as
+     * a single row)
+     */
+    public synchronized long getRowsCount() {
+        return rows;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "PhenotypeQueryCache{" +
+                "phenotypes=" + cache.size() +
+                ", rows=" + rows +
+                ", maxRows=" + maxRows +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                '}';
+    }
+
+    /**
+     * A single gene-disease query result (without the phenotype it was retrieved for).
+     */
+    public static final class Row {
+        private final Node disease;
+        private final Node gene;
+        private final Node geneSymbol;
+        private final Node gdaScore;
+        private final Node gdaSource;
+        private final Node evidence;
+
+        public Node getDisease() {
+            return disease;
+        }
+
+        public Node getGene() {
+            return gene;
+        }
+
+        public Node getGeneSymbol() {
+            return geneSymbol;
+        }
+
+        public Node getGdaScore() {
+            return gdaScore;
+        }
+
+        public Node getGdaSource() {
+            return gdaSource;
+        }
+
+        /**
+         * @return the evidence, or {@code null} if the gene-disease association has no evidence
+         */
+        public Node getEvidence() {
+            return evidence;
+        }
+
+        public Row(Node disease, Node gene, Node geneSymbol, Node gdaScore, Node gdaSource, Node evidence) {
+            this.disease = requireNonNull(disease);
+            this.gene = requireNonNull(gene);
+            this.geneSymbol = requireNonNull(geneSymbol);
+            this.gdaScore = requireNonNull(gdaScore);
+            this.gdaSource = requireNonNull(gdaSource);
+            this.evidence = evidence;
+        }
+    }
+}
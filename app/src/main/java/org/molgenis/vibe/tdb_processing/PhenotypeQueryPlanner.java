@@ -0,0 +1,123 @@
+package org.molgenis.vibe.tdb_processing;
+
+import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.io.input.ModelReader;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Splits a large set of {@link Phenotype}{@code s} into chunks that are queried separately (and concurrently), instead
+ * of a single query containing all {@link Phenotype}{@code s} in its {@code VALUES} clause (which is evaluated as one
+ * large join). As a {@code VALUES} clause without {@code DISTINCT} returns the results of each value independently,
+ * the combined results of all chunks are identical to the results of a single query.
+ * <br /><br />
+ * The chunks are run by a shared pool of daemon threads, where each chunk is run within its own read action (see
+ * {@link ModelReader#calculateRead(java.util.function.Supplier)}).
+ */
+public class PhenotypeQueryPlanner {
+    /**
+     * The maximum number of {@link Phenotype}{@code s} per query.
+     */
+    private final int chunkSize;
+
+    private final ExecutorService executor;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize the maximum number of {@link Phenotype}{@code s} per query
+     * @param threads the maximum number of chunks to query simultaneously
+     * @throws IllegalArgumentException if {@code chunkSize} or {@code threads} is lower than 1
+     */
+    public PhenotypeQueryPlanner(int chunkSize, int threads) {
+        if(chunkSize < 1) {
+            throw new IllegalArgumentException("The query chunk size should be at least 1.");
+        }
+        if(threads < 1) {
+            throw new IllegalArgumentException("The number of query threads should be at least 1.");
+        }
+        this.chunkSize = chunkSize;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "vibe-query");
+            thread.setDaemon(true); // Does not keep the application running if not shut down.
+            return thread;
+        });
+    }
+
+    /**
+     * @param phenotypes the {@link Phenotype}{@code s} to query
+     * @return {@code true} if {@code phenotypes} does not fit in a single query
+     */
+    public boolean isSplit(Set<Phenotype> phenotypes) {
+        return phenotypes.size() > chunkSize;
+    }
+
+    /**
+     * Splits {@code phenotypes} into chunks of at most {@link #getChunkSize()} {@link Phenotype}{@code s} (keeping the
+     * iteration order of {@code phenotypes}).
+     * @param phenotypes the {@link Phenotype}{@code s} to split
+     * @return the chunks
+     */
+    public List<Set<Phenotype>> createChunks(Set<Phenotype> phenotypes) {
+        List<Set<Phenotype>> chunks = new ArrayList<>((phenotypes.size() + chunkSize - 1) / chunkSize);
+        Set<Phenotype> chunk = null;
+        for(Phenotype phenotype : phenotypes) {
+            if(chunk == null || chunk.size() == chunkSize) {
+                chunk = new LinkedHashSet<>();
+                chunks.add(chunk);
+            }
+            chunk.add(phenotype);
+        }
+        return chunks;
+    }
+
+    /**
+     * Runs {@code chunkQuery} for each chunk of {@code phenotypes} (see {@link #createChunks(Set)}) concurrently.
+     * @param modelReader the {@link ModelReader} queried by {@code chunkQuery}
+     * @param phenotypes the {@link Phenotype}{@code s} to query
+     * @param chunkQuery queries a single chunk (should not return data that is only readable within the read action)
+     * @param <T> the output type of {@code chunkQuery}
+     * @return the output of {@code chunkQuery} per chunk (in the order of {@link #createChunks(Set)})
+     */
+    public <T> List<T> execute(ModelReader modelReader, Set<Phenotype> phenotypes, Function<Set<Phenotype>, T> chunkQuery) {
+        List<Future<T>> futures = new ArrayList<>();
+        try {
+            for(Set<Phenotype> chunk : createChunks(phenotypes)) {
+                futures.add(executor.submit(() -> modelReader.calculateRead(() -> chunkQuery.apply(chunk))));
+            }
+
+            List<T> results = new ArrayList<>(futures.size());
+            for(Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if(e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying.", e);
+        } finally {
+            // Stops the remaining chunks if one of them failed.
+            for(Future<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Stops the query threads.
+     */
+    public void close() {
+        executor.shutdownNow();
+    }
+}
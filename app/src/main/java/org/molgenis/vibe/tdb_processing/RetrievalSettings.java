@@ -0,0 +1,135 @@
+package org.molgenis.vibe.tdb_processing;
+
+import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.tdb_processing.query_runner.QueryProfiler;
+import org.molgenis.vibe.tdb_processing.query_string_creation.GdaQueryOptions;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The (optional) settings used by a {@link GenesForPhenotypeRetriever}. As these can be shared by multiple retrievals,
+ * a {@link TripleStoreGeneDiseaseDataset} uses the same settings for each of its retrievals. Use {@link #builder()}
+ * to create settings other than {@link #DEFAULT}.
+ */
+public final class RetrievalSettings {
+    /**
+     * No cache, planner or profiler is used and all gene-disease associations (with their evidence) are retrieved.
+     */
+    public static final RetrievalSettings DEFAULT = builder().build();
+
+    /**
+     * Is {@code null} if no cache is used.
+     */
+    private final PhenotypeQueryCache cache;
+
+    /**
+     * Is {@code null} if each retrieval should use a single query.
+     */
+    private final PhenotypeQueryPlanner planner;
+
+    /**
+     * Is {@code null} if the queries should not be profiled.
+     */
+    private final QueryProfiler profiler;
+
+    /**
+     * Used for all retrievals (so that the results in {@link #cache} always match them).
+     */
+    private final GdaQueryOptions options;
+
+    /**
+     * @return the cache to use for the query results per {@link Phenotype} ({@code null} if no cache should be used)
+     */
+    public PhenotypeQueryCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return splits large sets of {@link Phenotype}{@code s} into multiple queries ({@code null} if a single query
+     * should be used)
+     */
+    public PhenotypeQueryPlanner getPlanner() {
+        return planner;
+    }
+
+    /**
+     * @return receives the execution statistics of each query ({@code null} if the queries should not be profiled)
+     */
+    public QueryProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * @return defines which gene-disease associations (and whether their evidence) should be retrieved
+     */
+    public GdaQueryOptions getOptions() {
+        return options;
+    }
+
+    private RetrievalSettings(Builder builder) {
+        this.cache = builder.cache;
+        this.planner = builder.planner;
+        this.profiler = builder.profiler;
+        this.options = requireNonNull(builder.options);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builds {@link RetrievalSettings}. Any setting that is not set keeps its {@link #DEFAULT} value.
+     */
+    public static final class Builder {
+        private PhenotypeQueryCache cache;
+        private PhenotypeQueryPlanner planner;
+        private QueryProfiler profiler;
+        private GdaQueryOptions options = GdaQueryOptions.ALL;
+
+        private Builder() {
+        }
+
+        /**
+         * @param cache the cache to use for the query results per {@link Phenotype} ({@code null} if no cache should
+         *              be used). Should only contain results retrieved using the same {@link GdaQueryOptions}.
+         * @return this builder
+         */
+        public Builder cache(PhenotypeQueryCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        /**
+         * @param planner splits large sets of {@link Phenotype}{@code s} into multiple queries ({@code null} if a
+         *                single query should be used)
+         * @return this builder
+         */
+        public Builder planner(PhenotypeQueryPlanner planner) {
+            this.planner = planner;
+            return this;
+        }
+
+        /**
+         * @param profiler receives the execution statistics of each query ({@code null} if the queries should not be
+         *                 profiled)
+         * @return this builder
+         */
+        public Builder profiler(QueryProfiler profiler) {
+            this.profiler = profiler;
+            return this;
+        }
+
+        /**
+         * @param options defines which gene-disease associations (and whether their evidence) should be retrieved
+         * @return this builder
+         */
+        public Builder options(GdaQueryOptions options) {
+            this.options = requireNonNull(options);
+            return this;
+        }
+
+        public RetrievalSettings build() {
+            return new RetrievalSettings(this);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package org.molgenis.vibe.tdb_processing;
+
+import org.apache.jena.query.QuerySolution;
+import org.molgenis.vibe.formats.Source;
+import org.molgenis.vibe.io.input.DatasetVersion;
+import org.molgenis.vibe.io.input.ModelReader;
+import org.molgenis.vibe.io.input.TripleStoreDbReader;
+import org.molgenis.vibe.tdb_processing.query_runner.QueryRunner;
+import org.molgenis.vibe.tdb_processing.query_string_creation.QueryStringGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Process-wide storage of the DisGeNET {@link Source}{@code s}. As these are only a few and they are fixed for a
+ * dataset, they are only retrieved once per {@link ModelReader}.
+ * <br /><br />
+ * Optionally (see {@link #getSources(ModelReader, Path, Consumer)}), the {@link Source}{@code s} of a
+ * {@link TripleStoreDbReader} are also stored in a sidecar file within a given directory (one file per TDB location,
+ * named after it and ending with {@link #SIDECAR_EXTENSION}), so that later runs do not need to query them either.
+ * The first line of this file contains the version of the TDB it was created from (see
+ * {@link DatasetVersion}), followed by a line per {@link Source} containing the {@link Source.Level}, the
+ * URI and the title (tab-separated). If the version does not match the TDB (or the file is invalid), the
+ * {@link Source}{@code s} are queried and the file is re-created.
+ */
+public final class SourceRegistry {
+    /**
+     * The extension of the sidecar file.
+     */
+    public static final String SIDECAR_EXTENSION = ".sources";
+
+    /**
+     * The {@link Source}{@code s} per {@link ModelReader} (released when the {@link ModelReader} is garbage collected).
+     */
+    private static final Map<ModelReader, Map<URI, Source>> REGISTRY = new WeakHashMap<>();
+
+    private SourceRegistry() {
+    }
+
+    /**
+     * Retrieves the {@link Source}{@code s} available within {@code modelReader}. If they were not retrieved before, this
+     * should be called from a {@link Thread} that is able to read from {@code modelReader} (see
+     * {@link ModelReader#calculateRead(java.util.function.Supplier)}).
+     * @param modelReader the DisGeNET data
+     * @return an unmodifiable {@link Map} with all available {@link Source}{@code s} by their {@link URI}
+     */
+    public static Map<URI, Source> getSources(ModelReader modelReader) {
+        return getSources(modelReader, null, message -> {});
+    }
+
+    /**
+     * Retrieves the {@link Source}{@code s} available within {@code modelReader}, using a sidecar file within
+     * {@code sidecarDirectory} if {@code modelReader} is a {@link TripleStoreDbReader}. If they were not retrieved
+     * before, this should be called from a {@link Thread} that is able to read from {@code modelReader} (see
+     * {@link ModelReader#calculateRead(java.util.function.Supplier)}). If they were retrieved before, the earlier
+     * retrieved {@link Source}{@code s} are returned (and the sidecar file is not used).
+     * @param modelReader the DisGeNET data
+     * @param sidecarDirectory the directory to store the sidecar file in ({@code null} if no sidecar file should be used)
+     * @param logger receives a message whenever the sidecar file could not be used
+     * @return an unmodifiable {@link Map} with all available {@link Source}{@code s} by their {@link URI}
+     */
+    public static Map<URI, Source> getSources(ModelReader modelReader, Path sidecarDirectory, Consumer<String> logger) {
+        requireNonNull(logger);
+        synchronized (REGISTRY) {
+            return REGISTRY.computeIfAbsent(modelReader,
+                    k -> Collections.unmodifiableMap(loadSources(k, sidecarDirectory, logger)));
+        }
+    }
+
+    /**
+     * @param modelReader the DisGeNET data
+     * @param sidecarDirectory the directory to store the sidecar file in ({@code null} if no sidecar file should be used)
+     * @param logger receives a message whenever the sidecar file could not be used
+     * @return the {@link Source}{@code s} from the sidecar file if available and up-to-date, otherwise from querying
+     * {@code modelReader}
+     */
+    private static Map<URI, Source> loadSources(ModelReader modelReader, Path sidecarDirectory,
+                                                Consumer<String> logger) {
+        if(sidecarDirectory == null || !(modelReader instanceof TripleStoreDbReader)) {
+            return querySources(modelReader);
+        }
+
+        Path tdb = ((TripleStoreDbReader) modelReader).getDirectory();
+        Path sidecar = getSidecarFile(sidecarDirectory, tdb);
+        String version;
+        try {
+            version = DatasetVersion.calculate(tdb);
+        } catch (IOException e) {
+            logger.accept("Could not determine the TDB version, so the sources file is not used: " + e.getMessage());
+            return querySources(modelReader);
+        }
+
+        Map<URI, Source> sources = null;
+        try {
+            sources = readSidecar(sidecar, version);
+        } catch (IOException e) {
+            logger.accept("Could not read sources file " + sidecar + ": " + e.getMessage());
+        }
+        if(sources == null) {
+            sources = querySources(modelReader);
+            try {
+                writeSidecar(sidecar, version, sources);
+            } catch (IOException e) {
+                // The sidecar is only an optimization, so the sources are simply queried again next time.
+                logger.accept("Could not write sources file " + sidecar + ": " + e.getMessage());
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * @param sidecarDirectory the directory to store the sidecar file in
+     * @param tdb the directory containing the TDB
+     * @return the sidecar file belonging to {@code tdb} (the TDB directory name followed by a hash of its absolute
+     * path, so that different TDBs with the same name do not share a sidecar file)
+     */
+    public static Path getSidecarFile(Path sidecarDirectory, Path tdb) {
+        Path directory = tdb.toAbsolutePath().normalize();
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every Java platform is required to support SHA-256.
+        }
+        String pathHash = DatasetVersion.toHex(digest.digest(directory.toString().getBytes(StandardCharsets.UTF_8)));
+        return sidecarDirectory.resolve(directory.getFileName() + "-" + pathHash.substring(0, 16) + SIDECAR_EXTENSION);
+    }
+
+    /**
+     * Queries the {@link Source}{@code s} from the DisGeNET data.
+     * @param modelReader the DisGeNET data
+     * @return the {@link Source}{@code s} by their {@link URI}
+     */
+    static Map<URI, Source> querySources(ModelReader modelReader) {
+        Map<URI, Source> sources = new HashMap<>();
+        QueryRunner query = new QueryRunner(modelReader.getModel(), QueryStringGenerator.getSources());
+
+        while(query.hasNext()) {
+            QuerySolution result = query.next();
+
+            URI sourceUri = URI.create(result.get("source").asResource().getURI());
+            sources.put(sourceUri,
+                    new Source(sourceUri,
+                            result.get("sourceTitle").asLiteral().getString(),
+                            result.get("sourceLevel").asResource().getURI())
+            );
+        }
+        query.close();
+
+        return sources;
+    }
+
+    /**
+     * @param sidecar the sidecar file
+     * @param version the current TDB version
+     * @return the {@link Source}{@code s} by their {@link URI}, or {@code null} if the sidecar file does not exist or
+     * belongs to a different TDB version
+     * @throws IOException if the sidecar file could not be read or is invalid
+     */
+    static Map<URI, Source> readSidecar(Path sidecar, String version) throws IOException {
+        if(!Files.isRegularFile(sidecar)) {
+            return null;
+        }
+
+        List<String> lines = Files.readAllLines(sidecar, StandardCharsets.UTF_8);
+        if(lines.isEmpty() || !lines.get(0).equals(version)) {
+            return null;
+        }
+
+        Map<URI, Source> sources = new HashMap<>();
+        for(String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split("\t", 3);
+            if(fields.length != 3) {
+                throw new IOException("invalid line: " + line);
+            }
+            try {
+                URI sourceUri = URI.create(fields[1]);
+                sources.put(sourceUri, new Source(sourceUri, fields[2], Source.Level.valueOf(fields[0])));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("invalid line: " + line, e);
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Writes the sidecar file. It is first written to a temporary file within the same directory, which then replaces
+     * {@code sidecar}, so that simultaneous runs never read an incomplete file.
+     * @param sidecar the sidecar file
+     * @param version the current TDB version
+     * @param sources the {@link Source}{@code s} to write
+     * @throws IOException if the file could not be written
+     */
+    static void writeSidecar(Path sidecar, String version, Map<URI, Source> sources) throws IOException {
+        Files.createDirectories(sidecar.getParent());
+        Path tempFile = Files.createTempFile(sidecar.getParent(), sidecar.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writer.write(version);
+                writer.newLine();
+                for(Source source : sources.values()) {
+                    writer.write(source.getLevel().name() + "\t" + source.getUri() + "\t" + source.getFullName());
+                    writer.newLine();
+                }
+            }
+            Files.move(tempFile, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
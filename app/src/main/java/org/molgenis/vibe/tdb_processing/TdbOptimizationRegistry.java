@@ -0,0 +1,39 @@
+package org.molgenis.vibe.tdb_processing;
+
+import org.molgenis.vibe.io.input.ModelReader;
+import org.molgenis.vibe.tdb_processing.query_string_creation.TdbOptimization;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Process-wide storage of the {@link TdbOptimization}{@code s} present in the DisGeNET data. As these are fixed for a
+ * dataset, they are only detected once per {@link ModelReader}.
+ */
+public final class TdbOptimizationRegistry {
+    /**
+     * The {@link TdbOptimization}{@code s} per {@link ModelReader} (released when the {@link ModelReader} is garbage
+     * collected).
+     */
+    private static final Map<ModelReader, Set<TdbOptimization>> REGISTRY = new WeakHashMap<>();
+
+    private TdbOptimizationRegistry() {
+    }
+
+    /**
+     * Retrieves the {@link TdbOptimization}{@code s} present in {@code modelReader}. If not detected before, this should
+     * be called from a {@link Thread} that is able to read from {@code modelReader} (see
+     * {@link ModelReader#calculateRead(java.util.function.Supplier)}).
+     * @param modelReader the DisGeNET data
+     * @return an unmodifiable {@link Set} with the {@link TdbOptimization}{@code s} that can be used when querying
+     * {@code modelReader}
+     */
+    public static Set<TdbOptimization> getOptimizations(ModelReader modelReader) {
+        synchronized (REGISTRY) {
+            return REGISTRY.computeIfAbsent(modelReader,
+                    k -> Collections.unmodifiableSet(TdbOptimization.detect(k.getModel())));
+        }
+    }
+}
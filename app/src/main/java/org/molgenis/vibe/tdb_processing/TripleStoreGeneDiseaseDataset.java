@@ -0,0 +1,70 @@
+package org.molgenis.vibe.tdb_processing;
+
+import org.molgenis.vibe.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.io.input.GeneDiseaseDataset;
+import org.molgenis.vibe.io.input.ModelReader;
+import org.molgenis.vibe.metrics.StageRecorder;
+import org.molgenis.vibe.tdb_processing.query_runner.QueryProfiler;
+
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link GeneDiseaseDataset} that queries the DisGeNET RDF data through a {@link ModelReader} (using a
+ * {@link GenesForPhenotypeRetriever}). Each retrieval is done within its own read action (see
+ * {@link ModelReader#calculateRead(java.util.function.Supplier)}). Optionally, a {@link PhenotypeQueryCache},
+ * {@link PhenotypeQueryPlanner} and/or {@link QueryProfiler} can be shared by all retrievals (see
+ * {@link RetrievalSettings}).
+ */
+public class TripleStoreGeneDiseaseDataset implements GeneDiseaseDataset {
+    private ModelReader modelReader;
+
+    /**
+     * Used for all retrievals (so that any cached results always match them).
+     */
+    private RetrievalSettings settings;
+
+    public ModelReader getModelReader() {
+        return modelReader;
+    }
+
+    public RetrievalSettings getSettings() {
+        return settings;
+    }
+
+    public TripleStoreGeneDiseaseDataset(ModelReader modelReader) {
+        this(modelReader, RetrievalSettings.DEFAULT);
+    }
+
+    /**
+     * @param modelReader the DisGeNET data
+     * @param settings the settings to use for all retrievals
+     */
+    public TripleStoreGeneDiseaseDataset(ModelReader modelReader, RetrievalSettings settings) {
+        this.modelReader = requireNonNull(modelReader);
+        this.settings = requireNonNull(settings);
+    }
+
+    @Override
+    public GeneDiseaseCollection retrieve(Set<Phenotype> phenotypes, StageRecorder stageRecorder) {
+        return modelReader.calculateRead(() -> {
+            GenesForPhenotypeRetriever genesForPhenotypeRetriever = new GenesForPhenotypeRetriever(modelReader, phenotypes,
+                    stageRecorder, settings);
+            genesForPhenotypeRetriever.run();
+            return genesForPhenotypeRetriever.getGeneDiseaseCollection();
+        });
+    }
+
+    @Override
+    public void close() {
+        if(settings.getPlanner() != null) {
+            settings.getPlanner().close();
+        }
+        if(settings.getProfiler() != null) {
+            settings.getProfiler().close();
+        }
+        modelReader.close();
+    }
+}
@@ -0,0 +1,155 @@
+package org.molgenis.vibe.tdb_processing.query_runner;
+
+import org.apache.jena.atlas.lib.Closeable;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.query.Query;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.TransformCopy;
+import org.apache.jena.sparql.algebra.Transformer;
+import org.apache.jena.sparql.algebra.op.OpBGP;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.GraphView;
+import org.apache.jena.sparql.engine.optimizer.reorder.ReorderFixed;
+import org.apache.jena.sparql.engine.optimizer.reorder.ReorderLib;
+import org.apache.jena.sparql.engine.optimizer.reorder.ReorderTransformation;
+import org.apache.jena.sparql.engine.optimizer.reorder.ReorderWeighted;
+import org.apache.jena.tdb2.store.DatasetGraphSwitchable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the execution statistics of each query run by a {@link QueryRunner} to a file, together with the optimized
+ * algebra of the query. For a TDB, the basic graph patterns within the algebra are shown in the order chosen by its
+ * {@link ReorderTransformation} (which uses the statistics from the {@code stats.opt} file of the TDB if present). Each
+ * query is flushed directly, so the file is usable while the application is still running.
+ */
+public class QueryProfiler implements Closeable {
+    /**
+     * Name of the reordering used when the statistics of a TDB are used.
+     */
+    public static final String REORDERING_STATISTICS = "statistics";
+
+    /**
+     * Name of the reordering used when the triple patterns are reordered based on fixed weights.
+     */
+    public static final String REORDERING_FIXED = "fixed";
+
+    /**
+     * Name of the reordering used when the triple patterns are kept in the order in which they are written.
+     */
+    public static final String REORDERING_NONE = "none";
+
+    private BufferedWriter writer;
+
+    /**
+     * The number of written queries.
+     */
+    private long queriesCount;
+
+    /**
+     * @param file the file to write the query profiles to (should not exist yet)
+     * @throws IOException if the file already exists or could not be created
+     */
+    public QueryProfiler(Path file) throws IOException {
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Writes the profile of a single query. Should be called from a {@link Thread} that is able to read from
+     * {@code graph} (see {@link org.molgenis.vibe.io.input.ModelReader#calculateRead(java.util.function.Supplier)}).
+     * @param query the query that was run
+     * @param graph the data the query was run on
+     * @param parseNanos the time needed for parsing the query
+     * @param firstRowNanos the time from the start of parsing until the first row was available (negative if no rows
+     *                      were returned)
+     * @param rows the number of rows that were retrieved
+     * @param totalNanos the time from the start of parsing until the query was closed
+     */
+    synchronized void write(Query query, Graph graph, long parseNanos, long firstRowNanos, long rows, long totalNanos) {
+        ReorderTransformation reorder = getReorderTransformation(graph);
+        try {
+            writer.write(String.format("#### Query %d: parse %.3f ms, first row %s, %d rows, total %.3f ms (reordering: %s)",
+                    ++queriesCount, parseNanos / 1e6, firstRowNanos < 0 ? "-" : String.format("%.3f ms", firstRowNanos / 1e6),
+                    rows, totalNanos / 1e6, getReorderingName(reorder)));
+            writer.newLine();
+            writer.write(explain(query, reorder).toString());
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Generates the algebra as ARQ would execute it. Note that the reordering is done without the bindings of earlier
+     * operators (such as a {@code VALUES} block), so the actual order might differ for patterns depending on these.
+     * @param query the query to explain
+     * @param reorder the reordering of the triple patterns used by the data
+     * @return the optimized algebra of {@code query}
+     */
+    static Op explain(Query query, ReorderTransformation reorder) {
+        return Transformer.transform(new TransformCopy() {
+            @Override
+            public Op transform(OpBGP opBGP) {
+                return new OpBGP(reorder.reorder(opBGP.getPattern()));
+            }
+        }, Algebra.optimize(Algebra.compile(query)));
+    }
+
+    /**
+     * @param graph the data to be queried
+     * @return the {@link ReorderTransformation} used for basic graph patterns on {@code graph} ({@link ReorderLib#fixed()}
+     * for any non-TDB {@link Graph}, as is done by ARQ itself)
+     */
+    static ReorderTransformation getReorderTransformation(Graph graph) {
+        ReorderTransformation reorder = ReorderLib.fixed();
+        if(graph instanceof org.apache.jena.tdb.store.GraphTDB) {
+            reorder = ((org.apache.jena.tdb.store.GraphTDB) graph).getDatasetGraphTDB().getReorderTransform();
+        } else if(graph instanceof org.apache.jena.tdb2.store.GraphTDB) {
+            reorder = ((org.apache.jena.tdb2.store.GraphTDB) graph).getDSG().getReorderTransform();
+        } else if(graph instanceof GraphView) {
+            // The default graph of a TDB2 dataset is a view on the currently active storage.
+            DatasetGraph datasetGraph = ((GraphView) graph).getDataset();
+            if(datasetGraph instanceof DatasetGraphSwitchable) {
+                datasetGraph = ((DatasetGraphSwitchable) datasetGraph).get();
+            }
+            if(datasetGraph instanceof org.apache.jena.tdb2.store.DatasetGraphTDB) {
+                reorder = ((org.apache.jena.tdb2.store.DatasetGraphTDB) datasetGraph).getReorderTransform();
+            }
+        }
+        return reorder == null ? ReorderLib.identity() : reorder;
+    }
+
+    /**
+     * @param reorder the reordering of the triple patterns
+     * @return a readable name for {@code reorder}
+     */
+    static String getReorderingName(ReorderTransformation reorder) {
+        if(reorder instanceof ReorderFixed) {
+            return REORDERING_FIXED;
+        }
+        if(reorder instanceof ReorderWeighted) {
+            return REORDERING_STATISTICS;
+        }
+        if(reorder.getClass().equals(ReorderLib.identity().getClass())) {
+            return REORDERING_NONE;
+        }
+        return reorder.getClass().getSimpleName();
+    }
+}
@@ -3,12 +3,15 @@ package org.molgenis.vibe.tdb_processing.query_runner;
 import org.apache.jena.atlas.lib.Closeable;
 import org.apache.jena.query.*;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.sparql.engine.binding.Binding;
 import org.molgenis.vibe.tdb_processing.query_string_creation.QueryString;
 
 import java.util.Iterator;
 
 /**
- * Is able to run a SPARQL query on a {@link Model}.
+ * Is able to run a SPARQL query on a {@link Model}. Optionally, the execution statistics of the query are written to a
+ * {@link QueryProfiler} when the query is closed.
  */
 public class QueryRunner implements Closeable, Iterator {
     /**
@@ -21,8 +24,44 @@ public class QueryRunner implements Closeable, Iterator {
      */
     private ResultSet results;
 
+    /**
+     * Receives the execution statistics when the query is closed ({@code null} if the query should not be profiled).
+     */
+    private QueryProfiler profiler;
+
+    private Model model;
+    private Query query;
+
+    /**
+     * {@link System#nanoTime()} at the start of parsing the query.
+     */
+    private long start;
+
+    private long parseNanos;
+
+    /**
+     * Is negative until the first row is available.
+     */
+    private long firstRowNanos = -1;
+
+    private long rowsCount;
+
     public QueryRunner(Model model, QueryString queryString) {
-        Query query = QueryFactory.create(queryString.getQuery(), queryString.getSyntax());
+        this(model, queryString, null);
+    }
+
+    /**
+     * @param model the data to query
+     * @param queryString the query to run
+     * @param profiler receives the execution statistics when the query is closed ({@code null} if the query should not
+     *                 be profiled)
+     */
+    public QueryRunner(Model model, QueryString queryString, QueryProfiler profiler) {
+        this.profiler = profiler;
+        this.model = model;
+        start = System.nanoTime();
+        query = QueryFactory.create(queryString.getQuery(), queryString.getSyntax());
+        parseNanos = System.nanoTime() - start;
         qexec = QueryExecutionFactory.create(query, model);
         results = qexec.execSelect();
     }
@@ -39,16 +78,35 @@ public class QueryRunner implements Closeable, Iterator {
 
     @Override
     public boolean hasNext() {
-        return results.hasNext();
+        boolean hasNext = results.hasNext();
+        if(hasNext && firstRowNanos < 0) {
+            firstRowNanos = System.nanoTime() - start;
+        }
+        return hasNext;
     }
 
     @Override
     public QuerySolution next() {
+        rowsCount++;
         return results.next();
     }
 
+    /**
+     * Same as {@link #next()}, but returns the {@link Binding} directly (so no {@link RDFNode}{@code s} need to be
+     * created when only the {@link org.apache.jena.graph.Node}{@code s} are needed).
+     * @return the next query result
+     * @see ResultSet#nextBinding()
+     */
+    public Binding nextBinding() {
+        rowsCount++;
+        return getResultSet().nextBinding();
+    }
+
     @Override
     public void close() {
         qexec.close();
+        if(profiler != null) {
+            profiler.write(query, model.getGraph(), parseNanos, firstRowNanos, rowsCount, System.nanoTime() - start);
+        }
     }
 }
@@ -0,0 +1,118 @@
+package org.molgenis.vibe.tdb_processing.query_string_creation;
+
+import static java.util.Objects.requireNonNull;
+
+import org.molgenis.vibe.formats.Source;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Defines which gene-disease associations (and which of their information) should be returned by the queries from
+ * {@link QueryStringGenerator}. Filtering within the query itself prevents the TDB from returning rows that would be
+ * discarded after retrieval anyway.
+ */
+public final class GdaQueryOptions {
+    /**
+     * Returns all gene-disease associations including their evidence (the same as when no options are given).
+     */
+    public static final GdaQueryOptions ALL = new GdaQueryOptions(0, EnumSet.allOf(Source.Level.class), true);
+
+    /**
+     * The minimum score a gene-disease association should have.
+     */
+    private final double minScore;
+
+    /**
+     * The {@link Source.Level}{@code s} from which gene-disease associations are returned.
+     */
+    private final Set<Source.Level> sourceLevels;
+
+    /**
+     * Whether the evidence of the gene-disease associations should be returned.
+     */
+    private final boolean evidence;
+
+    /**
+     * @param minScore the minimum score a gene-disease association should have (0 to not filter on score)
+     * @param sourceLevels the {@link Source.Level}{@code s} from which gene-disease associations should be returned
+     * @param evidence {@code true} if the evidence should be returned as well. If {@code false}, each gene-disease
+     *                 association is only returned once per source instead of once for each evidence (so the source
+     *                 counts of a {@link org.molgenis.vibe.formats.GeneDiseaseCombination} are lower as well)
+     * @throws IllegalArgumentException if {@code minScore} is not between 0 and 1 or {@code sourceLevels} is empty
+     */
+    public GdaQueryOptions(double minScore, Set<Source.Level> sourceLevels, boolean evidence) {
+        if(!(minScore >= 0 && minScore <= 1)) {
+            throw new IllegalArgumentException("The minimum score should be between 0 and 1.");
+        }
+        if(requireNonNull(sourceLevels).isEmpty()) {
+            throw new IllegalArgumentException("At least 1 source level should be given.");
+        }
+        this.minScore = minScore;
+        this.sourceLevels = Collections.unmodifiableSet(EnumSet.copyOf(sourceLevels));
+        this.evidence = evidence;
+    }
+
+    public double getMinScore() {
+        return minScore;
+    }
+
+    /**
+     * @return an unmodifiable {@link Set}
+     */
+    public Set<Source.Level> getSourceLevels() {
+        return sourceLevels;
+    }
+
+    public boolean includesEvidence() {
+        return evidence;
+    }
+
+    /**
+     * @return {@code true} if gene-disease associations are filtered on score
+     */
+    public boolean filtersScore() {
+        return minScore > 0;
+    }
+
+    /**
+     * @return {@code true} if gene-disease associations are filtered on {@link Source.Level}
+     */
+    public boolean filtersSourceLevels() {
+        return sourceLevels.size() < Source.Level.values().length;
+    }
+
+    /**
+     * @param source a {@link Source} of gene-disease associations
+     * @return {@code true} if gene-disease associations from {@code source} should be returned
+     */
+    public boolean isAllowed(Source source) {
+        return sourceLevels.contains(source.getLevel());
+    }
+
+    @Override
+    public String toString() {
+        return "GdaQueryOptions{" +
+                "minScore=" + minScore +
+                ", sourceLevels=" + sourceLevels +
+                ", evidence=" + evidence +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GdaQueryOptions that = (GdaQueryOptions) o;
+        return Double.compare(that.minScore, minScore) == 0 &&
+                evidence == that.evidence &&
+                Objects.equals(sourceLevels, that.sourceLevels);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(minScore, sourceLevels, evidence);
+    }
+}
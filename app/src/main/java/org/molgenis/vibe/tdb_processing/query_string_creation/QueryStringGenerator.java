@@ -3,10 +3,15 @@ package org.molgenis.vibe.tdb_processing.query_string_creation;
 import org.molgenis.vibe.formats.GeneDiseaseCombinationType;
 import org.molgenis.vibe.formats.Phenotype;
 import org.molgenis.vibe.formats.ResourceUri;
+import org.molgenis.vibe.formats.Source;
 
 import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Generates SPARQL queries specific for the DisGeNET RDF dataset.
@@ -36,6 +41,23 @@ public final class QueryStringGenerator {
             "PREFIX pav: <http://purl.org/pav/>\n" +
             "PREFIX obo: <http://purl.obolibrary.org/obo/>\n" ;
 
+    /**
+     * The marker type of the gene-disease associations of type {@link GeneDiseaseCombinationType#GENE_DISEASE} (or a
+     * subclass of it), as added by {@code optimized_construct/gda_marker.rq} (see {@link TdbOptimization#GDA_MARKER}).
+     */
+    public static final String GDA_MARKER_URI = "https://molgenis.org/vibe/GeneDiseaseAssociation";
+
+    /**
+     * Links a phenotype to a link node per route through which it is linked to a disease, as added by
+     * {@code optimized_construct/phenotype_disease.rq} (see {@link TdbOptimization#PHENOTYPE_DISEASE_LINK}).
+     */
+    public static final String DISEASE_LINK_URI = "https://molgenis.org/vibe/diseaseLink";
+
+    /**
+     * Links a link node (see {@link #DISEASE_LINK_URI}) to its disease.
+     */
+    public static final String LINKED_DISEASE_URI = "https://molgenis.org/vibe/disease";
+
     /**
      * Custom prefixes (as also used in custom TDB).
      */
@@ -66,15 +88,10 @@ public final class QueryStringGenerator {
             "}";
 
     /**
-     * <p>Retrieves the genes belonging to certain HPO phenotypes.</p>
-     *
-     * <br />between [0] and [1]: the HPO terms (URIs) to filter on (see {@link #createValuesStringForUris(Set)}
-     * <br />between [1] and [2]: the gene-disease association type (see {@link GeneDiseaseCombinationType})
+     * Links ?hpo to ?disease (through multiple routes). A phenotype-disease pair is returned once for each route
+     * through which it is linked.
      */
-    private static final String[] GENES_FOR_PHENOTYPES = {"SELECT ?hpo ?disease ?gene ?geneSymbol ?gdaScoreNumber ?gdaSource ?evidence\n" +
-            "WHERE {\n" +
-            "\tVALUES ?hpo ", "\n" + // [0] -> [1]
-            "\t{\n" +
+    private static final String PHENOTYPE_DISEASE_PATTERN = "\t{\n" +
             "\t\t# Diseases that are UMLS phenotypes.\n" +
             "\t\t?hpo skos:exactMatch ?disease .\n" +
             "\t}\n" +
@@ -87,17 +104,74 @@ public final class QueryStringGenerator {
             "\t{\n" +
             "\t\t# Diseases found through Orphanet (HPO - ORDO Ontological Module).\n" +
             "\t\t?hpo sio:SIO_000001/skos:exactMatch ?disease .\n" +
-            "\t}\n" +
-            "\n" +
-            "\t?disease sio:SIO_000212 ?gda .\n" +
+            "\t}\n";
+
+    /**
+     * Links ?hpo to ?disease through the materialized links (returning the same results as
+     * {@link #PHENOTYPE_DISEASE_PATTERN}).
+     */
+    private static final String PHENOTYPE_DISEASE_LINK_PATTERN = "\t?hpo <" + DISEASE_LINK_URI + ">/<" + LINKED_DISEASE_URI + "> ?disease .\n";
+
+    /**
+     * Links ?disease to the gene-disease associations and their information.
+     *
+     * <br />between [0] and [1]: the gene-disease association type pattern (see {@link #createGdaTypePattern(Set)})
+     * <br />between [1] and [2]: the filters and evidence pattern (see {@link #createGdaOptionsPattern(GdaQueryOptions, Collection)})
+     */
+    private static final String[] DISEASE_GDA_PATTERN = {"\t?disease sio:SIO_000212 ?gda .\n" +
             "\t\n" +
-            "\t?gda rdf:type/rdfs:subClassOf* ", " ;\n" + // [1] -> [2]
+            "\t?gda ", " ;\n" + // [0] -> [1]
             "\tsio:SIO_000628 ?gene ;\n" +
             "\tsio:SIO_000216 ?gdaScoreNumber ;\n" +
-            "\tsio:SIO_000253 ?gdaSource .\n" +
-            "\tOPTIONAL { ?gda sio:SIO_000772 ?evidence }\n" +
+            "\tsio:SIO_000253 ?gdaSource .\n", // [1] -> [2]
             "\n" +
-            "\t?gene sio:SIO_000205 ?geneSymbol .\n" +
+            "\t?gene sio:SIO_000205 ?geneSymbol .\n"
+    };
+
+    /**
+     * Retrieves the (optional) evidence of a gene-disease association.
+     */
+    private static final String EVIDENCE_PATTERN = "\tOPTIONAL { ?gda sio:SIO_000772 ?evidence }\n";
+
+    /**
+     * <p>Retrieves the genes belonging to certain HPO phenotypes.</p>
+     *
+     * <br />between [0] and [1]: the HPO terms (URIs) to filter on (see {@link #createValuesStringForUris(Set)}
+     * <br />between [1] and [2]: the phenotype-disease pattern (see {@link #createPhenotypeDiseasePattern(Set)})
+     * <br />between [2] and [3]: the gene-disease association type pattern (see {@link #createGdaTypePattern(Set)})
+     * <br />between [3] and [4]: the filters and evidence pattern (see {@link #createGdaOptionsPattern(GdaQueryOptions, Collection)})
+     */
+    private static final String[] GENES_FOR_PHENOTYPES = {"SELECT ?hpo ?disease ?gene ?geneSymbol ?gdaScoreNumber ?gdaSource ?evidence\n" +
+            "WHERE {\n" +
+            "\tVALUES ?hpo ", "\n", // [0] -> [1] -> [2]
+            "\n" +
+            DISEASE_GDA_PATTERN[0], DISEASE_GDA_PATTERN[1], // [2] -> [3] -> [4]
+            DISEASE_GDA_PATTERN[2] +
+            "}"
+    };
+
+    /**
+     * <p>Retrieves the diseases for all HPO phenotypes. Note that a phenotype-disease pair is returned once for each
+     * route through which it is linked.</p>
+     *
+     * <br />between [0] and [1]: the phenotype-disease pattern (see {@link #createPhenotypeDiseasePattern(Set)})
+     */
+    private static final String[] DISEASES_FOR_ALL_PHENOTYPES = {"SELECT ?hpo ?disease\n" +
+            "WHERE {\n", // [0] -> [1]
+            "\tFILTER(STRSTARTS(STR(?hpo), \"http://purl.obolibrary.org/obo/HP_\"))\n" +
+            "}"
+    };
+
+    /**
+     * <p>Retrieves the gene-disease association information for all diseases.</p>
+     *
+     * <br />between [0] and [1]: the gene-disease association type pattern (see {@link #createGdaTypePattern(Set)})
+     * <br />between [1] and [2]: the filters and evidence pattern (see {@link #createGdaOptionsPattern(GdaQueryOptions, Collection)})
+     */
+    private static final String[] GENES_FOR_ALL_DISEASES = {"SELECT ?disease ?gene ?geneSymbol ?gdaScoreNumber ?gdaSource ?evidence\n" +
+            "WHERE {\n" +
+            DISEASE_GDA_PATTERN[0], DISEASE_GDA_PATTERN[1], // [0] -> [1] -> [2]
+            DISEASE_GDA_PATTERN[2] +
             "}"
     };
 
@@ -110,8 +184,125 @@ public final class QueryStringGenerator {
     }
 
     public static QueryString getGenesForPhenotypes(Set<Phenotype> phenotypes) {
+        return getGenesForPhenotypes(phenotypes, EnumSet.noneOf(TdbOptimization.class));
+    }
+
+    /**
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve the genes for
+     * @param optimizations the {@link TdbOptimization}{@code s} to use (should be present in the queried TDB)
+     * @return a {@link QueryString} retrieving the genes (and their gene-disease association information) for
+     * {@code phenotypes}
+     */
+    public static QueryString getGenesForPhenotypes(Set<Phenotype> phenotypes, Set<TdbOptimization> optimizations) {
+        return getGenesForPhenotypes(phenotypes, optimizations, GdaQueryOptions.ALL, Collections.emptySet());
+    }
+
+    /**
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve the genes for
+     * @param optimizations the {@link TdbOptimization}{@code s} to use (should be present in the queried TDB)
+     * @param options defines which gene-disease associations (and whether their evidence) should be returned
+     * @param sources all {@link Source}{@code s} in the queried TDB (only used when {@code options} filters on
+     *                {@link Source.Level})
+     * @return a {@link QueryString} retrieving the genes (and their gene-disease association information) for
+     * {@code phenotypes}
+     */
+    public static QueryString getGenesForPhenotypes(Set<Phenotype> phenotypes, Set<TdbOptimization> optimizations,
+                                                    GdaQueryOptions options, Collection<Source> sources) {
         return new QueryString(PREFIXES + GENES_FOR_PHENOTYPES[0] + createValuesStringForUris(phenotypes) + GENES_FOR_PHENOTYPES[1] +
-        GeneDiseaseCombinationType.GENE_DISEASE.getFormattedId() + GENES_FOR_PHENOTYPES[2]);
+        createPhenotypeDiseasePattern(optimizations) + GENES_FOR_PHENOTYPES[2] + createGdaTypePattern(optimizations) +
+        GENES_FOR_PHENOTYPES[3] + createGdaOptionsPattern(options, sources) + GENES_FOR_PHENOTYPES[4]);
+    }
+
+    /**
+     * Used together with {@link #getGenesForAllDiseases()}, this returns the same information as
+     * {@link #getGenesForPhenotypes(Set)} for all phenotypes (with the phenotype-disease pairs split from the
+     * gene-disease information).
+     * @return a {@link QueryString} retrieving ?hpo and ?disease
+     */
+    public static QueryString getDiseasesForAllPhenotypes() {
+        return getDiseasesForAllPhenotypes(EnumSet.noneOf(TdbOptimization.class));
+    }
+
+    /**
+     * @param optimizations the {@link TdbOptimization}{@code s} to use (should be present in the queried TDB)
+     * @return a {@link QueryString} retrieving ?hpo and ?disease
+     * @see #getDiseasesForAllPhenotypes()
+     */
+    public static QueryString getDiseasesForAllPhenotypes(Set<TdbOptimization> optimizations) {
+        return new QueryString(PREFIXES + DISEASES_FOR_ALL_PHENOTYPES[0] + createPhenotypeDiseasePattern(optimizations) +
+                DISEASES_FOR_ALL_PHENOTYPES[1]);
+    }
+
+    /**
+     * @return a {@link QueryString} retrieving ?disease together with the gene-disease association information
+     * @see #getDiseasesForAllPhenotypes()
+     */
+    public static QueryString getGenesForAllDiseases() {
+        return getGenesForAllDiseases(EnumSet.noneOf(TdbOptimization.class));
+    }
+
+    /**
+     * @param optimizations the {@link TdbOptimization}{@code s} to use (should be present in the queried TDB)
+     * @return a {@link QueryString} retrieving ?disease together with the gene-disease association information
+     * @see #getDiseasesForAllPhenotypes()
+     */
+    public static QueryString getGenesForAllDiseases(Set<TdbOptimization> optimizations) {
+        return new QueryString(PREFIXES + GENES_FOR_ALL_DISEASES[0] + createGdaTypePattern(optimizations) +
+                GENES_FOR_ALL_DISEASES[1] + createGdaOptionsPattern(GdaQueryOptions.ALL, Collections.emptySet()) +
+                GENES_FOR_ALL_DISEASES[2]);
+    }
+
+    /**
+     * Both patterns return the same results, but the materialized links only need a single lookup per route instead
+     * of a separate (partially failing) lookup for each of the three routes.
+     * @param optimizations the {@link TdbOptimization}{@code s} to use
+     * @return the pattern linking ?hpo to ?disease
+     */
+    private static String createPhenotypeDiseasePattern(Set<TdbOptimization> optimizations) {
+        if(optimizations.contains(TdbOptimization.PHENOTYPE_DISEASE_LINK)) {
+            return PHENOTYPE_DISEASE_LINK_PATTERN;
+        }
+        return PHENOTYPE_DISEASE_PATTERN;
+    }
+
+    /**
+     * Both patterns select the same gene-disease associations, but the marker type is a single triple pattern
+     * instead of a property path that needs to be evaluated for each gene-disease association.
+     * @param optimizations the {@link TdbOptimization}{@code s} to use
+     * @return the predicate and object selecting gene-disease associations of the type
+     * {@link GeneDiseaseCombinationType#GENE_DISEASE}
+     */
+    private static String createGdaTypePattern(Set<TdbOptimization> optimizations) {
+        if(optimizations.contains(TdbOptimization.GDA_MARKER)) {
+            return "rdf:type <" + GDA_MARKER_URI + ">";
+        }
+        return "rdf:type/rdfs:subClassOf* " + GeneDiseaseCombinationType.GENE_DISEASE.getFormattedId();
+    }
+
+    /**
+     * The filters are placed directly after the triple patterns binding their variable by ARQ, so gene-disease
+     * associations that do not match are discarded before their gene symbol and evidence are retrieved. The sources
+     * are filtered on their {@link URI} (as {@link Source}{@code s} are already retrieved before querying) instead of
+     * on their {@link Source.Level} so that no additional triple pattern is needed.
+     * @param options the {@link GdaQueryOptions} to use
+     * @param sources all {@link Source}{@code s} in the queried TDB
+     * @return the filters and evidence pattern for the gene-disease associations
+     */
+    private static String createGdaOptionsPattern(GdaQueryOptions options, Collection<Source> sources) {
+        StringBuilder strBuilder = new StringBuilder();
+        if(options.filtersScore()) {
+            strBuilder.append("\tFILTER(?gdaScoreNumber >= ").append(options.getMinScore()).append(")\n");
+        }
+        if(options.filtersSourceLevels()) {
+            strBuilder.append("\tFILTER(?gdaSource IN (")
+                    .append(sources.stream().filter(options::isAllowed).map(source -> "<" + source.getUri() + ">")
+                            .sorted().collect(Collectors.joining(", ")))
+                    .append("))\n");
+        }
+        if(options.includesEvidence()) {
+            strBuilder.append(EVIDENCE_PATTERN);
+        }
+        return strBuilder.toString();
     }
 
     /**
@@ -0,0 +1,57 @@
+package org.molgenis.vibe.tdb_processing.query_string_creation;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.vocabulary.RDF;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Optional data that is materialized in the optimized TDB (see {@code database/sparql_queries/optimized_construct}) to
+ * simplify the queries generated by {@link QueryStringGenerator}. The generated queries return the same results with or
+ * without them, so TDBs created before an optimization was introduced can still be used.
+ */
+public enum TdbOptimization {
+    /**
+     * A marker type for the gene-disease associations (see {@link QueryStringGenerator#GDA_MARKER_URI}), so that no
+     * {@code rdfs:subClassOf*} property path is needed. Added by {@code gda_marker.rq}.
+     */
+    GDA_MARKER {
+        @Override
+        public boolean isPresent(Model model) {
+            return model.contains(null, RDF.type, model.createResource(QueryStringGenerator.GDA_MARKER_URI));
+        }
+    },
+    /**
+     * A link from each phenotype to its diseases for each route through which they are linked (see
+     * {@link QueryStringGenerator#DISEASE_LINK_URI}), so that the routes do not need to be queried separately. Added by
+     * {@code phenotype_disease.rq}.
+     */
+    PHENOTYPE_DISEASE_LINK {
+        @Override
+        public boolean isPresent(Model model) {
+            return model.contains(null, model.createProperty(QueryStringGenerator.DISEASE_LINK_URI), (RDFNode) null);
+        }
+    };
+
+    /**
+     * @param model the DisGeNET data
+     * @return {@code true} if {@code model} contains the data of this optimization
+     */
+    public abstract boolean isPresent(Model model);
+
+    /**
+     * @param model the DisGeNET data
+     * @return all {@link TdbOptimization}{@code s} present in {@code model}
+     */
+    public static Set<TdbOptimization> detect(Model model) {
+        Set<TdbOptimization> optimizations = EnumSet.noneOf(TdbOptimization.class);
+        for(TdbOptimization optimization : values()) {
+            if(optimization.isPresent(model)) {
+                optimizations.add(optimization);
+            }
+        }
+        return optimizations;
+    }
+}
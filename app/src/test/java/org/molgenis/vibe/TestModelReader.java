@@ -0,0 +1,43 @@
+package org.molgenis.vibe;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.molgenis.vibe.io.input.ModelReader;
+
+import java.io.StringReader;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link ModelReader} for a (small) in-memory {@link Model}, so that tests do not require a TDB.
+ */
+public class TestModelReader implements ModelReader {
+    private final Model model;
+
+    /**
+     * @param model the {@link Model} to read (closed when this reader is closed)
+     */
+    public TestModelReader(Model model) {
+        this.model = requireNonNull(model);
+    }
+
+    /**
+     * @param turtle the RDF data in Turtle format (including its prefixes)
+     * @return a {@link TestModelReader} for a {@link Model} containing {@code turtle}
+     */
+    public static TestModelReader fromTurtle(String turtle) {
+        Model model = ModelFactory.createDefaultModel();
+        model.read(new StringReader(turtle), null, "TTL");
+        return new TestModelReader(model);
+    }
+
+    @Override
+    public Model getModel() {
+        return model;
+    }
+
+    @Override
+    public void close() {
+        model.close();
+    }
+}
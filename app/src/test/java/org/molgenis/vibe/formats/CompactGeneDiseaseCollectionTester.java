@@ -0,0 +1,328 @@
+package org.molgenis.vibe.formats;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.*;
+
+public class CompactGeneDiseaseCollectionTester {
+    CompactGeneDiseaseCollection collection;
+    GeneDiseaseCombination[] gdcs;
+    Gene[] genes;
+    Disease[] diseases;
+    Source[] sources;
+
+    @BeforeClass
+    public void beforeClass() {
+        genes = new Gene[]{
+                new Gene("ncbigene:1111111", new GeneSymbol("hgnc:AAA")),
+                new Gene("ncbigene:2222222", new GeneSymbol("hgnc:BBB"))
+        };
+
+        diseases = new Disease[]{
+                new Disease("umls:C1111111"),
+                new Disease("umls:C2222222"),
+                new Disease("umls:C3333333"),
+                new Disease("umls:C4444444"),
+                new Disease("umls:C5555555")
+        };
+
+        sources = new Source[]{
+                new Source(URI.create("http://rdf.disgenet.org/v6.0.0/void/CTD"), "CTD", Source.Level.CURATED),
+                new Source(URI.create("http://rdf.disgenet.org/v6.0.0/void/BEFREE"), "BEFREE", Source.Level.LITERATURE)
+        };
+
+        gdcs = new GeneDiseaseCombination[]{
+                new GeneDiseaseCombination(genes[0], diseases[0], 0.5),
+                new GeneDiseaseCombination(genes[0], diseases[1], 0.3),
+                new GeneDiseaseCombination(genes[1], diseases[1], 0.6),
+                new GeneDiseaseCombination(genes[1], diseases[2], 0.3),
+                new GeneDiseaseCombination(genes[1], diseases[3], 0.8),
+                new GeneDiseaseCombination(genes[1], diseases[4], 0.1)
+        };
+        gdcs[0].add(sources[0], URI.create("http://identifiers.org/pubmed/1"));
+        gdcs[0].add(sources[0], URI.create("http://identifiers.org/pubmed/2"));
+        gdcs[0].add(sources[0]);
+        gdcs[0].add(sources[1], URI.create("http://identifiers.org/pubmed/1"));
+        gdcs[2].add(sources[1]);
+    }
+
+    @BeforeMethod
+    public void beforeMethod() {
+        collection = new CompactGeneDiseaseCollection();
+    }
+
+    @Test
+    public void addRetrieveSingleGeneDiseaseAssociation() {
+        Set<GeneDiseaseCombination> expectedOutput = new HashSet<>(Arrays.asList(gdcs[0]));
+
+        Assert.assertTrue(collection.add(gdcs[0]));
+        Assert.assertEquals(collection.get(gdcs[0]), gdcs[0]);
+        Assert.assertEquals(collection.getByGene(genes[0]), expectedOutput);
+        Assert.assertEquals(collection.getByDisease(diseases[0]), expectedOutput);
+    }
+
+    @Test
+    public void addExistingGeneDiseaseAssociation() {
+        collection.add(gdcs[0]);
+        Assert.assertFalse(collection.add(new GeneDiseaseCombination(genes[0], diseases[0], 0.9)));
+        Assert.assertEquals(collection.size(), 1);
+        Assert.assertEquals(collection.get(gdcs[0]).getDisgenetScore(), 0.5);
+    }
+
+    @Test
+    public void retrieveSourcesAndEvidence() {
+        collection.addAll(Arrays.asList(gdcs));
+        GeneDiseaseCombination gdc = collection.get(gdcs[0]);
+
+        Assert.assertEquals(gdc.getSourcesCount(), gdcs[0].getSourcesCount());
+        Assert.assertEquals(gdc.getEvidenceForSource(sources[0]), gdcs[0].getEvidenceForSource(sources[0]));
+        Assert.assertEquals(gdc.getEvidenceForSource(sources[1]), gdcs[0].getEvidenceForSource(sources[1]));
+        Assert.assertEquals(collection.get(gdcs[2]).getSourcesCount(), gdcs[2].getSourcesCount());
+        Assert.assertEquals(collection.get(gdcs[2]).getSourcesWithEvidence(), Collections.emptySet());
+    }
+
+    @Test
+    public void addRowsEqualsGeneDiseaseCollection() {
+        GeneDiseaseCollection expected = new GeneDiseaseCollection();
+        expected.addAll(Arrays.asList(gdcs));
+
+        // Rows of the same combination are not added consecutively.
+        collection.add(genes[0], diseases[0], 0.5, sources[0], URI.create("http://identifiers.org/pubmed/1"));
+        collection.add(genes[1], diseases[1], 0.6, sources[1], null);
+        collection.add(genes[0], diseases[0], 0.5, sources[0], URI.create("http://identifiers.org/pubmed/2"));
+        collection.add(genes[0], diseases[0], 0.5, sources[0], null);
+        collection.add(genes[0], diseases[0], 0.5, sources[1], URI.create("http://identifiers.org/pubmed/1"));
+        for(int i : new int[]{1, 3, 4, 5}) {
+            collection.add(gdcs[i]);
+        }
+
+        Assert.assertEquals(collection.getGeneDiseaseCombinations(), expected.getGeneDiseaseCombinations());
+        for(GeneDiseaseCombination gdc : expected) {
+            Assert.assertEquals(collection.get(gdc).toString(), gdc.toString());
+        }
+    }
+
+    @Test
+    public void addMultipleGeneDiseaseAssociationRetrieveByGene() {
+        Set<GeneDiseaseCombination> expectedOutput = new HashSet<>(Arrays.asList(gdcs[2],gdcs[3],gdcs[4],gdcs[5]));
+
+        collection.addAll(Arrays.asList(gdcs));
+        Assert.assertEquals(collection.getByGene(genes[1]), expectedOutput);
+        Assert.assertEquals(collection.getGenes(), new HashSet<>(Arrays.asList(genes)));
+    }
+
+    @Test
+    public void addMultipleGeneDiseaseAssociationRetrieveByDisease() {
+        Set<GeneDiseaseCombination> expectedOutput = new HashSet<>(Arrays.asList(gdcs[1],gdcs[2]));
+
+        collection.addAll(Arrays.asList(gdcs));
+        Assert.assertEquals(collection.getByDisease(diseases[1]), expectedOutput);
+        Assert.assertEquals(collection.getDiseases(), new HashSet<>(Arrays.asList(diseases)));
+    }
+
+    @Test
+    public void testOrderOfOrderedGeneDiseaseAssociation() {
+        List<GeneDiseaseCombination> expectedOutput = new ArrayList<>(Arrays.asList(gdcs[0],gdcs[1],gdcs[2],gdcs[3],gdcs[4],gdcs[5]));
+
+        collection.addAll(Arrays.asList(gdcs[5],gdcs[3],gdcs[1],gdcs[4],gdcs[0],gdcs[2]));
+        Assert.assertEquals(collection.getGeneDiseaseCombinationsOrdered(), expectedOutput);
+    }
+
+    @Test
+    public void retrieveByNonExistingGene() {
+        collection.add(gdcs[0]);
+        Assert.assertEquals(collection.getByGene(genes[1]), null);
+        Assert.assertEquals(collection.getByGeneOrderedByGdaScore(genes[1]), null);
+        Assert.assertEquals(collection.get(gdcs[2]), null);
+        Assert.assertFalse(collection.contains(gdcs[2]));
+    }
+
+    @Test
+    public void retrieveByNonExistingDisease() {
+        collection.add(gdcs[0]);
+        Assert.assertEquals(collection.getByDisease(diseases[1]), null);
+    }
+
+    @Test
+    public void testGetByGeneOrderedByGdaScore() {
+        collection.addAll(Arrays.asList(gdcs));
+        Assert.assertEquals(collection.getByGeneOrderedByGdaScore(genes[1]), new ArrayList<>(Arrays.asList(gdcs[4],gdcs[2],gdcs[3],gdcs[5])));
+    }
+
+    @Test
+    public void testGetByDiseaseOrderedByGdaScore() {
+        collection.addAll(Arrays.asList(gdcs));
+        Assert.assertEquals(collection.getByDiseaseOrderedByGdaScore(diseases[1]), new ArrayList<>(Arrays.asList(gdcs[2],gdcs[1])));
+    }
+
+    @Test
+    public void testEqualScoresOrderedById() {
+        collection.add(new GeneDiseaseCombination(genes[0], diseases[3], 0.5));
+        collection.add(new GeneDiseaseCombination(genes[0], diseases[1], 0.5));
+        collection.add(new GeneDiseaseCombination(genes[0], diseases[2], 0.7));
+
+        Assert.assertEquals(collection.getByGeneOrderedByGdaScore(genes[0]), Arrays.asList(
+                new GeneDiseaseCombination(genes[0], diseases[2]), new GeneDiseaseCombination(genes[0], diseases[1]),
+                new GeneDiseaseCombination(genes[0], diseases[3])));
+    }
+
+    @Test
+    public void testAddAfterRetrieval() {
+        collection.add(gdcs[2]);
+        Assert.assertEquals(collection.getByGeneOrderedByGdaScore(genes[1]), Arrays.asList(gdcs[2]));
+
+        collection.add(gdcs[4]);
+        collection.add(genes[1], diseases[1], 0.6, sources[0], null);
+        Assert.assertEquals(collection.getByGeneOrderedByGdaScore(genes[1]), Arrays.asList(gdcs[4], gdcs[2]));
+        Assert.assertEquals(collection.get(gdcs[2]).getCountForSource(sources[0]), 1);
+        Assert.assertEquals(collection.get(gdcs[2]).getCountForSource(sources[1]), 1);
+    }
+
+    @Test
+    public void testManyCombinations() {
+        GeneDiseaseCollection expected = new GeneDiseaseCollection();
+        for(int i = 0; i < 1000; i++) {
+            Gene gene = new Gene(String.format("ncbigene:%d", i), new GeneSymbol("hgnc:G" + i));
+            for(int j = 0; j < 3; j++) {
+                GeneDiseaseCombination gdc = new GeneDiseaseCombination(gene, diseases[(i + j) % diseases.length], (i % 10) / 10.0);
+                gdc.add(sources[j % sources.length]);
+                expected.add(gdc);
+                collection.add(gdc);
+            }
+        }
+
+        Assert.assertEquals(collection.size(), 3000);
+        Assert.assertEquals(collection.getGeneDiseaseCombinations(), expected.getGeneDiseaseCombinations());
+        for(Disease disease : diseases) {
+            Assert.assertEquals(collection.getByDisease(disease), expected.getByDisease(disease));
+        }
+    }
+
+    @Test
+    public void testRemove() {
+        collection.addAll(Arrays.asList(gdcs));
+        Assert.assertTrue(collection.remove(new GeneDiseaseCombination(genes[0], diseases[0])));
+
+        Assert.assertEquals(collection.size(), 5);
+        Assert.assertNull(collection.get(gdcs[0]));
+        Assert.assertEquals(collection.getByGeneOrderedByGdaScore(genes[0]), Collections.singletonList(gdcs[1]));
+        Assert.assertNull(collection.getByDisease(diseases[0]));
+        Assert.assertEquals(collection.getDiseases(), new HashSet<>(Arrays.asList(diseases[1],diseases[2],diseases[3],diseases[4])));
+        // The rows of the combinations after the removed one are kept.
+        Assert.assertEquals(collection.get(gdcs[2]).getCountForSource(sources[1]), 1);
+        Assert.assertFalse(collection.remove(gdcs[0]));
+        Assert.assertFalse(collection.remove(genes[0]));
+    }
+
+    @Test
+    public void testRemoveAsGeneDiseaseCollection() {
+        GeneDiseaseCollection geneDiseaseCollection = collection;
+        geneDiseaseCollection.addAll(Arrays.asList(gdcs));
+        Assert.assertTrue(geneDiseaseCollection.remove(gdcs[1]));
+        Assert.assertTrue(geneDiseaseCollection.remove(gdcs[0]));
+
+        Assert.assertEquals(geneDiseaseCollection.getGenes(), new HashSet<>(Arrays.asList(genes[1])));
+        Assert.assertNull(geneDiseaseCollection.getByGene(genes[0]));
+        Assert.assertEquals(geneDiseaseCollection.getByGeneOrderedByGdaScore(genes[1]),
+                Arrays.asList(gdcs[4], gdcs[2], gdcs[3], gdcs[5]));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        collection.addAll(Arrays.asList(gdcs));
+        List<GeneDiseaseCombination> visited = new ArrayList<>();
+        Iterator<GeneDiseaseCombination> iterator = collection.iterator();
+        while(iterator.hasNext()) {
+            GeneDiseaseCombination gdc = iterator.next();
+            visited.add(gdc);
+            if(gdc.getDisgenetScore() < 0.35) {
+                iterator.remove();
+            }
+        }
+
+        Assert.assertEquals(visited, Arrays.asList(gdcs));
+        Assert.assertEquals(collection.getGeneDiseaseCombinations(), new HashSet<>(Arrays.asList(gdcs[0],gdcs[2],gdcs[4])));
+        Assert.assertEquals(collection.getByGeneOrderedByGdaScore(genes[1]), Arrays.asList(gdcs[4],gdcs[2]));
+        Assert.assertEquals(collection.get(gdcs[0]).toString(), gdcs[0].toString());
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testIteratorRemoveTwice() {
+        collection.addAll(Arrays.asList(gdcs));
+        Iterator<GeneDiseaseCombination> iterator = collection.iterator();
+        iterator.next();
+        iterator.remove();
+        iterator.remove();
+    }
+
+    @Test
+    public void testRemoveManyCombinations() {
+        GeneDiseaseCollection expected = new GeneDiseaseCollection();
+        for(int i = 0; i < 300; i++) {
+            Gene gene = new Gene(String.format("ncbigene:%d", i), new GeneSymbol("hgnc:G" + i));
+            for(int j = 0; j < 3; j++) {
+                GeneDiseaseCombination gdc = new GeneDiseaseCombination(gene, diseases[(i + j) % diseases.length], (i % 10) / 10.0);
+                gdc.add(sources[j % sources.length], URI.create("http://identifiers.org/pubmed/" + i));
+                expected.add(gdc);
+                collection.add(gdc);
+            }
+        }
+
+        Iterator<GeneDiseaseCombination> iterator = collection.iterator();
+        while(iterator.hasNext()) {
+            GeneDiseaseCombination gdc = iterator.next();
+            if(gdc.getGene().getId().hashCode() % 3 == 0 || gdc.getDisease().equals(diseases[1])) {
+                iterator.remove();
+                expected.remove(gdc);
+            }
+        }
+
+        Assert.assertEquals(collection.size(), expected.size());
+        Assert.assertEquals(collection.getGeneDiseaseCombinations(), expected.getGeneDiseaseCombinations());
+        Assert.assertEquals(collection.getGenes(), expected.getGenes());
+        for(GeneDiseaseCombination gdc : expected) {
+            Assert.assertEquals(collection.get(gdc).toString(), gdc.toString());
+        }
+        for(Disease disease : expected.getDiseases()) {
+            Assert.assertEquals(collection.getByDisease(disease), expected.getByDisease(disease));
+        }
+    }
+
+    @Test
+    public void testRemoveIf() {
+        collection.addAll(Arrays.asList(gdcs));
+        Assert.assertTrue(collection.removeIf(gdc -> gdc.getDisgenetScore() < 0.35));
+
+        Assert.assertEquals(collection.getGeneDiseaseCombinations(), new HashSet<>(Arrays.asList(gdcs[0],gdcs[2],gdcs[4])));
+        Assert.assertEquals(collection.getByGeneOrderedByGdaScore(genes[1]), Arrays.asList(gdcs[4],gdcs[2]));
+        Assert.assertEquals(collection.getByDisease(diseases[2]), null);
+        Assert.assertEquals(collection.getDiseases(), new HashSet<>(Arrays.asList(diseases[0],diseases[1],diseases[3])));
+        Assert.assertEquals(collection.get(gdcs[0]).toString(), gdcs[0].toString());
+        Assert.assertFalse(collection.removeIf(gdc -> gdc.getDisgenetScore() < 0.35));
+    }
+
+    @Test
+    public void testRetainAllAndRemoveByGene() {
+        collection.addAll(Arrays.asList(gdcs));
+        collection.retainAll(Arrays.asList(gdcs[0],gdcs[1],gdcs[2]));
+        Assert.assertEquals(collection.getGeneDiseaseCombinations(), new HashSet<>(Arrays.asList(gdcs[0],gdcs[1],gdcs[2])));
+
+        collection.removeByGene(genes[0]);
+        Assert.assertEquals(collection.getGeneDiseaseCombinations(), new HashSet<>(Arrays.asList(gdcs[2])));
+        Assert.assertEquals(collection.getGenes(), new HashSet<>(Arrays.asList(genes[1])));
+    }
+
+    @Test
+    public void testClear() {
+        collection.addAll(Arrays.asList(gdcs));
+        collection.clear();
+
+        Assert.assertTrue(collection.isEmpty());
+        Assert.assertEquals(collection.getGenes(), Collections.emptySet());
+        Assert.assertEquals(collection.getByGene(genes[0]), null);
+    }
+}
@@ -0,0 +1,96 @@
+package org.molgenis.vibe.formats;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class EvidenceDictionaryTester {
+    @Test
+    public void pubmedUriIsStoredAsNumber() {
+        int id = EvidenceDictionary.getId(URI.create("http://identifiers.org/pubmed/12345"));
+
+        Assert.assertEquals(id, 12345);
+        Assert.assertEquals(EvidenceDictionary.getUri(id), URI.create("http://identifiers.org/pubmed/12345"));
+        Assert.assertEquals(EvidenceDictionary.getSimplifiedString(id), "12345");
+    }
+
+    @Test
+    public void otherUriIsPooled() {
+        String uri = "https://www.ncbi.nlm.nih.gov/pubmed/2";
+        int id = EvidenceDictionary.getId(uri);
+
+        Assert.assertTrue(id < 0);
+        Assert.assertEquals(EvidenceDictionary.getId(URI.create(uri)), id);
+        Assert.assertEquals(EvidenceDictionary.getUriString(id), uri);
+        Assert.assertEquals(EvidenceDictionary.getSimplifiedString(id), uri);
+    }
+
+    @Test
+    public void pubmedUriNotFittingAsNumberIsPooled() {
+        for(String uri : new String[]{"http://identifiers.org/pubmed/0123", "http://identifiers.org/pubmed/",
+                "http://identifiers.org/pubmed/12a", "http://identifiers.org/pubmed/2147483648"}) {
+            int id = EvidenceDictionary.getId(uri);
+            Assert.assertTrue(id < 0, uri);
+            Assert.assertEquals(EvidenceDictionary.getUriString(id), uri);
+        }
+        Assert.assertEquals(EvidenceDictionary.getId("http://identifiers.org/pubmed/2147483647"), Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void pooledPubmedUriIsSimplified() {
+        int leadingZeroId = EvidenceDictionary.getId("http://identifiers.org/pubmed/0123");
+        int aboveIntRangeId = EvidenceDictionary.getId("http://identifiers.org/pubmed/99999999999");
+
+        Assert.assertEquals(EvidenceDictionary.getSimplifiedString(leadingZeroId), "0123");
+        Assert.assertEquals(EvidenceDictionary.getSimplifiedString(aboveIntRangeId), "99999999999");
+        Assert.assertEquals(EvidenceDictionary.sortSimplified(new int[]{200, aboveIntRangeId, 1000, leadingZeroId}, 4),
+                new int[]{leadingZeroId, 1000, 200, aboveIntRangeId});
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidId() {
+        EvidenceDictionary.getUriString(EvidenceDictionary.NO_EVIDENCE);
+    }
+
+    @Test
+    public void sortSimplifiedEqualsSortedStrings() {
+        Random random = new Random(1);
+        List<String> uris = new ArrayList<>();
+        for(int i = 0; i < 1000; i++) {
+            uris.add("http://identifiers.org/pubmed/" + (random.nextInt(i < 500 ? 1000 : Integer.MAX_VALUE) + 1));
+        }
+        uris.addAll(Arrays.asList("https://www.ncbi.nlm.nih.gov/pubmed/2", "/relative/1", "12a", "http://identifiers.org/pubmed/012",
+                "http://identifiers.org/pubmed/99999999999", "http://identifiers.org/pubmed/2147483648",
+                "http://identifiers.org/pubmed/"));
+        uris.add("http://identifiers.org/pubmed/" + Integer.MAX_VALUE);
+        uris.add(uris.get(0));
+
+        int[] ids = new int[uris.size()];
+        List<String> expected = new ArrayList<>();
+        for(int i = 0; i < ids.length; i++) {
+            ids[i] = EvidenceDictionary.getId(uris.get(i));
+            String simplified = EvidenceDictionary.getSimplifiedString(ids[i]);
+            if(!expected.contains(simplified)) {
+                expected.add(simplified);
+            }
+        }
+        Collections.sort(expected);
+
+        List<String> actual = new ArrayList<>();
+        for(int id : EvidenceDictionary.sortSimplified(ids, ids.length)) {
+            actual.add(EvidenceDictionary.getSimplifiedString(id));
+        }
+        Assert.assertEquals(actual, expected);
+    }
+
+    @Test
+    public void sortSimplifiedUsesLength() {
+        Assert.assertEquals(EvidenceDictionary.sortSimplified(new int[]{20, 3, 100, 5}, 3), new int[]{100, 20, 3});
+    }
+}
@@ -176,6 +176,81 @@ public class GeneDiseaseCollectionTester {
         Assert.assertEquals(collection.getByDisease(diseases[4]), null);
     }
 
+    @Test
+    public void testRemoveAllWithLargerCollection() {
+        collection.addAll(Arrays.asList(gdcs[0],gdcs[1],gdcs[2]));
+        collection.removeAll(Arrays.asList(gdcs[1],gdcs[2],gdcs[3],gdcs[4]));
+
+        Assert.assertEquals(collection, new HashSet<>(Arrays.asList(gdcs[0])));
+        Assert.assertEquals(collection.getByGene(genes[1]), null);
+        Assert.assertEquals(collection.getByDisease(diseases[1]), null);
+    }
+
+    @Test
+    public void testRemoveIf() {
+        collection.addAll(Arrays.asList(gdcs));
+        Assert.assertTrue(collection.removeIf(gdc -> gdc.getDisgenetScore() < 0.35));
+
+        // Validate full collection.
+        Assert.assertEquals(collection, new HashSet<>(Arrays.asList(gdcs[0],gdcs[2],gdcs[4])));
+
+        // Validate if grouped by gene is correct.
+        Assert.assertEquals(collection.getByGene(genes[0]), new HashSet<>(Arrays.asList(gdcs[0])));
+        Assert.assertEquals(collection.getByGene(genes[1]), new HashSet<>(Arrays.asList(gdcs[2],gdcs[4])));
+
+        // Validate if grouped by disease is correct.
+        Assert.assertEquals(collection.getByDisease(diseases[0]), new HashSet<>(Arrays.asList(gdcs[0])));
+        Assert.assertEquals(collection.getByDisease(diseases[1]), new HashSet<>(Arrays.asList(gdcs[2])));
+        Assert.assertEquals(collection.getByDisease(diseases[2]), null);
+        Assert.assertEquals(collection.getByDisease(diseases[3]), new HashSet<>(Arrays.asList(gdcs[4])));
+        Assert.assertEquals(collection.getByDisease(diseases[4]), null);
+    }
+
+    @Test
+    public void testRemoveIfWithoutMatches() {
+        collection.addAll(Arrays.asList(gdcs));
+        Assert.assertFalse(collection.removeIf(gdc -> gdc.getDisgenetScore() > 0.9));
+        Assert.assertEquals(collection.size(), gdcs.length);
+    }
+
+    @Test
+    public void testRemoveByGene() {
+        collection.addAll(Arrays.asList(gdcs));
+        Assert.assertTrue(collection.removeByGene(genes[0]));
+        Assert.assertFalse(collection.removeByGene(genes[0]));
+
+        Assert.assertEquals(collection, new HashSet<>(Arrays.asList(gdcs[2],gdcs[3],gdcs[4],gdcs[5])));
+        Assert.assertEquals(collection.getGenes(), new HashSet<>(Arrays.asList(genes[1])));
+        Assert.assertEquals(collection.getByDisease(diseases[0]), null);
+        Assert.assertEquals(collection.getByDisease(diseases[1]), new HashSet<>(Arrays.asList(gdcs[2])));
+    }
+
+    @Test
+    public void testRemoveByDisease() {
+        collection.addAll(Arrays.asList(gdcs));
+        Assert.assertTrue(collection.removeByDisease(diseases[1]));
+
+        Assert.assertEquals(collection, new HashSet<>(Arrays.asList(gdcs[0],gdcs[3],gdcs[4],gdcs[5])));
+        Assert.assertEquals(collection.getByGene(genes[0]), new HashSet<>(Arrays.asList(gdcs[0])));
+        Assert.assertEquals(collection.getByGene(genes[1]), new HashSet<>(Arrays.asList(gdcs[3],gdcs[4],gdcs[5])));
+        Assert.assertEquals(collection.getByDisease(diseases[1]), null);
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        collection.addAll(Arrays.asList(gdcs[0],gdcs[1]));
+        Iterator<GeneDiseaseCombination> iterator = collection.iterator();
+        while(iterator.hasNext()) {
+            if(iterator.next().equals(gdcs[0])) {
+                iterator.remove();
+            }
+        }
+
+        Assert.assertEquals(collection, new HashSet<>(Arrays.asList(gdcs[1])));
+        Assert.assertEquals(collection.getByGene(genes[0]), new HashSet<>(Arrays.asList(gdcs[1])));
+        Assert.assertEquals(collection.getByDisease(diseases[0]), null);
+    }
+
     @Test
     public void testGetByGeneOrderedByGdaScore() {
         collection.addAll(Arrays.asList(gdcs));
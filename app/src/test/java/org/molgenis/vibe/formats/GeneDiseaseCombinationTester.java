@@ -138,4 +138,35 @@ public class GeneDiseaseCombinationTester {
 
         Assert.assertEquals(geneDiseaseCombo.getAllEvidenceSimplifiedOrdered(), new ArrayList<>(Arrays.asList("1","3","https://www.ncbi.nlm.nih.gov/pubmed/2")));
     }
+
+    @Test
+    public void testGetAllEvidenceSimplifiedOrderedAlphabetically() {
+        for(String pubmedId : new String[]{"9", "120", "12", "1000", "12", "3"}) {
+            geneDiseaseCombo.add(source1, URI.create("http://identifiers.org/pubmed/" + pubmedId));
+        }
+        geneDiseaseCombo.add(source2, URI.create("http://identifiers.org/pubmed/2"));
+
+        Assert.assertEquals(geneDiseaseCombo.getAllEvidenceSimplifiedOrdered(), Arrays.asList("1000","12","120","2","3","9"));
+    }
+
+    @Test
+    public void testGetAllEvidenceSimplifiedOrderedAfterAdding() {
+        geneDiseaseCombo.add(source1, URI.create("http://identifiers.org/pubmed/3"));
+        Assert.assertEquals(geneDiseaseCombo.getAllEvidenceSimplifiedOrdered(), Arrays.asList("3"));
+
+        geneDiseaseCombo.add(source2, URI.create("http://identifiers.org/pubmed/2"));
+        Assert.assertEquals(geneDiseaseCombo.getAllEvidenceSimplifiedOrdered(), Arrays.asList("2","3"));
+    }
+
+    @Test
+    public void testAddEvidenceId() {
+        geneDiseaseCombo.add(source1, EvidenceDictionary.getId("http://identifiers.org/pubmed/2"));
+        geneDiseaseCombo.add(source1, URI.create("http://identifiers.org/pubmed/1"));
+
+        Assert.assertEquals(geneDiseaseCombo.getEvidenceForSource(source1),
+                Arrays.asList(URI.create("http://identifiers.org/pubmed/2"), URI.create("http://identifiers.org/pubmed/1")));
+        Assert.assertEquals(geneDiseaseCombo.getEvidenceIdsForSource(source1), new int[]{2, 1});
+        Assert.assertEquals(geneDiseaseCombo.getEvidenceIdsForSource(source2), null);
+        Assert.assertTrue(geneDiseaseCombo.hasEvidence());
+    }
 }
@@ -0,0 +1,165 @@
+package org.molgenis.vibe.index_processing;
+
+import org.molgenis.vibe.TestModelReader;
+import org.molgenis.vibe.exceptions.CorruptDatabaseException;
+import org.molgenis.vibe.formats.*;
+import org.molgenis.vibe.io.input.ModelReader;
+import org.molgenis.vibe.tdb_processing.TripleStoreGeneDiseaseDataset;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Compares the output of a {@link GeneDiseaseIndex} with the output of the RDF data it was created from. The RDF data
+ * mimics the structure of the optimized DisGeNET TDB (including phenotype-disease pairs that are linked through
+ * multiple routes).
+ */
+public class GeneDiseaseIndexTester {
+    private static final String RDF_DATA = "@prefix rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> .\n" +
+            "@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .\n" +
+            "@prefix xsd: <http://www.w3.org/2001/XMLSchema#> .\n" +
+            "@prefix dcterms: <http://purl.org/dc/terms/> .\n" +
+            "@prefix skos: <http://www.w3.org/2004/02/skos/core#> .\n" +
+            "@prefix sio: <http://semanticscience.org/resource/> .\n" +
+            "@prefix dcat: <http://www.w3.org/ns/dcat#> .\n" +
+            "@prefix dctypes: <http://purl.org/dc/dcmitype/> .\n" +
+            "@prefix wi: <http://purl.org/ontology/wi/core#> .\n" +
+            "@prefix obo: <http://purl.obolibrary.org/obo/> .\n" +
+            "@prefix umls: <http://linkedlifedata.com/resource/umls/id/> .\n" +
+            "@prefix ncbigene: <http://identifiers.org/ncbigene/> .\n" +
+            "@prefix pda: <http://rdf.disgenet.org/resource/pda/> .\n" +
+            "@prefix gda: <http://rdf.disgenet.org/resource/gda/> .\n" +
+            "@prefix hgnc: <http://identifiers.org/hgnc.symbol/> .\n" +
+            "@prefix ordo: <http://www.orpha.net/ORDO/> .\n" +
+            "@prefix void: <http://rdf.disgenet.org/v6.0.0/void/> .\n" +
+            "@prefix pubmed: <http://identifiers.org/pubmed/> .\n" +
+            "\n" +
+            "sio:SIO_001121 rdfs:subClassOf sio:SIO_000983 .\n" +
+            "\n" +
+            "void:CTD rdf:type dctypes:Dataset , dcat:Distribution ; wi:evidence void:source_evidence_curated ; dcterms:title \"CTD human\" .\n" +
+            "void:BEFREE rdf:type dctypes:Dataset , dcat:Distribution ; wi:evidence void:source_evidence_literature ; dcterms:title \"BeFree data\" .\n" +
+            "\n" +
+            // umls:C0000002 is linked to HP_0000001 through 2 different routes.
+            "obo:HP_0000001 skos:exactMatch umls:C0000001 ; sio:SIO_000212 pda:P1 ; sio:SIO_000001 ordo:Orphanet_1 .\n" +
+            "pda:P1 sio:SIO_000628 obo:HP_0000001 , umls:C0000002 .\n" +
+            "ordo:Orphanet_1 skos:exactMatch umls:C0000002 .\n" +
+            "obo:HP_0000002 skos:exactMatch umls:C0000003 .\n" +
+            "obo:HP_0000003 skos:exactMatch umls:C0000005 .\n" +
+            "ordo:Orphanet_2 skos:exactMatch umls:C0000004 .\n" +
+            "\n" +
+            "ncbigene:1 sio:SIO_000205 hgnc:GENE1 .\n" +
+            "ncbigene:2 sio:SIO_000205 hgnc:GENE2 .\n" +
+            "ncbigene:3 sio:SIO_000205 hgnc:GENE3 .\n" +
+            "\n" +
+            "umls:C0000001 sio:SIO_000212 gda:G1 , gda:G2 .\n" +
+            "umls:C0000002 sio:SIO_000212 gda:G3 .\n" +
+            "umls:C0000003 sio:SIO_000212 gda:G4 , gda:G5 .\n" +
+            "umls:C0000004 sio:SIO_000212 gda:G6 .\n" +
+            "gda:G1 rdf:type sio:SIO_000983 ; sio:SIO_000628 ncbigene:1 , umls:C0000001 ; sio:SIO_000216 \"0.5\"^^xsd:double ; sio:SIO_000253 void:CTD ; sio:SIO_000772 pubmed:1 , pubmed:2 .\n" +
+            "gda:G2 rdf:type sio:SIO_001121 ; sio:SIO_000628 ncbigene:1 , umls:C0000001 ; sio:SIO_000216 \"0.5\"^^xsd:double ; sio:SIO_000253 void:BEFREE .\n" +
+            "gda:G3 rdf:type sio:SIO_000983 ; sio:SIO_000628 ncbigene:2 , umls:C0000002 ; sio:SIO_000216 \"0.3\"^^xsd:double ; sio:SIO_000253 void:BEFREE ; sio:SIO_000772 pubmed:3 .\n" +
+            "gda:G4 rdf:type sio:SIO_001121 ; sio:SIO_000628 ncbigene:2 , umls:C0000003 ; sio:SIO_000216 \"0.7\"^^xsd:double ; sio:SIO_000253 void:CTD ; sio:SIO_000772 pubmed:1 .\n" +
+            "gda:G5 rdf:type sio:SIO_000983 ; sio:SIO_000628 ncbigene:3 , umls:C0000003 ; sio:SIO_000216 \"0.1\"^^xsd:double ; sio:SIO_000253 void:CTD .\n" +
+            "gda:G6 rdf:type sio:SIO_000983 ; sio:SIO_000628 ncbigene:3 , umls:C0000004 ; sio:SIO_000216 \"0.9\"^^xsd:double ; sio:SIO_000253 void:CTD .\n";
+
+    private ModelReader reader;
+    private TripleStoreGeneDiseaseDataset tripleStoreDataset;
+    private Path indexFile;
+    private GeneDiseaseIndex index;
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        reader = TestModelReader.fromTurtle(RDF_DATA);
+        tripleStoreDataset = new TripleStoreGeneDiseaseDataset(reader);
+
+        indexFile = Files.createTempFile("vibe_gene_disease", ".index");
+        Files.delete(indexFile);
+        new GeneDiseaseIndexWriter(reader, indexFile).run();
+        index = new GeneDiseaseIndex(indexFile);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() throws IOException {
+        reader.close();
+        Files.deleteIfExists(indexFile);
+    }
+
+    @Test
+    public void retrieveSinglePhenotypeWithMultipleRoutes() {
+        assertEqualOutput(new Phenotype("hp:0000001"));
+    }
+
+    @Test
+    public void retrieveSinglePhenotypeWithMultipleSources() {
+        assertEqualOutput(new Phenotype("hp:0000002"));
+    }
+
+    @Test
+    public void retrieveMultiplePhenotypes() {
+        assertEqualOutput(new Phenotype("hp:0000001"), new Phenotype("hp:0000002"));
+    }
+
+    @Test
+    public void retrievePhenotypeWithoutGenes() {
+        Assert.assertTrue(index.retrieve(Collections.singleton(new Phenotype("hp:0000003"))).isEmpty());
+    }
+
+    @Test
+    public void retrieveUnknownPhenotype() {
+        Assert.assertTrue(index.retrieve(Collections.singleton(new Phenotype("hp:0000004"))).isEmpty());
+    }
+
+    @Test
+    public void retrieveCounts() {
+        GeneDiseaseCollection collection = index.retrieve(Collections.singleton(new Phenotype("hp:0000001")));
+        GeneDiseaseCombination gdc = collection.get(new GeneDiseaseCombination(
+                new Gene("ncbigene:1", new GeneSymbol("hgnc:GENE1")), new Disease("umls:C0000001")));
+
+        Assert.assertEquals(collection.size(), 2);
+        Assert.assertEquals(gdc.getDisgenetScore(), 0.5);
+        Assert.assertEquals(gdc.getAllEvidenceSimplifiedOrdered(), Arrays.asList("1", "2"));
+        Assert.assertEquals(gdc.getSourcesCount().size(), 2);
+    }
+
+    @Test(expectedExceptions = FileAlreadyExistsException.class)
+    public void writeToExistingFile() throws IOException {
+        new GeneDiseaseIndexWriter(reader, indexFile).run();
+    }
+
+    @Test(expectedExceptions = CorruptDatabaseException.class)
+    public void loadInvalidFile() throws IOException {
+        Path invalidFile = Files.createTempFile("vibe_gene_disease", ".index");
+        try {
+            Files.write(invalidFile, Arrays.copyOf(Files.readAllBytes(indexFile), 100));
+            new GeneDiseaseIndex(invalidFile);
+        } finally {
+            Files.delete(invalidFile);
+        }
+    }
+
+    private void assertEqualOutput(Phenotype... phenotypes) {
+        Set<Phenotype> phenotypeSet = new HashSet<>(Arrays.asList(phenotypes));
+        GeneDiseaseCollection expected = tripleStoreDataset.retrieve(phenotypeSet);
+        GeneDiseaseCollection actual = index.retrieve(phenotypeSet);
+
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(actual, expected);
+        for(GeneDiseaseCombination expectedGdc : expected) {
+            GeneDiseaseCombination actualGdc = actual.get(expectedGdc);
+            Assert.assertEquals(actualGdc.getDisgenetScore(), expectedGdc.getDisgenetScore());
+            Assert.assertEquals(actualGdc.getSourcesCount(), expectedGdc.getSourcesCount());
+            for(Source source : expectedGdc.getSourcesWithEvidence()) {
+                Assert.assertEquals(new HashSet<>(actualGdc.getEvidenceForSource(source)),
+                        new HashSet<>(expectedGdc.getEvidenceForSource(source)));
+            }
+            Assert.assertEquals(actualGdc.getSourcesWithEvidence(), expectedGdc.getSourcesWithEvidence());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.molgenis.vibe.io.cache;
+
+import org.molgenis.vibe.formats.*;
+import org.molgenis.vibe.ontology_processing.PhenotypesRetrieverFactory;
+import org.molgenis.vibe.tdb_processing.query_string_creation.GdaQueryOptions;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class GeneDiseaseCollectionCacheTester {
+    private static final String KEY = GeneDiseaseCollectionCache.createKey("abc",
+            new HashSet<>(Arrays.asList(new Phenotype("hp:0000002"), new Phenotype("hp:0000003"))),
+            PhenotypesRetrieverFactory.DISTANCE, 1, "def");
+
+    private GeneDiseaseCollection collection;
+    private Path directory;
+    private GeneDiseaseCollectionCache cache;
+
+    @BeforeClass
+    public void beforeClass() {
+        Source curated = new Source(URI.create("http://rdf.disgenet.org/v6.0.0/void/CTD_human"), "CTD human", Source.Level.CURATED);
+        Source literature = new Source(URI.create("http://rdf.disgenet.org/v6.0.0/void/BEFREE"), "BeFree data", Source.Level.LITERATURE);
+        Gene gene1 = new Gene("ncbigene:1111111", new GeneSymbol("hgnc:AAA"));
+        Gene gene2 = new Gene("ncbigene:2222222", new GeneSymbol("hgnc:BBB"));
+        Disease disease1 = new Disease("umls:C1111111");
+        Disease disease2 = new Disease("umls:C2222222");
+
+        GeneDiseaseCombination gdc1 = new GeneDiseaseCombination(gene1, disease1, 0.5);
+        gdc1.add(curated);
+        gdc1.add(literature, URI.create("http://identifiers.org/pubmed/1"));
+        gdc1.add(literature, URI.create("http://identifiers.org/pubmed/2"));
+        gdc1.add(literature);
+        GeneDiseaseCombination gdc2 = new GeneDiseaseCombination(gene2, disease1, 0.3);
+        gdc2.add(literature, URI.create("http://identifiers.org/pubmed/2"));
+        GeneDiseaseCombination gdc3 = new GeneDiseaseCombination(gene2, disease2, 0.8);
+
+        collection = new GeneDiseaseCollection();
+        collection.addAll(Arrays.asList(gdc1, gdc2, gdc3));
+    }
+
+    @BeforeMethod
+    public void beforeMethod() throws IOException {
+        directory = Files.createTempDirectory("vibe_result_cache");
+        cache = new GeneDiseaseCollectionCache(directory, 1024 * 1024);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterMethod() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for(Path file : files.collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+        cache.write(KEY, collection);
+        GeneDiseaseCollection cached = cache.read(KEY);
+
+        Assert.assertEquals(cached, collection);
+        // GeneDiseaseCombination equality only uses the gene and disease, so the other fields are compared separately.
+        for(GeneDiseaseCombination expected : collection) {
+            GeneDiseaseCombination actual = cached.get(expected);
+            Assert.assertEquals(actual.getDisgenetScore(), expected.getDisgenetScore());
+            Assert.assertEquals(actual.getGene().getSymbol(), expected.getGene().getSymbol());
+            Assert.assertEquals(actual.getSourcesCount(), expected.getSourcesCount());
+            for(Source source : expected.getSourcesWithCount()) {
+                Source actualSource = actual.getSourcesWithCount().stream().filter(source::equals).findFirst().get();
+                Assert.assertEquals(actualSource.getFullName(), source.getFullName());
+                Assert.assertEquals(actualSource.getLevel(), source.getLevel());
+                Assert.assertEquals(actual.getEvidenceForSource(source), expected.getEvidenceForSource(source));
+            }
+        }
+    }
+
+    @Test
+    public void readNotStored() throws IOException {
+        Assert.assertNull(cache.read(KEY));
+    }
+
+    @Test
+    public void readWithHashCollision() throws IOException {
+        // Simulates a different key resulting in the same file.
+        String otherKey = KEY.replace("abc", "xyz");
+        cache.write(otherKey, collection);
+        Files.move(cache.getFile(otherKey), cache.getFile(KEY));
+
+        Assert.assertNull(cache.read(KEY));
+        Assert.assertFalse(Files.exists(cache.getFile(KEY)));
+    }
+
+    @Test
+    public void readCorruptFile() throws IOException {
+        cache.write(KEY, collection);
+        Path file = cache.getFile(KEY);
+        Files.write(file, Arrays.copyOf(Files.readAllBytes(file), 100));
+
+        Assert.assertNull(cache.read(KEY));
+        Assert.assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() throws IOException {
+        String[] keys = new String[]{KEY.replace("abc", "1"), KEY.replace("abc", "2"), KEY.replace("abc", "3")};
+        cache.write(keys[0], collection);
+        long fileSize = Files.size(cache.getFile(keys[0]));
+
+        // Fits 2 files.
+        cache = new GeneDiseaseCollectionCache(directory, fileSize * 2 + 1);
+        cache.write(keys[1], collection);
+        Files.setLastModifiedTime(cache.getFile(keys[0]), FileTime.fromMillis(System.currentTimeMillis() - 20000));
+        Files.setLastModifiedTime(cache.getFile(keys[1]), FileTime.fromMillis(System.currentTimeMillis() - 10000));
+        // Marks keys[0] as most recently used.
+        Assert.assertNotNull(cache.read(keys[0]));
+        cache.write(keys[2], collection);
+
+        Assert.assertTrue(Files.exists(cache.getFile(keys[0])));
+        Assert.assertFalse(Files.exists(cache.getFile(keys[1])));
+        Assert.assertTrue(Files.exists(cache.getFile(keys[2])));
+    }
+
+    @Test
+    public void keyIgnoresPhenotypeOrder() {
+        Set<Phenotype> phenotypes1 = new LinkedHashSet<>(Arrays.asList(new Phenotype("hp:0000002"), new Phenotype("hp:0000003")));
+        Set<Phenotype> phenotypes2 = new LinkedHashSet<>(Arrays.asList(new Phenotype("hp:0000003"), new Phenotype("hp:0000002")));
+
+        Assert.assertEquals(GeneDiseaseCollectionCache.createKey("abc", phenotypes2, null, null, null),
+                GeneDiseaseCollectionCache.createKey("abc", phenotypes1, null, null, null));
+    }
+
+    @Test
+    public void keyDiffersPerSetting() {
+        Set<Phenotype> phenotypes = Collections.singleton(new Phenotype("hp:0000002"));
+        Set<String> keys = new HashSet<>(Arrays.asList(
+                GeneDiseaseCollectionCache.createKey("abc", phenotypes, null, null, null),
+                GeneDiseaseCollectionCache.createKey("xyz", phenotypes, null, null, null),
+                GeneDiseaseCollectionCache.createKey("abc", phenotypes, PhenotypesRetrieverFactory.DISTANCE, 1, "def"),
+                GeneDiseaseCollectionCache.createKey("abc", phenotypes, PhenotypesRetrieverFactory.DISTANCE, 2, "def"),
+                GeneDiseaseCollectionCache.createKey("abc", phenotypes, PhenotypesRetrieverFactory.CHILDREN, 1, "def"),
+                GeneDiseaseCollectionCache.createKey("abc", phenotypes, PhenotypesRetrieverFactory.DISTANCE, 1, "ghi"),
+                GeneDiseaseCollectionCache.createKey("abc", phenotypes, null, null, null,
+                        new GdaQueryOptions(0.3, EnumSet.allOf(Source.Level.class), true)),
+                GeneDiseaseCollectionCache.createKey("abc", phenotypes, null, null, null,
+                        new GdaQueryOptions(0, EnumSet.allOf(Source.Level.class), false))
+        ));
+
+        Assert.assertEquals(keys.size(), 8);
+    }
+
+    @Test
+    public void keyWithAllGdaQueryOptions() {
+        Set<Phenotype> phenotypes = Collections.singleton(new Phenotype("hp:0000002"));
+
+        Assert.assertEquals(GeneDiseaseCollectionCache.createKey("abc", phenotypes, null, null, null, GdaQueryOptions.ALL),
+                GeneDiseaseCollectionCache.createKey("abc", phenotypes, null, null, null));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidMaxSize() throws IOException {
+        new GeneDiseaseCollectionCache(directory, 0);
+    }
+}
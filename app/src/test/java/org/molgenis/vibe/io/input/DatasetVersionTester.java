@@ -0,0 +1,85 @@
+package org.molgenis.vibe.io.input;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+
+public class DatasetVersionTester {
+    private Path tdb;
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        tdb = Files.createTempDirectory("vibe_tdb");
+        Files.write(tdb.resolve("nodes.dat"), Collections.singletonList("nodes"), StandardCharsets.UTF_8);
+        Files.write(tdb.resolve("SPO.dat"), Collections.singletonList("triples"), StandardCharsets.UTF_8);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() throws IOException {
+        for(String file : new String[]{"nodes.dat", "SPO.dat", "journal.jrnl"}) {
+            Files.deleteIfExists(tdb.resolve(file));
+        }
+        Files.delete(tdb);
+    }
+
+    @Test
+    public void versionIsStable() throws IOException {
+        Assert.assertEquals(DatasetVersion.calculate(tdb), DatasetVersion.calculate(tdb));
+    }
+
+    @Test
+    public void versionChangesWithData() throws IOException {
+        String version = DatasetVersion.calculate(tdb);
+        Path triples = tdb.resolve("SPO.dat");
+        FileTime modified = Files.getLastModifiedTime(triples);
+        Files.setLastModifiedTime(triples, FileTime.fromMillis(modified.toMillis() + 1000));
+        try {
+            Assert.assertNotEquals(DatasetVersion.calculate(tdb), version);
+        } finally {
+            Files.setLastModifiedTime(triples, modified);
+        }
+    }
+
+    @Test
+    public void versionIgnoresJournal() throws IOException {
+        String version = DatasetVersion.calculate(tdb);
+        Files.write(tdb.resolve("journal.jrnl"), new byte[0]);
+        Assert.assertEquals(DatasetVersion.calculate(tdb), version);
+    }
+
+    /**
+     * A TDB2 stores its data in subdirectories.
+     */
+    @Test
+    public void versionIncludesSubdirectories() throws IOException {
+        String version = DatasetVersion.calculate(tdb);
+        Path data = Files.createDirectory(tdb.resolve("Data-0001"));
+        try {
+            Files.write(data.resolve("nodes.dat"), Collections.singletonList("nodes"), StandardCharsets.UTF_8);
+            Assert.assertNotEquals(DatasetVersion.calculate(tdb), version);
+        } finally {
+            Files.deleteIfExists(data.resolve("nodes.dat"));
+            Files.delete(data);
+        }
+    }
+
+    @Test
+    public void versionOfFile() throws IOException {
+        Path file = tdb.resolve("nodes.dat");
+        Assert.assertNotEquals(DatasetVersion.calculate(file), DatasetVersion.calculate(tdb));
+        Assert.assertEquals(DatasetVersion.calculate(file).length(), 64);
+    }
+
+    @Test
+    public void toHex() {
+        Assert.assertEquals(DatasetVersion.toHex(new byte[]{0, 15, -1}), "000fff");
+    }
+}
@@ -0,0 +1,61 @@
+package org.molgenis.vibe.io.input;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDFS;
+import org.molgenis.vibe.TestModelReader;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class InMemoryDbReaderTester {
+    private Model model;
+    private InMemoryDbReader reader;
+    private List<String> progress = new ArrayList<>();
+
+    @BeforeClass
+    public void beforeClass() {
+        model = ModelFactory.createDefaultModel();
+        Resource parent = model.createResource("http://purl.obolibrary.org/obo/HP_0000001");
+        for(int i = 2; i <= 10; i++) {
+            model.add(model.createResource(String.format("http://purl.obolibrary.org/obo/HP_%07d", i)), RDFS.subClassOf, parent);
+        }
+
+        reader = new InMemoryDbReader(new TestModelReader(model), progress::add);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() {
+        reader.close();
+    }
+
+    @Test
+    public void triplesCount() {
+        Assert.assertEquals(reader.getTriplesCount(), model.size());
+    }
+
+    @Test
+    public void progressMessages() {
+        Assert.assertEquals(progress, Collections.singletonList("Loaded 9 of 9 triples into memory (100%)."));
+    }
+
+    @Test
+    public void equalContent() {
+        Assert.assertTrue(reader.calculateRead(() -> reader.getModel().isIsomorphicWith(model)));
+    }
+
+    @Test
+    public void readFromOtherThread() throws Exception {
+        long[] size = new long[1];
+        Thread thread = new Thread(() -> size[0] = reader.calculateRead(() -> reader.getModel().size()));
+        thread.start();
+        thread.join();
+        Assert.assertEquals(size[0], model.size());
+    }
+}
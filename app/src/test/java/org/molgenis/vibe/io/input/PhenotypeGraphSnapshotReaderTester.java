@@ -0,0 +1,139 @@
+package org.molgenis.vibe.io.input;
+
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.molgenis.vibe.exceptions.CorruptDatabaseException;
+import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.io.output.PhenotypeGraphSnapshotWriter;
+import org.molgenis.vibe.ontology_processing.ChildrenRetriever;
+import org.molgenis.vibe.ontology_processing.MaxDistanceRetriever2;
+import org.molgenis.vibe.ontology_processing.PhenotypeGraph;
+import org.molgenis.vibe.ontology_processing.PhenotypesRetriever;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares a {@link PhenotypeGraphSnapshotReader} with the (minimal) ontology the snapshot was created from.
+ */
+public class PhenotypeGraphSnapshotReaderTester {
+    private static final String ONTOLOGY = "@prefix rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> .\n" +
+            "@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .\n" +
+            "@prefix owl: <http://www.w3.org/2002/07/owl#> .\n" +
+            "@prefix obo: <http://purl.obolibrary.org/obo/> .\n" +
+            "\n" +
+            "obo:HP_0000001 rdf:type owl:Class ; rdfs:label \"All\" .\n" +
+            "obo:HP_0000118 rdf:type owl:Class ; rdfs:subClassOf obo:HP_0000001 .\n" +
+            "obo:HP_0000707 rdf:type owl:Class ; rdfs:subClassOf obo:HP_0000118 .\n" +
+            "obo:HP_0000152 rdf:type owl:Class ; rdfs:subClassOf obo:HP_0000118 .\n" +
+            // HP_0001250 has multiple parents (of which one is not an HPO term).
+            "obo:HP_0001250 rdf:type owl:Class ; rdfs:subClassOf obo:HP_0000707 , obo:HP_0000152 , obo:UPHENO_0000001 .\n" +
+            "obo:HP_0002197 rdf:type owl:Class ; rdfs:subClassOf obo:HP_0001250 .\n" +
+            "obo:UPHENO_0000001 rdf:type owl:Class .\n";
+
+    private static final List<Phenotype> PHENOTYPES = Arrays.asList(new Phenotype("hp:0000707"), new Phenotype("hp:0001250"));
+
+    private OntModel ontologyModel;
+    private byte[] checksum;
+    private Path snapshot;
+    private PhenotypeGraphSnapshotReader reader;
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        ontologyModel = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM);
+        ontologyModel.read(new StringReader(ONTOLOGY), null, "TURTLE");
+
+        Path ontologyFile = Files.createTempFile("vibe_hpo", ".ttl");
+        try {
+            Files.write(ontologyFile, ONTOLOGY.getBytes(StandardCharsets.UTF_8));
+            checksum = PhenotypeGraphSnapshotReader.calculateChecksum(ontologyFile);
+        } finally {
+            Files.delete(ontologyFile);
+        }
+
+        snapshot = Files.createTempFile("vibe_hpo", ".snapshot");
+        new PhenotypeGraphSnapshotWriter(PhenotypeGraph.create(ontologyModel), checksum).write(snapshot);
+        reader = new PhenotypeGraphSnapshotReader(snapshot);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() throws IOException {
+        reader.close();
+        ontologyModel.close();
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Test
+    public void graphEqualsOriginal() {
+        PhenotypeGraph graph = reader.getPhenotypeGraph();
+
+        Assert.assertEquals(graph, PhenotypeGraph.create(ontologyModel));
+        Assert.assertEquals(graph.size(), 6);
+        Assert.assertEquals(graph.linksCount(), 6);
+    }
+
+    @Test
+    public void graphUnknownPhenotype() {
+        Assert.assertTrue(reader.getPhenotypeGraph().indexOf(new Phenotype("hp:0000002")) < 0);
+    }
+
+    @Test
+    public void readChecksum() throws IOException {
+        Assert.assertEquals(PhenotypeGraphSnapshotReader.readChecksum(snapshot), checksum);
+    }
+
+    @Test
+    public void childrenRetrieverEqualsOriginal() {
+        for(int distance = 0; distance <= 3; distance++) {
+            assertEqualOutput(new ChildrenRetriever(ontologyModel, PHENOTYPES, distance),
+                    new ChildrenRetriever(reader.getModel(), PHENOTYPES, distance));
+        }
+    }
+
+    @Test
+    public void maxDistanceRetrieverEqualsOriginal() {
+        for(int distance = 0; distance <= 4; distance++) {
+            assertEqualOutput(new MaxDistanceRetriever2(ontologyModel, PHENOTYPES, distance),
+                    new MaxDistanceRetriever2(reader.getModel(), PHENOTYPES, distance));
+        }
+    }
+
+    @Test(expectedExceptions = CorruptDatabaseException.class)
+    public void loadInvalidFile() throws IOException {
+        Path invalidFile = Files.createTempFile("vibe_hpo", ".snapshot");
+        try {
+            Files.write(invalidFile, Arrays.copyOf(Files.readAllBytes(snapshot), 60));
+            new PhenotypeGraphSnapshotReader(invalidFile);
+        } finally {
+            Files.delete(invalidFile);
+        }
+    }
+
+    @Test(expectedExceptions = CorruptDatabaseException.class)
+    public void readChecksumFromOtherFile() throws IOException {
+        Path otherFile = Files.createTempFile("vibe_hpo", ".owl");
+        try {
+            Files.write(otherFile, Collections.singletonList("<?xml version=\"1.0\"?>"), StandardCharsets.UTF_8);
+            PhenotypeGraphSnapshotReader.readChecksum(otherFile);
+        } finally {
+            Files.delete(otherFile);
+        }
+    }
+
+    private void assertEqualOutput(PhenotypesRetriever expected, PhenotypesRetriever actual) {
+        expected.run();
+        actual.run();
+        Assert.assertEquals(actual.getPhenotypeNetworkCollection(), expected.getPhenotypeNetworkCollection());
+    }
+}
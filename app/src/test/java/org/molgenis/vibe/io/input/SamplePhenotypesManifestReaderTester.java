@@ -0,0 +1,57 @@
+package org.molgenis.vibe.io.input;
+
+import org.molgenis.vibe.formats.Phenotype;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class SamplePhenotypesManifestReaderTester {
+    @Test
+    public void validManifest() throws IOException {
+        Path manifest = createManifest("# comment line", "sample1\tHP:0000001\thp:0000002", "", "sample-2\tHP:0000003,HP:0000004");
+
+        Map<String, Set<Phenotype>> expected = new LinkedHashMap<>();
+        expected.put("sample1", new HashSet<>(Arrays.asList(new Phenotype("hp:0000001"), new Phenotype("hp:0000002"))));
+        expected.put("sample-2", new HashSet<>(Arrays.asList(new Phenotype("hp:0000003"), new Phenotype("hp:0000004"))));
+
+        Map<String, Set<Phenotype>> actual = new SamplePhenotypesManifestReader(manifest).read();
+        Assert.assertEquals(actual, expected);
+        Assert.assertEquals(new ArrayList<>(actual.keySet()), Arrays.asList("sample1", "sample-2"));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void duplicateSampleId() throws IOException {
+        Path manifest = createManifest("sample1\tHP:0000001", "sample1\tHP:0000002");
+        new SamplePhenotypesManifestReader(manifest).read();
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void invalidSampleId() throws IOException {
+        Path manifest = createManifest("sample/1\tHP:0000001");
+        new SamplePhenotypesManifestReader(manifest).read();
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void sampleWithoutPhenotypes() throws IOException {
+        Path manifest = createManifest("sample1");
+        new SamplePhenotypesManifestReader(manifest).read();
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void invalidPhenotype() throws IOException {
+        Path manifest = createManifest("sample1\tHP:123");
+        new SamplePhenotypesManifestReader(manifest).read();
+    }
+
+    private Path createManifest(String... lines) throws IOException {
+        Path manifest = Files.createTempFile("vibe_manifest", ".tsv");
+        manifest.toFile().deleteOnExit();
+        Files.write(manifest, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return manifest;
+    }
+}
@@ -0,0 +1,164 @@
+package org.molgenis.vibe.io.input;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.system.Txn;
+import org.apache.jena.vocabulary.RDFS;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Creates a small TDB1 and TDB2 database with the same content and checks whether both are read the same way.
+ */
+public class TripleStoreBackendTester {
+    private Model model;
+    private Path tdb1;
+    private Path tdb2;
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        model = ModelFactory.createDefaultModel();
+        Resource parent = model.createResource("http://purl.obolibrary.org/obo/HP_0000001");
+        for(int i = 2; i <= 10; i++) {
+            model.add(model.createResource(String.format("http://purl.obolibrary.org/obo/HP_%07d", i)), RDFS.subClassOf, parent);
+        }
+
+        tdb1 = createTdb(TripleStoreBackend.TDB1);
+        tdb2 = createTdb(TripleStoreBackend.TDB2);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() throws IOException {
+        for(Path directory : new Path[]{tdb1, tdb2}) {
+            try (Stream<Path> stream = Files.walk(directory)) {
+                List<Path> files = stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+                for(Path file : files) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void detectTdb1() throws IOException {
+        Assert.assertEquals(TripleStoreBackend.detect(tdb1), TripleStoreBackend.TDB1);
+    }
+
+    @Test
+    public void detectTdb2() throws IOException {
+        Assert.assertEquals(TripleStoreBackend.detect(tdb2), TripleStoreBackend.TDB2);
+    }
+
+    @Test
+    public void detectNonExisting() throws IOException {
+        Assert.assertEquals(TripleStoreBackend.detect(tdb1.resolve("non_existing")), TripleStoreBackend.TDB1);
+    }
+
+    @Test
+    public void retrieveById() {
+        Assert.assertEquals(TripleStoreBackend.retrieve("tdb2"), TripleStoreBackend.TDB2);
+    }
+
+    @Test
+    public void readTdb1() throws IOException {
+        assertEqualContent(tdb1, TripleStoreBackend.TDB1);
+    }
+
+    @Test
+    public void readTdb2() throws IOException {
+        assertEqualContent(tdb2, TripleStoreBackend.TDB2);
+    }
+
+    @Test
+    public void dataDirectoryTdb1() throws IOException {
+        Assert.assertEquals(TripleStoreBackend.TDB1.dataDirectory(tdb1), tdb1);
+    }
+
+    @Test
+    public void dataDirectoryTdb2() throws IOException {
+        Assert.assertEquals(TripleStoreBackend.TDB2.dataDirectory(tdb2), tdb2.resolve("Data-0001"));
+    }
+
+    @Test
+    public void warmUpTdb1() throws IOException {
+        assertWarmUp(tdb1, tdb1);
+    }
+
+    @Test
+    public void warmUpTdb2() throws IOException {
+        assertWarmUp(tdb2, tdb2.resolve("Data-0001"));
+    }
+
+    /**
+     * TDB2 only allows reading within a transaction, which should also be possible from other threads.
+     */
+    @Test
+    public void readTdb2FromOtherThread() throws Exception {
+        TripleStoreDbReader reader = new TripleStoreDbReader(tdb2);
+        try {
+            long[] size = new long[1];
+            Thread thread = new Thread(() -> size[0] = reader.calculateRead(() -> reader.getModel().size()));
+            thread.start();
+            thread.join();
+            Assert.assertEquals(size[0], model.size());
+        } finally {
+            reader.close();
+        }
+    }
+
+    private Path createTdb(TripleStoreBackend backend) throws IOException {
+        Path directory = Files.createTempDirectory("vibe_" + backend.getId());
+        Dataset dataset = backend.connect(directory);
+        Txn.executeWrite(dataset, () -> dataset.getDefaultModel().add(model));
+        dataset.close();
+        return directory;
+    }
+
+    /**
+     * Checks whether the warm-up reads the complete node table and the SPO/POS/OSP indexes (but not the other files).
+     */
+    private void assertWarmUp(Path directory, Path dataDirectory) throws IOException {
+        long expectedBytes = 0;
+        int expectedFiles = 0;
+        try (Stream<Path> stream = Files.list(dataDirectory)) {
+            for(Path file : stream.collect(Collectors.toList())) {
+                String name = file.getFileName().toString();
+                if(name.startsWith("node") || name.startsWith("SPO.") || name.startsWith("POS.") || name.startsWith("OSP.")) {
+                    expectedBytes += Files.size(file);
+                    expectedFiles++;
+                }
+            }
+        }
+
+        TripleStoreDbReader reader = new TripleStoreDbReader(directory);
+        try {
+            TripleStoreDbReader.WarmUpSummary summary = reader.warmUp();
+            Assert.assertEquals(summary.getFiles(), expectedFiles);
+            Assert.assertEquals(summary.getBytes(), expectedBytes);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void assertEqualContent(Path directory, TripleStoreBackend expectedBackend) throws IOException {
+        TripleStoreDbReader reader = new TripleStoreDbReader(directory);
+        try {
+            Assert.assertEquals(reader.getBackend(), expectedBackend);
+            Assert.assertTrue(reader.calculateRead(() -> reader.getModel().isIsomorphicWith(model)));
+        } finally {
+            reader.close();
+        }
+    }
+}
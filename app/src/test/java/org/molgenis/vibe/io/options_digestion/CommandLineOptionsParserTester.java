@@ -5,10 +5,18 @@ import org.apache.commons.cli.UnrecognizedOptionException;
 import org.apache.commons.lang3.ArrayUtils;
 import org.molgenis.vibe.TestData;
 import org.molgenis.vibe.RunMode;
+import org.molgenis.vibe.formats.Source;
+import org.molgenis.vibe.tdb_processing.query_string_creation.GdaQueryOptions;
 import org.testng.Assert;
 import org.testng.annotations.*;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.EnumSet;
 
 public class CommandLineOptionsParserTester {
     private final String[] VALID_TDB = new String[]{"-t", TestData.TDB_MINI.getDir()};
@@ -19,6 +27,8 @@ public class CommandLineOptionsParserTester {
     private final String[] INVALID_ONTOLOGY_FILE = new String[]{"-w", TestData.NON_EXISTING.getFiles()[0]};
     private final String[] INVALID_ONTOLOGY_DIR = new String[]{"-w", TestData.NON_EXISTING.getDir()};
 
+    private final String[] HPO_SNAPSHOT = new String[]{"--hpo-snapshot", TestData.NON_EXISTING.getFiles()[0]};
+
     private final String[] HPO_ALGORITHM_1 = new String[]{"-n", "children"};
     private final String[] HPO_ALGORITHM_2 = new String[]{"-n", "distance"};
     private final String[] HPO_ALGORITHM_INVALID = new String[]{"-n", "myCustomName"};
@@ -30,6 +40,42 @@ public class CommandLineOptionsParserTester {
 
     private final String[] NON_EXISTING_OUTPUT_FILE = new String[]{"-o", TestData.NON_EXISTING.getFiles()[0]};
 
+    private final String[] SERVER = new String[]{"-s", "8080"};
+    private final String[] SERVER_INVALID_PORT = new String[]{"-s", "70000"};
+
+    private final String[] NON_EXISTING_OUTPUT_DIR = new String[]{"-o", TestData.NON_EXISTING.getDir()};
+    private String[] batchManifest;
+
+    private final String[] CREATE_INDEX = new String[]{"-x", TestData.NON_EXISTING.getFiles()[0]};
+
+    private final String[] QUERY_CACHE = new String[]{"--query-cache", "1000"};
+
+    private final String[] METRICS = new String[]{"--metrics", TestData.NON_EXISTING.getFiles()[0]};
+    private final String[] QUERY_PROFILE = new String[]{"--query-profile", TestData.NON_EXISTING.getFiles()[0]};
+    private final String[] IN_MEMORY = new String[]{"--in-memory"};
+    private final String[] WARM_UP = new String[]{"--warm-up"};
+    private final String[] QUERY_CHUNK_SIZE = new String[]{"--query-chunk-size", "100"};
+    private final String[] QUERY_THREADS = new String[]{"--query-threads", "3"};
+    private final String[] RESULT_CACHE = new String[]{"--result-cache", TestData.NON_EXISTING.getDir()};
+    private final String[] RESULT_CACHE_SIZE = new String[]{"--result-cache-size", "10"};
+    private final String[] MIN_SCORE = new String[]{"--min-score", "0.3"};
+    private final String[] SOURCE_LEVELS = new String[]{"--source-levels", "curated,MODEL"};
+    private final String[] NO_EVIDENCE = new String[]{"--no-evidence"};
+    private String[] geneDiseaseIndex;
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        Path manifest = Files.createTempFile("vibe_manifest", ".tsv");
+        manifest.toFile().deleteOnExit();
+        Files.write(manifest, Arrays.asList("sample1\tHP:0000001", "sample2\tHP:0000002,HP:0000003"), StandardCharsets.UTF_8);
+        batchManifest = new String[]{"-b", manifest.toString()};
+
+        // Content is not validated while digesting the command line.
+        Path index = Files.createTempFile("vibe_gene_disease", ".index");
+        index.toFile().deleteOnExit();
+        geneDiseaseIndex = new String[]{"-i", index.toString()};
+    }
+
     @Test
     public void noArguments() throws IOException, ParseException {
         String[] args = new String[]{};
@@ -159,6 +205,438 @@ public class CommandLineOptionsParserTester {
         testWithErrorPrint(args);
     }
 
+    @Test
+    public void validServer() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SERVER);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getRunMode(), RunMode.SERVER);
+        Assert.assertEquals(appOptions.getServerPort(), 8080);
+    }
+
+    @Test
+    public void validServerWithHpoAlgorithm() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, VALID_ONTOLOGY, HPO_ALGORITHM_2, MAX_DISTANCE, SERVER);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getRunMode(), RunMode.SERVER);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void serverWithInvalidPort() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SERVER_INVALID_PORT);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void serverWithPhenotype() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SERVER, SINGLE_HPO);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void serverWithOutputFile() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SERVER, NON_EXISTING_OUTPUT_FILE);
+        testWithErrorPrint(args);
+    }
+
+    @Test
+    public void validBatch() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, batchManifest, NON_EXISTING_OUTPUT_DIR);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getRunMode(), RunMode.BATCH);
+        Assert.assertEquals(appOptions.getSamples().size(), 2);
+    }
+
+    @Test
+    public void validBatchWithHpoAlgorithm() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, VALID_ONTOLOGY, HPO_ALGORITHM_1, MAX_DISTANCE, batchManifest, NON_EXISTING_OUTPUT_DIR);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getRunMode(), RunMode.BATCH);
+    }
+
+    @Test
+    public void validBatchWithThreads() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, batchManifest, NON_EXISTING_OUTPUT_DIR, new String[]{"-c", "4"});
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getThreads(), 4);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void batchWithInvalidThreads() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, batchManifest, NON_EXISTING_OUTPUT_DIR, new String[]{"-c", "0"});
+        testWithErrorPrint(args);
+    }
+
+    @Test
+    public void validServerWithThreads() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SERVER, new String[]{"-c", "4"});
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getRunMode(), RunMode.SERVER);
+        Assert.assertEquals(appOptions.getThreads(), 4);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void threadsWithoutBatch() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, new String[]{"-c", "4"});
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void batchMissingOutputDir() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, batchManifest);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void batchWithPhenotype() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, batchManifest, SINGLE_HPO, NON_EXISTING_OUTPUT_DIR);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void batchWithServer() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, batchManifest, SERVER, NON_EXISTING_OUTPUT_DIR);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void batchWithNonExistingManifest() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, new String[]{"-b", TestData.NON_EXISTING.getFiles()[0]}, NON_EXISTING_OUTPUT_DIR);
+        testWithErrorPrint(args);
+    }
+
+    @Test
+    public void validIndex() throws IOException, ParseException {
+        String[] args = stringArraysMerger(geneDiseaseIndex, SINGLE_HPO);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getRunMode(), RunMode.GENES_FOR_PHENOTYPES);
+        Assert.assertEquals(appOptions.getGeneDiseaseIndex().toString(), geneDiseaseIndex[1]);
+        Assert.assertNull(appOptions.getDatabase());
+    }
+
+    @Test
+    public void validIndexWithBatch() throws IOException, ParseException {
+        String[] args = stringArraysMerger(geneDiseaseIndex, batchManifest, NON_EXISTING_OUTPUT_DIR);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getRunMode(), RunMode.BATCH);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void indexWithTdb() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, geneDiseaseIndex, SINGLE_HPO);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void nonExistingIndex() throws IOException, ParseException {
+        String[] args = stringArraysMerger(new String[]{"-i", TestData.NON_EXISTING.getFiles()[0]}, SINGLE_HPO);
+        testWithErrorPrint(args);
+    }
+
+    @Test
+    public void validCreateIndex() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, CREATE_INDEX);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getRunMode(), RunMode.CREATE_GENE_DISEASE_INDEX);
+        Assert.assertEquals(appOptions.getGeneDiseaseIndexOutput().toString(), CREATE_INDEX[1]);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void createIndexWithoutTdb() throws IOException, ParseException {
+        String[] args = stringArraysMerger(CREATE_INDEX);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void createIndexWithPhenotype() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, CREATE_INDEX, SINGLE_HPO);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void createIndexWithExistingFile() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, new String[]{"-x", geneDiseaseIndex[1]});
+        testWithErrorPrint(args);
+    }
+
+    @Test
+    public void validHpoSnapshot() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, VALID_ONTOLOGY, HPO_SNAPSHOT, HPO_ALGORITHM_2, MAX_DISTANCE, SINGLE_HPO);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getRunMode(), RunMode.GENES_FOR_PHENOTYPES_WITH_ASSOCIATED_PHENOTYPES);
+        Assert.assertEquals(appOptions.getHpoSnapshot().toString(), HPO_SNAPSHOT[1]);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void hpoSnapshotWithoutOntology() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, HPO_SNAPSHOT, SINGLE_HPO);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void hpoSnapshotIsDirectory() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, VALID_ONTOLOGY, new String[]{"--hpo-snapshot", TestData.TDB_MINI.getDir()},
+                HPO_ALGORITHM_2, MAX_DISTANCE, SINGLE_HPO);
+        testWithErrorPrint(args);
+    }
+
+    @Test
+    public void validQueryCacheWithBatch() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, batchManifest, NON_EXISTING_OUTPUT_DIR, QUERY_CACHE);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getQueryCacheSize(), Long.valueOf(1000));
+    }
+
+    @Test
+    public void validQueryCacheWithServer() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SERVER, QUERY_CACHE);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getQueryCacheSize(), Long.valueOf(1000));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void queryCacheWithoutBatchOrServer() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, QUERY_CACHE);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void queryCacheWithIndex() throws IOException, ParseException {
+        String[] args = stringArraysMerger(geneDiseaseIndex, SERVER, QUERY_CACHE);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void queryCacheInvalidSize() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SERVER, new String[]{"--query-cache", "0"});
+        testWithErrorPrint(args);
+    }
+
+    @Test
+    public void validMetrics() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, METRICS);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getRunMode(), RunMode.GENES_FOR_PHENOTYPES);
+        Assert.assertEquals(appOptions.getMetricsReport().toString(), METRICS[1]);
+    }
+
+    @Test
+    public void validMetricsWithBatch() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, batchManifest, NON_EXISTING_OUTPUT_DIR, METRICS);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getRunMode(), RunMode.BATCH);
+        Assert.assertEquals(appOptions.getMetricsReport().toString(), METRICS[1]);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void metricsWithServer() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SERVER, METRICS);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void metricsWithExistingFile() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, new String[]{"--metrics", batchManifest[1]});
+        testWithErrorPrint(args);
+    }
+
+    @Test
+    public void validQueryProfile() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, QUERY_PROFILE);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getQueryProfile().toString(), QUERY_PROFILE[1]);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void queryProfileWithIndex() throws IOException, ParseException {
+        String[] args = stringArraysMerger(geneDiseaseIndex, SINGLE_HPO, QUERY_PROFILE);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void queryProfileWithExistingFile() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, new String[]{"--query-profile", batchManifest[1]});
+        testWithErrorPrint(args);
+    }
+
+    @Test
+    public void validInMemory() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, IN_MEMORY);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertTrue(appOptions.isInMemory());
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void inMemoryWithIndex() throws IOException, ParseException {
+        String[] args = stringArraysMerger(geneDiseaseIndex, SINGLE_HPO, IN_MEMORY);
+        testWithErrorPrint(args);
+    }
+
+    @Test
+    public void validWarmUp() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, WARM_UP);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertTrue(appOptions.isWarmUp());
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void warmUpWithInMemory() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, WARM_UP, IN_MEMORY);
+        testWithErrorPrint(args);
+    }
+
+    @Test
+    public void validQueryChunkSize() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, QUERY_CHUNK_SIZE, QUERY_THREADS);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getQueryChunkSize(), Integer.valueOf(100));
+        Assert.assertEquals(appOptions.getQueryThreads(), 3);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void queryChunkSizeWithIndex() throws IOException, ParseException {
+        String[] args = stringArraysMerger(geneDiseaseIndex, SINGLE_HPO, QUERY_CHUNK_SIZE);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void queryChunkSizeInvalid() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, new String[]{"--query-chunk-size", "0"});
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void queryThreadsWithoutQueryChunkSize() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, QUERY_THREADS);
+        testWithErrorPrint(args);
+    }
+
+    @Test
+    public void validResultCache() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, RESULT_CACHE);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getResultCache(), Paths.get(RESULT_CACHE[1]));
+        Assert.assertEquals(appOptions.getResultCacheMaxSize(), 1024);
+    }
+
+    @Test
+    public void validResultCacheWithSize() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, batchManifest, NON_EXISTING_OUTPUT_DIR, RESULT_CACHE, RESULT_CACHE_SIZE);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getRunMode(), RunMode.BATCH);
+        Assert.assertEquals(appOptions.getResultCacheMaxSize(), 10);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void resultCacheWithServer() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SERVER, RESULT_CACHE);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void resultCacheIsFile() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, new String[]{"--result-cache", batchManifest[1]});
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void resultCacheSizeWithoutResultCache() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, RESULT_CACHE_SIZE);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void resultCacheInvalidSize() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, RESULT_CACHE, new String[]{"--result-cache-size", "0"});
+        testWithErrorPrint(args);
+    }
+
+    @Test
+    public void defaultGdaQueryOptions() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getGdaQueryOptions(), GdaQueryOptions.ALL);
+    }
+
+    @Test
+    public void validGdaQueryOptions() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, MIN_SCORE, SOURCE_LEVELS, NO_EVIDENCE);
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getGdaQueryOptions(),
+                new GdaQueryOptions(0.3, EnumSet.of(Source.Level.CURATED, Source.Level.MODEL), false));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void minScoreInvalid() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, new String[]{"--min-score", "1.5"});
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void sourceLevelsInvalid() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, new String[]{"--source-levels", "curated,unknown"});
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void sourceLevelsEmpty() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, new String[]{"--source-levels", ","});
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void minScoreWithIndex() throws IOException, ParseException {
+        String[] args = stringArraysMerger(geneDiseaseIndex, SINGLE_HPO, MIN_SCORE);
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void noEvidenceWithIndex() throws IOException, ParseException {
+        String[] args = stringArraysMerger(geneDiseaseIndex, SINGLE_HPO, NO_EVIDENCE);
+        testWithErrorPrint(args);
+    }
+
+    @Test
+    public void validTop() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, new String[]{"--top", "50"});
+        CommandLineOptionsParser appOptions = new CommandLineOptionsParser(args);
+
+        Assert.assertEquals(appOptions.getMaxGenes(), Integer.valueOf(50));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void topInvalid() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, SINGLE_HPO, new String[]{"--top", "0"});
+        testWithErrorPrint(args);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void topWithIndexCreation() throws IOException, ParseException {
+        String[] args = stringArraysMerger(VALID_TDB, CREATE_INDEX, new String[]{"--top", "50"});
+        testWithErrorPrint(args);
+    }
+
     private String[] stringArraysMerger(String[]... arrays) {
         String[] fullArray = arrays[0];
         for(int i = 1; i < arrays.length; i++) {
@@ -0,0 +1,53 @@
+package org.molgenis.vibe.io.output.format.gene_prioritized;
+
+import org.molgenis.vibe.formats.*;
+import org.molgenis.vibe.io.output.target.StringOutputWriter;
+import org.molgenis.vibe.query_output_digestion.prioritization.gene.GenePrioritizer;
+import org.molgenis.vibe.query_output_digestion.prioritization.gene.HighestSingleDisgenetScoreGenePrioritizer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Tests the simple output format (-l).
+ */
+public class OrderedGenesOutputFormatWriterTester {
+
+    @Test
+    public void testOutput() throws IOException {
+        Gene[] genes = new Gene[]{
+                new Gene("ncbigene:1", new GeneSymbol("hgnc:A")),
+                new Gene("ncbigene:2", new GeneSymbol("hgnc:B")),
+                new Gene("ncbigene:3", new GeneSymbol("hgnc:C"))
+        };
+
+        Set<GeneDiseaseCombination> geneDiseaseCombinations = new HashSet<>( Arrays.asList(
+                new GeneDiseaseCombination(genes[0], new Disease("umls:C1"), 0.5),
+                new GeneDiseaseCombination(genes[1], new Disease("umls:C2"), 0.7),
+                new GeneDiseaseCombination(genes[2], new Disease("umls:C3"), 0.1)
+        ));
+
+        Assert.assertEquals(writeOutput(new GeneDiseaseCollection(geneDiseaseCombinations)), "2,1,3");
+    }
+
+    @Test
+    public void testOutputWithoutGenes() throws IOException {
+        Assert.assertEquals(writeOutput(new GeneDiseaseCollection()), "");
+    }
+
+    /**
+     * @param geneDiseaseCollection the data to prioritize and write
+     * @return the output as written by the simple output format
+     * @throws IOException
+     */
+    private String writeOutput(GeneDiseaseCollection geneDiseaseCollection) throws IOException {
+        GenePrioritizer prioritizer = new HighestSingleDisgenetScoreGenePrioritizer(geneDiseaseCollection);
+        prioritizer.run();
+
+        StringOutputWriter outputWriter = new StringOutputWriter();
+        GenePrioritizedOutputFormatWriterFactory.SIMPLE.create(outputWriter, geneDiseaseCollection, prioritizer).run();
+        return outputWriter.getOutput();
+    }
+}
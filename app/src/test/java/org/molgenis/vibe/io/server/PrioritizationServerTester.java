@@ -0,0 +1,145 @@
+package org.molgenis.vibe.io.server;
+
+import org.apache.commons.io.IOUtils;
+import org.molgenis.vibe.exceptions.InvalidStringFormatException;
+import org.molgenis.vibe.formats.Phenotype;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class PrioritizationServerTester {
+    private PrioritizationServer server;
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        // Writes the ordered ids of the requested phenotypes as output.
+        server = new PrioritizationServer(0, (phenotypes, outputWriter) -> {
+            Set<String> ids = new TreeSet<>();
+            phenotypes.forEach(phenotype -> ids.add(phenotype.getId()));
+            outputWriter.write(String.join(",", ids));
+        }, message -> {});
+        server.start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() {
+        server.stop();
+    }
+
+    @Test
+    public void parseSinglePhenotype() throws IOException {
+        Set<Phenotype> expected = new HashSet<>();
+        expected.add(new Phenotype("hp:0000001"));
+
+        Assert.assertEquals(PrioritizationServer.parsePhenotypes("p=HP%3A0000001"), expected);
+    }
+
+    @Test
+    public void parseMultiplePhenotypes() throws IOException {
+        Set<Phenotype> expected = new HashSet<>();
+        expected.add(new Phenotype("hp:0000001"));
+        expected.add(new Phenotype("hp:0000002"));
+        expected.add(new Phenotype("hp:0000003"));
+
+        Assert.assertEquals(PrioritizationServer.parsePhenotypes("p=HP:0000001&x=1&p=HP:0000002,HP:0000003"), expected);
+    }
+
+    @Test
+    public void parseWithoutQuery() throws IOException {
+        Assert.assertEquals(PrioritizationServer.parsePhenotypes(null), new HashSet<>());
+    }
+
+    @Test(expectedExceptions = InvalidStringFormatException.class)
+    public void parseInvalidPhenotype() throws IOException {
+        PrioritizationServer.parsePhenotypes("p=HP:123");
+    }
+
+    @Test
+    public void validRequest() throws IOException {
+        HttpURLConnection connection = request("?p=HP:0000002&p=HP:0000001");
+
+        Assert.assertEquals(connection.getResponseCode(), HttpURLConnection.HTTP_OK);
+        Assert.assertNotNull(connection.getHeaderField(PrioritizationServer.ELAPSED_TIME_HEADER));
+        Assert.assertEquals(readResponse(connection.getInputStream()), "0000001,0000002");
+    }
+
+    @Test
+    public void requestWithoutPhenotypes() throws IOException {
+        Assert.assertEquals(request("").getResponseCode(), HttpURLConnection.HTTP_BAD_REQUEST);
+    }
+
+    @Test
+    public void requestWithInvalidPhenotype() throws IOException {
+        Assert.assertEquals(request("?p=HP:123").getResponseCode(), HttpURLConnection.HTTP_BAD_REQUEST);
+    }
+
+    @Test(timeOut = 10000)
+    public void simultaneousRequests() throws Exception {
+        // Each request only finishes after both requests have started processing.
+        CountDownLatch started = new CountDownLatch(2);
+        PrioritizationServer concurrentServer = new PrioritizationServer(0, 2, (phenotypes, outputWriter) -> {
+            started.countDown();
+            try {
+                if(!started.await(5, TimeUnit.SECONDS)) {
+                    throw new IOException("Requests were not processed simultaneously.");
+                }
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        }, message -> {});
+        concurrentServer.start();
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = clients.submit(() -> request(concurrentServer, "?p=HP:0000001").getResponseCode());
+            Future<Integer> second = clients.submit(() -> request(concurrentServer, "?p=HP:0000002").getResponseCode());
+
+            Assert.assertEquals(first.get().intValue(), HttpURLConnection.HTTP_OK);
+            Assert.assertEquals(second.get().intValue(), HttpURLConnection.HTTP_OK);
+        } finally {
+            clients.shutdownNow();
+            concurrentServer.stop();
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void awaitStopReturnsAfterStop() throws Exception {
+        PrioritizationServer stoppedServer = new PrioritizationServer(0, (phenotypes, outputWriter) -> {}, message -> {});
+        stoppedServer.start();
+        stoppedServer.stop();
+        stoppedServer.awaitStop();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidThreads() throws IOException {
+        new PrioritizationServer(0, 0, (phenotypes, outputWriter) -> {}, message -> {});
+    }
+
+    private HttpURLConnection request(String query) throws IOException {
+        return request(server, query);
+    }
+
+    private HttpURLConnection request(PrioritizationServer server, String query) throws IOException {
+        return (HttpURLConnection) new URL(server.getUrl() + query).openConnection();
+    }
+
+    private String readResponse(InputStream inputStream) throws IOException {
+        try (InputStream stream = inputStream) {
+            return IOUtils.toString(stream, StandardCharsets.UTF_8);
+        }
+    }
+}
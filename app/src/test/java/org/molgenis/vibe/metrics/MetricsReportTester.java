@@ -0,0 +1,43 @@
+package org.molgenis.vibe.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class MetricsReportTester {
+    @Test
+    public void writeReport() throws IOException {
+        MetricsReport report = new MetricsReport();
+        report.forSample("").record(Stage.DATASET_LOAD, 1_500_000, StageRecorder.NOT_APPLICABLE, StageRecorder.NOT_APPLICABLE);
+        report.forSample("").record(Stage.DATASET_HEAP, 3_000_000, 52_428_800, 100_000);
+        report.forSample("sample,1").record(Stage.GDA_QUERY, 2_000, 10, 4);
+
+        List<String> lines = writeAndRead(report);
+        Assert.assertEquals(lines.size(), 4);
+        Assert.assertEquals(lines.get(0), "sample,stage,duration_ms,rows,entities,heap_used_bytes");
+        Assert.assertTrue(lines.get(1).startsWith(",dataset_load,1.500,,,"), lines.get(1));
+        Assert.assertTrue(lines.get(2).startsWith(",dataset_heap,3.000,52428800,100000,"), lines.get(2));
+        Assert.assertTrue(lines.get(3).startsWith("\"sample,1\",gda_query,0.002,10,4,"), lines.get(3));
+    }
+
+    @Test
+    public void writeEmptyReport() throws IOException {
+        List<String> lines = writeAndRead(new MetricsReport());
+        Assert.assertEquals(lines.size(), 1);
+    }
+
+    private List<String> writeAndRead(MetricsReport report) throws IOException {
+        Path file = Files.createTempFile("vibe_metrics", ".csv");
+        try {
+            report.write(file);
+            return Files.readAllLines(file, StandardCharsets.UTF_8);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
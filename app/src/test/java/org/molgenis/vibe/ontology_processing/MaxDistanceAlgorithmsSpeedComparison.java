@@ -18,6 +18,7 @@ public class MaxDistanceAlgorithmsSpeedComparison {
 //    private static final String SYS_OUT_FORMAT = "%s & %s & %s & %s & %s%n";
     private static final int SPACER_REPEAT = 56;
     private OntModel model;
+    private PhenotypeGraph graph;
     private static final int TEST_REPEATS = 3;
 
     private static final Set<Phenotype> startPhenotypes1 = new HashSet<>(Arrays.asList(
@@ -28,10 +29,24 @@ public class MaxDistanceAlgorithmsSpeedComparison {
             new Phenotype("hp:0000001")
     ));
 
+    /**
+     * Closely related phenotypes (abnormalities of the skeletal system).
+     */
+    private static final Set<Phenotype> startPhenotypes3 = new HashSet<>(Arrays.asList(
+            new Phenotype("hp:0000924"), new Phenotype("hp:0011842"), new Phenotype("hp:0000944"),
+            new Phenotype("hp:0002652"), new Phenotype("hp:0002813"), new Phenotype("hp:0040068"),
+            new Phenotype("hp:0002817"), new Phenotype("hp:0002814"), new Phenotype("hp:0006496"),
+            new Phenotype("hp:0001367"), new Phenotype("hp:0001376"), new Phenotype("hp:0002996"),
+            new Phenotype("hp:0001377"), new Phenotype("hp:0003019"), new Phenotype("hp:0009811"),
+            new Phenotype("hp:0006251"), new Phenotype("hp:0001382"), new Phenotype("hp:0000940"),
+            new Phenotype("hp:0002650"), new Phenotype("hp:0000925")
+    ));
+
     @BeforeClass(groups = {"benchmarking"})
     public void beforeClass() {
         OntologyModelFilesReader reader = new OntologyModelFilesReader(TestData.ONTOLOGY_FILE.getFiles()[0]);
         model = reader.getModel();
+        graph = reader.getPhenotypeGraph();
     }
 
     @Test(groups = {"benchmarking"})
@@ -70,6 +85,37 @@ public class MaxDistanceAlgorithmsSpeedComparison {
         printFooter();
     }
 
+    @Test(groups = {"benchmarking"})
+    public void benchmarkMaxDistanceGraph() {
+        printHeader();
+        for(int i : new int[]{0,2,5,8,9,10,20,50}) {
+            printResults(i, runRetriever(new MaxDistanceGraphRetriever(graph, startPhenotypes1, i)));
+        }
+        printFooter();
+    }
+
+    @Test(groups = {"benchmarking"})
+    public void benchmarkChildrenGraphFromRoot() {
+        printHeader();
+        for(int i : new int[]{0,2,5,10,20,50}) {
+            printResults(i, runRetriever(new ChildrenGraphRetriever(graph, startPhenotypes2, i)));
+        }
+        printFooter();
+    }
+
+    /**
+     * Compares traversing each input phenotype separately with traversing all input phenotypes simultaneously.
+     */
+    @Test(groups = {"benchmarking"})
+    public void benchmarkGraphSingleVersusMultiSource() {
+        printHeader();
+        for(int i : new int[]{0,2,5,8,10,20}) {
+            printResults(i, runRetriever(new MaxDistanceGraphRetriever(graph, startPhenotypes3, i, false)));
+            printResults(i, runRetriever(new MaxDistanceGraphRetriever(graph, startPhenotypes3, i, true)));
+        }
+        printFooter();
+    }
+
     private BenchmarkOutput runRetriever(PhenotypesRetriever retriever) {
         String[] times = new String[TEST_REPEATS];
         for(int i = 0; i<TEST_REPEATS;i++) {
@@ -0,0 +1,135 @@
+package org.molgenis.vibe.ontology_processing;
+
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.formats.PhenotypeNetwork;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+/**
+ * Compares the output of the {@link PhenotypeGraphRetriever}{@code s} with the {@link PhenotypesRetriever}{@code s}
+ * that use an {@link OntModel}. The ontology is a randomly generated (but fixed due to the used seed) hierarchy where
+ * terms can have multiple parents.
+ */
+public class PhenotypeGraphRetrieverTester {
+    private static final int TERMS = 300;
+    private static final long SEED = 42;
+
+    private OntModel model;
+    private PhenotypeGraph graph;
+    private List<Phenotype> inputPhenotypes;
+
+    @BeforeClass
+    public void beforeClass() {
+        Random random = new Random(SEED);
+        model = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM);
+        Resource[] terms = new Resource[TERMS];
+        for(int i = 0; i < TERMS; i++) {
+            terms[i] = model.createResource(String.format("http://purl.obolibrary.org/obo/HP_%07d", i + 1));
+            model.add(terms[i], RDF.type, OWL.Class);
+            // Each term (except the root) has 1 to 3 parents among the previously created terms.
+            if(i > 0) {
+                int parents = 1 + random.nextInt(3);
+                for(int j = 0; j < parents; j++) {
+                    model.add(terms[i], RDFS.subClassOf, terms[random.nextInt(i)]);
+                }
+            }
+        }
+        graph = PhenotypeGraph.create(model);
+
+        inputPhenotypes = Arrays.asList(new Phenotype("hp:0000001"), new Phenotype("hp:0000005"),
+                new Phenotype("hp:0000150"), new Phenotype("hp:0000300"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() {
+        model.close();
+    }
+
+    @Test
+    public void childrenRetrieverEqualsOriginal() {
+        for(int distance = 0; distance <= 6; distance++) {
+            assertEqualOutput(new ChildrenRetriever(model, inputPhenotypes, distance),
+                    new ChildrenGraphRetriever(graph, inputPhenotypes, distance));
+        }
+    }
+
+    @Test
+    public void maxDistanceRetrieverEqualsOriginal() {
+        for(int distance = 0; distance <= 6; distance++) {
+            assertEqualOutput(new MaxDistanceRetriever2(model, inputPhenotypes, distance),
+                    new MaxDistanceGraphRetriever(graph, inputPhenotypes, distance));
+        }
+    }
+
+    @Test
+    public void singleSourceChildrenRetrieverEqualsOriginal() {
+        for(int distance = 0; distance <= 6; distance++) {
+            assertEqualOutput(new ChildrenRetriever(model, inputPhenotypes, distance),
+                    new ChildrenGraphRetriever(graph, inputPhenotypes, distance, false));
+        }
+    }
+
+    @Test
+    public void singleSourceMaxDistanceRetrieverEqualsOriginal() {
+        for(int distance = 0; distance <= 6; distance++) {
+            assertEqualOutput(new MaxDistanceRetriever2(model, inputPhenotypes, distance),
+                    new MaxDistanceGraphRetriever(graph, inputPhenotypes, distance, false));
+        }
+    }
+
+    /**
+     * Uses more input phenotypes than can be traversed simultaneously.
+     */
+    @Test
+    public void multiSourceWithMultipleTraversals() {
+        List<Phenotype> phenotypes = new ArrayList<>();
+        for(int i = 1; i <= TERMS; i += 2) {
+            phenotypes.add(new Phenotype(String.format("hp:%07d", i)));
+        }
+        Assert.assertTrue(phenotypes.size() > PhenotypeGraphRetriever.SOURCES_PER_TRAVERSAL * 2);
+
+        PhenotypesRetriever singleSource = new MaxDistanceGraphRetriever(graph, phenotypes, 3, false);
+        PhenotypesRetriever multiSource = new MaxDistanceGraphRetriever(graph, phenotypes, 3, true);
+        assertEqualOutput(singleSource, multiSource);
+
+        // Running again should give the same output (traversal data is re-used).
+        multiSource.getPhenotypeNetworkCollection().clear();
+        multiSource.run();
+        Assert.assertEquals(multiSource.getPhenotypeNetworkCollection(), singleSource.getPhenotypeNetworkCollection());
+    }
+
+    @Test
+    public void factoryCreatesGraphRetrievers() {
+        for(PhenotypesRetrieverFactory factory : PhenotypesRetrieverFactory.values()) {
+            assertEqualOutput(factory.create(model, inputPhenotypes, 3), factory.create(graph, inputPhenotypes, 3));
+        }
+    }
+
+    @Test
+    public void retrieveUnknownPhenotype() {
+        Phenotype phenotype = new Phenotype("hp:0001000");
+        PhenotypesRetriever retriever = new MaxDistanceGraphRetriever(graph, Collections.singletonList(phenotype), 2);
+        retriever.run();
+
+        Assert.assertEquals(retriever.getPhenotypeNetworkCollection().getPhenotypeNetworkBySource(phenotype),
+                new PhenotypeNetwork(phenotype));
+        Assert.assertEquals(retriever.getPhenotypeNetworkCollection().getPhenotypes(), Collections.singleton(phenotype));
+    }
+
+    private void assertEqualOutput(PhenotypesRetriever expected, PhenotypesRetriever actual) {
+        expected.run();
+        actual.run();
+        Assert.assertEquals(actual.getPhenotypeNetworkCollection(), expected.getPhenotypeNetworkCollection());
+    }
+}
@@ -46,4 +46,72 @@ public class HighestSingleDisgenetScoreGenePrioritizerTester {
         prioritizer.run();
         Assert.assertEquals(prioritizer.getPriority(), expectedPriority);
     }
+
+    @Test
+    public void testTopGenes() {
+        Gene[] genes = new Gene[]{
+                new Gene("ncbigene:1", new GeneSymbol("hgnc:A")),
+                new Gene("ncbigene:2", new GeneSymbol("hgnc:B")),
+                new Gene("ncbigene:3", new GeneSymbol("hgnc:C"))
+        };
+
+        Set<GeneDiseaseCombination> geneDiseaseCombinations = new HashSet<>( Arrays.asList(
+                new GeneDiseaseCombination(genes[0], new Disease("umls:C1"), 0.4),
+                new GeneDiseaseCombination(genes[1], new Disease("umls:C2"), 0.6),
+                new GeneDiseaseCombination(genes[2], new Disease("umls:C3"), 0.5)
+        ));
+
+        GenePrioritizer prioritizer = new HighestSingleDisgenetScoreGenePrioritizer(new GeneDiseaseCollection(geneDiseaseCombinations), 2);
+        prioritizer.run();
+        Assert.assertEquals(prioritizer.getPriority(), Arrays.asList(genes[1], genes[2]));
+    }
+
+    @Test
+    public void testTopGenesAboveGenesCount() {
+        Gene gene = new Gene("ncbigene:1", new GeneSymbol("hgnc:A"));
+        GeneDiseaseCollection collection = new GeneDiseaseCollection(Collections.singleton(
+                new GeneDiseaseCombination(gene, new Disease("umls:C1"), 0.4)));
+
+        GenePrioritizer prioritizer = new HighestSingleDisgenetScoreGenePrioritizer(collection, 10);
+        prioritizer.run();
+        Assert.assertEquals(prioritizer.getPriority(), Collections.singletonList(gene));
+    }
+
+    @Test
+    public void testTopGenesWithoutGenes() {
+        GenePrioritizer prioritizer = new HighestSingleDisgenetScoreGenePrioritizer(new GeneDiseaseCollection(), 10);
+        prioritizer.run();
+        Assert.assertEquals(prioritizer.getPriority(), Collections.emptyList());
+    }
+
+    /**
+     * The top genes should be the same as the start of the full priority order, including the order of genes with the
+     * same score.
+     */
+    @Test
+    public void testTopGenesSameAsFullOrder() {
+        Random random = new Random(1);
+        GeneDiseaseCollection collection = new GeneDiseaseCollection();
+        for(int i = 0; i < 500; i++) {
+            Gene gene = new Gene("ncbigene:" + i, new GeneSymbol("hgnc:G" + i));
+            for(int j = random.nextInt(3); j >= 0; j--) {
+                collection.add(new GeneDiseaseCombination(gene, new Disease("umls:C" + random.nextInt(1000)),
+                        random.nextInt(20) / 20.0));
+            }
+        }
+
+        GenePrioritizer fullPrioritizer = new HighestSingleDisgenetScoreGenePrioritizer(collection);
+        fullPrioritizer.run();
+        Assert.assertEquals(fullPrioritizer.getPriority().size(), 500);
+        for(int maxGenes : new int[]{1, 50, 499, 500}) {
+            GenePrioritizer prioritizer = new HighestSingleDisgenetScoreGenePrioritizer(collection, maxGenes);
+            prioritizer.run();
+            Assert.assertEquals(prioritizer.getPriority(), fullPrioritizer.getPriority().subList(0, maxGenes));
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidMaxGenes() {
+        new HighestSingleDisgenetScoreGenePrioritizer(new GeneDiseaseCollection(), 0);
+    }
 }
@@ -0,0 +1,142 @@
+package org.molgenis.vibe.tdb_processing;
+
+import org.molgenis.vibe.TestModelReader;
+import org.molgenis.vibe.formats.*;
+import org.molgenis.vibe.io.input.ModelReader;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Tests the processing of the query results by the {@link GenesForPhenotypeRetriever} using a small in-memory model
+ * (unlike {@link GenesForPhenotypeRetrieverTester}, which requires the full DisGeNET TDB).
+ */
+public class GenesForPhenotypeRetrieverModelTester {
+    private static final String PREFIXES = "@prefix rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> .\n" +
+            "@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .\n" +
+            "@prefix xsd: <http://www.w3.org/2001/XMLSchema#> .\n" +
+            "@prefix skos: <http://www.w3.org/2004/02/skos/core#> .\n" +
+            "@prefix dcterms: <http://purl.org/dc/terms/> .\n" +
+            "@prefix dcat: <http://www.w3.org/ns/dcat#> .\n" +
+            "@prefix dctypes: <http://purl.org/dc/dcmitype/> .\n" +
+            "@prefix wi: <http://purl.org/ontology/wi/core#> .\n" +
+            "@prefix sio: <http://semanticscience.org/resource/> .\n" +
+            "@prefix obo: <http://purl.obolibrary.org/obo/> .\n" +
+            "@prefix umls: <http://linkedlifedata.com/resource/umls/id/> .\n" +
+            "@prefix ncbigene: <http://identifiers.org/ncbigene/> .\n" +
+            "@prefix hgnc: <http://identifiers.org/hgnc.symbol/> .\n" +
+            "@prefix pubmed: <http://identifiers.org/pubmed/> .\n" +
+            "@prefix pda: <http://rdf.disgenet.org/resource/pda/> .\n" +
+            "@prefix gda: <http://rdf.disgenet.org/resource/gda/> .\n" +
+            "@prefix ordo: <http://www.orpha.net/ORDO/> .\n" +
+            "@prefix void: <http://rdf.disgenet.org/v6.0.0/void/> .\n";
+
+    /**
+     * Disease C0000002 is linked to HP_0000001 through 2 routes, so each of its gene-disease associations is returned
+     * twice for HP_0000001. Disease C0000003 is only linked to HP_0000002. Evidence pubmed:1 is shared by 2
+     * associations.
+     */
+    private static final String DATA = "void:CTD rdf:type dctypes:Dataset , dcat:Distribution ; " +
+            "wi:evidence void:source_evidence_curated ; dcterms:title \"CTD human\" .\n" +
+            "void:BEFREE rdf:type dctypes:Dataset , dcat:Distribution ; " +
+            "wi:evidence void:source_evidence_literature ; dcterms:title \"BeFree data\" .\n" +
+            "obo:HP_0000001 skos:exactMatch umls:C0000001 ; sio:SIO_000212 pda:P1 ; sio:SIO_000001 ordo:Orphanet_1 .\n" +
+            "obo:HP_0000002 skos:exactMatch umls:C0000003 .\n" +
+            "pda:P1 sio:SIO_000628 umls:C0000002 .\n" +
+            "ordo:Orphanet_1 skos:exactMatch umls:C0000002 .\n" +
+            "umls:C0000001 sio:SIO_000212 gda:G1 , gda:G5 .\n" +
+            "umls:C0000002 sio:SIO_000212 gda:G2 , gda:G3 .\n" +
+            "umls:C0000003 sio:SIO_000212 gda:G4 .\n" +
+            "gda:G1 rdf:type sio:SIO_000983 ; sio:SIO_000628 ncbigene:1 ; sio:SIO_000216 \"0.5\"^^xsd:double ; " +
+            "sio:SIO_000253 void:CTD ; sio:SIO_000772 pubmed:1 , pubmed:2 .\n" +
+            "gda:G2 rdf:type sio:SIO_000983 ; sio:SIO_000628 ncbigene:1 ; sio:SIO_000216 \"0.3\"^^xsd:double ; " +
+            "sio:SIO_000253 void:BEFREE ; sio:SIO_000772 pubmed:3 .\n" +
+            "gda:G3 rdf:type sio:SIO_000983 ; sio:SIO_000628 ncbigene:2 ; sio:SIO_000216 \"0.4\"^^xsd:double ; " +
+            "sio:SIO_000253 void:CTD .\n" +
+            "gda:G4 rdf:type sio:SIO_000983 ; sio:SIO_000628 ncbigene:2 ; sio:SIO_000216 \"0.2\"^^xsd:double ; " +
+            "sio:SIO_000253 void:CTD ; sio:SIO_000772 pubmed:4 .\n" +
+            "gda:G5 rdf:type sio:SIO_000983 ; sio:SIO_000628 ncbigene:2 ; sio:SIO_000216 \"0.1\"^^xsd:double ; " +
+            "sio:SIO_000253 void:BEFREE ; sio:SIO_000772 pubmed:1 .\n" +
+            "ncbigene:1 sio:SIO_000205 hgnc:A .\n" +
+            "ncbigene:2 sio:SIO_000205 hgnc:B .\n";
+
+    private static final Set<Phenotype> PHENOTYPES = new HashSet<>(Arrays.asList(new Phenotype("hp:0000001"),
+            new Phenotype("hp:0000002")));
+
+    @Test
+    public void sourceCountsAndEvidence() {
+        // Each source counts every query result, so repeated results (C0000002 through 2 routes) are counted twice.
+        List<String> expected = Arrays.asList(
+                "1 C0000001 0.5 CTD human=2 [1, 2]",
+                "1 C0000002 0.3 BeFree data=2 [3, 3]",
+                "2 C0000001 0.1 BeFree data=1 [1]",
+                "2 C0000002 0.4 CTD human=2 []",
+                "2 C0000003 0.2 CTD human=1 [4]"
+        );
+
+        Assert.assertEquals(format(retrieve()), expected);
+    }
+
+    @Test
+    public void entitiesAreReused() {
+        GeneDiseaseCollection collection = retrieve();
+        Gene gene1 = new Gene("ncbigene:1", new GeneSymbol("hgnc:A"));
+        Gene gene2 = new Gene("ncbigene:2", new GeneSymbol("hgnc:B"));
+        Disease disease1 = new Disease("umls:C0000001");
+        Disease disease2 = new Disease("umls:C0000002");
+
+        // The gene of every combination is the same instance as the one stored for that gene.
+        Map<Gene, Gene> genes = new HashMap<>();
+        Map<Disease, Disease> diseases = new HashMap<>();
+        for(GeneDiseaseCombination gdc : collection) {
+            Assert.assertSame(genes.computeIfAbsent(gdc.getGene(), k -> gdc.getGene()), gdc.getGene());
+            Assert.assertSame(diseases.computeIfAbsent(gdc.getDisease(), k -> gdc.getDisease()), gdc.getDisease());
+        }
+        Assert.assertEquals(genes.keySet(), new HashSet<>(Arrays.asList(gene1, gene2)));
+        Assert.assertEquals(diseases.size(), 3);
+
+        Assert.assertSame(collection.get(new GeneDiseaseCombination(gene1, disease1)).getGene(),
+                collection.get(new GeneDiseaseCombination(gene1, disease2)).getGene());
+        Assert.assertSame(collection.get(new GeneDiseaseCombination(gene1, disease1)).getDisease(),
+                collection.get(new GeneDiseaseCombination(gene2, disease1)).getDisease());
+        Assert.assertEquals(collection.get(new GeneDiseaseCombination(gene1, disease1)).getGene().getSymbol(),
+                new GeneSymbol("hgnc:A"));
+    }
+
+    private GeneDiseaseCollection retrieve() {
+        GenesForPhenotypeRetriever retriever = new GenesForPhenotypeRetriever(createModelReader(), PHENOTYPES);
+        retriever.run();
+        return retriever.getGeneDiseaseCollection();
+    }
+
+    private ModelReader createModelReader() {
+        return TestModelReader.fromTurtle(PREFIXES + DATA);
+    }
+
+    /**
+     * @return a sorted {@link String} per combination containing the gene id, disease id, score and per source its
+     * count and (sorted) evidence
+     */
+    private List<String> format(GeneDiseaseCollection collection) {
+        List<String> combinations = new ArrayList<>();
+        for(GeneDiseaseCombination gdc : collection) {
+            StringBuilder combination = new StringBuilder(gdc.getGene().getId() + " " + gdc.getDisease().getId() + " " +
+                    gdc.getDisgenetScore());
+            for(Source source : gdc.getSourcesWithCount()) {
+                List<String> evidence = new ArrayList<>();
+                List<URI> sourceEvidence = gdc.getEvidenceForSource(source);
+                if(sourceEvidence != null) {
+                    sourceEvidence.forEach(uri -> evidence.add(uri.toString().substring(uri.toString().lastIndexOf('/') + 1)));
+                }
+                Collections.sort(evidence);
+                combination.append(" ").append(source.getFullName()).append("=")
+                        .append(gdc.getCountForSource(source)).append(" ").append(evidence);
+            }
+            combinations.add(combination.toString());
+        }
+        Collections.sort(combinations);
+        return combinations;
+    }
+}
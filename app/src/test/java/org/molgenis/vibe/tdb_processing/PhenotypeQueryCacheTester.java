@@ -0,0 +1,94 @@
+package org.molgenis.vibe.tdb_processing;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.molgenis.vibe.formats.Phenotype;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class PhenotypeQueryCacheTester {
+    private static final Phenotype PHENOTYPE_1 = new Phenotype("hp:0000001");
+    private static final Phenotype PHENOTYPE_2 = new Phenotype("hp:0000002");
+    private static final Phenotype PHENOTYPE_3 = new Phenotype("hp:0000003");
+
+    @Test
+    public void countHitsAndMisses() {
+        PhenotypeQueryCache cache = new PhenotypeQueryCache(10);
+        List<PhenotypeQueryCache.Row> rows = createRows(2);
+
+        Assert.assertNull(cache.get(PHENOTYPE_1));
+        cache.put(PHENOTYPE_1, rows);
+        Assert.assertEquals(cache.get(PHENOTYPE_1), rows);
+        Assert.assertEquals(cache.get(PHENOTYPE_1), rows);
+
+        Assert.assertEquals(cache.getHits(), 2);
+        Assert.assertEquals(cache.getMisses(), 1);
+        Assert.assertEquals(cache.getRowsCount(), 2);
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        PhenotypeQueryCache cache = new PhenotypeQueryCache(5);
+        cache.put(PHENOTYPE_1, createRows(2));
+        cache.put(PHENOTYPE_2, createRows(2));
+        cache.get(PHENOTYPE_1); // PHENOTYPE_2 is now the least recently used.
+        cache.put(PHENOTYPE_3, createRows(2));
+
+        Assert.assertNotNull(cache.get(PHENOTYPE_1));
+        Assert.assertNull(cache.get(PHENOTYPE_2));
+        Assert.assertNotNull(cache.get(PHENOTYPE_3));
+        Assert.assertEquals(cache.getEvictions(), 1);
+        Assert.assertEquals(cache.getRowsCount(), 4);
+    }
+
+    @Test
+    public void storePhenotypeWithoutRows() {
+        PhenotypeQueryCache cache = new PhenotypeQueryCache(5);
+        cache.put(PHENOTYPE_1, Collections.emptyList());
+
+        Assert.assertEquals(cache.get(PHENOTYPE_1), Collections.emptyList());
+        Assert.assertEquals(cache.getRowsCount(), 1);
+    }
+
+    @Test
+    public void skipTooManyRows() {
+        PhenotypeQueryCache cache = new PhenotypeQueryCache(5);
+        cache.put(PHENOTYPE_1, createRows(2));
+        cache.put(PHENOTYPE_2, createRows(6));
+
+        Assert.assertNotNull(cache.get(PHENOTYPE_1));
+        Assert.assertNull(cache.get(PHENOTYPE_2));
+        Assert.assertEquals(cache.getEvictions(), 0);
+    }
+
+    @Test
+    public void replaceRows() {
+        PhenotypeQueryCache cache = new PhenotypeQueryCache(5);
+        cache.put(PHENOTYPE_1, createRows(2));
+        cache.put(PHENOTYPE_1, createRows(3));
+
+        Assert.assertEquals(cache.get(PHENOTYPE_1).size(), 3);
+        Assert.assertEquals(cache.getRowsCount(), 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidSize() {
+        new PhenotypeQueryCache(0);
+    }
+
+    private List<PhenotypeQueryCache.Row> createRows(int size) {
+        List<PhenotypeQueryCache.Row> rows = new ArrayList<>();
+        for(int i = 0; i < size; i++) {
+            Node gene = NodeFactory.createURI("http://identifiers.org/ncbigene/" + i);
+            rows.add(new PhenotypeQueryCache.Row(NodeFactory.createURI("http://linkedlifedata.com/resource/umls/id/C0000001"),
+                    gene, NodeFactory.createURI("http://identifiers.org/hgnc.symbol/GENE" + i),
+                    NodeFactory.createLiteralByValue(0.5, null), NodeFactory.createURI("http://rdf.disgenet.org/v6.0.0/void/CTD"),
+                    null));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,86 @@
+package org.molgenis.vibe.tdb_processing;
+
+import org.apache.jena.rdf.model.ModelFactory;
+import org.molgenis.vibe.TestModelReader;
+import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.io.input.ModelReader;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class PhenotypeQueryPlannerTester {
+    private Set<Phenotype> phenotypes = new LinkedHashSet<>();
+    private PhenotypeQueryPlanner planner;
+    private ModelReader modelReader;
+
+    @BeforeClass
+    public void beforeClass() {
+        for(int i = 1; i <= 7; i++) {
+            phenotypes.add(new Phenotype(String.format("hp:%07d", i)));
+        }
+        planner = new PhenotypeQueryPlanner(3, 2);
+
+        modelReader = new TestModelReader(ModelFactory.createDefaultModel());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() {
+        planner.close();
+        modelReader.close();
+    }
+
+    @Test
+    public void createChunks() {
+        List<Set<Phenotype>> chunks = planner.createChunks(phenotypes);
+
+        Assert.assertEquals(chunks.stream().map(Set::size).collect(Collectors.toList()), Arrays.asList(3, 3, 1));
+        Assert.assertEquals(chunks.stream().flatMap(Set::stream).collect(Collectors.toList()), new ArrayList<>(phenotypes));
+    }
+
+    @Test
+    public void isSplit() {
+        Assert.assertTrue(planner.isSplit(phenotypes));
+        Assert.assertFalse(planner.isSplit(new HashSet<>(new ArrayList<>(phenotypes).subList(0, 3))));
+    }
+
+    @Test
+    public void executeKeepsChunkOrder() {
+        List<Set<Phenotype>> output = planner.execute(modelReader, phenotypes, chunk -> {
+            // Finishes the first chunk last.
+            if(chunk.contains(new Phenotype("hp:0000001"))) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return chunk;
+        });
+
+        Assert.assertEquals(output, planner.createChunks(phenotypes));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = "failed chunk")
+    public void executeWithFailingChunk() {
+        planner.execute(modelReader, phenotypes, chunk -> {
+            if(chunk.size() == 1) {
+                throw new IllegalStateException("failed chunk");
+            }
+            return chunk;
+        });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidChunkSize() {
+        new PhenotypeQueryPlanner(0, 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidThreads() {
+        new PhenotypeQueryPlanner(1, 0);
+    }
+}
@@ -0,0 +1,51 @@
+package org.molgenis.vibe.tdb_processing;
+
+import org.molgenis.vibe.formats.Source;
+import org.molgenis.vibe.tdb_processing.query_string_creation.GdaQueryOptions;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.EnumSet;
+
+public class RetrievalSettingsTester {
+    @Test
+    public void defaultSettings() {
+        Assert.assertNull(RetrievalSettings.DEFAULT.getCache());
+        Assert.assertNull(RetrievalSettings.DEFAULT.getPlanner());
+        Assert.assertNull(RetrievalSettings.DEFAULT.getProfiler());
+        Assert.assertEquals(RetrievalSettings.DEFAULT.getOptions(), GdaQueryOptions.ALL);
+    }
+
+    @Test
+    public void builderKeepsUnsetDefaults() {
+        PhenotypeQueryCache cache = new PhenotypeQueryCache(10);
+        RetrievalSettings settings = RetrievalSettings.builder().cache(cache).build();
+
+        Assert.assertSame(settings.getCache(), cache);
+        Assert.assertNull(settings.getPlanner());
+        Assert.assertNull(settings.getProfiler());
+        Assert.assertEquals(settings.getOptions(), GdaQueryOptions.ALL);
+    }
+
+    @Test
+    public void builderSetsAll() {
+        PhenotypeQueryCache cache = new PhenotypeQueryCache(10);
+        PhenotypeQueryPlanner planner = new PhenotypeQueryPlanner(5, 1);
+        GdaQueryOptions options = new GdaQueryOptions(0.5, EnumSet.of(Source.Level.CURATED), false);
+        try {
+            RetrievalSettings settings = RetrievalSettings.builder().cache(cache).planner(planner).options(options)
+                    .build();
+
+            Assert.assertSame(settings.getCache(), cache);
+            Assert.assertSame(settings.getPlanner(), planner);
+            Assert.assertEquals(settings.getOptions(), options);
+        } finally {
+            planner.close();
+        }
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void builderWithoutOptions() {
+        RetrievalSettings.builder().options(null);
+    }
+}
@@ -0,0 +1,103 @@
+package org.molgenis.vibe.tdb_processing;
+
+import org.molgenis.vibe.formats.Source;
+import org.molgenis.vibe.io.input.DatasetVersion;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Tests the sidecar file of the {@link SourceRegistry} using a directory with some files as TDB (the TDB content itself
+ * is not read for the sidecar) and a separate directory to store the sidecar in.
+ */
+public class SourceRegistryTester {
+    private Path tdb;
+    private Path sidecarDirectory;
+    private Path sidecar;
+    private Map<URI, Source> sources = new HashMap<>();
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        tdb = Files.createTempDirectory("vibe_tdb");
+        Files.write(tdb.resolve("nodes.dat"), Collections.singletonList("nodes"), StandardCharsets.UTF_8);
+        Files.write(tdb.resolve("SPO.dat"), Collections.singletonList("triples"), StandardCharsets.UTF_8);
+        sidecarDirectory = Files.createTempDirectory("vibe_sources");
+        sidecar = SourceRegistry.getSidecarFile(sidecarDirectory, tdb);
+
+        URI ctd = URI.create("http://rdf.disgenet.org/v6.0.0/void/CTD_human");
+        URI befree = URI.create("http://rdf.disgenet.org/v6.0.0/void/BEFREE");
+        sources.put(ctd, new Source(ctd, "CTD human", Source.Level.CURATED));
+        sources.put(befree, new Source(befree, "BeFree data", Source.Level.LITERATURE));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() throws IOException {
+        for(String file : new String[]{"nodes.dat", "SPO.dat"}) {
+            Files.deleteIfExists(tdb.resolve(file));
+        }
+        Files.delete(tdb);
+        Files.deleteIfExists(sidecar);
+        Files.delete(sidecarDirectory);
+    }
+
+    @Test
+    public void sidecarWithinDirectory() {
+        Assert.assertEquals(sidecar.getParent(), sidecarDirectory);
+        Assert.assertTrue(sidecar.getFileName().toString().startsWith(tdb.getFileName() + "-"));
+        Assert.assertTrue(sidecar.getFileName().toString().endsWith(SourceRegistry.SIDECAR_EXTENSION));
+    }
+
+    @Test
+    public void sidecarPerTdbLocation() {
+        Path otherTdb = tdb.resolveSibling("other").resolve(tdb.getFileName());
+        Assert.assertNotEquals(SourceRegistry.getSidecarFile(sidecarDirectory, otherTdb), sidecar);
+        Assert.assertEquals(SourceRegistry.getSidecarFile(sidecarDirectory, tdb.resolve("..").resolve(tdb.getFileName())),
+                sidecar);
+    }
+
+    @Test
+    public void writeAndReadSidecar() throws IOException {
+        String version = DatasetVersion.calculate(tdb);
+        SourceRegistry.writeSidecar(sidecar, version, sources);
+        Map<URI, Source> actual = SourceRegistry.readSidecar(sidecar, version);
+
+        Assert.assertEquals(actual, sources);
+        for(Source source : sources.values()) {
+            Assert.assertEquals(actual.get(source.getUri()).getFullName(), source.getFullName());
+            Assert.assertEquals(actual.get(source.getUri()).getLevel(), source.getLevel());
+        }
+    }
+
+    @Test
+    public void readSidecarFromOtherVersion() throws IOException {
+        SourceRegistry.writeSidecar(sidecar, DatasetVersion.calculate(tdb), sources);
+        Assert.assertNull(SourceRegistry.readSidecar(sidecar, "otherVersion"));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void readInvalidSidecar() throws IOException {
+        String version = DatasetVersion.calculate(tdb);
+        Files.write(sidecar, Arrays.asList(version, "UNKNOWN\thttp://example.com\tExample"), StandardCharsets.UTF_8);
+        SourceRegistry.readSidecar(sidecar, version);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void readIncompleteSidecar() throws IOException {
+        String version = DatasetVersion.calculate(tdb);
+        Files.write(sidecar, Arrays.asList(version, "CURATED\thttp://example.com"), StandardCharsets.UTF_8);
+        SourceRegistry.readSidecar(sidecar, version);
+    }
+
+    @Test
+    public void readNonExistingSidecar() throws IOException {
+        Assert.assertNull(SourceRegistry.readSidecar(tdb.resolve("nonExisting.sources"), "version"));
+    }
+}
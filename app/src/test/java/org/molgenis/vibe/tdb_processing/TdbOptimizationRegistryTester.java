@@ -0,0 +1,136 @@
+package org.molgenis.vibe.tdb_processing;
+
+import org.apache.jena.query.QuerySolution;
+import org.molgenis.vibe.TestModelReader;
+import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.io.input.ModelReader;
+import org.molgenis.vibe.tdb_processing.query_runner.QueryRunner;
+import org.molgenis.vibe.tdb_processing.query_string_creation.QueryString;
+import org.molgenis.vibe.tdb_processing.query_string_creation.QueryStringGenerator;
+import org.molgenis.vibe.tdb_processing.query_string_creation.TdbOptimization;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+/**
+ * Checks whether the {@link TdbOptimization}{@code s} (as added by {@code optimized_construct/gda_marker.rq} and
+ * {@code optimized_construct/phenotype_disease.rq}) are detected and whether querying through them gives the same
+ * results as querying without them.
+ */
+public class TdbOptimizationRegistryTester {
+    private static final String PREFIXES = "@prefix rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> .\n" +
+            "@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .\n" +
+            "@prefix xsd: <http://www.w3.org/2001/XMLSchema#> .\n" +
+            "@prefix skos: <http://www.w3.org/2004/02/skos/core#> .\n" +
+            "@prefix sio: <http://semanticscience.org/resource/> .\n" +
+            "@prefix obo: <http://purl.obolibrary.org/obo/> .\n" +
+            "@prefix umls: <http://linkedlifedata.com/resource/umls/id/> .\n" +
+            "@prefix ncbigene: <http://identifiers.org/ncbigene/> .\n" +
+            "@prefix hgnc: <http://identifiers.org/hgnc.symbol/> .\n" +
+            "@prefix pda: <http://rdf.disgenet.org/resource/pda/> .\n" +
+            "@prefix gda: <http://rdf.disgenet.org/resource/gda/> .\n" +
+            "@prefix ordo: <http://www.orpha.net/ORDO/> .\n" +
+            "@prefix void: <http://rdf.disgenet.org/v6.0.0/void/> .\n" +
+            "@prefix vibe: <https://molgenis.org/vibe/> .\n";
+
+    /**
+     * Disease C0000002 is linked to HP_0000001 through 2 routes.
+     */
+    private static final String DATA = "sio:SIO_001121 rdfs:subClassOf sio:SIO_000983 .\n" +
+            "obo:HP_0000001 skos:exactMatch umls:C0000001 ; sio:SIO_000212 pda:P1 ; sio:SIO_000001 ordo:Orphanet_1 .\n" +
+            "pda:P1 sio:SIO_000628 umls:C0000002 .\n" +
+            "ordo:Orphanet_1 skos:exactMatch umls:C0000002 .\n" +
+            "umls:C0000001 sio:SIO_000212 gda:G1 , gda:G3 .\n" +
+            "umls:C0000002 sio:SIO_000212 gda:G2 .\n" +
+            "gda:G1 rdf:type sio:SIO_000983 ; sio:SIO_000628 ncbigene:1 ; sio:SIO_000216 \"0.5\"^^xsd:double ; sio:SIO_000253 void:CTD .\n" +
+            "gda:G2 rdf:type sio:SIO_001121 ; sio:SIO_000628 ncbigene:2 ; sio:SIO_000216 \"0.3\"^^xsd:double ; sio:SIO_000253 void:CTD .\n" +
+            "gda:G3 rdf:type sio:SIO_000001 ; sio:SIO_000628 ncbigene:3 ; sio:SIO_000216 \"0.1\"^^xsd:double ; sio:SIO_000253 void:CTD .\n" +
+            "ncbigene:1 sio:SIO_000205 hgnc:A .\n" +
+            "ncbigene:2 sio:SIO_000205 hgnc:B .\n" +
+            "ncbigene:3 sio:SIO_000205 hgnc:C .\n";
+
+    private static final String GDA_MARKERS = "gda:G1 rdf:type vibe:GeneDiseaseAssociation .\n" +
+            "gda:G2 rdf:type vibe:GeneDiseaseAssociation .\n";
+
+    private static final String DISEASE_LINKS = "obo:HP_0000001 vibe:diseaseLink [ vibe:disease umls:C0000001 ] , " +
+            "[ vibe:disease umls:C0000002 ] , [ vibe:disease umls:C0000002 ] .\n";
+
+    private static final Set<Phenotype> PHENOTYPES = Collections.singleton(new Phenotype("hp:0000001"));
+
+    @Test
+    public void noOptimizations() {
+        Assert.assertEquals(TdbOptimizationRegistry.getOptimizations(createModelReader(DATA)),
+                EnumSet.noneOf(TdbOptimization.class));
+    }
+
+    @Test
+    public void allOptimizations() {
+        Assert.assertEquals(TdbOptimizationRegistry.getOptimizations(createModelReader(DATA + GDA_MARKERS + DISEASE_LINKS)),
+                EnumSet.allOf(TdbOptimization.class));
+    }
+
+    @Test
+    public void gdaMarkerOnly() {
+        Assert.assertEquals(TdbOptimizationRegistry.getOptimizations(createModelReader(DATA + GDA_MARKERS)),
+                EnumSet.of(TdbOptimization.GDA_MARKER));
+    }
+
+    @Test
+    public void gdaMarkerQueryEqualsPathQuery() {
+        ModelReader modelReader = createModelReader(DATA + GDA_MARKERS);
+        List<String> pathResults = query(modelReader, QueryStringGenerator.getGenesForAllDiseases());
+        List<String> markerResults = query(modelReader,
+                QueryStringGenerator.getGenesForAllDiseases(EnumSet.of(TdbOptimization.GDA_MARKER)));
+
+        Assert.assertEquals(pathResults.size(), 2);
+        Assert.assertEquals(markerResults, pathResults);
+    }
+
+    @Test
+    public void optimizedGenesQueryEqualsOriginal() {
+        ModelReader modelReader = createModelReader(DATA + GDA_MARKERS + DISEASE_LINKS);
+        List<String> originalResults = query(modelReader, QueryStringGenerator.getGenesForPhenotypes(PHENOTYPES));
+        List<String> optimizedResults = query(modelReader,
+                QueryStringGenerator.getGenesForPhenotypes(PHENOTYPES, EnumSet.allOf(TdbOptimization.class)));
+
+        // G1 once, G2 once per route.
+        Assert.assertEquals(originalResults.size(), 3);
+        Assert.assertEquals(optimizedResults, originalResults);
+    }
+
+    @Test
+    public void diseaseLinkQueryEqualsOriginal() {
+        ModelReader modelReader = createModelReader(DATA + DISEASE_LINKS);
+        List<String> originalResults = query(modelReader, QueryStringGenerator.getDiseasesForAllPhenotypes());
+        List<String> linkResults = query(modelReader,
+                QueryStringGenerator.getDiseasesForAllPhenotypes(EnumSet.of(TdbOptimization.PHENOTYPE_DISEASE_LINK)));
+
+        Assert.assertEquals(originalResults.size(), 3);
+        Assert.assertEquals(linkResults, originalResults);
+    }
+
+    private ModelReader createModelReader(String turtle) {
+        return TestModelReader.fromTurtle(PREFIXES + turtle);
+    }
+
+    /**
+     * @return the query results as sorted {@link String}{@code s} (containing all bound variables)
+     */
+    private List<String> query(ModelReader modelReader, QueryString queryString) {
+        List<String> results = new ArrayList<>();
+        QueryRunner query = new QueryRunner(modelReader.getModel(), queryString);
+        while(query.hasNext()) {
+            QuerySolution result = query.next();
+            // Variables are sorted as their order depends on the query plan.
+            SortedSet<String> vars = new TreeSet<>();
+            result.varNames().forEachRemaining(vars::add);
+            StringBuilder row = new StringBuilder();
+            vars.forEach(var -> row.append(var).append('=').append(result.get(var)).append(' '));
+            results.add(row.toString());
+        }
+        query.close();
+        Collections.sort(results);
+        return results;
+    }
+}
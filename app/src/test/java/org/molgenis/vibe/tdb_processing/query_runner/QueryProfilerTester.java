@@ -0,0 +1,122 @@
+package org.molgenis.vibe.tdb_processing.query_runner;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.Syntax;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb.solver.stats.Stats;
+import org.apache.jena.vocabulary.RDFS;
+import org.molgenis.vibe.io.input.TripleStoreBackend;
+import org.molgenis.vibe.tdb_processing.query_string_creation.QueryString;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class QueryProfilerTester {
+    private static final QueryString CHILDREN = new QueryString("SELECT ?child WHERE { ?child <" + RDFS.subClassOf.getURI() +
+            "> <http://purl.obolibrary.org/obo/HP_0000001> }", Syntax.syntaxSPARQL_11);
+    private static final QueryString NO_CHILDREN = new QueryString("SELECT ?child WHERE { ?child <" + RDFS.subClassOf.getURI() +
+            "> <http://purl.obolibrary.org/obo/HP_0000002> }", Syntax.syntaxSPARQL_11);
+
+    private Model model;
+    private Path directory;
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        model = ModelFactory.createDefaultModel();
+        Resource parent = model.createResource("http://purl.obolibrary.org/obo/HP_0000001");
+        for(int i = 2; i <= 4; i++) {
+            model.add(model.createResource(String.format("http://purl.obolibrary.org/obo/HP_%07d", i)), RDFS.subClassOf, parent);
+        }
+        directory = Files.createTempDirectory("vibe_query_profile");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() throws IOException {
+        try (Stream<Path> stream = Files.walk(directory)) {
+            List<Path> files = stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+            for(Path file : files) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void profileQueries() throws IOException {
+        Path file = directory.resolve("profile.txt");
+        QueryProfiler profiler = new QueryProfiler(file);
+        runQuery(model, CHILDREN, profiler);
+        runQuery(model, NO_CHILDREN, profiler);
+        profiler.close();
+
+        List<String> summaries = readSummaries(file);
+        Assert.assertEquals(summaries.size(), 2);
+        Assert.assertTrue(summaries.get(0).matches("#### Query 1: parse [0-9.]+ ms, first row [0-9.]+ ms, 3 rows, total [0-9.]+ ms \\(reordering: fixed\\)"),
+                summaries.get(0));
+        Assert.assertTrue(summaries.get(1).matches("#### Query 2: parse [0-9.]+ ms, first row -, 0 rows, total [0-9.]+ ms \\(reordering: fixed\\)"),
+                summaries.get(1));
+        Assert.assertTrue(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).contains("(bgp (triple ?child"));
+    }
+
+    @Test(expectedExceptions = FileAlreadyExistsException.class)
+    public void existingFile() throws IOException {
+        Path file = directory.resolve("existing.txt");
+        Files.createFile(file);
+        new QueryProfiler(file);
+    }
+
+    @Test
+    public void tdbWithoutStatistics() throws IOException {
+        Path tdb = Files.createDirectory(directory.resolve("tdb_fixed"));
+        Assert.assertEquals(getReorderingName(tdb, TripleStoreBackend.TDB1), QueryProfiler.REORDERING_FIXED);
+    }
+
+    @Test
+    public void tdbWithStatistics() throws IOException {
+        Path tdb = Files.createDirectory(directory.resolve("tdb_statistics"));
+        Stats.write(tdb.resolve("stats.opt").toString(), Stats.gather(model.getGraph()).results());
+        Assert.assertEquals(getReorderingName(tdb, TripleStoreBackend.TDB1), QueryProfiler.REORDERING_STATISTICS);
+    }
+
+    @Test
+    public void tdb2WithoutStatistics() throws IOException {
+        Path tdb = Files.createDirectory(directory.resolve("tdb2_fixed"));
+        Assert.assertEquals(getReorderingName(tdb, TripleStoreBackend.TDB2), QueryProfiler.REORDERING_FIXED);
+    }
+
+    private void runQuery(Model model, QueryString queryString, QueryProfiler profiler) {
+        QueryRunner query = new QueryRunner(model, queryString, profiler);
+        while(query.hasNext()) {
+            query.nextBinding();
+        }
+        query.close();
+    }
+
+    private List<String> readSummaries(Path file) throws IOException {
+        return Files.readAllLines(file).stream().filter(line -> line.startsWith("####")).collect(Collectors.toList());
+    }
+
+    private String getReorderingName(Path tdb, TripleStoreBackend backend) {
+        Dataset dataset = backend.connect(tdb);
+        try {
+            Txn.executeWrite(dataset, () -> dataset.getDefaultModel().add(model));
+            return Txn.calculateRead(dataset, () -> QueryProfiler.getReorderingName(
+                    QueryProfiler.getReorderTransformation(dataset.getDefaultModel().getGraph())));
+        } finally {
+            dataset.close();
+        }
+    }
+}
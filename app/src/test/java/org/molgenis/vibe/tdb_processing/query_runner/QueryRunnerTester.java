@@ -0,0 +1,60 @@
+package org.molgenis.vibe.tdb_processing.query_runner;
+
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.Syntax;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.vocabulary.RDFS;
+import org.molgenis.vibe.tdb_processing.query_string_creation.QueryString;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class QueryRunnerTester {
+    /**
+     * Returns a row without a value for {@code ?label} as well.
+     */
+    private static final QueryString CHILDREN = new QueryString("SELECT ?child ?label WHERE { ?child <" +
+            RDFS.subClassOf.getURI() + "> <http://purl.obolibrary.org/obo/HP_0000001> . OPTIONAL { ?child <" +
+            RDFS.label.getURI() + "> ?label } } ORDER BY ?child", Syntax.syntaxSPARQL_11);
+
+    private Model model;
+
+    @BeforeClass
+    public void beforeClass() {
+        model = ModelFactory.createDefaultModel();
+        Resource parent = model.createResource("http://purl.obolibrary.org/obo/HP_0000001");
+        model.createResource("http://purl.obolibrary.org/obo/HP_0000002").addProperty(RDFS.subClassOf, parent)
+                .addProperty(RDFS.label, "child 1");
+        model.createResource("http://purl.obolibrary.org/obo/HP_0000003").addProperty(RDFS.subClassOf, parent);
+    }
+
+    @Test
+    public void nextBindingEqualsNext() {
+        List<String> solutions = new ArrayList<>();
+        QueryRunner query = new QueryRunner(model, CHILDREN);
+        while(query.hasNext()) {
+            QuerySolution solution = query.next();
+            solutions.add(solution.get("child").asNode() + " " +
+                    (solution.contains("label") ? solution.get("label").asNode() : null));
+        }
+        query.close();
+
+        List<String> bindings = new ArrayList<>();
+        query = new QueryRunner(model, CHILDREN);
+        while(query.hasNext()) {
+            Binding binding = query.nextBinding();
+            bindings.add(binding.get(Var.alloc("child")) + " " + binding.get(Var.alloc("label")));
+        }
+        query.close();
+
+        Assert.assertEquals(bindings.size(), 2);
+        Assert.assertEquals(bindings, solutions);
+    }
+}
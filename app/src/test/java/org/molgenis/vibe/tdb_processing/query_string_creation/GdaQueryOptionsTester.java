@@ -0,0 +1,162 @@
+package org.molgenis.vibe.tdb_processing.query_string_creation;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.vocabulary.RDF;
+import org.molgenis.vibe.formats.Phenotype;
+import org.molgenis.vibe.formats.Source;
+import org.molgenis.vibe.tdb_processing.query_runner.QueryRunner;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Tests the {@link GdaQueryOptions} and the queries generated with them (using a small in-memory model containing a
+ * single phenotype that is linked to 3 gene-disease associations).
+ */
+public class GdaQueryOptionsTester {
+    private static final String SIO = "http://semanticscience.org/resource/";
+    private static final Set<Phenotype> PHENOTYPES = Collections.singleton(new Phenotype("hp:0000001"));
+
+    private final Source curated = new Source(URI.create("http://rdf.disgenet.org/v6.0.0/void/CTD_human"), "CTD human",
+            Source.Level.CURATED);
+    private final Source literature = new Source(URI.create("http://rdf.disgenet.org/v6.0.0/void/BEFREE"), "BeFree data",
+            Source.Level.LITERATURE);
+    private final List<Source> sources = Arrays.asList(curated, literature);
+
+    private Model model;
+
+    @BeforeClass
+    public void beforeClass() {
+        model = ModelFactory.createDefaultModel();
+        Resource disease = model.createResource("http://linkedlifedata.com/resource/umls/id/C0000001");
+        model.add(model.createResource("http://purl.obolibrary.org/obo/HP_0000001"),
+                model.createProperty("http://www.w3.org/2004/02/skos/core#exactMatch"), disease);
+
+        addGda(disease, 1, 0.9, curated, 1, 2);
+        addGda(disease, 2, 0.2, curated, 3);
+        addGda(disease, 3, 0.5, literature);
+    }
+
+    private void addGda(Resource disease, int id, double score, Source source, int... pubmedIds) {
+        Resource gda = model.createResource("http://rdf.disgenet.org/resource/gda/DGN" + id);
+        Resource gene = model.createResource("http://identifiers.org/ncbigene/" + id);
+        model.add(disease, sio("SIO_000212"), gda);
+        model.add(gda, RDF.type, model.createResource(SIO + "SIO_000983"));
+        model.add(gda, sio("SIO_000628"), gene);
+        model.add(gda, sio("SIO_000216"), model.createTypedLiteral(score));
+        model.add(gda, sio("SIO_000253"), model.createResource(source.getUri().toString()));
+        for(int pubmedId : pubmedIds) {
+            model.add(gda, sio("SIO_000772"), model.createResource("http://identifiers.org/pubmed/" + pubmedId));
+        }
+        model.add(gene, sio("SIO_000205"), model.createResource("http://identifiers.org/hgnc.symbol/G" + id));
+    }
+
+    private Property sio(String id) {
+        return model.createProperty(SIO + id);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void minScoreBelowZero() {
+        new GdaQueryOptions(-0.1, EnumSet.allOf(Source.Level.class), true);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void minScoreAboveOne() {
+        new GdaQueryOptions(1.1, EnumSet.allOf(Source.Level.class), true);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void minScoreNaN() {
+        new GdaQueryOptions(Double.NaN, EnumSet.allOf(Source.Level.class), true);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void noSourceLevels() {
+        new GdaQueryOptions(0, EnumSet.noneOf(Source.Level.class), true);
+    }
+
+    @Test
+    public void allDoesNotFilter() {
+        Assert.assertFalse(GdaQueryOptions.ALL.filtersScore());
+        Assert.assertFalse(GdaQueryOptions.ALL.filtersSourceLevels());
+        Assert.assertTrue(GdaQueryOptions.ALL.includesEvidence());
+        Assert.assertTrue(GdaQueryOptions.ALL.isAllowed(curated));
+        Assert.assertTrue(GdaQueryOptions.ALL.isAllowed(literature));
+    }
+
+    @Test
+    public void allQueryEqualsDefaultQuery() {
+        Set<TdbOptimization> optimizations = EnumSet.noneOf(TdbOptimization.class);
+        String query = QueryStringGenerator.getGenesForPhenotypes(PHENOTYPES, optimizations,
+                GdaQueryOptions.ALL, sources).getQuery();
+
+        Assert.assertEquals(query, QueryStringGenerator.getGenesForPhenotypes(PHENOTYPES, optimizations).getQuery());
+        Assert.assertTrue(query.contains("OPTIONAL { ?gda sio:SIO_000772 ?evidence }"));
+        Assert.assertFalse(query.contains("FILTER"));
+    }
+
+    @Test
+    public void queryAll() {
+        Assert.assertEquals(queryGenesWithEvidence(GdaQueryOptions.ALL),
+                Arrays.asList("1:1", "1:2", "2:3", "3:"));
+    }
+
+    @Test
+    public void queryMinScore() {
+        Assert.assertEquals(queryGenesWithEvidence(new GdaQueryOptions(0.5, EnumSet.allOf(Source.Level.class), true)),
+                Arrays.asList("1:1", "1:2", "3:"));
+    }
+
+    @Test
+    public void querySourceLevels() {
+        Assert.assertEquals(queryGenesWithEvidence(new GdaQueryOptions(0, EnumSet.of(Source.Level.CURATED), true)),
+                Arrays.asList("1:1", "1:2", "2:3"));
+    }
+
+    @Test
+    public void querySourceLevelWithoutSources() {
+        Assert.assertEquals(queryGenesWithEvidence(new GdaQueryOptions(0, EnumSet.of(Source.Level.MODEL), true)),
+                Collections.emptyList());
+    }
+
+    @Test
+    public void queryWithoutEvidence() {
+        Assert.assertEquals(queryGenesWithEvidence(new GdaQueryOptions(0, EnumSet.allOf(Source.Level.class), false)),
+                Arrays.asList("1:", "2:", "3:"));
+    }
+
+    @Test
+    public void queryAllOptions() {
+        Assert.assertEquals(queryGenesWithEvidence(new GdaQueryOptions(0.3, EnumSet.of(Source.Level.CURATED), false)),
+                Collections.singletonList("1:"));
+    }
+
+    /**
+     * @param options the {@link GdaQueryOptions} to query with
+     * @return the sorted results as {@code <gene id>:<pubmed id>} (the pubmed id is empty if no evidence is returned)
+     */
+    private List<String> queryGenesWithEvidence(GdaQueryOptions options) {
+        QueryRunner query = new QueryRunner(model, QueryStringGenerator.getGenesForPhenotypes(PHENOTYPES,
+                EnumSet.noneOf(TdbOptimization.class), options, sources));
+        List<String> results = new ArrayList<>();
+        while(query.hasNext()) {
+            Binding binding = query.nextBinding();
+            String gene = binding.get(Var.alloc("gene")).getURI();
+            Node evidence = binding.get(Var.alloc("evidence"));
+            results.add(gene.substring(gene.lastIndexOf('/') + 1) + ":" +
+                    (evidence == null ? "" : evidence.getURI().substring(evidence.getURI().lastIndexOf('/') + 1)));
+        }
+        query.close();
+        Collections.sort(results);
+        return results;
+    }
+}
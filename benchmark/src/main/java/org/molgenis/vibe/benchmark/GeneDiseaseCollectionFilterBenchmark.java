@@ -0,0 +1,70 @@
+package org.molgenis.vibe.benchmark;
+
+import org.molgenis.vibe.formats.CompactGeneDiseaseCollection;
+import org.molgenis.vibe.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.formats.GeneDiseaseCombination;
+import org.molgenis.vibe.formats.Source;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks post-filtering the retrieved gene-disease combinations, both through a single predicate and through
+ * removing a collection of (earlier selected) combinations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeneDiseaseCollectionFilterBenchmark {
+    /**
+     * Combinations with a score below this value are removed.
+     */
+    @Param({"0.3"})
+    public double minScore;
+
+    /**
+     * A copy of the retrieved collection per invocation, as filtering changes the collection itself.
+     */
+    @State(Scope.Thread)
+    public static class FilterState {
+        private GeneDiseaseCollection geneDiseaseCollection;
+        private List<GeneDiseaseCombination> belowMinScore;
+
+        @Setup(Level.Invocation)
+        public void setup(GeneDiseaseCollectionState collection, GeneDiseaseCollectionFilterBenchmark benchmark) {
+            GeneDiseaseCollection retrieved = collection.getGeneDiseaseCollection();
+            if(retrieved instanceof CompactGeneDiseaseCollection) {
+                geneDiseaseCollection = new CompactGeneDiseaseCollection(retrieved);
+            } else {
+                geneDiseaseCollection = new GeneDiseaseCollection();
+                geneDiseaseCollection.addAll(retrieved);
+            }
+            belowMinScore = retrieved.stream().filter(gdc -> gdc.getDisgenetScore() < benchmark.minScore)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Benchmark
+    public GeneDiseaseCollection removeIfBelowMinScore(FilterState state) {
+        state.geneDiseaseCollection.removeIf(gdc -> gdc.getDisgenetScore() < minScore);
+        return state.geneDiseaseCollection;
+    }
+
+    @Benchmark
+    public GeneDiseaseCollection removeAllBelowMinScore(FilterState state) {
+        state.geneDiseaseCollection.removeAll(state.belowMinScore);
+        return state.geneDiseaseCollection;
+    }
+
+    @Benchmark
+    public GeneDiseaseCollection removeIfNotCurated(FilterState state) {
+        state.geneDiseaseCollection.removeIf(gdc -> gdc.getSourcesWithCount().stream()
+                .noneMatch(source -> source.getLevel() == Source.Level.CURATED));
+        return state.geneDiseaseCollection;
+    }
+}
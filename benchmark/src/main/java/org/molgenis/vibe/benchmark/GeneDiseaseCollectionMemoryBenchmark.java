@@ -0,0 +1,136 @@
+package org.molgenis.vibe.benchmark;
+
+import org.molgenis.vibe.formats.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the retained heap size of a {@link GeneDiseaseCollection} and a {@link CompactGeneDiseaseCollection}
+ * containing the same (generated) gene-disease combinations, comparable to the results of a broad set of phenotypes.
+ * The retained size is reported as the {@code retainedBytes} secondary result. As the heap is garbage collected before
+ * and after creating each collection, the measured time itself is not meaningful.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeneDiseaseCollectionMemoryBenchmark {
+    private static final int DISEASES_PER_GENE = 25;
+    private static final int DISEASES = 20000;
+    private static final int EVIDENCE = 200000;
+
+    /**
+     * Whether a {@link GeneDiseaseCollection} ({@code regular}) or a {@link CompactGeneDiseaseCollection}
+     * ({@code compact}) should be measured.
+     */
+    @Param({"regular", "compact"})
+    public String collection;
+
+    /**
+     * The number of genes to generate combinations for.
+     */
+    @Param({"4000"})
+    public int genes;
+
+    /**
+     * The generated combinations. Entities are shared by both collections (as done by the retrievers), so only the
+     * collections are measured.
+     */
+    private List<GeneDiseaseCombination> combinations;
+
+    /**
+     * The heap size retained by the created collection.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedHeap {
+        public long retainedBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(1);
+        List<Disease> diseases = new ArrayList<>();
+        for(int i = 0; i < DISEASES; i++) {
+            diseases.add(new Disease(String.format("umls:C%07d", i)));
+        }
+        List<URI> evidence = new ArrayList<>();
+        for(int i = 0; i < EVIDENCE; i++) {
+            evidence.add(URI.create("http://identifiers.org/pubmed/" + (10000000 + i)));
+        }
+        Source[] sources = new Source[]{
+                new Source(URI.create("http://rdf.disgenet.org/v6.0.0/void/CTD_human"), "CTD_human", Source.Level.CURATED),
+                new Source(URI.create("http://rdf.disgenet.org/v6.0.0/void/BEFREE"), "BEFREE", Source.Level.LITERATURE),
+                new Source(URI.create("http://rdf.disgenet.org/v6.0.0/void/RGD"), "RGD", Source.Level.MODEL)
+        };
+
+        combinations = new ArrayList<>();
+        for(int i = 0; i < genes; i++) {
+            Gene gene = new Gene("ncbigene:" + i, new GeneSymbol("hgnc:G" + i));
+            for(int j = 0; j < DISEASES_PER_GENE; j++) {
+                GeneDiseaseCombination gdc = new GeneDiseaseCombination(gene, diseases.get(random.nextInt(DISEASES)),
+                        random.nextInt(100) / 100.0);
+                for(int k = random.nextInt(4); k >= 0; k--) {
+                    Source source = sources[random.nextInt(sources.length)];
+                    if(random.nextInt(10) < 6) {
+                        gdc.add(source, evidence.get(random.nextInt(EVIDENCE)));
+                    } else {
+                        gdc.add(source);
+                    }
+                }
+                combinations.add(gdc);
+            }
+        }
+    }
+
+    @Benchmark
+    public GeneDiseaseCollection create(RetainedHeap retainedHeap) {
+        long before = usedHeap();
+        GeneDiseaseCollection geneDiseaseCollection = collection.equals("compact") ? createCompact() : createRegular();
+        retainedHeap.retainedBytes = usedHeap() - before;
+        // Returned so that it stays reachable until after it is measured.
+        return geneDiseaseCollection;
+    }
+
+    private GeneDiseaseCollection createRegular() {
+        GeneDiseaseCollection geneDiseaseCollection = new GeneDiseaseCollection();
+        for(GeneDiseaseCombination gdc : combinations) {
+            // Copied so that the combinations themselves are part of the measured size.
+            GeneDiseaseCombination copy = new GeneDiseaseCombination(gdc.getGene(), gdc.getDisease(), gdc.getDisgenetScore());
+            for(Source source : gdc.getSourcesWithCount()) {
+                List<URI> sourceEvidence = gdc.getEvidenceForSource(source);
+                int withoutEvidence = gdc.getCountForSource(source) - (sourceEvidence == null ? 0 : sourceEvidence.size());
+                if(sourceEvidence != null) {
+                    sourceEvidence.forEach(uri -> copy.add(source, uri));
+                }
+                for(int i = 0; i < withoutEvidence; i++) {
+                    copy.add(source);
+                }
+            }
+            geneDiseaseCollection.add(copy);
+        }
+        return geneDiseaseCollection;
+    }
+
+    private GeneDiseaseCollection createCompact() {
+        CompactGeneDiseaseCollection geneDiseaseCollection = new CompactGeneDiseaseCollection(combinations);
+        // Includes the lazily created indexes.
+        geneDiseaseCollection.getByGeneOrderedByGdaScore(combinations.get(0).getGene());
+        return geneDiseaseCollection;
+    }
+
+    private long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
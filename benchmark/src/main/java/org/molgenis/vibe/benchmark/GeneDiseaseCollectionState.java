@@ -0,0 +1,43 @@
+package org.molgenis.vibe.benchmark;
+
+import org.molgenis.vibe.formats.CompactGeneDiseaseCollection;
+import org.molgenis.vibe.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.query_output_digestion.prioritization.gene.GenePrioritizer;
+import org.molgenis.vibe.query_output_digestion.prioritization.gene.HighestSingleDisgenetScoreGenePrioritizer;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The gene-disease combinations (and their prioritization) for the input phenotypes, retrieved once so that the steps
+ * after retrieval can be benchmarked separately.
+ */
+@State(Scope.Benchmark)
+public class GeneDiseaseCollectionState {
+    /**
+     * Whether the retrieved combinations should be stored in a {@link GeneDiseaseCollection} ({@code regular}) or a
+     * {@link CompactGeneDiseaseCollection} ({@code compact}).
+     */
+    @Param({"regular", "compact"})
+    public String collection;
+
+    private GeneDiseaseCollection geneDiseaseCollection;
+
+    private GenePrioritizer prioritizer;
+
+    public GeneDiseaseCollection getGeneDiseaseCollection() {
+        return geneDiseaseCollection;
+    }
+
+    public GenePrioritizer getPrioritizer() {
+        return prioritizer;
+    }
+
+    @Setup(Level.Trial)
+    public void setup(TripleStoreState tripleStore, PhenotypesState phenotypes) {
+        geneDiseaseCollection = tripleStore.getDataset().retrieve(phenotypes.getPhenotypes());
+        if(collection.equals("compact")) {
+            geneDiseaseCollection = new CompactGeneDiseaseCollection(geneDiseaseCollection);
+        }
+        prioritizer = new HighestSingleDisgenetScoreGenePrioritizer(geneDiseaseCollection);
+        prioritizer.run();
+    }
+}
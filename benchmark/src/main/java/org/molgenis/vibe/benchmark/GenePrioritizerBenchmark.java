@@ -0,0 +1,39 @@
+package org.molgenis.vibe.benchmark;
+
+import org.molgenis.vibe.query_output_digestion.prioritization.gene.GenePrioritizer;
+import org.molgenis.vibe.query_output_digestion.prioritization.gene.HighestSingleDisgenetScoreGenePrioritizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks ordering the genes of the retrieved gene-disease combinations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenePrioritizerBenchmark {
+    /**
+     * The maximum number of genes kept by {@link #topGenes(GeneDiseaseCollectionState)}.
+     */
+    @Param({"100"})
+    public int maxGenes;
+
+    @Benchmark
+    public GenePrioritizer highestSingleDisgenetScore(GeneDiseaseCollectionState collection) {
+        GenePrioritizer prioritizer = new HighestSingleDisgenetScoreGenePrioritizer(collection.getGeneDiseaseCollection());
+        prioritizer.run();
+        return prioritizer;
+    }
+
+    @Benchmark
+    public GenePrioritizer topGenes(GeneDiseaseCollectionState collection) {
+        GenePrioritizer prioritizer = new HighestSingleDisgenetScoreGenePrioritizer(collection.getGeneDiseaseCollection(),
+                maxGenes);
+        prioritizer.run();
+        return prioritizer;
+    }
+}
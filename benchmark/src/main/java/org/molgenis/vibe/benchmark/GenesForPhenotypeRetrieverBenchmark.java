@@ -0,0 +1,26 @@
+package org.molgenis.vibe.benchmark;
+
+import org.molgenis.vibe.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.tdb_processing.GenesForPhenotypeRetriever;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks retrieving the gene-disease combinations from the TDB (querying and processing the results).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenesForPhenotypeRetrieverBenchmark {
+    @Benchmark
+    public GeneDiseaseCollection run(TripleStoreState tripleStore, PhenotypesState phenotypes) {
+        return tripleStore.getReader().calculateRead(() -> {
+            GenesForPhenotypeRetriever retriever = new GenesForPhenotypeRetriever(tripleStore.getReader(), phenotypes.getPhenotypes());
+            retriever.run();
+            return retriever.getGeneDiseaseCollection();
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package org.molgenis.vibe.benchmark;
+
+import org.molgenis.vibe.io.input.OntologyModelFilesReader;
+import org.molgenis.vibe.ontology_processing.PhenotypesRetrieverFactory;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The Human Phenotype Ontology and how it should be traversed. Defaults to the ontology from the test resources of the
+ * application (see the app readme for how to download them).
+ */
+@State(Scope.Benchmark)
+public class OntologyState {
+    @Param("../app/target/test-classes/hpo/hp.owl")
+    public String hpo;
+
+    /**
+     * See {@link PhenotypesRetrieverFactory#getId()}.
+     */
+    @Param({"children", "distance"})
+    public String algorithm;
+
+    @Param({"1", "2", "5"})
+    public int maxDistance;
+
+    private OntologyModelFilesReader reader;
+
+    private PhenotypesRetrieverFactory factory;
+
+    public OntologyModelFilesReader getReader() {
+        return reader;
+    }
+
+    public PhenotypesRetrieverFactory getFactory() {
+        return factory;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        factory = PhenotypesRetrieverFactory.retrieve(algorithm);
+        reader = new OntologyModelFilesReader(hpo);
+        // Creates the graph during setup so that it is not included in the first measurements.
+        reader.getPhenotypeGraph();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        reader.close();
+    }
+}
@@ -0,0 +1,32 @@
+package org.molgenis.vibe.benchmark;
+
+import org.molgenis.vibe.io.output.format.gene_prioritized.GenePrioritizedOutputFormatWriterFactory;
+import org.molgenis.vibe.io.output.target.StringOutputWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks writing the prioritized genes (to memory, so that disk/console speed is excluded).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OutputWriterBenchmark {
+    /**
+     * See {@link GenePrioritizedOutputFormatWriterFactory}.
+     */
+    @Param({"REGULAR_ID", "REGULAR_URI"})
+    public GenePrioritizedOutputFormatWriterFactory format;
+
+    @Benchmark
+    public String write(GeneDiseaseCollectionState collection) throws IOException {
+        StringOutputWriter outputWriter = new StringOutputWriter();
+        format.create(outputWriter, collection.getGeneDiseaseCollection(), collection.getPrioritizer()).run();
+        return outputWriter.getOutput();
+    }
+}
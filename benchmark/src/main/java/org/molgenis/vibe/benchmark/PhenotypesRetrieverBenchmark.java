@@ -0,0 +1,33 @@
+package org.molgenis.vibe.benchmark;
+
+import org.molgenis.vibe.formats.PhenotypeNetworkCollection;
+import org.molgenis.vibe.ontology_processing.PhenotypesRetriever;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks retrieving the phenotypes associated to the input phenotypes, both through the
+ * {@link org.apache.jena.ontology.OntModel} and through the {@link org.molgenis.vibe.ontology_processing.PhenotypeGraph}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhenotypesRetrieverBenchmark {
+    @Benchmark
+    public PhenotypeNetworkCollection ontModel(OntologyState ontology, PhenotypesState phenotypes) {
+        return run(ontology.getFactory().create(ontology.getReader().getModel(), phenotypes.getPhenotypes(), ontology.maxDistance));
+    }
+
+    @Benchmark
+    public PhenotypeNetworkCollection phenotypeGraph(OntologyState ontology, PhenotypesState phenotypes) {
+        return run(ontology.getFactory().create(ontology.getReader().getPhenotypeGraph(), phenotypes.getPhenotypes(), ontology.maxDistance));
+    }
+
+    private PhenotypeNetworkCollection run(PhenotypesRetriever retriever) {
+        retriever.run();
+        return retriever.getPhenotypeNetworkCollection();
+    }
+}
@@ -0,0 +1,40 @@
+package org.molgenis.vibe.benchmark;
+
+import org.molgenis.vibe.formats.Phenotype;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The input phenotypes. Within {@link #phenotypes} the HPO ids are separated by a space (as JMH uses a comma to
+ * separate multiple parameter values given through the command line).
+ */
+@State(Scope.Benchmark)
+public class PhenotypesState {
+    /**
+     * A single phenotype, 2 phenotypes (as used in the main readme) and 20 closely related phenotypes (abnormalities of
+     * the skeletal system).
+     */
+    @Param({
+            "HP:0008438",
+            "HP:0002996 HP:0001377",
+            "HP:0000924 HP:0011842 HP:0000944 HP:0002652 HP:0002813 HP:0040068 HP:0002817 HP:0002814 HP:0006496 HP:0001367 " +
+                    "HP:0001376 HP:0002996 HP:0001377 HP:0003019 HP:0009811 HP:0006251 HP:0001382 HP:0000940 HP:0002650 HP:0000925"
+    })
+    public String phenotypes;
+
+    private Set<Phenotype> phenotypeSet;
+
+    public Set<Phenotype> getPhenotypes() {
+        return phenotypeSet;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        phenotypeSet = new HashSet<>();
+        for(String phenotype : phenotypes.trim().split("\\s+")) {
+            phenotypeSet.add(new Phenotype(phenotype));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.molgenis.vibe.benchmark;
+
+import org.molgenis.vibe.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.io.output.format.gene_prioritized.GenePrioritizedOutputFormatWriterFactory;
+import org.molgenis.vibe.io.output.target.StringOutputWriter;
+import org.molgenis.vibe.ontology_processing.PhenotypesRetriever;
+import org.molgenis.vibe.query_output_digestion.prioritization.gene.GenePrioritizer;
+import org.molgenis.vibe.query_output_digestion.prioritization.gene.HighestSingleDisgenetScoreGenePrioritizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the full pipeline from input phenotypes to written prioritized genes (same as a single request to a server
+ * with the datasets already loaded).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+    @Benchmark
+    public String phenotypesToPrioritizedGenes(OntologyState ontology, TripleStoreState tripleStore,
+                                               PhenotypesState phenotypes) throws IOException {
+        PhenotypesRetriever retriever = ontology.getFactory().create(ontology.getReader().getPhenotypeGraph(),
+                phenotypes.getPhenotypes(), ontology.maxDistance);
+        retriever.run();
+
+        GeneDiseaseCollection geneDiseaseCollection = tripleStore.getDataset().retrieve(
+                retriever.getPhenotypeNetworkCollection().getPhenotypes());
+
+        GenePrioritizer prioritizer = new HighestSingleDisgenetScoreGenePrioritizer(geneDiseaseCollection);
+        prioritizer.run();
+
+        StringOutputWriter outputWriter = new StringOutputWriter();
+        GenePrioritizedOutputFormatWriterFactory.REGULAR_ID.create(outputWriter, geneDiseaseCollection, prioritizer).run();
+        return outputWriter.getOutput();
+    }
+}
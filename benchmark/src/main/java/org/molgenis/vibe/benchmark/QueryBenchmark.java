@@ -0,0 +1,51 @@
+package org.molgenis.vibe.benchmark;
+
+import org.molgenis.vibe.io.input.ModelReader;
+import org.molgenis.vibe.tdb_processing.query_runner.QueryRunner;
+import org.molgenis.vibe.tdb_processing.query_string_creation.QueryString;
+import org.molgenis.vibe.tdb_processing.query_string_creation.QueryStringGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks creating and running the SPARQL queries on the TDB (without processing the results).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark {
+    @Benchmark
+    public QueryString createGenesForPhenotypesQuery(PhenotypesState phenotypes) {
+        return QueryStringGenerator.getGenesForPhenotypes(phenotypes.getPhenotypes());
+    }
+
+    @Benchmark
+    public int runGenesForPhenotypesQuery(TripleStoreState tripleStore, PhenotypesState phenotypes, Blackhole blackhole) {
+        return runQuery(tripleStore.getReader(), QueryStringGenerator.getGenesForPhenotypes(phenotypes.getPhenotypes()), blackhole);
+    }
+
+    @Benchmark
+    public int runSourcesQuery(TripleStoreState tripleStore, Blackhole blackhole) {
+        return runQuery(tripleStore.getReader(), QueryStringGenerator.getSources(), blackhole);
+    }
+
+    /**
+     * @return the number of query results
+     */
+    static int runQuery(ModelReader reader, QueryString queryString, Blackhole blackhole) {
+        return reader.calculateRead(() -> {
+            QueryRunner query = new QueryRunner(reader.getModel(), queryString);
+            int results = 0;
+            while(query.hasNext()) {
+                blackhole.consume(query.next());
+                results++;
+            }
+            query.close();
+            return results;
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package org.molgenis.vibe.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+/**
+ * Validates the TDB given to a benchmark. Opening a directory that does not contain a TDB silently creates an empty one,
+ * which would result in measuring the processing of no data at all.
+ */
+final class TdbDirectory {
+    private TdbDirectory() {
+    }
+
+    /**
+     * @param tdb the TDB directory given to the benchmark
+     * @return {@code tdb} as {@link Path}
+     * @throws IOException if {@code tdb} could not be read
+     * @throws IllegalStateException if {@code tdb} does not contain a non-empty TDB
+     */
+    static Path require(String tdb) throws IOException {
+        Path directory = Paths.get(tdb);
+        if(!containsData(directory)) {
+            throw new IllegalStateException("No (non-empty) TDB found in " + directory.toAbsolutePath() +
+                    ". Download the test resources (see the app readme) or use -p tdb=/path/to/TDB/.");
+        }
+        return directory;
+    }
+
+    /**
+     * @param directory the TDB directory
+     * @return {@code true} if {@code directory} contains a TDB1 node table or a TDB2 data directory with a node table
+     * that are not empty
+     * @throws IOException if {@code directory} could not be read
+     */
+    private static boolean containsData(Path directory) throws IOException {
+        if(!Files.isDirectory(directory)) {
+            return false;
+        }
+        if(isNotEmpty(directory.resolve("nodes.dat"))) {
+            return true;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.anyMatch(file -> file.getFileName().toString().matches("Data-\\d+") &&
+                    isNotEmpty(file.resolve("nodes-data.obj")));
+        }
+    }
+
+    /**
+     * @param file the file to check
+     * @return {@code true} if {@code file} exists and contains data
+     */
+    private static boolean isNotEmpty(Path file) {
+        try {
+            return Files.isRegularFile(file) && Files.size(file) > 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.molgenis.vibe.benchmark;
+
+import org.molgenis.vibe.tdb_processing.query_string_creation.QueryStringGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the query latency of the TDB backends (see {@link TripleStoreBackendState}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TripleStoreBackendBenchmark {
+    @Benchmark
+    public int runGenesForPhenotypesQuery(TripleStoreBackendState tripleStore, PhenotypesState phenotypes, Blackhole blackhole) {
+        return QueryBenchmark.runQuery(tripleStore.getReader(),
+                QueryStringGenerator.getGenesForPhenotypes(phenotypes.getPhenotypes()), blackhole);
+    }
+}
@@ -0,0 +1,72 @@
+package org.molgenis.vibe.benchmark;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.system.Txn;
+import org.molgenis.vibe.io.input.TripleStoreBackend;
+import org.molgenis.vibe.io.input.TripleStoreDbReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The main dataset (a TDB) using a specific {@link TripleStoreBackend}. If the TDB uses a different backend, a
+ * temporary copy is created using the requested backend. Defaults to the mini TDB from the test resources of the
+ * application (see the app readme for how to download them). Fails if it does not contain a TDB, instead of comparing
+ * empty ones.
+ */
+@State(Scope.Benchmark)
+public class TripleStoreBackendState {
+    @Param("../app/target/test-classes/disgenet_mini_tdb/")
+    public String tdb;
+
+    @Param({"tdb1", "tdb2"})
+    public String backend;
+
+    private TripleStoreDbReader reader;
+
+    /**
+     * Is {@code null} if {@link #tdb} already uses the requested backend.
+     */
+    private Path copy;
+
+    public TripleStoreDbReader getReader() {
+        return reader;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        TripleStoreBackend requestedBackend = TripleStoreBackend.retrieve(backend);
+        // Checked before detecting the backend, as a directory without a TDB would otherwise be seen as an empty TDB1.
+        Path directory = TdbDirectory.require(tdb);
+        if(TripleStoreBackend.detect(directory) != requestedBackend) {
+            copy = Files.createTempDirectory("vibe_benchmark_" + requestedBackend.getId());
+            TripleStoreDbReader original = new TripleStoreDbReader(directory);
+            Dataset dataset = requestedBackend.connect(copy);
+            Txn.executeWrite(dataset, () -> original.calculateRead(() ->
+                    dataset.getDefaultModel().add(original.getModel())));
+            dataset.close();
+            original.close();
+            directory = copy;
+        }
+        reader = new TripleStoreDbReader(directory, requestedBackend);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        reader.close();
+        if(copy != null) {
+            try (Stream<Path> stream = Files.walk(copy)) {
+                List<Path> files = stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+                for(Path file : files) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.molgenis.vibe.benchmark;
+
+import org.molgenis.vibe.io.input.TripleStoreDbReader;
+import org.molgenis.vibe.tdb_processing.TripleStoreGeneDiseaseDataset;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+
+/**
+ * The main dataset (a TDB). Defaults to the mini TDB from the test resources of the application (see the app readme
+ * for how to download them). Fails if it does not contain a TDB, instead of benchmarking an empty one.
+ */
+@State(Scope.Benchmark)
+public class TripleStoreState {
+    @Param("../app/target/test-classes/disgenet_mini_tdb/")
+    public String tdb;
+
+    private TripleStoreDbReader reader;
+
+    private TripleStoreGeneDiseaseDataset dataset;
+
+    public TripleStoreDbReader getReader() {
+        return reader;
+    }
+
+    public TripleStoreGeneDiseaseDataset getDataset() {
+        return dataset;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        reader = new TripleStoreDbReader(TdbDirectory.require(tdb));
+        dataset = new TripleStoreGeneDiseaseDataset(reader);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataset.close();
+    }
+}
@@ -11,7 +11,7 @@
 errcho() { echo "$@" 1>&2; }
 
 # Describes usage.
-readonly USAGE="Usage: GenerateDatabase.sh [-h] [-1] [-2] [-3] [-4] [-5]
+readonly USAGE="Usage: GenerateDatabase.sh [-h] [-1] [-2] [-3] [-4] [-5] [-6 -j <FILE>] [-b <BACKEND>]
 Description: Generates database for vibe.
 The process is split into multiple phases which can be chosen individually.
 If no phase is given, runs phase 1-4 one after another.
@@ -23,6 +23,10 @@ Arguments:
 -3              Create optimized TTL files.
 -4              Create optimized TDB.
 -5              Create optimized TDB archive.
+-6              Create gene-disease index (within the optimized TDB directory).
+-j  <FILE>      The vibe jar (with dependencies) to use for phase 6.
+-b  <BACKEND>   The TDB backend to use for phase 2-4: tdb1 (default) or tdb2.
+                Note that phase 3 and 4 should use the same backend as used in phase 2.
 
 IMPORTANT:  Requires Apache Jena TDB Command-line Utilities to be configured.
             See https://jena.apache.org/documentation/tools/#setting-up-your-environment for more information.
@@ -43,6 +47,7 @@ readonly INITIAL_TDB_DIR=vibe-${VIBE_VERSION}-sources-tdb
 readonly TTL_DIR=vibe-${VIBE_VERSION}-ttl
 readonly FINAL_TDB_DIR=vibe-${VIBE_VERSION}-tdb
 readonly FINAL_TDB_ARCHIVE=${FINAL_TDB_DIR}.tar.gz
+readonly GENE_DISEASE_INDEX=${FINAL_TDB_DIR}/gene_disease.index
 
 main() {
     digestCommandLine $@
@@ -68,6 +73,11 @@ main() {
         copyLicensesToTdbDir
     fi
 
+    if [[ ${doGeneDiseaseIndex} == true ]]
+    then
+        createGeneDiseaseIndex
+    fi
+
     if [[ ${doTdbArchive} == true ]]
     then
         createArchive
@@ -81,6 +91,8 @@ digestCommandLine() {
     doOptimizedTtl=false
     doOptimizedTdb=false
     doTdbArchive=false
+    doGeneDiseaseIndex=false
+    backend=tdb1
 
     #Digests the command line arguments.
     while [[ $# -gt 0 ]]
@@ -107,6 +119,20 @@ digestCommandLine() {
             doTdbArchive=true
             shift # argument
             ;;
+            -6)
+            doGeneDiseaseIndex=true
+            shift # argument
+            ;;
+            -j)
+            VIBE_JAR="$2"
+            shift # argument
+            shift # value
+            ;;
+            -b)
+            backend="$2"
+            shift # argument
+            shift # value
+            ;;
             -h|--help)
             local help=true
             shift # argument
@@ -121,25 +147,57 @@ digestCommandLine() {
     if [[ ${help} == true ]]; then echo "$USAGE"; exit 0; fi
 
     # If no phase is set, defaults all to true.
-    if [[ ${doDownload} == false ]] && [[ ${doOriginalTdb} == false ]] && [[ ${doOptimizedTtl} == false ]] && [[ ${doOptimizedTdb} == false ]] && [[ ${doTdbArchive} == false ]]
+    if [[ ${doDownload} == false ]] && [[ ${doOriginalTdb} == false ]] && [[ ${doOptimizedTtl} == false ]] && [[ ${doOptimizedTdb} == false ]] && [[ ${doTdbArchive} == false ]] && [[ ${doGeneDiseaseIndex} == false ]]
     then
         doDownload=true
         doOriginalTdb=true
         doOptimizedTtl=true
         doOptimizedTdb=true
         # doTdbArchive stays false
+        # doGeneDiseaseIndex stays false
+    fi
+
+    # Checks if the vibe jar is given when needed.
+    if [[ ${doGeneDiseaseIndex} == true ]] && [[ ! -f "${VIBE_JAR}" ]]
+    then
+        errcho "Phase 6 requires an existing vibe jar (-j). Exiting."
+        exit 1
     fi
 
+    # Checks if the backend is valid and sets the matching Jena commands.
+    if [[ ${backend} == tdb1 ]]
+    then
+        tdbLoaderCmd="tdbloader2 --loc"
+        tdbUpdateLoaderCmd="tdbloader --loc" # tdbloader2 can only load into an empty TDB.
+        tdbQueryCmd="tdbquery"
+        tdbStatsCmd="tdbstats"
+    elif [[ ${backend} == tdb2 ]]
+    then
+        tdbLoaderCmd="tdb2.tdbloader --loader=parallel --loc"
+        tdbUpdateLoaderCmd="tdb2.tdbloader --loc"
+        tdbQueryCmd="tdb2.tdbquery"
+        tdbStatsCmd="tdb2.tdbstats"
+    else
+        errcho "Invalid backend (-b): ${backend}. Exiting."
+        exit 1
+    fi
+    readonly backend=${backend}
+    readonly tdbLoaderCmd=${tdbLoaderCmd}
+    readonly tdbUpdateLoaderCmd=${tdbUpdateLoaderCmd}
+    readonly tdbQueryCmd=${tdbQueryCmd}
+    readonly tdbStatsCmd=${tdbStatsCmd}
+
     # Make phase variables readonly.
     readonly doDownload=${doDownload}
     readonly doOriginalTdb=${doOriginalTdb}
     readonly doOptimizedTtl=${doOptimizedTtl}
     readonly doOptimizedTdb=${doOptimizedTdb}
     readonly doTdbArchive=${doTdbArchive}
+    readonly doGeneDiseaseIndex=${doGeneDiseaseIndex}
 
     # Prints for each phase whether it will be run.
     echo "######## ######## ######## Selected phases ######## ######## ########"
-    echo "download:${doDownload}\ninitial TDB:${doOriginalTdb}\noptimized TTL:${doOptimizedTtl}\noptimized TDB:${doOptimizedTdb}\narchive:${doTdbArchive}"
+    echo "download:${doDownload}\ninitial TDB:${doOriginalTdb}\noptimized TTL:${doOptimizedTtl}\noptimized TDB:${doOptimizedTdb}\ngene-disease index:${doGeneDiseaseIndex}\narchive:${doTdbArchive}\nbackend:${backend}"
 
     # Check whether directories might already exist.
     validateDirectories
@@ -174,6 +232,11 @@ validateDirectories() {
         if [ -d "$FINAL_TDB_DIR" ]; then directoryExists=true; errcho "${FINAL_TDB_DIR} already exists."; fi
     fi
 
+    if [[ ${doGeneDiseaseIndex} == true ]]
+    then
+        if [ -f "$GENE_DISEASE_INDEX" ]; then directoryExists=true; errcho "${GENE_DISEASE_INDEX} already exists."; fi
+    fi
+
     if [[ ${doTdbArchive} == true ]]
     then
         if [ -d "$FINAL_TDB_ARCHIVE" ]; then directoryExists=true; errcho "${FINAL_TDB_ARCHIVE} already exists."; fi
@@ -225,7 +288,7 @@ unpackDownloadedArchives() {
 
 createInitialTdb() {
     echo "######## ######## ######## Creating initial TDB ######## ######## ########"
-    tdbloader2 --loc ${INITIAL_TDB_DIR} ${SOURCES_DIR}/disgenet_v6/*.ttl ${SOURCES_DIR}/disgenet_v5/*.ttl ${SOURCES_DIR}/sio-release.owl ${SOURCES_DIR}/owlapi.xml
+    ${tdbLoaderCmd} ${INITIAL_TDB_DIR} ${SOURCES_DIR}/disgenet_v6/*.ttl ${SOURCES_DIR}/disgenet_v5/*.ttl ${SOURCES_DIR}/sio-release.owl ${SOURCES_DIR}/owlapi.xml
 }
 
 createOptimizedTtlFiles() {
@@ -233,20 +296,40 @@ createOptimizedTtlFiles() {
     mkdir ${TTL_DIR}
 
     echo "Generating: hpo.ttl"
-    tdbquery --loc=${INITIAL_TDB_DIR} --query=${BASE_PATH}/sparql_queries/optimized_construct/hpo.rq 1> ${TTL_DIR}/hpo.ttl
+    ${tdbQueryCmd} --loc=${INITIAL_TDB_DIR} --query=${BASE_PATH}/sparql_queries/optimized_construct/hpo.rq 1> ${TTL_DIR}/hpo.ttl
     echo "Generating: disease.ttl"
-    tdbquery --loc=${INITIAL_TDB_DIR} --query=${BASE_PATH}/sparql_queries/optimized_construct/disease.rq 1> ${TTL_DIR}/disease.ttl
+    ${tdbQueryCmd} --loc=${INITIAL_TDB_DIR} --query=${BASE_PATH}/sparql_queries/optimized_construct/disease.rq 1> ${TTL_DIR}/disease.ttl
     echo "Generating: gene.ttl"
-    tdbquery --loc=${INITIAL_TDB_DIR} --query=${BASE_PATH}/sparql_queries/optimized_construct/gene.rq 1> ${TTL_DIR}/gene.ttl
+    ${tdbQueryCmd} --loc=${INITIAL_TDB_DIR} --query=${BASE_PATH}/sparql_queries/optimized_construct/gene.rq 1> ${TTL_DIR}/gene.ttl
     echo "Generating: gda.ttl"
-    tdbquery --loc=${INITIAL_TDB_DIR} --query=${BASE_PATH}/sparql_queries/optimized_construct/gda.rq 1> ${TTL_DIR}/gda.ttl
+    ${tdbQueryCmd} --loc=${INITIAL_TDB_DIR} --query=${BASE_PATH}/sparql_queries/optimized_construct/gda.rq 1> ${TTL_DIR}/gda.ttl
+    echo "Generating: gda_marker.ttl"
+    ${tdbQueryCmd} --loc=${INITIAL_TDB_DIR} --query=${BASE_PATH}/sparql_queries/optimized_construct/gda_marker.rq 1> ${TTL_DIR}/gda_marker.ttl
     echo "Generating: source.ttl"
-    tdbquery --loc=${INITIAL_TDB_DIR} --query=${BASE_PATH}/sparql_queries/optimized_construct/source.rq 1> ${TTL_DIR}/source.ttl
+    ${tdbQueryCmd} --loc=${INITIAL_TDB_DIR} --query=${BASE_PATH}/sparql_queries/optimized_construct/source.rq 1> ${TTL_DIR}/source.ttl
 }
 
 createOptimizedTdb() {
     echo "######## ######## ######## Creating optimized TDB ######## ######## ########"
-    tdbloader2 --loc ${FINAL_TDB_DIR} ${TTL_DIR}/*.ttl ${SOURCES_DIR}/sio-release.owl
+    ${tdbLoaderCmd} ${FINAL_TDB_DIR} ${TTL_DIR}/*.ttl ${SOURCES_DIR}/sio-release.owl
+
+    # Generated from the optimized TDB itself (so that it matches the phenotype-disease routes used by the vibe-app).
+    # Uses the .nt extension so that it is not included when loading ${TTL_DIR}/*.ttl again.
+    echo "Generating: phenotype_disease.nt"
+    ${tdbQueryCmd} --results=NT --loc=${FINAL_TDB_DIR} --query=${BASE_PATH}/sparql_queries/optimized_construct/phenotype_disease.rq 1> ${TTL_DIR}/phenotype_disease.nt
+    echo "Adding phenotype_disease.nt to optimized TDB"
+    ${tdbUpdateLoaderCmd} ${FINAL_TDB_DIR} ${TTL_DIR}/phenotype_disease.nt
+
+    # Statistics used by the TDB query optimizer to order the triple patterns (TDB2 reads these from its newest
+    # Data-NNNN directory). Written to a temporary file first so that the TDB does not contain an incomplete file.
+    echo "Generating: stats.opt"
+    ${tdbStatsCmd} --loc=${FINAL_TDB_DIR} 1> ${TTL_DIR}/stats.opt
+    if [[ ${backend} == tdb1 ]]
+    then
+        mv ${TTL_DIR}/stats.opt ${FINAL_TDB_DIR}/stats.opt
+    else
+        mv ${TTL_DIR}/stats.opt $(ls -d ${FINAL_TDB_DIR}/Data-* | tail -n 1)/stats.opt
+    fi
 }
 
 copyLicensesToTdbDir() {
@@ -254,6 +337,11 @@ copyLicensesToTdbDir() {
     cp ${BASE_PATH}/LICENSES.md ${FINAL_TDB_DIR}
 }
 
+createGeneDiseaseIndex() {
+    echo "######## ######## ######## Creating gene-disease index ######## ######## ########"
+    java -jar ${VIBE_JAR} -v -t ${FINAL_TDB_DIR} -x ${GENE_DISEASE_INDEX}
+}
+
 createArchive() {
     echo "######## ######## ######## Creating archive from optimized TDB ######## ######## ########"
     tar -czvf ${FINAL_TDB_ARCHIVE} ${FINAL_TDB_DIR}
@@ -11,12 +11,13 @@
 errcho() { echo "$@" 1>&2; }
 
 # Describes usage.
-readonly USAGE="Usage: TestOptimizedQueries.sh [-h] -or <DIR> -op <DIR>
+readonly USAGE="Usage: TestOptimizedQueries.sh [-h] -or <DIR> -op <DIR> [-b <BACKEND>]
 Description: Runs preparations for unit testing.
 Arguments:
 -h	--help			Shows this help message.
 -or	--original		Path to directory containing the complete TDB.
 -op	--optimized		Path to directory containing the optimized TDB.
+-b	--backend		The TDB backend of both TDBs: tdb1 (default) or tdb2.
 
 IMPORTANT:  Requires Apache Jena TDB Command-line Utilities to be configured.
             See https://jena.apache.org/documentation/tools/#setting-up-your-environment for more information.
@@ -34,6 +35,8 @@ digestCommandLine() {
 	# Checks if any arguments were given.
 	if [ $# -eq 0 ]; then errcho "No arguments were given.\n\n$USAGE"; exit 1; fi
 
+	local backend=tdb1
+
 	#Digests the command line arguments.
 	while [[ $# -gt 0 ]]
 	do
@@ -49,6 +52,11 @@ digestCommandLine() {
 			shift # argument
 			shift # value
 			;;
+			-b|--backend)
+			backend="$2"
+			shift # argument
+			shift # value
+			;;
 			-h|--help)
 			local help=TRUE
 			shift # argument
@@ -73,6 +81,11 @@ digestCommandLine() {
 
 	# Checks if given argument is an existing directory.
 	if [ ! -d "$TDB_optimized" ]; then errcho "Path to optimized TDB is not an existing directory.\n\n$USAGE"; exit 1; fi
+
+	# Checks if the backend is valid and sets the matching Jena command.
+	if [[ ${backend} == tdb1 ]]; then readonly tdbQueryCmd="tdbquery"
+	elif [[ ${backend} == tdb2 ]]; then readonly tdbQueryCmd="tdb2.tdbquery"
+	else errcho "Invalid backend (-b/--backend): ${backend}\n\n$USAGE"; exit 1; fi
 }
 
 runTests() {
@@ -82,14 +95,20 @@ runTests() {
 
 	# Runs queries.
 	echo "### Running original TDB/query."
-	tdbquery --time --results=TSV --loc="$TDB_original" --query="sparql_queries/tdb_comparison/original_tdb/genes_for_hpo.rq" 1>"test/genes_for_hpo-original.tsv"
+	$tdbQueryCmd --time --results=TSV --loc="$TDB_original" --query="sparql_queries/tdb_comparison/original_tdb/genes_for_hpo.rq" 1>"test/genes_for_hpo-original.tsv"
 	echo "### Running optimized TDB/query."
-	tdbquery --time --results=TSV --loc="$TDB_optimized" --query="sparql_queries/tdb_comparison/optimized_tdb/genes_for_hpo.rq" 1>"test/genes_for_hpo-optimized.tsv"
+	$tdbQueryCmd --time --results=TSV --loc="$TDB_optimized" --query="sparql_queries/tdb_comparison/optimized_tdb/genes_for_hpo.rq" 1>"test/genes_for_hpo-optimized.tsv"
+	echo "### Running optimized TDB/query using the gene-disease association marker type."
+	$tdbQueryCmd --time --results=TSV --loc="$TDB_optimized" --query="sparql_queries/tdb_comparison/optimized_tdb/genes_for_hpo_marker.rq" 1>"test/genes_for_hpo-optimized_marker.tsv"
+	echo "### Running optimized TDB/query using the phenotype-disease links (and the gene-disease association marker type)."
+	$tdbQueryCmd --time --results=TSV --loc="$TDB_optimized" --query="sparql_queries/tdb_comparison/optimized_tdb/genes_for_hpo_disease_link.rq" 1>"test/genes_for_hpo-optimized_disease_link.tsv"
 
 	# Compare shasums.
 	echo "### Validating if optimized TDB/query output files are equal to their original counterparts."
 	local CHECKSUM_GENES_FOR_PHENOTYPES=$(shasum -a 256 test/genes_for_hpo-original.tsv | cut -d ' ' -f1)
 	shasum -a 256 -c <<< "$CHECKSUM_GENES_FOR_PHENOTYPES  test/genes_for_hpo-optimized.tsv" # double space is needed! Second space indicates text file type.
+	shasum -a 256 -c <<< "$CHECKSUM_GENES_FOR_PHENOTYPES  test/genes_for_hpo-optimized_marker.tsv"
+	shasum -a 256 -c <<< "$CHECKSUM_GENES_FOR_PHENOTYPES  test/genes_for_hpo-optimized_disease_link.tsv"
 }
 
 main $@